@@ -0,0 +1,167 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.benchmarks;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+
+import com.anaptecs.jeaf.core.api.MessageConstants;
+import com.anaptecs.jeaf.core.api.Service;
+import com.anaptecs.jeaf.core.servicechannel.api.Command;
+import com.anaptecs.jeaf.core.servicechannel.api.ServiceChannel;
+import com.anaptecs.jeaf.core.spi.TransactionBehavior;
+import com.anaptecs.jeaf.junit.core.GeneratorTestService;
+import com.anaptecs.jeaf.xfun.api.errorhandling.ApplicationException;
+import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFSystemException;
+
+/**
+ * Command that is used by the benchmarks to call service method <code>GeneratorTestService.doWhatIMean()</code>. In
+ * contrast to generated commands it does not write any trace output so that only the overhead of the service channel
+ * is measured. Optionally the command performs nested service calls through the service channel.
+ *
+ * @author JEAF Development Team
+ */
+final class BenchmarkCommand extends Command {
+  /**
+   * Default serial version uid.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Constant describes the service method that is called by this command.
+   */
+  private static final Method SERVICE_METHOD;
+
+  /**
+   * Empty parameter array as the called service method does not have any parameters.
+   */
+  private static final Object[] NO_PARAMETERS = new Object[] {};
+
+  static {
+    try {
+      SERVICE_METHOD = GeneratorTestService.class.getMethod("doWhatIMean");
+    }
+    catch (NoSuchMethodException e) {
+      throw new JEAFSystemException(MessageConstants.SERVICE_METHOD_DOES_NOT_EXIST, e,
+          GeneratorTestService.class.getName(), "doWhatIMean()");
+    }
+  }
+
+  /**
+   * Service channel that is used for nested service calls. The reference may be null if no nested calls are performed.
+   */
+  private final transient ServiceChannel serviceChannel;
+
+  /**
+   * Number of nested service calls that will be performed from within this command.
+   */
+  private final int nestedCalls;
+
+  /**
+   * Transaction behavior that is used for nested service calls.
+   */
+  private final TransactionBehavior nestedTransactionBehavior;
+
+  /**
+   * Initialize object. The created command does not perform any nested service calls.
+   */
+  BenchmarkCommand( ) {
+    this(null, 0, TransactionBehavior.REQUIRED);
+  }
+
+  /**
+   * Initialize object.
+   *
+   * @param pServiceChannel Service channel that is used for nested service calls. The parameter must not be null if
+   * nested calls should be performed.
+   * @param pNestedCalls Number of nested service calls that will be performed from within this command.
+   * @param pNestedTransactionBehavior Transaction behavior that is used for nested service calls. The parameter must
+   * not be null.
+   */
+  BenchmarkCommand( ServiceChannel pServiceChannel, int pNestedCalls, TransactionBehavior pNestedTransactionBehavior ) {
+    super(GeneratorTestService.class);
+    serviceChannel = pServiceChannel;
+    nestedCalls = pNestedCalls;
+    nestedTransactionBehavior = pNestedTransactionBehavior;
+  }
+
+  /**
+   * Method executes the passed command through the passed service channel using the passed transaction behavior.
+   *
+   * @param pServiceChannel Service channel that should be used. The parameter must not be null.
+   * @param pCommand Command that should be executed. The parameter must not be null.
+   * @param pTransactionBehavior Transaction behavior that should be used. The parameter must not be null.
+   * @return {@link Serializable} Result of the command execution.
+   * @throws ApplicationException In case that the called service throws an application exception.
+   */
+  static Serializable execute( ServiceChannel pServiceChannel, Command pCommand,
+      TransactionBehavior pTransactionBehavior ) throws ApplicationException {
+
+    switch (pTransactionBehavior) {
+      case NOT_SUPPORTED:
+        return pServiceChannel.executeCommandTxNotSupported(pCommand);
+
+      case SUPPORTS:
+        return pServiceChannel.executeCommandTxSupports(pCommand);
+
+      case REQUIRED:
+        return pServiceChannel.executeCommandTxRequired(pCommand);
+
+      case REQUIRES_NEW:
+        return pServiceChannel.executeCommandTxRequiresNew(pCommand);
+
+      case MANDATORY:
+        return pServiceChannel.executeCommandTxMandatory(pCommand);
+
+      case NEVER:
+        return pServiceChannel.executeCommandTxNever(pCommand);
+
+      default:
+        throw new IllegalArgumentException("Unsupported transaction behavior " + pTransactionBehavior);
+    }
+  }
+
+  /**
+   * Method executes the service call represented by this command object. In case that nested calls are requested the
+   * next nested call will be executed through the service channel with the defined transaction behavior.
+   *
+   * @param pTargetService Reference to the service which should be called by this command. The parameter must not be
+   * null.
+   * @return Serializable As the called service method has no return type the method always returns null.
+   */
+  @Override
+  public Serializable execute( Service pTargetService ) throws ApplicationException {
+    GeneratorTestService lService = (GeneratorTestService) pTargetService;
+    lService.doWhatIMean();
+
+    // Perform nested service call.
+    if (nestedCalls > 0) {
+      Command lNestedCommand = new BenchmarkCommand(serviceChannel, nestedCalls - 1, nestedTransactionBehavior);
+      execute(serviceChannel, lNestedCommand, nestedTransactionBehavior);
+    }
+    return null;
+  }
+
+  /**
+   * Method returns a method object describing the service method that will be called by this command object.
+   *
+   * @return {@link Method} Method object describing the called service method. The method never returns null.
+   */
+  @Override
+  public Method getServiceMethod( ) {
+    return SERVICE_METHOD;
+  }
+
+  /**
+   * Method returns all parameters that will be passed to the service.
+   *
+   * @return {@link Object} Empty array as the called service method does not have any parameters.
+   */
+  @Override
+  public Object[] getParameters( ) {
+    return NO_PARAMETERS;
+  }
+}
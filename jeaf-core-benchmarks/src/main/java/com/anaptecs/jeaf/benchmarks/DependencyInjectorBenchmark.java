@@ -0,0 +1,86 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.anaptecs.jeaf.core.annotations.JEAFService;
+import com.anaptecs.jeaf.core.api.JEAF;
+import com.anaptecs.jeaf.junit.core.GeneratorTestService;
+import com.anaptecs.jeaf.junit.core.ValidationTestService;
+
+/**
+ * Benchmark measures the injection of JEAF dependencies into an object as it is done during startup for all services,
+ * service providers and activities as well as by applications using <code>JEAF.injectDependencies(...)</code>.
+ *
+ * Run with <code>-prof gc</code> to get the allocation rate per injection.
+ *
+ * @author JEAF Development Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DependencyInjectorBenchmark {
+  /**
+   * Base class with an injected service to ensure that fields of super classes are also taken into account.
+   */
+  static class InjectionTargetBase {
+    @JEAFService
+    GeneratorTestService generatorTestService;
+  }
+
+  /**
+   * Class into which dependencies are injected.
+   */
+  static class InjectionTarget extends InjectionTargetBase {
+    @JEAFService
+    ValidationTestService validationTestService;
+
+    /**
+     * Field without annotation that has to be ignored.
+     */
+    String name;
+  }
+
+  /**
+   * Object into which dependencies are injected.
+   */
+  private InjectionTarget target;
+
+  /**
+   * Method initializes JEAF.
+   */
+  @Setup
+  public void setup( ) {
+    ServiceChannelBenchmark.resolveServiceChannel();
+    target = new InjectionTarget();
+  }
+
+  /**
+   * Benchmark injects all dependencies into the target object.
+   *
+   * @return {@link Object} Object into which dependencies were injected.
+   */
+  @Benchmark
+  public Object injectDependencies( ) {
+    JEAF.injectDependencies(target);
+    return target;
+  }
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.anaptecs.jeaf.core.servicechannel.JEAFCore;
+import com.anaptecs.jeaf.core.servicechannel.validation.ValidationServiceChannelInterceptor;
+import com.anaptecs.jeaf.core.spi.ServiceCall;
+import com.anaptecs.jeaf.core.spi.ServiceChannelInterceptor;
+import com.anaptecs.jeaf.core.spi.ServiceImplementation;
+import com.anaptecs.jeaf.junit.core.GeneratorTestService;
+import com.anaptecs.jeaf.xfun.api.errorhandling.ApplicationException;
+import com.anaptecs.jeaf.xfun.api.errorhandling.SystemException;
+
+/**
+ * Benchmark measures the dispatching of a service call to a varying number of service channel interceptors with and
+ * without {@link ValidationServiceChannelInterceptor}. Dispatching through a precomputed array as done by the service
+ * channel is compared with the former approach that copied all interceptors into a new list for every notification.
+ *
+ * Run with <code>-prof gc</code> to get the allocation rate per dispatch.
+ *
+ * @author JEAF Development Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterceptorDispatchBenchmark {
+  /**
+   * Interceptor that does nothing. It is used to measure the pure dispatching overhead.
+   */
+  static final class NoOpInterceptor implements ServiceChannelInterceptor {
+    @Override
+    public void preServiceCall( ServiceCall pServiceCall ) {
+      // Nothing to do.
+    }
+
+    @Override
+    public void postServiceCall( ServiceCall pServiceCall, Object pResult ) {
+      // Nothing to do.
+    }
+
+    @Override
+    public void postServiceCall( ServiceCall pServiceCall, RuntimeException pRuntimeException ) {
+      // Nothing to do.
+    }
+
+    @Override
+    public void postServiceCall( ServiceCall pServiceCall, Error pError ) {
+      // Nothing to do.
+    }
+
+    @Override
+    public void postServiceCall( ServiceCall pServiceCall, ApplicationException pApplicationException ) {
+      // Nothing to do.
+    }
+
+    @Override
+    public void postServiceCall( ServiceCall pServiceCall, SystemException pSystemException ) {
+      // Nothing to do.
+    }
+  }
+
+  /**
+   * Number of interceptors that do nothing.
+   */
+  @Param({ "0", "1", "4", "16" })
+  public int interceptorCount;
+
+  /**
+   * Parameter defines whether {@link ValidationServiceChannelInterceptor} is added to the interceptors.
+   */
+  @Param({ "false", "true" })
+  public boolean validationEnabled;
+
+  /**
+   * Service call that is passed to the interceptors.
+   */
+  private ServiceCall serviceCall;
+
+  /**
+   * All interceptors as array.
+   */
+  private ServiceChannelInterceptor[] interceptorArray;
+
+  /**
+   * Global part of the interceptors.
+   */
+  private List<ServiceChannelInterceptor> globalInterceptors;
+
+  /**
+   * Component specific part of the interceptors.
+   */
+  private List<ServiceChannelInterceptor> componentInterceptors;
+
+  /**
+   * Method creates the interceptors and the service call.
+   *
+   * @throws NoSuchMethodException If the called service method does not exist.
+   */
+  @Setup
+  public void setup( ) throws NoSuchMethodException {
+    List<ServiceChannelInterceptor> lInterceptors = new ArrayList<ServiceChannelInterceptor>();
+    if (validationEnabled == true) {
+      lInterceptors.add(new ValidationServiceChannelInterceptor());
+    }
+    for (int i = 0; i < interceptorCount; i++) {
+      lInterceptors.add(new NoOpInterceptor());
+    }
+    interceptorArray = lInterceptors.toArray(new ServiceChannelInterceptor[lInterceptors.size()]);
+
+    // Split interceptors into a global and a component specific part as the service channel did.
+    int lHalf = interceptorArray.length / 2;
+    globalInterceptors = Collections.unmodifiableList(Arrays.asList(interceptorArray).subList(0, lHalf));
+    componentInterceptors = Arrays.asList(interceptorArray).subList(lHalf, interceptorArray.length);
+
+    // Create service call for a real service.
+    ServiceChannelBenchmark.resolveServiceChannel();
+    ServiceImplementation lService = JEAFCore.getInstance().getLifecycleManager().getServiceRegistry()
+        .getServiceInstance(GeneratorTestService.class);
+    Method lMethod = GeneratorTestService.class.getMethod("doWhatIMean");
+    serviceCall = new ServiceCall(lService, GeneratorTestService.class, lMethod, new Object[] {});
+  }
+
+  /**
+   * Benchmark dispatches the service call to all interceptors using a precomputed array.
+   *
+   * @param pBlackhole Blackhole to consume results.
+   */
+  @Benchmark
+  public void arrayDispatch( Blackhole pBlackhole ) {
+    ServiceChannelInterceptor[] lInterceptors = interceptorArray;
+    for (int i = 0; i < lInterceptors.length; i++) {
+      lInterceptors[i].preServiceCall(serviceCall);
+    }
+    for (int i = 0; i < lInterceptors.length; i++) {
+      lInterceptors[i].postServiceCall(serviceCall, (Object) null);
+    }
+    pBlackhole.consume(lInterceptors);
+  }
+
+  /**
+   * Benchmark dispatches the service call to all interceptors by copying them into a new list before every
+   * notification.
+   *
+   * @param pBlackhole Blackhole to consume results.
+   */
+  @Benchmark
+  public void listCopyDispatch( Blackhole pBlackhole ) {
+    for (ServiceChannelInterceptor lInterceptor : this.copyInterceptors()) {
+      lInterceptor.preServiceCall(serviceCall);
+    }
+    List<ServiceChannelInterceptor> lInterceptors = this.copyInterceptors();
+    for (ServiceChannelInterceptor lInterceptor : lInterceptors) {
+      lInterceptor.postServiceCall(serviceCall, (Object) null);
+    }
+    pBlackhole.consume(lInterceptors);
+  }
+
+  /**
+   * Method copies global and component specific interceptors into a new list.
+   *
+   * @return {@link List} List with all interceptors. The method never returns null.
+   */
+  private List<ServiceChannelInterceptor> copyInterceptors( ) {
+    int lCapacity = globalInterceptors.size() + componentInterceptors.size();
+    List<ServiceChannelInterceptor> lInterceptors = new ArrayList<ServiceChannelInterceptor>(lCapacity);
+    lInterceptors.addAll(globalInterceptors);
+    lInterceptors.addAll(componentInterceptors);
+    return lInterceptors;
+  }
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.benchmarks;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.anaptecs.jeaf.core.api.JEAF;
+import com.anaptecs.jeaf.core.servicechannel.JEAFCore;
+import com.anaptecs.jeaf.core.servicechannel.api.Command;
+import com.anaptecs.jeaf.core.servicechannel.api.ServiceChannel;
+import com.anaptecs.jeaf.core.spi.TransactionBehavior;
+import com.anaptecs.jeaf.junit.core.GeneratorTestService;
+import com.anaptecs.jeaf.xfun.api.errorhandling.ApplicationException;
+
+/**
+ * Benchmark measures the overhead of a local service call through JEAF's service channel for all transaction behaviors
+ * as well as for nested service calls. The JSE configuration of this module uses <code>LocalServiceChannelImpl</code>.
+ *
+ * Run with <code>-prof gc</code> to get the allocation rate per service call.
+ *
+ * @author JEAF Development Team
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceChannelBenchmark {
+  /**
+   * State for single service calls with a specific transaction behavior.
+   */
+  @State(Scope.Benchmark)
+  public static class ServiceCallState {
+    /**
+     * Transaction behavior that is used for the service call. As MANDATORY requires an existing transaction it is
+     * called nested inside a service call with transaction behavior REQUIRED.
+     */
+    @Param({ "NOT_SUPPORTED", "SUPPORTS", "REQUIRED", "REQUIRES_NEW", "MANDATORY", "NEVER" })
+    public TransactionBehavior transactionBehavior;
+
+    /**
+     * Service channel that is used.
+     */
+    ServiceChannel serviceChannel;
+
+    /**
+     * Command that is executed.
+     */
+    Command command;
+
+    /**
+     * Transaction behavior that is used to execute {@link #command}.
+     */
+    TransactionBehavior commandTransactionBehavior;
+
+    /**
+     * Method initializes JEAF and creates the command that is executed.
+     */
+    @Setup
+    public void setup( ) {
+      serviceChannel = resolveServiceChannel();
+      if (transactionBehavior == TransactionBehavior.MANDATORY) {
+        command = new BenchmarkCommand(serviceChannel, 1, TransactionBehavior.MANDATORY);
+        commandTransactionBehavior = TransactionBehavior.REQUIRED;
+      }
+      else {
+        command = new BenchmarkCommand();
+        commandTransactionBehavior = transactionBehavior;
+      }
+    }
+  }
+
+  /**
+   * State for nested service calls.
+   */
+  @State(Scope.Benchmark)
+  public static class NestedServiceCallState {
+    /**
+     * Transaction behavior that is used for the nested service calls. The outermost call is executed with transaction
+     * behavior REQUIRED, except for NEVER which is not allowed within a transaction.
+     */
+    @Param({ "NOT_SUPPORTED", "SUPPORTS", "REQUIRED", "REQUIRES_NEW", "MANDATORY", "NEVER" })
+    public TransactionBehavior transactionBehavior;
+
+    /**
+     * Number of nested service calls.
+     */
+    @Param({ "1", "4" })
+    public int nestingDepth;
+
+    /**
+     * Service channel that is used.
+     */
+    ServiceChannel serviceChannel;
+
+    /**
+     * Transaction behavior of the outermost service call.
+     */
+    TransactionBehavior outerTransactionBehavior;
+
+    /**
+     * Method initializes JEAF.
+     */
+    @Setup
+    public void setup( ) {
+      serviceChannel = resolveServiceChannel();
+      if (transactionBehavior == TransactionBehavior.NEVER) {
+        outerTransactionBehavior = TransactionBehavior.NOT_SUPPORTED;
+      }
+      else {
+        outerTransactionBehavior = TransactionBehavior.REQUIRED;
+      }
+    }
+  }
+
+  /**
+   * State for service calls through the generated service proxy.
+   */
+  @State(Scope.Benchmark)
+  public static class ServiceProxyState {
+    /**
+     * Reference to the service that is called through its generated proxy.
+     */
+    GeneratorTestService generatorTestService;
+
+    /**
+     * Method initializes JEAF and resolves the service proxy.
+     */
+    @Setup
+    public void setup( ) {
+      generatorTestService = JEAF.getService(GeneratorTestService.class);
+    }
+  }
+
+  /**
+   * Method ensures that JEAF is initialized and returns its service channel.
+   *
+   * @return {@link ServiceChannel} Service channel of JEAF. The method never returns null.
+   */
+  static ServiceChannel resolveServiceChannel( ) {
+    // Accessing a service ensures that JEAF is completely initialized.
+    JEAF.getService(GeneratorTestService.class);
+    return JEAFCore.getInstance().getLifecycleManager().getServiceChannel();
+  }
+
+  /**
+   * Benchmark executes one service call with the configured transaction behavior.
+   *
+   * @param pState Benchmark state. The parameter must not be null.
+   * @return {@link Serializable} Result of the service call.
+   * @throws ApplicationException In case of an application exception during the service call.
+   */
+  @Benchmark
+  public Serializable serviceCall( ServiceCallState pState ) throws ApplicationException {
+    return BenchmarkCommand.execute(pState.serviceChannel, pState.command, pState.commandTransactionBehavior);
+  }
+
+  /**
+   * Benchmark executes a service call that performs nested service calls with the configured transaction behavior.
+   *
+   * @param pState Benchmark state. The parameter must not be null.
+   * @return {@link Serializable} Result of the service call.
+   * @throws ApplicationException In case of an application exception during the service call.
+   */
+  @Benchmark
+  public Serializable nestedServiceCalls( NestedServiceCallState pState ) throws ApplicationException {
+    Command lCommand = new BenchmarkCommand(pState.serviceChannel, pState.nestingDepth, pState.transactionBehavior);
+    return BenchmarkCommand.execute(pState.serviceChannel, lCommand, pState.outerTransactionBehavior);
+  }
+
+  /**
+   * Benchmark calls the service through its generated service proxy including the generated command and its trace
+   * output. This is the way how applications call services.
+   *
+   * @param pState Benchmark state. The parameter must not be null.
+   */
+  @Benchmark
+  public void serviceCallThroughProxy( ServiceProxyState pState ) {
+    pState.generatorTestService.doWhatIMean();
+  }
+}
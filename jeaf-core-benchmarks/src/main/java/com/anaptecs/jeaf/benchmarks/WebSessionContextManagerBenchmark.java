@@ -0,0 +1,75 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.anaptecs.jeaf.core.api.SessionContext;
+import com.anaptecs.jeaf.core.jee.servlet.WebSessionContextManager;
+
+/**
+ * Benchmark measures {@link WebSessionContextManager#getSessionContext()} with one and with several concurrent threads.
+ * As no servlet container is available the benchmark covers the path for threads without HTTP session. This path uses
+ * the same synchronized maps as requests with HTTP session.
+ *
+ * Run with <code>-prof gc</code> to get the allocation rate per call.
+ *
+ * @author JEAF Development Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebSessionContextManagerBenchmark {
+  /**
+   * Session context manager that is shared by all threads.
+   */
+  private WebSessionContextManager sessionContextManager;
+
+  /**
+   * Method creates the session context manager.
+   */
+  @Setup
+  public void setup( ) {
+    sessionContextManager = new WebSessionContextManager();
+  }
+
+  /**
+   * Benchmark resolves the session context of the current thread without contention.
+   *
+   * @return {@link SessionContext} Session context of the current thread.
+   */
+  @Benchmark
+  @Threads(1)
+  public SessionContext getSessionContextSingleThread( ) {
+    return sessionContextManager.getSessionContext();
+  }
+
+  /**
+   * Benchmark resolves the session context of the current thread with 8 concurrent threads.
+   *
+   * @return {@link SessionContext} Session context of the current thread.
+   */
+  @Benchmark
+  @Threads(8)
+  public SessionContext getSessionContextContended( ) {
+    return sessionContextManager.getSessionContext();
+  }
+}
@@ -0,0 +1,32 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.anaptecs.jeaf.core.servicechannel.base.ReadOnlyTxContext;
+
+/**
+ * Annotation marks service methods that do not change any data. It can be used on service interfaces, service
+ * implementations, their methods as well as on component implementations. In the latter case all service methods of the
+ * component are read only.
+ *
+ * Transactions that are started for a read only service method are marked as read only (see {@link ReadOnlyTxContext}).
+ * The service channel does not check their rollback only state and transaction listeners will not be notified about
+ * them. As the whole transaction is read only, service methods that change data must not be called within it using
+ * transaction behavior REQUIRED, SUPPORTS or MANDATORY.
+ *
+ * @author JEAF Development Team
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+public @interface ReadOnly {
+}
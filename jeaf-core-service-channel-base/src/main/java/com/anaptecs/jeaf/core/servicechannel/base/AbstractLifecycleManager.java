@@ -51,6 +51,12 @@ public abstract class AbstractLifecycleManager implements LifecycleManager {
    */
   private final ContextManager contextManager;
 
+  /**
+   * Dependency injector that is shared by all injections of this lifecycle manager so that its cached injection points
+   * are reused.
+   */
+  private final DependencyInjector dependencyInjector;
+
   /**
    * Initialize object. Thereby the object will be set its initial state NOT_STARTED.
    */
@@ -59,6 +65,7 @@ public abstract class AbstractLifecycleManager implements LifecycleManager {
     lifecycleListeners = new HashSet<LifecycleListener>();
     CoreConfiguration lConfiguration = CoreConfiguration.getInstance();
     contextManager = lConfiguration.getContextManager();
+    dependencyInjector = new DependencyInjector(this);
   }
 
   /**
@@ -169,8 +176,17 @@ public abstract class AbstractLifecycleManager implements LifecycleManager {
    */
   @Override
   public void injectDependencies( Object pObject ) {
-    DependencyInjector lDependencyInjector = new DependencyInjector(this);
-    lDependencyInjector.injectJEAFDependencies(pObject);
+    dependencyInjector.injectJEAFDependencies(pObject);
+  }
+
+  /**
+   * Method returns the dependency injector of this lifecycle manager.
+   * 
+   * @return {@link DependencyInjector} Dependency injector that is used by this lifecycle manager. The method never
+   * returns null.
+   */
+  final DependencyInjector getDependencyInjector( ) {
+    return dependencyInjector;
   }
 
   /**
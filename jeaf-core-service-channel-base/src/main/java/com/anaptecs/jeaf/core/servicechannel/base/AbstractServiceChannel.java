@@ -16,11 +16,20 @@ import static com.anaptecs.jeaf.core.spi.TransactionBehavior.REQUIRES_NEW;
 import static com.anaptecs.jeaf.core.spi.TransactionBehavior.SUPPORTS;
 
 import java.io.Serializable;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import com.anaptecs.jeaf.core.api.Component;
 import com.anaptecs.jeaf.core.api.MessageConstants;
@@ -28,6 +37,7 @@ import com.anaptecs.jeaf.core.api.Service;
 import com.anaptecs.jeaf.core.api.ServiceInvocationContext;
 import com.anaptecs.jeaf.core.api.SessionContext;
 import com.anaptecs.jeaf.core.api.TxContext;
+import com.anaptecs.jeaf.core.servicechannel.annotations.ReadOnly;
 import com.anaptecs.jeaf.core.servicechannel.api.Command;
 import com.anaptecs.jeaf.core.servicechannel.api.ContextManager;
 import com.anaptecs.jeaf.core.servicechannel.api.LifecycleManager;
@@ -54,6 +64,7 @@ import com.anaptecs.jeaf.xfun.api.health.HealthCheckResult;
 import com.anaptecs.jeaf.xfun.api.health.HealthStatus;
 import com.anaptecs.jeaf.xfun.api.info.ApplicationInfo;
 import com.anaptecs.jeaf.xfun.api.messages.MessageID;
+import com.anaptecs.jeaf.xfun.api.trace.ContextStackElement;
 import com.anaptecs.jeaf.xfun.api.trace.Trace;
 
 /**
@@ -75,6 +86,17 @@ public abstract class AbstractServiceChannel implements ServiceChannel {
    */
   private static final TxContextTransition[][] TX_CONTEXT_TRANSITIONS;
 
+  /**
+   * Thread local contains the context of the caller while an asynchronous service call is executed by a worker thread.
+   * It is only set for the duration of the asynchronous service call.
+   */
+  private static final ThreadLocal<CallerContext> ASYNC_CALLER_CONTEXT = new ThreadLocal<CallerContext>();
+
+  /**
+   * Value that is used as start time of a service call if its duration is not traced.
+   */
+  private static final long NO_TRACE_START_TIME = -1;
+
   /**
    * Reference to lifecycle manager.
    */
@@ -86,9 +108,99 @@ public abstract class AbstractServiceChannel implements ServiceChannel {
   private final List<ServiceChannelInterceptor> globalInterceptors;
 
   /**
-   * List contains all transaction listeners that are configured.
+   * Array contains all transaction listeners that have to be notified synchronously.
+   */
+  private final TransactionListener[] synchronousTransactionListeners;
+
+  /**
+   * Array contains all transaction listeners that are notified asynchronously. The reference is null if all listeners
+   * are notified synchronously.
+   */
+  private final TransactionListener[] asyncTransactionListeners;
+
+  /**
+   * Array contains all transaction listeners that are also notified once a transaction was completed (see
+   * {@link TransactionCompletionListener}). The reference is null if there are no such listeners.
+   */
+  private final TransactionListener[] completionListeners;
+
+  /**
+   * Service invocation context manager of the lifecycle manager. The reference is resolved once as it never changes.
+   */
+  private final ServiceInvocationContextManager serviceInvocationContextManager;
+
+  /**
+   * Transaction context manager of the lifecycle manager. The reference is resolved once as it never changes.
+   */
+  private final TransactionContextManager transactionContextManager;
+
+  /**
+   * Map contains the invocation plans of all service methods that were already called through this service channel. The
+   * plans are stored per service class and service method. The array contains one plan per transaction behavior and is
+   * indexed by its ordinal.
+   */
+  private final ConcurrentMap<Class<? extends Service>, ConcurrentMap<Method, InvocationPlan[]>> invocationPlans =
+      new ConcurrentHashMap<Class<? extends Service>, ConcurrentMap<Method, InvocationPlan[]>>();
+
+  /**
+   * Map contains the interceptor chains of all components whose services were called through this service channel.
+   */
+  private final ConcurrentMap<ComponentImplementation, InterceptorChain> interceptorChains =
+      new ConcurrentHashMap<ComponentImplementation, InterceptorChain>();
+
+  /**
+   * Attribute defines whether objects that are required for every service call should be recycled.
    */
-  private final List<TransactionListener> transactionListeners;
+  private final boolean objectRecyclingEnabled;
+
+  /**
+   * Map contains the context stack elements of all services that were called through this service channel. The map is
+   * only used if object recycling is enabled. As context stack elements are immutable they can be shared between
+   * threads.
+   */
+  private final ConcurrentMap<Class<? extends Service>, ContextStackElement> contextStackElements =
+      new ConcurrentHashMap<Class<? extends Service>, ContextStackElement>();
+
+  /**
+   * Statistics about the objects that were created by this service channel.
+   */
+  private final ServiceChannelStatistics statistics = new ServiceChannelStatistics();
+
+  /**
+   * Attribute defines whether latencies and outcomes of all service calls are recorded.
+   */
+  private final boolean metricsEnabled;
+
+  /**
+   * Metrics of all service methods that were called through this service channel.
+   */
+  private final ServiceMetrics serviceMetrics = new ServiceMetrics();
+
+  /**
+   * Attribute defines whether transactions of a {@link LazyTxContext} are only started when the first resource is used.
+   */
+  private final boolean lazyTxBeginEnabled;
+
+  /**
+   * Default transaction timeout in milliseconds. 0 means that there is no timeout.
+   */
+  private final long defaultTxTimeout;
+
+  /**
+   * Attribute defines whether service calls are interrupted when their transaction timed out.
+   */
+  private final boolean txTimeoutInterruptEnabled;
+
+  /**
+   * Callback that is passed to every {@link LazyTxContext}. It records in the statistics that the transaction was
+   * really started. As the callback does not have any state it is shared by all transaction contexts.
+   */
+  private final Runnable txStartCallback = new Runnable() {
+    @Override
+    public void run( ) {
+      statistics.transactionStarted();
+    }
+  };
 
   static {
     // NotSupported, Supports, Required, RequiresNew, Mandatory, Never
@@ -137,9 +249,50 @@ public abstract class AbstractServiceChannel implements ServiceChannel {
     List<ServiceChannelInterceptor> lGlobalInterceptors = lConfiguration.getGlobalInterceptors();
     globalInterceptors = Collections.unmodifiableList(lGlobalInterceptors);
 
-    // Determine all global transaction listeners.
-    List<TransactionListener> lTransactionListeners = lConfiguration.getTransactionListeners();
-    transactionListeners = Collections.unmodifiableList(lTransactionListeners);
+    // Resolve context managers.
+    ContextManager lContextManager = lifecycleManager.getContextManager();
+    serviceInvocationContextManager = lContextManager.getServiceInvocationContextManager();
+    transactionContextManager = lContextManager.getTransactionContextManager();
+
+    // Resolve tuning parameters of the service channel.
+    ServiceChannelConfiguration lChannelConfiguration = ServiceChannelConfiguration.getInstance();
+    objectRecyclingEnabled = lChannelConfiguration.isObjectRecyclingEnabled();
+    metricsEnabled = lChannelConfiguration.isMetricsEnabled();
+    lazyTxBeginEnabled = lChannelConfiguration.isLazyTxBeginEnabled();
+    defaultTxTimeout = TimeUnit.SECONDS.toMillis(lChannelConfiguration.getTxTimeout());
+    txTimeoutInterruptEnabled = lChannelConfiguration.isTxTimeoutInterruptEnabled();
+
+    // Determine all global transaction listeners and split them into synchronous and asynchronous ones.
+    List<TransactionListener> lSynchronousListeners = new ArrayList<TransactionListener>();
+    List<TransactionListener> lAsynchronousListeners = new ArrayList<TransactionListener>();
+    List<TransactionListener> lCompletionListeners = new ArrayList<TransactionListener>();
+    for (TransactionListener lListener : lConfiguration.getTransactionListeners()) {
+      if (lListener instanceof TransactionCompletionListener) {
+        lCompletionListeners.add(lListener);
+      }
+      if (lChannelConfiguration.isAsyncTxListenersEnabled() == true
+          && lListener instanceof SynchronousTransactionListener == false) {
+        lAsynchronousListeners.add(lListener);
+      }
+      else {
+        lSynchronousListeners.add(lListener);
+      }
+    }
+    synchronousTransactionListeners =
+        lSynchronousListeners.toArray(new TransactionListener[lSynchronousListeners.size()]);
+    if (lAsynchronousListeners.isEmpty() == false) {
+      asyncTransactionListeners =
+          lAsynchronousListeners.toArray(new TransactionListener[lAsynchronousListeners.size()]);
+    }
+    else {
+      asyncTransactionListeners = null;
+    }
+    if (lCompletionListeners.isEmpty() == false) {
+      completionListeners = lCompletionListeners.toArray(new TransactionListener[lCompletionListeners.size()]);
+    }
+    else {
+      completionListeners = null;
+    }
   }
 
   /**
@@ -170,12 +323,348 @@ public abstract class AbstractServiceChannel implements ServiceChannel {
    * depending on the transactions state that is will either be committed or rolled back (see
    * <code>TxContext.getRollbackOnly()</code>). It depends on the concrete implementation of the service channel,
    * whether actions have to performed or not. The method will be called before the transaction context will be released
-   * and become invalid.
+   * and become invalid. For a {@link LazyTxContext} the method is only called if its transaction was started.
    * 
    * @param pTxContext Transaction context that will be release. The parameter is never null.
    */
   protected abstract void releasingTxContext( TxContext pTxContext );
 
+  /**
+   * Method will be called after a transaction context was released successfully in order to find out when and how its
+   * transaction was completed. The method is only called if there are transaction listeners that have to be notified
+   * about the completion of transactions (see {@link TransactionCompletionListener}). They are notified as soon as the
+   * passed callback is called.
+   *
+   * This implementation assumes that the transaction was already completed by {@link #releasingTxContext(TxContext)}
+   * and calls the callback immediately. Service channels whose transactions are completed later on, e.g. by an EJB
+   * container, have to override this method and call the callback once the transaction was completed.
+   *
+   * @param pTxContext Transaction context that was released. The parameter is never null.
+   * @param pCallback Callback that has to be called exactly once after the transaction was completed. The parameter is
+   * never null.
+   */
+  protected void afterCompletion( TxContext pTxContext, TxCompletionCallback pCallback ) {
+    pCallback.completed(pTxContext.getRollbackOnly() == false);
+  }
+
+  /**
+   * Method checks whether this service channel enforces transaction timeouts (see {@link TransactionTimeout}). This is
+   * only required by service channels that manage transactions on their own. By default timeouts are not enforced as
+   * transactions are expected to be managed by a container.
+   * 
+   * @return boolean Method returns true if transaction timeouts are enforced and false otherwise.
+   */
+  protected boolean isTxTimeoutEnforced( ) {
+    return false;
+  }
+
+  /**
+   * Method returns the context stack element that has to be used for the trace of a call of the passed service. In case
+   * that object recycling is enabled the same element will be returned for all calls of the same service. Otherwise a
+   * new element will be created for every call.
+   * 
+   * @param pTargetServiceClass Class object of service interface that is called. The parameter must not be null.
+   * @param pComponent Component to which the called service belongs to. The parameter must not be null.
+   * @return {@link ContextStackElement} Context stack element for the service call. The method never returns null.
+   */
+  protected final ContextStackElement getContextStackElement( Class<? extends Service> pTargetServiceClass,
+      Component pComponent ) {
+    // Check parameters.
+    Assert.assertNotNull(pTargetServiceClass, "pTargetServiceClass");
+    Assert.assertNotNull(pComponent, "pComponent");
+
+    ContextStackElement lContextStackElement;
+    if (objectRecyclingEnabled == true) {
+      lContextStackElement = contextStackElements.get(pTargetServiceClass);
+      if (lContextStackElement != null) {
+        statistics.contextStackElementRecycled();
+      }
+      else {
+        lContextStackElement = new ContextStackElement(pTargetServiceClass.getName(), pComponent.getComponentID());
+        statistics.contextStackElementCreated();
+        contextStackElements.putIfAbsent(pTargetServiceClass, lContextStackElement);
+      }
+    }
+    // Object recycling is disabled so we always create a new element. Allocations are only counted while recycling is
+    // enabled.
+    else {
+      lContextStackElement = new ContextStackElement(pTargetServiceClass.getName(), pComponent.getComponentID());
+    }
+    return lContextStackElement;
+  }
+
+  /**
+   * Method returns the principal of the caller that has to be used for a new root service invocation context. If the
+   * current thread executes an asynchronous service call then the principal of the thread that triggered the call is
+   * returned. Otherwise the principal is resolved from the principal provider.
+   * 
+   * @return {@link Principal} Principal of the caller. The method may return null.
+   */
+  protected final Principal getCallerPrincipal( ) {
+    CallerContext lCallerContext = ASYNC_CALLER_CONTEXT.get();
+    Principal lPrincipal;
+    if (lCallerContext != null) {
+      lPrincipal = lCallerContext.getPrincipal();
+    }
+    else {
+      lPrincipal = XFun.getPrincipalProvider().getCurrentPrincipal();
+    }
+    return lPrincipal;
+  }
+
+  /**
+   * Method executes the passed command asynchronously using the default executor of the service channel (see
+   * {@link ServiceChannelConfiguration#isAsyncVirtualThreadsEnabled()}).
+   * 
+   * @param pCommand Command object that should be executed. The parameter must not be null.
+   * @param pTransactionBehavior Transaction behavior that should be used for the service call. The parameter must not
+   * be null.
+   * @return {@link CompletableFuture} Future that will be completed with the result of the service call. The method
+   * never returns null.
+   * 
+   * @see #executeCommandAsync(Command, TransactionBehavior, Executor)
+   */
+  public final CompletableFuture<Serializable> executeCommandAsync( Command pCommand,
+      TransactionBehavior pTransactionBehavior ) {
+    return this.executeCommandAsync(pCommand, pTransactionBehavior, AsyncExecutors.getDefaultExecutor());
+  }
+
+  /**
+   * Method executes the passed command asynchronously using the passed executor. The invoking application, the session
+   * context and the principal of the calling thread are transferred to the worker thread. Service channel interceptors
+   * are called within the worker thread.
+   * 
+   * As transactions are bound to a thread the service call never joins a transaction of the calling thread. Thus it is
+   * executed as if it would be the first service call within the worker thread.
+   * 
+   * @param pCommand Command object that should be executed. The parameter must not be null.
+   * @param pTransactionBehavior Transaction behavior that should be used for the service call. The parameter must not
+   * be null.
+   * @param pExecutor Executor that should execute the service call. The parameter must not be null.
+   * @return {@link CompletableFuture} Future that will be completed with the result of the service call. In case of an
+   * exception during the service call or in case that the executor rejects the service call the future will be
+   * completed exceptionally. The method never returns null.
+   * @throws JEAFSystemException if the service channel does not support asynchronous service calls (see
+   * {@link #isAsyncExecutionSupported()}).
+   */
+  public final CompletableFuture<Serializable> executeCommandAsync( Command pCommand,
+      TransactionBehavior pTransactionBehavior, Executor pExecutor ) {
+    // Check parameters.
+    Check.checkInvalidParameterNull(pCommand, "pCommand");
+    Check.checkInvalidParameterNull(pTransactionBehavior, "pTransactionBehavior");
+    Check.checkInvalidParameterNull(pExecutor, "pExecutor");
+    this.checkAsyncExecutionSupported();
+
+    // Execute service call within worker thread.
+    CallerContext lCallerContext = this.captureCallerContext(pCommand);
+    AsyncServiceCall lServiceCall = new AsyncServiceCall(this, pCommand, pTransactionBehavior, lCallerContext);
+    try {
+      pExecutor.execute(lServiceCall);
+    }
+    catch (RejectedExecutionException e) {
+      lServiceCall.getFuture().completeExceptionally(e);
+    }
+    return lServiceCall.getFuture();
+  }
+
+  /**
+   * Method checks whether this service channel is able to execute service calls within worker threads. Service channels
+   * that are running inside a container where the transaction and security context is bound to container managed
+   * threads have to return false here. By default asynchronous service calls are supported.
+   * 
+   * @return boolean The method returns true if service calls may be executed by worker threads and false otherwise.
+   */
+  protected boolean isAsyncExecutionSupported( ) {
+    return true;
+  }
+
+  /**
+   * Method ensures that this service channel supports asynchronous service calls.
+   * 
+   * @throws JEAFSystemException if asynchronous service calls are not supported.
+   */
+  private void checkAsyncExecutionSupported( ) throws JEAFSystemException {
+    if (this.isAsyncExecutionSupported() == false) {
+      throw new JEAFSystemException(ServiceChannelMessages.ASYNC_EXECUTION_NOT_SUPPORTED, this.getClass().getName());
+    }
+  }
+
+  /**
+   * Method executes the passed commands in parallel using the default executor of the service channel.
+   * 
+   * @param pCommands Independent commands that should be executed. The parameter must not be null.
+   * @param pMaxConcurrency Maximum number of commands that are executed at the same time. Values less than 1 mean that
+   * all commands may be executed at the same time.
+   * @return {@link FanOutResult} Results of all commands. The method never returns null.
+   * 
+   * @see #executeCommandsParallel(List, int, Executor)
+   */
+  public final FanOutResult executeCommandsParallel( List<? extends Command> pCommands, int pMaxConcurrency ) {
+    return this.executeCommandsParallel(pCommands, pMaxConcurrency, AsyncExecutors.getDefaultExecutor());
+  }
+
+  /**
+   * Method executes the passed commands in parallel. Every command is executed by a worker thread within its own
+   * transaction (REQUIRES_NEW). The invoking application, the session context and the principal of the calling thread
+   * are transferred to every worker. The method returns when all commands are done. Failures of single commands do not
+   * affect the other ones but are reported through the returned result.
+   * 
+   * The calling thread blocks until all commands are done. Thus it must not be a thread of a bounded executor that is
+   * also used to execute the branches.
+   * 
+   * @param pCommands Independent commands that should be executed. The parameter must not be null.
+   * @param pMaxConcurrency Maximum number of commands that are executed at the same time. Values less than 1 mean that
+   * all commands may be executed at the same time.
+   * @param pExecutor Executor that executes the commands. The parameter must not be null.
+   * @return {@link FanOutResult} Results of all commands. The method never returns null.
+   * @throws JEAFSystemException if the service channel does not support asynchronous service calls (see
+   * {@link #isAsyncExecutionSupported()}).
+   */
+  public final FanOutResult executeCommandsParallel( List<? extends Command> pCommands, int pMaxConcurrency,
+      Executor pExecutor ) {
+    // Check parameters.
+    Check.checkInvalidParameterNull(pCommands, "pCommands");
+    Check.checkInvalidParameterNull(pExecutor, "pExecutor");
+    this.checkAsyncExecutionSupported();
+
+    long lStart = System.nanoTime();
+    int lSize = pCommands.size();
+    FanOutResult lResult = new FanOutResult(lSize);
+    Semaphore lPermits = new Semaphore(Math.max(1, pMaxConcurrency < 1 ? lSize : pMaxConcurrency));
+    CountDownLatch lCompletion = new CountDownLatch(lSize);
+    for (int i = 0; i < lSize; i++) {
+      Command lCommand = pCommands.get(i);
+      Check.checkInvalidParameterNull(lCommand, "pCommands[" + i + "]");
+      CallerContext lCallerContext = this.captureCallerContext(lCommand);
+      FanOutBranch lBranch = new FanOutBranch(this, lCommand, i, lCallerContext, lResult, lPermits, lCompletion);
+
+      // Wait until another branch may be started.
+      lPermits.acquireUninterruptibly();
+      try {
+        pExecutor.execute(lBranch);
+      }
+      catch (RejectedExecutionException e) {
+        lResult.branchFailed(i, e, 0);
+        lBranch.completed();
+      }
+    }
+
+    // Wait until all branches are done. Interrupts are deferred as the branches can not be canceled anyway.
+    boolean lInterrupted = false;
+    while (lCompletion.getCount() > 0) {
+      try {
+        lCompletion.await();
+      }
+      catch (InterruptedException e) {
+        lInterrupted = true;
+      }
+    }
+    if (lInterrupted == true) {
+      Thread.currentThread().interrupt();
+    }
+    lResult.setTotalDuration(System.nanoTime() - lStart);
+    return lResult;
+  }
+
+  /**
+   * Method captures the context of the caller that has to be transferred to a worker thread. Within a service call it
+   * is taken from the current service invocation context, otherwise from the passed command.
+   * 
+   * @param pCommand Command that will be executed by the worker thread. The parameter must not be null.
+   * @return {@link CallerContext} Context of the caller. The method never returns null.
+   */
+  private CallerContext captureCallerContext( Command pCommand ) {
+    ServiceInvocationContext lCurrentContext = serviceInvocationContextManager.getCurrentServiceInvocationContext();
+    CallerContext lCallerContext;
+    if (lCurrentContext != null) {
+      lCallerContext = new CallerContext(lCurrentContext.getInvokingApplication(),
+          lCurrentContext.getSessionContext(), lCurrentContext.getCurrentPrincipal());
+    }
+    else {
+      lCallerContext = new CallerContext(pCommand.getInvokingApplication(), pCommand.getSessionContext(),
+          this.getCallerPrincipal());
+    }
+    return lCallerContext;
+  }
+
+  /**
+   * Method executes an asynchronous service call within the current worker thread. Therefore the passed caller context
+   * will be used for the service call.
+   * 
+   * @param pCommand Command object that should be executed. The parameter must not be null.
+   * @param pTransactionBehavior Transaction behavior that should be used for the service call. The parameter must not
+   * be null.
+   * @param pCallerContext Context of the caller. The parameter must not be null.
+   * @return {@link Serializable} Result of the command execution. The method may return null.
+   * @throws ApplicationException Services may throw an ApplicationException in order to indicate an application
+   * specific problem.
+   */
+  final Serializable executeAsyncServiceCall( Command pCommand, TransactionBehavior pTransactionBehavior,
+      CallerContext pCallerContext ) throws ApplicationException {
+    // Check parameters.
+    Assert.assertNotNull(pCallerContext, "pCallerContext");
+
+    ASYNC_CALLER_CONTEXT.set(pCallerContext);
+    try {
+      // Service call is executed through the public methods so that implementation specific behavior is preserved.
+      Serializable lResult;
+      switch (pTransactionBehavior) {
+        case NOT_SUPPORTED:
+          lResult = this.executeCommandTxNotSupported(pCommand);
+          break;
+
+        case SUPPORTS:
+          lResult = this.executeCommandTxSupports(pCommand);
+          break;
+
+        case REQUIRED:
+          lResult = this.executeCommandTxRequired(pCommand);
+          break;
+
+        case REQUIRES_NEW:
+          lResult = this.executeCommandTxRequiresNew(pCommand);
+          break;
+
+        case MANDATORY:
+          lResult = this.executeCommandTxMandatory(pCommand);
+          break;
+
+        case NEVER:
+          lResult = this.executeCommandTxNever(pCommand);
+          break;
+
+        default:
+          Assert.internalError("Unexpected transaction behavior " + pTransactionBehavior);
+          lResult = null;
+      }
+      return lResult;
+    }
+    finally {
+      ASYNC_CALLER_CONTEXT.remove();
+    }
+  }
+
+  /**
+   * Method returns the statistics about the objects that were created by this service channel. Created and recycled
+   * objects are only counted while object recycling is enabled.
+   * 
+   * @return {@link ServiceChannelStatistics} Statistics of this service channel. The method never returns null.
+   */
+  public final ServiceChannelStatistics getStatistics( ) {
+    return statistics;
+  }
+
+  /**
+   * Method returns the latency and outcome metrics of all service methods that were called through this service
+   * channel. Metrics are only recorded if they are enabled (see
+   * {@link ServiceChannelConfiguration#isMetricsEnabled()}).
+   * 
+   * @return {@link ServiceMetrics} Service metrics of this service channel. The method never returns null.
+   */
+  public final ServiceMetrics getServiceMetrics( ) {
+    return serviceMetrics;
+  }
+
   /**
    * Method executes the passed command as a local service call. The command will be sent to the service instance that
    * is stored in the service registry of this JVM. The method also handles the appropriate transaction handling for the
@@ -199,60 +688,79 @@ public abstract class AbstractServiceChannel implements ServiceChannel {
     Assert.assertNotNull(pCommand, "pCommand");
     Assert.assertNotNull(pTransactionBehavior, "pTransactionBehavior");
 
-    // Get target service instance. As method "getServiceInstance()" is an internal method the service instance can not
-    // be retrieved via the lifecycle manager.
-    ServiceRegistry lRegistry = lifecycleManager.getServiceRegistry();
-    Class<? extends Service> lTargetServiceClass = pCommand.getTargetServiceClass();
-    ServiceImplementation lTargetService = lRegistry.getServiceInstance(lTargetServiceClass);
+    // Command batches are not executed by a service but by the service channel itself.
+    if (pCommand instanceof CommandBatch) {
+      return this.executeCommandBatch((CommandBatch) pCommand, pTransactionBehavior);
+    }
+
+    // Resolve invocation plan of the called service method. The plan contains everything that does not change between
+    // two calls of the same service method. Only the very first call of a service method has to create it.
+    final InvocationPlan lPlan = this.getInvocationPlan(pCommand, pTransactionBehavior);
+    Class<? extends Service> lTargetServiceClass = lPlan.getTargetServiceClass();
+    ServiceImplementation lTargetService = lPlan.getTargetService();
+    ComponentImplementation lComponent = lPlan.getComponent();
 
     // Get current service invocation context
-    ContextManager lContextManager = lifecycleManager.getContextManager();
-    ServiceInvocationContextManager lServiceInvocationContextManager =
-        lContextManager.getServiceInvocationContextManager();
+    ServiceInvocationContextManager lServiceInvocationContextManager = serviceInvocationContextManager;
     ServiceInvocationContext lPreviousServiceInvocationContext =
         lServiceInvocationContextManager.getCurrentServiceInvocationContext();
 
-    // In the case of stacked service invocations the method still returns the application info of the application that
-    // was the origin of the service call.
-    ApplicationInfo lInvokingApplication;
-    if (lPreviousServiceInvocationContext != null) {
-      lInvokingApplication = lPreviousServiceInvocationContext.getInvokingApplication();
+    // Get current transaction context and determine which change has to be done to it.
+    TransactionContextManager lTransactionContextManager = transactionContextManager;
+    final TxContext lPreviousTxContext = lTransactionContextManager.getCurrentTransactionContext();
+    TxContext lCurrentTxContext = lPreviousTxContext;
+    final TxStatus lTxStatus;
+    if (lPreviousTxContext != null) {
+      lTxStatus = TX_RUNNING;
     }
     else {
-      lInvokingApplication = pCommand.getInvokingApplication();
+      lTxStatus = NO_TX_RUNNING;
     }
+    final TxContextTransition lTxContextTransition = lPlan.getTxContextTransition(lTxStatus);
 
-    // Propagate session context to service invocation context.
+    // In the case of stacked service invocations the method still returns the application info of the application that
+    // was the origin of the service call. The same applies to the session context. In case of asynchronous service
+    // calls both are taken from the thread that triggered the call.
+    ApplicationInfo lInvokingApplication;
     SessionContext lSessionContext;
     if (lPreviousServiceInvocationContext != null) {
+      lInvokingApplication = lPreviousServiceInvocationContext.getInvokingApplication();
       lSessionContext = lPreviousServiceInvocationContext.getSessionContext();
     }
     else {
-      lSessionContext = pCommand.getSessionContext();
+      CallerContext lCallerContext = ASYNC_CALLER_CONTEXT.get();
+      if (lCallerContext != null) {
+        lInvokingApplication = lCallerContext.getInvokingApplication();
+        lSessionContext = lCallerContext.getSessionContext();
+      }
+      else {
+        lInvokingApplication = pCommand.getInvokingApplication();
+        lSessionContext = pCommand.getSessionContext();
+      }
     }
     // This is the first service call within this thread thus a new CoreRootContext has to be created.
-    ComponentImplementation lComponent = lifecycleManager.getComponent(lTargetService);
     ServiceInvocationContext lCurrentServiceInvocationContext =
         this.createServiceInvocationContext(lTargetServiceClass, lComponent, lInvokingApplication, lSessionContext);
 
     Assert.assertNotNull(lCurrentServiceInvocationContext, "lCurrentContext");
+    if (objectRecyclingEnabled == true) {
+      statistics.serviceInvocationContextCreated();
+    }
 
     lServiceInvocationContextManager.setToCurrentServiceInvocationContext(lCurrentServiceInvocationContext);
 
-    // Get current transaction context.
-    TransactionContextManager lTransactionContextManager = lContextManager.getTransactionContextManager();
-    final TxContext lPreviousTxContext = lTransactionContextManager.getCurrentTransactionContext();
-    TxContext lCurrentTxContext = lPreviousTxContext;
-
-    // Determine which change has to be done to the current transaction context.
-    final TxContextTransition lTxContextTransition = this.determineTxContextTransition(pTransactionBehavior);
+    TxTimeout lTxTimeout = null;
     switch (lTxContextTransition) {
       // A new transaction context is required, so create it. The transaction will be committed when the called service
       // completed without exception.
       case NEW_TX_REQUIRED:
         lCurrentTxContext = this.createTxContext();
+        if (objectRecyclingEnabled == true) {
+          statistics.txContextCreated();
+        }
         lTransactionContextManager.setToCurrentTxContext(lCurrentTxContext);
-        this.notifyStartedTransaction();
+        this.activateTxContext(lCurrentTxContext, lPlan.isReadOnly());
+        lTxTimeout = this.startTxTimeout(lCurrentTxContext, lPlan.getTxTimeout());
         break;
 
       // The current transaction context has to be suspended. The transaction will be activated again when the service
@@ -274,21 +782,60 @@ public abstract class AbstractServiceChannel implements ServiceChannel {
         throw new JEAFSystemException(lErrorCode, lParams);
     }
 
+    // Bind component of this service call to the transaction context so that it can resolve its resources directly.
+    final ComponentAwareTxContext lComponentAwareTxContext;
+    final ComponentImplementation lPreviousBoundComponent;
+    if (lCurrentTxContext instanceof ComponentAwareTxContext) {
+      lComponentAwareTxContext = (ComponentAwareTxContext) lCurrentTxContext;
+      lPreviousBoundComponent = lComponentAwareTxContext.bindComponent(lComponent);
+    }
+    else {
+      lComponentAwareTxContext = null;
+      lPreviousBoundComponent = null;
+    }
+
     // Create object describing this service call.
-    Method lServiceMethod = pCommand.getServiceMethod();
+    Method lServiceMethod = lPlan.getServiceMethod();
     Object[] lParameters = pCommand.getParameters();
     final ServiceCall lServiceCall = new ServiceCall(lTargetService, lTargetServiceClass, lServiceMethod, lParameters);
+    if (objectRecyclingEnabled == true) {
+      statistics.serviceCallExecuted();
+    }
+    final ServiceChannelInterceptor[] lInterceptors = lPlan.getInterceptorChain().getInterceptors();
+
+    // Outcome of the service call is only determined for metrics. It is overwritten by the catch blocks below.
+    final ServiceMethodMetrics lMetrics = lPlan.getMetrics();
+    final long lStartTime;
+    if (lMetrics != null) {
+      lStartTime = System.nanoTime();
+    }
+    else {
+      lStartTime = 0;
+    }
+    ServiceCallOutcome lOutcome = ServiceCallOutcome.SUCCESS;
 
     boolean lServiceCallSuccessful = false;
     try {
       // Notify all interceptors about service call.
-      for (ServiceChannelInterceptor lInterceptor : this.getAllServiceChannelInterceptors(lTargetService)) {
-        lInterceptor.preServiceCall(lServiceCall);
+      for (int i = 0; i < lInterceptors.length; i++) {
+        lInterceptors[i].preServiceCall(lServiceCall);
       }
 
       // Set start timestamp
       lServiceCall.startingServiceCall();
 
+      // Trace service call. Strings and timestamps are only created if the trace messages are enabled.
+      final long lTraceStartTime;
+      if (MessageConstants.EXECUTING_SERVICE_CALL.isEnabled() == true) {
+        XFun.getTrace().write(MessageConstants.EXECUTING_SERVICE_CALL, lPlan.getCalledServiceMethod());
+      }
+      if (MessageConstants.RETURNING_FROM_SERVICE_CALL.isEnabled() == true) {
+        lTraceStartTime = System.nanoTime();
+      }
+      else {
+        lTraceStartTime = NO_TRACE_START_TIME;
+      }
+
       // Execute service call and return result.
       final Serializable lResult = pCommand.execute(lTargetService);
       lServiceCallSuccessful = true;
@@ -296,24 +843,34 @@ public abstract class AbstractServiceChannel implements ServiceChannel {
       // Set completed timestamp
       lServiceCall.serviceCallCompleted();
 
+      // Trace result of service call including its duration in milliseconds.
+      if (lTraceStartTime != NO_TRACE_START_TIME) {
+        String lDuration = Long.toString(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lTraceStartTime));
+        XFun.getTrace().write(MessageConstants.RETURNING_FROM_SERVICE_CALL, lPlan.getCalledServiceMethod(), lDuration);
+      }
+
       // Notify all interceptors about service call.
-      for (ServiceChannelInterceptor lInterceptor : this.getAllServiceChannelInterceptors(lTargetService)) {
-        lInterceptor.postServiceCall(lServiceCall, lResult);
+      for (int i = 0; i < lInterceptors.length; i++) {
+        lInterceptors[i].postServiceCall(lServiceCall, lResult);
+      }
+
+      // Service calls whose transaction timed out fail even if they are read only.
+      if (lTxTimeout != null && lTxTimeout.isExpired() == true) {
+        final ErrorCode lErrorCode = MessageConstants.TX_MARKED_FOR_ROLLBACK;
+        final String[] lParams = new String[] { lPlan.getCalledServiceMethod() };
+        throw new JEAFSystemException(lErrorCode, lParams);
       }
 
       // Check if current transaction is marked for roll back and throw an exception in this case. This will cause the
       // transaction be to rolled back.
       // lCurrentTxContext may be null since there does not always have to exist a transaction.
-      if (lCurrentTxContext != null) {
-        // According to EJB 3.1 spec the method getRollbackOnly may only be called from some tx behaviors
-        // (EJB 3.1: 13.6.2.8 Handling of setRollbackOnly Method)
-        if (pTransactionBehavior != TransactionBehavior.SUPPORTS && pTransactionBehavior != NOT_SUPPORTED
-            && pTransactionBehavior != NEVER) {
-          if (lCurrentTxContext.getRollbackOnly() == true) {
-            final ErrorCode lErrorCode = MessageConstants.TX_MARKED_FOR_ROLLBACK;
-            final String[] lParams = new String[] { pCommand.getCalledServiceMethod() };
-            throw new JEAFSystemException(lErrorCode, lParams);
-          }
+      // According to EJB 3.1 spec the method getRollbackOnly may only be called from some tx behaviors
+      // (EJB 3.1: 13.6.2.8 Handling of setRollbackOnly Method). This is already resolved by the invocation plan.
+      if (lCurrentTxContext != null && lPlan.isRollbackCheckRequired() == true) {
+        if (lCurrentTxContext.getRollbackOnly() == true) {
+          final ErrorCode lErrorCode = MessageConstants.TX_MARKED_FOR_ROLLBACK;
+          final String[] lParams = new String[] { lPlan.getCalledServiceMethod() };
+          throw new JEAFSystemException(lErrorCode, lParams);
         }
       }
       // In all other cases the transaction has to complete normal (see finally block below).
@@ -322,12 +879,14 @@ public abstract class AbstractServiceChannel implements ServiceChannel {
     // In case that an ApplicationException occurs nothing has to be done, exception the appropriate notification of all
     // interceptors.
     catch (ApplicationException e) {
+      lOutcome = ServiceCallOutcome.APPLICATION_EXCEPTION;
+
       // Set completed timestamp
       lServiceCall.serviceCallCompleted();
 
       // Notify all interceptors about service call.
-      for (ServiceChannelInterceptor lInterceptor : this.getAllServiceChannelInterceptors(lTargetService)) {
-        lInterceptor.postServiceCall(lServiceCall, e);
+      for (int i = 0; i < lInterceptors.length; i++) {
+        lInterceptors[i].postServiceCall(lServiceCall, e);
       }
 
       throw e;
@@ -335,6 +894,8 @@ public abstract class AbstractServiceChannel implements ServiceChannel {
 
     // Catch system exceptions in order to roll back the current transaction.
     catch (SystemException e) {
+      lOutcome = ServiceCallOutcome.SYSTEM_EXCEPTION;
+
       // Set completed timestamp
       lServiceCall.serviceCallCompleted();
 
@@ -342,8 +903,8 @@ public abstract class AbstractServiceChannel implements ServiceChannel {
       this.markTxForRollback(pCommand, lCurrentTxContext, lTxContextTransition, e);
 
       // Notify all interceptors about service call.
-      for (ServiceChannelInterceptor lInterceptor : this.getAllServiceChannelInterceptors(lTargetService)) {
-        lInterceptor.postServiceCall(lServiceCall, e);
+      for (int i = 0; i < lInterceptors.length; i++) {
+        lInterceptors[i].postServiceCall(lServiceCall, e);
       }
 
       throw e;
@@ -351,6 +912,8 @@ public abstract class AbstractServiceChannel implements ServiceChannel {
 
     // In case of any other runtime exception the same has to be done.
     catch (RuntimeException e) {
+      lOutcome = ServiceCallOutcome.RUNTIME_EXCEPTION;
+
       // Set completed timestamp
       lServiceCall.serviceCallCompleted();
 
@@ -358,8 +921,8 @@ public abstract class AbstractServiceChannel implements ServiceChannel {
       this.markTxForRollback(pCommand, lCurrentTxContext, lTxContextTransition, e);
 
       // Notify all interceptors about service call.
-      for (ServiceChannelInterceptor lInterceptor : this.getAllServiceChannelInterceptors(lTargetService)) {
-        lInterceptor.postServiceCall(lServiceCall, e);
+      for (int i = 0; i < lInterceptors.length; i++) {
+        lInterceptors[i].postServiceCall(lServiceCall, e);
       }
 
       throw e;
@@ -367,6 +930,8 @@ public abstract class AbstractServiceChannel implements ServiceChannel {
 
     // In case of an error catch it and mark the current transaction for roll back.
     catch (Error e) {
+      lOutcome = ServiceCallOutcome.ERROR;
+
       // Set completed timestamp
       lServiceCall.serviceCallCompleted();
 
@@ -374,8 +939,8 @@ public abstract class AbstractServiceChannel implements ServiceChannel {
       this.markTxForRollback(pCommand, lCurrentTxContext, lTxContextTransition, e);
 
       // Notify all interceptors about service call.
-      for (ServiceChannelInterceptor lInterceptor : this.getAllServiceChannelInterceptors(lTargetService)) {
-        lInterceptor.postServiceCall(lServiceCall, e);
+      for (int i = 0; i < lInterceptors.length; i++) {
+        lInterceptors[i].postServiceCall(lServiceCall, e);
       }
 
       throw e;
@@ -384,6 +949,11 @@ public abstract class AbstractServiceChannel implements ServiceChannel {
     // After the service call completed no matter with which result all listeners have to be notified, that's why we
     // need the first finally block.
     finally {
+      // Record metrics of the service call.
+      if (lMetrics != null) {
+        lMetrics.record(lOutcome, System.nanoTime() - lStartTime);
+      }
+
       // Notify all listeners about completed service call.
       try {
         lCurrentServiceInvocationContext.notifyServiceCallCompleted(lServiceCallSuccessful);
@@ -405,11 +975,10 @@ public abstract class AbstractServiceChannel implements ServiceChannel {
           case NEW_TX_REQUIRED:
             // Commit current transaction
             try {
-              // Notify all transaction listeners that the transaction will be released.
-              this.notifyReleasingTransaction(lCurrentTxContext);
-
-              // Notify concrete implementation that we are about to release the current transaction context.
-              this.releasingTxContext(lCurrentTxContext);
+              if (lTxTimeout != null) {
+                lTxTimeout.cancel();
+              }
+              this.releaseTxContext(lCurrentTxContext);
             }
             // No matter what happens, even in the case that an exception occurs the transaction context has to be
             // restored correctly.
@@ -446,6 +1015,13 @@ public abstract class AbstractServiceChannel implements ServiceChannel {
             lTransactionContextManager.setToCurrentTxContext(lPreviousTxContext);
             break;
 
+          // Transaction is still used by the caller, so its component has to be bound again.
+          case UNCHANGED:
+            if (lComponentAwareTxContext != null) {
+              lComponentAwareTxContext.bindComponent(lPreviousBoundComponent);
+            }
+            break;
+
           // In all other cases there is nothing to do.
           default:
             break;
@@ -465,6 +1041,183 @@ public abstract class AbstractServiceChannel implements ServiceChannel {
     }
   }
 
+  /**
+   * Method executes all commands of the passed batch. Transaction context and root service invocation context are only
+   * set up once for the whole batch. Every command is executed like a nested service call with transaction behavior
+   * SUPPORTS so that it joins the transaction of the batch. Thus service channel interceptors are called for every
+   * command. If the transaction of the batch is marked for rollback or if it timed out then all commands that were
+   * executed within it are reported as failed, even if the batch is not executed in fail fast mode.
+   * 
+   * @param pBatch Batch that should be executed. The parameter must not be null.
+   * @param pTransactionBehavior Transaction behavior of the batch. The parameter must not be null.
+   * @return {@link CommandBatchResult} Results of all commands of the batch. The method never returns null.
+   */
+  private CommandBatchResult executeCommandBatch( CommandBatch pBatch, TransactionBehavior pTransactionBehavior ) {
+    // Determine which change has to be done to the current transaction context.
+    TransactionContextManager lTransactionContextManager = transactionContextManager;
+    final TxContext lPreviousTxContext = lTransactionContextManager.getCurrentTransactionContext();
+    TxContext lCurrentTxContext = lPreviousTxContext;
+    final TxStatus lTxStatus;
+    if (lPreviousTxContext != null) {
+      lTxStatus = TX_RUNNING;
+    }
+    else {
+      lTxStatus = NO_TX_RUNNING;
+    }
+    final TxContextTransition lTxContextTransition =
+        TX_CONTEXT_TRANSITIONS[lTxStatus.ordinal()][pTransactionBehavior.ordinal()];
+    if (lTxContextTransition == TxContextTransition.ERROR) {
+      ErrorCode lErrorCode = MessageConstants.INVALID_TX_CONTEXT_TRANSITION;
+      String[] lParams = new String[] { pTransactionBehavior.toString(), lTxStatus.toString() };
+      throw new JEAFSystemException(lErrorCode, lParams);
+    }
+
+    // Create root service invocation context for the batch if it is not executed within another service call. The
+    // context is created for the first command of the batch.
+    List<Command> lCommands = pBatch.getCommands();
+    ServiceInvocationContextManager lServiceInvocationContextManager = serviceInvocationContextManager;
+    ServiceInvocationContext lRootContext = null;
+    if (lServiceInvocationContextManager.getCurrentServiceInvocationContext() == null) {
+      InvocationPlan lPlan = this.getInvocationPlan(lCommands.get(0), SUPPORTS);
+      CallerContext lCallerContext = ASYNC_CALLER_CONTEXT.get();
+      ApplicationInfo lInvokingApplication;
+      SessionContext lSessionContext;
+      if (lCallerContext != null) {
+        lInvokingApplication = lCallerContext.getInvokingApplication();
+        lSessionContext = lCallerContext.getSessionContext();
+      }
+      else {
+        lInvokingApplication = pBatch.getInvokingApplication();
+        lSessionContext = pBatch.getSessionContext();
+      }
+      lRootContext = this.createServiceInvocationContext(lPlan.getTargetServiceClass(), lPlan.getComponent(),
+          lInvokingApplication, lSessionContext);
+      Assert.assertNotNull(lRootContext, "lRootContext");
+      if (objectRecyclingEnabled == true) {
+        statistics.serviceInvocationContextCreated();
+      }
+      lServiceInvocationContextManager.setToCurrentServiceInvocationContext(lRootContext);
+    }
+
+    // Create or suspend transaction context of the batch. Batches always use the default transaction timeout.
+    TxTimeout lTxTimeout = null;
+    if (lTxContextTransition == TxContextTransition.NEW_TX_REQUIRED) {
+      lCurrentTxContext = this.createTxContext();
+      if (objectRecyclingEnabled == true) {
+        statistics.txContextCreated();
+      }
+      lTransactionContextManager.setToCurrentTxContext(lCurrentTxContext);
+      this.activateTxContext(lCurrentTxContext, false);
+      lTxTimeout = this.startTxTimeout(lCurrentTxContext, this.getTxTimeout(null));
+    }
+    else if (lTxContextTransition == TxContextTransition.NO_TX_REQUIRED) {
+      lTransactionContextManager.unsetAsCurrentTxContext(lCurrentTxContext);
+      lCurrentTxContext = null;
+    }
+
+    CommandBatchResult lResult = new CommandBatchResult(lCommands.size());
+    boolean lBatchSuccessful = true;
+    try {
+      // Execute all commands of the batch. Runtime exceptions of a command mark the transaction of the batch for
+      // rollback (see invokeService(...)).
+      boolean lMarkedForRollback = false;
+      for (int i = 0; i < lCommands.size(); i++) {
+        try {
+          lResult.commandSucceeded(i, this.invokeService(lCommands.get(i), SUPPORTS));
+        }
+        catch (ApplicationException e) {
+          lResult.commandFailed(i, e);
+          lBatchSuccessful = false;
+          if (pBatch.isFailFast() == true) {
+            break;
+          }
+        }
+        catch (RuntimeException e) {
+          lResult.commandFailed(i, e);
+          lBatchSuccessful = false;
+          lMarkedForRollback = lCurrentTxContext != null;
+          if (pBatch.isFailFast() == true) {
+            break;
+          }
+        }
+      }
+
+      // In fail fast mode a transaction that was started for the batch must not be committed if a command failed.
+      if (lBatchSuccessful == false && pBatch.isFailFast() == true
+          && lTxContextTransition == TxContextTransition.NEW_TX_REQUIRED) {
+        lCurrentTxContext.setRollbackOnly();
+        lMarkedForRollback = true;
+      }
+
+      // A batch whose transaction timed out must not be committed even if all of its commands were successful. The
+      // transaction was already marked for rollback when the timeout expired.
+      if (lTxTimeout != null && lTxTimeout.isExpired() == true) {
+        lMarkedForRollback = true;
+      }
+
+      // Services may also mark the transaction for rollback without throwing an exception. According to EJB 3.1 spec
+      // getRollbackOnly() may only be called for some transaction behaviors (see InvocationPlan).
+      if (lMarkedForRollback == false && lCurrentTxContext != null && pTransactionBehavior != SUPPORTS) {
+        lMarkedForRollback = lCurrentTxContext.getRollbackOnly();
+      }
+
+      // As all commands share one transaction none of them was successful if the transaction will be rolled back.
+      if (lMarkedForRollback == true) {
+        for (int i = 0; i < lResult.getExecutedCommands(); i++) {
+          if (lResult.isSuccessful(i) == true) {
+            final String[] lParams = new String[] { lCommands.get(i).getCalledServiceMethod() };
+            lResult.commandRolledBack(i, new JEAFSystemException(MessageConstants.TX_MARKED_FOR_ROLLBACK, lParams));
+          }
+        }
+        lBatchSuccessful = false;
+      }
+      return lResult;
+    }
+    catch (Error e) {
+      lBatchSuccessful = false;
+      this.markTxForRollback(pBatch, lCurrentTxContext, lTxContextTransition, e);
+      throw e;
+    }
+    finally {
+      try {
+        if (lRootContext != null) {
+          lRootContext.notifyServiceCallCompleted(lBatchSuccessful);
+        }
+      }
+      finally {
+        // Cleanup transaction context.
+        try {
+          if (lTxContextTransition == TxContextTransition.NEW_TX_REQUIRED) {
+            try {
+              if (lTxTimeout != null) {
+                lTxTimeout.cancel();
+              }
+              this.releaseTxContext(lCurrentTxContext);
+            }
+            finally {
+              if (lPreviousTxContext != null) {
+                lTransactionContextManager.setToCurrentTxContext(lPreviousTxContext);
+              }
+              else {
+                lTransactionContextManager.unsetAsCurrentTxContext(lCurrentTxContext);
+              }
+              lCurrentTxContext.invalidate();
+            }
+          }
+          else if (lTxContextTransition == TxContextTransition.NO_TX_REQUIRED) {
+            lTransactionContextManager.setToCurrentTxContext(lPreviousTxContext);
+          }
+        }
+        // Cleanup service invocation context no matter what happened before.
+        finally {
+          if (lRootContext != null) {
+            lServiceInvocationContextManager.unsetAsCurrentServiceInvocationContext(lRootContext);
+          }
+        }
+      }
+    }
+  }
+
   /**
    * Method checks the state of the passed service. Method checks the current state of the service implementation that
    * provides the passed service interface. Therefore JEAF provides a transaction context. The only action that will be
@@ -561,107 +1314,370 @@ public abstract class AbstractServiceChannel implements ServiceChannel {
   }
 
   /**
-   * Method returns the current transaction status.
+   * Method returns the invocation plan for the service method that is called by the passed command. If there is no plan
+   * yet for the service method and transaction behavior then it will be created and cached. Creating a plan more than
+   * once due to concurrent calls does not cause any problems as plans are immutable.
    * 
-   * @return {@link TxStatus} TxStatus object describing the current transaction status. The method never returns null.
+   * @param pCommand Command whose invocation plan should be returned. The parameter must not be null.
+   * @param pTransactionBehavior Transaction behavior that is used for the service call. The parameter must not be null.
+   * @return {@link InvocationPlan} Invocation plan for the service call. The method never returns null.
    */
-  private TxStatus getCurrentTransactionStatus( ) {
-    TxStatus lCurrentTxStatus;
-    // Get current transaction context.
-    TransactionContextManager lTransactionContextManager =
-        lifecycleManager.getContextManager().getTransactionContextManager();
-    TxContext lCurrentTransactionContext = lTransactionContextManager.getCurrentTransactionContext();
-    if (lCurrentTransactionContext != null) {
-      lCurrentTxStatus = TxStatus.TX_RUNNING;
+  private InvocationPlan getInvocationPlan( Command pCommand, TransactionBehavior pTransactionBehavior ) {
+    // Check parameters
+    Assert.assertNotNull(pCommand, "pCommand");
+    Assert.assertNotNull(pTransactionBehavior, "pTransactionBehavior");
+
+    // Resolve plans of the called service. Plans are also keyed by service class as some methods (e.g. check) are
+    // defined by a common base class and thus are shared by all services.
+    Class<? extends Service> lTargetServiceClass = pCommand.getTargetServiceClass();
+    ConcurrentMap<Method, InvocationPlan[]> lServicePlans = invocationPlans.get(lTargetServiceClass);
+    if (lServicePlans == null) {
+      lServicePlans = new ConcurrentHashMap<Method, InvocationPlan[]>();
+      ConcurrentMap<Method, InvocationPlan[]> lExistingPlans =
+          invocationPlans.putIfAbsent(lTargetServiceClass, lServicePlans);
+      if (lExistingPlans != null) {
+        lServicePlans = lExistingPlans;
+      }
     }
-    else {
-      lCurrentTxStatus = TxStatus.NO_TX_RUNNING;
+
+    // Resolve plans of the called service method. They are indexed by the ordinal of the transaction behavior.
+    Method lServiceMethod = pCommand.getServiceMethod();
+    InvocationPlan[] lMethodPlans = lServicePlans.get(lServiceMethod);
+    if (lMethodPlans == null) {
+      lMethodPlans = new InvocationPlan[TransactionBehavior.values().length];
+      InvocationPlan[] lExistingPlans = lServicePlans.putIfAbsent(lServiceMethod, lMethodPlans);
+      if (lExistingPlans != null) {
+        lMethodPlans = lExistingPlans;
+      }
+    }
+
+    // Plan was not yet created.
+    int lIndex = pTransactionBehavior.ordinal();
+    InvocationPlan lPlan = lMethodPlans[lIndex];
+    if (lPlan == null) {
+      String lCalledServiceMethod = pCommand.getCalledServiceMethod();
+      lPlan =
+          this.createInvocationPlan(lTargetServiceClass, lServiceMethod, lCalledServiceMethod, pTransactionBehavior);
+      lMethodPlans[lIndex] = lPlan;
     }
-    // Return current transaction status.
-    return lCurrentTxStatus;
+    return lPlan;
   }
 
   /**
-   * Method determines the transaction context transition for the passed transaction behavior based on the current
-   * transaction status. In case that the method would have to return {@link TxContextTransition#ERROR} the method will
-   * throw an exception.
+   * Method creates a new invocation plan for the passed service method and transaction behavior.
    * 
-   * @param pTransactionBehavior Transaction behavior of the next service that will be called from within the current
-   * transaction context.
-   * @return {@link TxContextTransition} Object describing the transition which has to be performed for the current
-   * transaction context. The method never returns null.
+   * @param pTargetServiceClass Class object of the service interface that is called. The parameter must not be null.
+   * @param pServiceMethod Service method that is called. The parameter must not be null.
+   * @param pCalledServiceMethod Name of the called service method as it is used in trace and error messages. The
+   * parameter must not be null.
+   * @param pTransactionBehavior Transaction behavior that is used for the service call. The parameter must not be null.
+   * @return {@link InvocationPlan} Created invocation plan. The method never returns null.
+   */
+  private InvocationPlan createInvocationPlan( Class<? extends Service> pTargetServiceClass, Method pServiceMethod,
+      String pCalledServiceMethod, TransactionBehavior pTransactionBehavior ) {
+    // Lookup service instance that should be called.
+    ServiceRegistry lRegistry = lifecycleManager.getServiceRegistry();
+    ServiceImplementation lTargetService = lRegistry.getServiceInstance(pTargetServiceClass);
+    ComponentImplementation lComponent = lifecycleManager.getComponent(lTargetService);
+
+    // Determine transaction context transitions for all possible transaction states.
+    TxStatus[] lTxStates = TxStatus.values();
+    TxContextTransition[] lTransitions = new TxContextTransition[lTxStates.length];
+    for (TxStatus lTxStatus : lTxStates) {
+      lTransitions[lTxStatus.ordinal()] = TX_CONTEXT_TRANSITIONS[lTxStatus.ordinal()][pTransactionBehavior.ordinal()];
+    }
+
+    // Resolve interceptor chain of the component.
+    InterceptorChain lInterceptorChain = this.getInterceptorChain(lComponent);
+
+    // Resolve metrics of the service method if they are enabled.
+    ServiceMethodMetrics lMetrics;
+    if (metricsEnabled == true) {
+      lMetrics = serviceMetrics.getServiceMethodMetrics(pTargetServiceClass, pServiceMethod, pTransactionBehavior);
+    }
+    else {
+      lMetrics = null;
+    }
+
+    // Check whether the service method is read only.
+    ReadOnly lReadOnly =
+        this.getServiceAnnotation(ReadOnly.class, pTargetServiceClass, pServiceMethod, lTargetService, lComponent);
+
+    // Resolve transaction timeout of the service method.
+    TransactionTimeout lTransactionTimeout = this.getServiceAnnotation(TransactionTimeout.class, pTargetServiceClass,
+        pServiceMethod, lTargetService, lComponent);
+
+    return new InvocationPlan(pTargetServiceClass, pServiceMethod, pCalledServiceMethod, lTargetService, lComponent,
+        lInterceptorChain, pTransactionBehavior, lTransitions, lMetrics, lReadOnly != null,
+        this.getTxTimeout(lTransactionTimeout));
+  }
+
+  /**
+   * Method returns the annotation of the passed type that applies to the passed service method. The most specific
+   * annotation wins: the method of the service interface, the method of the service implementation, the service
+   * implementation, the service interface and finally the component.
    * 
-   * @throws JEAFSystemException In the case that the method would have to return {@link TxContextTransition#ERROR}.
+   * @param pAnnotationClass Type of the annotation that should be returned. The parameter must not be null.
+   * @param pTargetServiceClass Class object of service interface that is called. The parameter must not be null.
+   * @param pServiceMethod Service method that is called. The parameter must not be null.
+   * @param pTargetService Service instance that will be called. The parameter must not be null.
+   * @param pComponent Component to which the called service belongs to. The parameter must not be null.
+   * @return A Annotation that applies to the service method or null if there is none.
    */
-  private TxContextTransition determineTxContextTransition( TransactionBehavior pTransactionBehavior )
-    throws JEAFSystemException {
-    // Check parameters
-    Assert.assertNotNull(pTransactionBehavior, "pTransactionBehavior");
+  private <A extends Annotation> A getServiceAnnotation( Class<A> pAnnotationClass,
+      Class<? extends Service> pTargetServiceClass, Method pServiceMethod, ServiceImplementation pTargetService,
+      ComponentImplementation pComponent ) {
 
-    // Determine tx context transition for the current transaction context.
-    final TxStatus lTransactionStatus = this.getCurrentTransactionStatus();
-    final TxContextTransition lTxContextTransition;
-    lTxContextTransition = TX_CONTEXT_TRANSITIONS[lTransactionStatus.ordinal()][pTransactionBehavior.ordinal()];
+    A lAnnotation = pServiceMethod.getAnnotation(pAnnotationClass);
 
-    // In case that it is an invalid transition throw the exception here, so that it has not to be done in several
-    // places.
-    if (TxContextTransition.ERROR.equals(lTxContextTransition) == true) {
-      ErrorCode lErrorCode = MessageConstants.INVALID_TX_CONTEXT_TRANSITION;
-      String[] lParams = new String[] { pTransactionBehavior.toString(), lTransactionStatus.toString() };
-      throw new JEAFSystemException(lErrorCode, lParams);
+    // Check method of the service implementation.
+    if (lAnnotation == null) {
+      try {
+        Method lImplementationMethod =
+            pTargetService.getClass().getMethod(pServiceMethod.getName(), pServiceMethod.getParameterTypes());
+        lAnnotation = lImplementationMethod.getAnnotation(pAnnotationClass);
+      }
+      catch (NoSuchMethodException e) {
+        // Service implementation does not implement the method directly e.g. because it is a proxy.
+        lAnnotation = null;
+      }
+    }
+    if (lAnnotation == null) {
+      lAnnotation = pTargetService.getClass().getAnnotation(pAnnotationClass);
+    }
+    if (lAnnotation == null) {
+      lAnnotation = pTargetServiceClass.getAnnotation(pAnnotationClass);
+    }
+    if (lAnnotation == null) {
+      lAnnotation = pComponent.getClass().getAnnotation(pAnnotationClass);
+    }
+    return lAnnotation;
+  }
+
+  /**
+   * Method returns the transaction timeout that has to be enforced by this service channel.
+   * 
+   * @param pTransactionTimeout Annotation defining the timeout of the called service method. The parameter may be null
+   * if the default timeout applies.
+   * @return long Transaction timeout in milliseconds. 0 means that no timeout has to be enforced.
+   */
+  private long getTxTimeout( TransactionTimeout pTransactionTimeout ) {
+    long lTxTimeout;
+    if (this.isTxTimeoutEnforced() == false) {
+      lTxTimeout = 0;
+    }
+    else if (pTransactionTimeout != null) {
+      lTxTimeout = TimeUnit.SECONDS.toMillis(Math.max(0, pTransactionTimeout.value()));
     }
     else {
-      // Return transaction context transition.
-      return lTxContextTransition;
+      lTxTimeout = defaultTxTimeout;
     }
+    return lTxTimeout;
   }
 
   /**
-   * Method returns all service channel interceptors for the passed target service. This includes component specific
-   * interceptors as well as global interceptors.
+   * Method returns the interceptor chain of the passed component. If the chain does not exist yet then it will be
+   * created.
    * 
-   * @param pTargetService Service that should be called and for which the interceptors should be returned. The
-   * parameter must not be null.
-   * @return {@link Set} Set containing all interceptors. The method never returns null.
+   * @param pComponent Component whose interceptor chain should be returned. The parameter must not be null.
+   * @return {@link InterceptorChain} Interceptor chain of the component. The method never returns null.
    */
-  private List<ServiceChannelInterceptor> getAllServiceChannelInterceptors( ServiceImplementation pTargetService ) {
-    // Get component specific interceptors.
-    ComponentImplementation lComponent = lifecycleManager.getComponent(pTargetService);
-    Set<ServiceChannelInterceptor> lSpecificInterceptors = lComponent.getServiceChannelInterceptors();
+  private InterceptorChain getInterceptorChain( ComponentImplementation pComponent ) {
+    // Check parameter
+    Assert.assertNotNull(pComponent, "pComponent");
+
+    InterceptorChain lInterceptorChain = interceptorChains.get(pComponent);
+    if (lInterceptorChain == null) {
+      lInterceptorChain = new InterceptorChain(pComponent, globalInterceptors);
+      InterceptorChain lExistingChain = interceptorChains.putIfAbsent(pComponent, lInterceptorChain);
+      if (lExistingChain != null) {
+        lInterceptorChain = lExistingChain;
+      }
+    }
+    return lInterceptorChain;
+  }
 
-    // Compute size of list.
-    int lCapacity = globalInterceptors.size() + lSpecificInterceptors.size();
-    List<ServiceChannelInterceptor> lInterceptors = new ArrayList<ServiceChannelInterceptor>(lCapacity);
+  /**
+   * Method prepares the interceptor chain for the passed component. Calling this method is optional as chains will also
+   * be created on demand. However preparing them during startup avoids that this has to be done during the first
+   * service call.
+   * 
+   * @param pComponent Component whose interceptor chain should be prepared. The parameter must not be null.
+   */
+  public final void prepareInterceptorChain( ComponentImplementation pComponent ) {
+    // Check parameter
+    Check.checkInvalidParameterNull(pComponent, "pComponent");
 
-    // Add all interceptors to new list.
-    lInterceptors.addAll(globalInterceptors);
-    lInterceptors.addAll(lSpecificInterceptors);
+    this.getInterceptorChain(pComponent);
+  }
 
-    return lInterceptors;
+  /**
+   * Method activates the passed newly created transaction context. Transactions of a {@link LazyTxContext} will only be
+   * started when the first resource is used unless lazy transaction begin is disabled. All other transactions are
+   * started immediately. Transaction listeners are notified about the new transaction independent of when it is really
+   * started. However they are not notified about read only transactions.
+   * 
+   * @param pTxContext Newly created transaction context. The parameter must not be null.
+   * @param pReadOnly Parameter defines whether the transaction context was created for a read only service method.
+   */
+  private void activateTxContext( TxContext pTxContext, boolean pReadOnly ) {
+    // Mark transaction as read only.
+    final boolean lReadOnly = pReadOnly == true && pTxContext instanceof ReadOnlyTxContext;
+    if (lReadOnly == true) {
+      ((ReadOnlyTxContext) pTxContext).markReadOnly();
+    }
+
+    if (pTxContext instanceof LazyTxContext) {
+      LazyTxContext lLazyTxContext = (LazyTxContext) pTxContext;
+      lLazyTxContext.setTransactionStartCallback(txStartCallback);
+      if (lazyTxBeginEnabled == false) {
+        lLazyTxContext.startTransaction();
+      }
+    }
+    else {
+      statistics.transactionStarted();
+    }
+
+    // Notify transaction listeners about the new transaction.
+    if (lReadOnly == false) {
+      this.notifyStartedTransaction();
+    }
+  }
+
+  /**
+   * Method starts to monitor the timeout of the passed newly created transaction context. When the timeout expires the
+   * transaction will be marked for roll back (see {@link TxTimeoutWheel}).
+   * 
+   * @param pTxContext Newly created transaction context. The parameter must not be null.
+   * @param pTxTimeout Timeout of the transaction in milliseconds. 0 means that there is no timeout.
+   * @return {@link TxTimeout} Timeout that has to be cancelled before the transaction context is released. The method
+   * returns null if there is no timeout.
+   */
+  private TxTimeout startTxTimeout( TxContext pTxContext, long pTxTimeout ) {
+    TxTimeout lTxTimeout;
+    if (pTxTimeout > 0) {
+      lTxTimeout =
+          TxTimeoutWheel.getWheel().schedule(pTxContext, pTxTimeout, txTimeoutInterruptEnabled, statistics);
+    }
+    else {
+      lTxTimeout = null;
+    }
+    return lTxTimeout;
+  }
+
+  /**
+   * Method releases the passed transaction context that was created for the current service call. Transaction listeners
+   * are notified before the concrete implementation releases the transaction context unless the transaction is read
+   * only. If a synchronous listener fails, the transaction is rolled back and the exception of the listener is thrown.
+   * Transactions of a {@link LazyTxContext} that were never started are neither committed nor rolled back.
+   * 
+   * @param pTxContext Transaction context that should be released. The parameter must not be null.
+   */
+  private void releaseTxContext( TxContext pTxContext ) {
+    boolean lReadOnly = pTxContext instanceof ReadOnlyTxContext && ((ReadOnlyTxContext) pTxContext).isReadOnly();
+    try {
+      // Notify all transaction listeners while they can still take part in the transaction.
+      if (lReadOnly == false) {
+        this.notifyReleasingTransaction(pTxContext);
+      }
+    }
+    catch (RuntimeException | Error e) {
+      pTxContext.setRollbackOnly();
+      throw e;
+    }
+    finally {
+      boolean lReleased = false;
+      try {
+        // Notify concrete implementation that we are about to release the current transaction context.
+        if (pTxContext instanceof LazyTxContext == false
+            || ((LazyTxContext) pTxContext).isTransactionStarted() == true) {
+          this.releasingTxContext(pTxContext);
+        }
+        lReleased = true;
+      }
+      finally {
+        if (completionListeners != null && lReadOnly == false) {
+          this.notifyCompletingTransaction(pTxContext, lReleased);
+        }
+      }
+    }
   }
 
   /**
    * Method notifies all transaction listeners about the newly started transaction.
    */
   private void notifyStartedTransaction( ) {
-    for (TransactionListener lListener : transactionListeners) {
-      lListener.startedTransaction();
-    }
+    this.notifyTransactionListeners(TransactionEvent.STARTED);
   }
 
   /**
-   * Method notifies all transaction listeners that the transaction will either be committed or rolled back.
+   * Method notifies all transaction listeners about whether the transaction will be committed or rolled back.
    * 
-   * @param pTxContext Current transaction conntext
+   * @param pTxContext Current transaction context. The parameter must not be null.
    */
   private void notifyReleasingTransaction( TxContext pTxContext ) {
-    for (TransactionListener lListener : transactionListeners) {
+    if (synchronousTransactionListeners.length > 0 || asyncTransactionListeners != null) {
       if (pTxContext.getRollbackOnly() == false) {
-        lListener.committingTransaction();
+        this.notifyTransactionListeners(TransactionEvent.COMMITTING);
       }
       else {
-        lListener.rollbackingTransaction();
+        this.notifyTransactionListeners(TransactionEvent.ROLLBACKING);
       }
     }
   }
+
+  /**
+   * Method notifies all {@link TransactionCompletionListener}s once the passed transaction was completed (see
+   * {@link #afterCompletion(TxContext, TxCompletionCallback)}). If releasing the transaction context failed then the
+   * transaction is reported as rolled back immediately. Exceptions of listeners are only traced as the transaction is
+   * already completed.
+   * 
+   * @param pTxContext Transaction context that was released. The parameter must not be null.
+   * @param pReleased Parameter defines whether the transaction context was released successfully.
+   */
+  private void notifyCompletingTransaction( final TxContext pTxContext, boolean pReleased ) {
+    // Contexts are captured as the transaction might be completed after the service call already returned.
+    final ServiceInvocationContext lServiceInvocationContext =
+        serviceInvocationContextManager.getCurrentServiceInvocationContext();
+    if (pReleased == true) {
+      this.afterCompletion(pTxContext, new TxCompletionCallback() {
+        @Override
+        public void completed( boolean pCommitted ) {
+          TransactionEvent lEvent;
+          if (pCommitted == true) {
+            lEvent = TransactionEvent.COMMITTED;
+          }
+          else {
+            lEvent = TransactionEvent.ROLLED_BACK;
+          }
+          new TransactionNotification(lEvent, completionListeners, pTxContext, lServiceInvocationContext).deliver();
+        }
+      });
+    }
+    else {
+      new TransactionNotification(TransactionEvent.ROLLED_BACK, completionListeners, pTxContext,
+          lServiceInvocationContext).deliver();
+    }
+  }
+
+  /**
+   * Method notifies all transaction listeners about the passed event. Synchronous listeners are notified immediately.
+   * Asynchronous listeners will be notified by a background thread (see {@link TransactionEventDispatcher}). The
+   * current transaction context and service invocation context are captured so that they are still available to
+   * asynchronous listeners (see {@link TransactionEventContext}).
+   * 
+   * @param pEvent Event about which the listeners should be notified. The parameter must not be null.
+   */
+  private void notifyTransactionListeners( TransactionEvent pEvent ) {
+    TransactionListener[] lListeners = synchronousTransactionListeners;
+    for (int i = 0; i < lListeners.length; i++) {
+      pEvent.deliverTo(lListeners[i]);
+    }
+    if (asyncTransactionListeners != null) {
+      TransactionNotification lNotification = new TransactionNotification(pEvent, asyncTransactionListeners,
+          transactionContextManager.getCurrentTransactionContext(),
+          serviceInvocationContextManager.getCurrentServiceInvocationContext());
+      TransactionEventDispatcher.getDispatcher().dispatch(lNotification);
+    }
+  }
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class provides the executor that is used by default for asynchronous service calls. Depending on
+ * {@link ServiceChannelConfiguration} the executor either uses a pool of platform threads or one virtual thread per
+ * service call. As virtual threads are only available as of Java 21 the class falls back to platform threads on older
+ * JVMs.
+ *
+ * @author JEAF Development Team
+ */
+final class AsyncExecutors {
+  /**
+   * Prefix of the names of all platform threads that execute asynchronous service calls.
+   */
+  private static final String THREAD_NAME_PREFIX = "JEAF-Async-";
+
+  /**
+   * Class holds the default executor. It will only be created when the first asynchronous service call is executed.
+   */
+  private static final class Holder {
+    /**
+     * Default executor for asynchronous service calls.
+     */
+    static final Executor DEFAULT_EXECUTOR = AsyncExecutors.createDefaultExecutor();
+  }
+
+  /**
+   * Thread factory creates daemon threads so that the pool does not prevent the JVM from shutting down.
+   */
+  private static final class DaemonThreadFactory implements ThreadFactory {
+    /**
+     * Counter is used to create unique thread names.
+     */
+    private final AtomicInteger threadNumber = new AtomicInteger();
+
+    /**
+     * Method creates a new daemon thread.
+     *
+     * @param pRunnable Runnable that should be executed by the thread. The parameter must not be null.
+     * @return {@link Thread} Created thread. The method never returns null.
+     */
+    @Override
+    public Thread newThread( Runnable pRunnable ) {
+      Thread lThread = new Thread(pRunnable, THREAD_NAME_PREFIX + threadNumber.incrementAndGet());
+      lThread.setDaemon(true);
+      return lThread;
+    }
+  }
+
+  /**
+   * Constructor is private as only static methods are provided.
+   */
+  private AsyncExecutors( ) {
+    // Nothing to do.
+  }
+
+  /**
+   * Method returns the default executor for asynchronous service calls.
+   *
+   * @return {@link Executor} Default executor. The method never returns null.
+   */
+  static Executor getDefaultExecutor( ) {
+    return Holder.DEFAULT_EXECUTOR;
+  }
+
+  /**
+   * Method creates the default executor according to the configuration of the service channel.
+   *
+   * @return {@link Executor} Created executor. The method never returns null.
+   */
+  private static Executor createDefaultExecutor( ) {
+    ServiceChannelConfiguration lConfiguration = ServiceChannelConfiguration.getInstance();
+    Executor lExecutor = null;
+    if (lConfiguration.isAsyncVirtualThreadsEnabled() == true) {
+      lExecutor = AsyncExecutors.createVirtualThreadExecutor();
+    }
+    if (lExecutor == null) {
+      lExecutor = Executors.newFixedThreadPool(lConfiguration.getAsyncPoolSize(), new DaemonThreadFactory());
+    }
+    return lExecutor;
+  }
+
+  /**
+   * Method creates an executor that uses a new virtual thread for every task. As this code has to run on older JVMs
+   * too, the executor is created using reflection.
+   *
+   * @return {@link Executor} Created executor or null if the JVM does not support virtual threads.
+   */
+  private static Executor createVirtualThreadExecutor( ) {
+    Executor lExecutor;
+    try {
+      Method lFactoryMethod = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      lExecutor = (ExecutorService) lFactoryMethod.invoke(null);
+    }
+    catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+      lExecutor = null;
+    }
+    return lExecutor;
+  }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.io.Serializable;
+import java.util.concurrent.CompletableFuture;
+
+import com.anaptecs.jeaf.core.servicechannel.api.Command;
+import com.anaptecs.jeaf.core.spi.TransactionBehavior;
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+import com.anaptecs.jeaf.xfun.api.errorhandling.ApplicationException;
+
+/**
+ * Class represents a service call that is executed asynchronously by a worker thread. The result of the service call or
+ * the exception that occurred will be passed to the future that was returned to the caller.
+ *
+ * @author JEAF Development Team
+ */
+final class AsyncServiceCall implements Runnable {
+  /**
+   * Service channel that executes the service call.
+   */
+  private final AbstractServiceChannel serviceChannel;
+
+  /**
+   * Command that should be executed.
+   */
+  private final Command command;
+
+  /**
+   * Transaction behavior that is used for the service call.
+   */
+  private final TransactionBehavior transactionBehavior;
+
+  /**
+   * Context of the caller that was captured in the calling thread.
+   */
+  private final CallerContext callerContext;
+
+  /**
+   * Future that will be completed with the result of the service call.
+   */
+  private final CompletableFuture<Serializable> future;
+
+  /**
+   * Initialize object.
+   *
+   * @param pServiceChannel Service channel that executes the service call. The parameter must not be null.
+   * @param pCommand Command that should be executed. The parameter must not be null.
+   * @param pTransactionBehavior Transaction behavior that is used for the service call. The parameter must not be null.
+   * @param pCallerContext Context of the caller. The parameter must not be null.
+   */
+  AsyncServiceCall( AbstractServiceChannel pServiceChannel, Command pCommand, TransactionBehavior pTransactionBehavior,
+      CallerContext pCallerContext ) {
+    // Check parameters.
+    Assert.assertNotNull(pServiceChannel, "pServiceChannel");
+    Assert.assertNotNull(pCommand, "pCommand");
+    Assert.assertNotNull(pTransactionBehavior, "pTransactionBehavior");
+    Assert.assertNotNull(pCallerContext, "pCallerContext");
+
+    serviceChannel = pServiceChannel;
+    command = pCommand;
+    transactionBehavior = pTransactionBehavior;
+    callerContext = pCallerContext;
+    future = new CompletableFuture<Serializable>();
+  }
+
+  /**
+   * Method returns the future that will be completed with the result of the service call.
+   *
+   * @return {@link CompletableFuture} Future of the service call. The method never returns null.
+   */
+  CompletableFuture<Serializable> getFuture( ) {
+    return future;
+  }
+
+  /**
+   * Method executes the service call within the worker thread and completes the future.
+   */
+  @Override
+  public void run( ) {
+    try {
+      Serializable lResult = serviceChannel.executeAsyncServiceCall(command, transactionBehavior, callerContext);
+      future.complete(lResult);
+    }
+    catch (ApplicationException e) {
+      future.completeExceptionally(e);
+    }
+    catch (RuntimeException | Error e) {
+      future.completeExceptionally(e);
+    }
+  }
+}
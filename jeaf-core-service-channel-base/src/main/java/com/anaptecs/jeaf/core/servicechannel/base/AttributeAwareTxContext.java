@@ -0,0 +1,34 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+/**
+ * Interface has to be implemented by transaction contexts that are able to store attributes for the lifetime of their
+ * transaction. Attributes let infrastructure components keep state that belongs to a transaction without having to
+ * track transaction contexts on their own. They are still available while {@link TransactionCompletionListener}s are
+ * notified (see {@link TransactionEventContext#getTxContext()}).
+ *
+ * Attributes are not serialized together with the transaction context.
+ *
+ * @author JEAF Development Team
+ */
+public interface AttributeAwareTxContext {
+  /**
+   * Method returns the attribute with the passed key.
+   *
+   * @param pKey Key of the attribute. The parameter must not be null.
+   * @return Object Value of the attribute or null if the attribute is not set.
+   */
+  Object getAttribute( Object pKey );
+
+  /**
+   * Method sets the attribute with the passed key.
+   *
+   * @param pKey Key of the attribute. The parameter must not be null.
+   * @param pValue Value of the attribute. The parameter may be null. In this case the attribute is removed.
+   */
+  void setAttribute( Object pKey, Object pValue );
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.security.Principal;
+
+import com.anaptecs.jeaf.core.api.SessionContext;
+import com.anaptecs.jeaf.xfun.api.info.ApplicationInfo;
+
+/**
+ * Class contains the information about the caller of a service that has to be transferred to another thread when a
+ * service call is executed asynchronously. It is captured in the calling thread and used in the worker thread as if
+ * the service call would have been executed in the calling thread.
+ *
+ * Instances of this class are immutable.
+ *
+ * @author JEAF Development Team
+ */
+final class CallerContext {
+  /**
+   * Information about the application that invoked the service call. The reference is never null.
+   */
+  private final ApplicationInfo invokingApplication;
+
+  /**
+   * Session context of the caller. The reference may be null.
+   */
+  private final SessionContext sessionContext;
+
+  /**
+   * Principal of the caller. The reference may be null.
+   */
+  private final Principal principal;
+
+  /**
+   * Initialize object.
+   *
+   * @param pInvokingApplication Information about the invoking application. The parameter must not be null.
+   * @param pSessionContext Session context of the caller. The parameter may be null.
+   * @param pPrincipal Principal of the caller. The parameter may be null.
+   */
+  CallerContext( ApplicationInfo pInvokingApplication, SessionContext pSessionContext, Principal pPrincipal ) {
+    invokingApplication = pInvokingApplication;
+    sessionContext = pSessionContext;
+    principal = pPrincipal;
+  }
+
+  /**
+   * Method returns the information about the application that invoked the service call.
+   *
+   * @return {@link ApplicationInfo} Information about the invoking application.
+   */
+  ApplicationInfo getInvokingApplication( ) {
+    return invokingApplication;
+  }
+
+  /**
+   * Method returns the session context of the caller.
+   *
+   * @return {@link SessionContext} Session context of the caller. The method may return null.
+   */
+  SessionContext getSessionContext( ) {
+    return sessionContext;
+  }
+
+  /**
+   * Method returns the principal of the caller.
+   *
+   * @return {@link Principal} Principal of the caller. The method may return null.
+   */
+  Principal getPrincipal( ) {
+    return principal;
+  }
+}
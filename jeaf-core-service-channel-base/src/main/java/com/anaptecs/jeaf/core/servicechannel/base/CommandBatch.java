@@ -0,0 +1,135 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.anaptecs.jeaf.core.api.Service;
+import com.anaptecs.jeaf.core.servicechannel.api.Command;
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+
+/**
+ * Class represents a batch of commands that will be executed through the service channel with one single call. All
+ * commands of the batch share one transaction context and one root service invocation context. Service channel
+ * interceptors are still called for every single command.
+ *
+ * A batch is executed like any other command using one of the <code>executeCommandTx*(...)</code> methods of the
+ * service channel. The chosen transaction behavior applies to the batch as a whole and all commands join the resulting
+ * transaction. The result of the execution is a {@link CommandBatchResult} which contains the results and exceptions of
+ * all commands. As a batch is a command itself it is transferred to a remote service channel within one round trip.
+ *
+ * As all commands share one transaction a runtime exception of a single command causes a rollback of the changes of
+ * all commands. In this case all commands of the batch are reported as failed, also if the batch is not executed in
+ * fail fast mode.
+ *
+ * Command batches can only be executed by service channels that are derived from {@link AbstractServiceChannel}.
+ *
+ * @author JEAF Development Team
+ */
+public final class CommandBatch extends Command {
+  /**
+   * Default serial version uid.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Commands of this batch. The list is never null and contains at least one command.
+   */
+  private final List<Command> commands;
+
+  /**
+   * Attribute defines whether the execution of the batch should stop with the first failed command. In this case a
+   * transaction that was started for the batch will be rolled back.
+   */
+  private final boolean failFast;
+
+  /**
+   * Initialize object.
+   *
+   * @param pCommands Commands that should be executed in the defined order. The parameter must not be null and must
+   * contain at least one command.
+   * @param pFailFast Parameter defines whether the execution of the batch should stop with the first failed command. If
+   * a transaction was started for the batch then it will be rolled back. Otherwise the remaining commands will be
+   * executed.
+   */
+  public CommandBatch( List<? extends Command> pCommands, boolean pFailFast ) {
+    super(CommandBatch.resolveTargetServiceClass(pCommands));
+    commands = Collections.unmodifiableList(new ArrayList<Command>(pCommands));
+    failFast = pFailFast;
+  }
+
+  /**
+   * Method resolves the target service class of the batch. As a command always requires a target service the one of
+   * the first command is used.
+   *
+   * @param pCommands Commands of the batch. The parameter must not be null and must contain at least one command.
+   * @return {@link Class} Target service class of the first command. The method never returns null.
+   */
+  private static Class<? extends Service> resolveTargetServiceClass( List<? extends Command> pCommands ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pCommands, "pCommands");
+    Check.checkMinimumCollectionSize(pCommands, 1);
+
+    return pCommands.get(0).getTargetServiceClass();
+  }
+
+  /**
+   * Method returns the commands of this batch.
+   *
+   * @return {@link List} Unmodifiable list with all commands of the batch. The method never returns null.
+   */
+  public List<Command> getCommands( ) {
+    return commands;
+  }
+
+  /**
+   * Method checks whether the execution of the batch should stop with the first failed command.
+   *
+   * @return boolean Method returns true if the execution should stop with the first failed command and false if all
+   * commands should be executed.
+   */
+  public boolean isFailFast( ) {
+    return failFast;
+  }
+
+  /**
+   * Command batches are executed by the service channel itself and never by a service. Thus this method must not be
+   * called.
+   *
+   * @param pTargetService Target service. The parameter is ignored.
+   * @return {@link Serializable} The method never returns.
+   */
+  @Override
+  public Serializable execute( Service pTargetService ) {
+    Assert.internalError("Command batches can only be executed by " + AbstractServiceChannel.class.getName());
+    return null;
+  }
+
+  /**
+   * Method returns the service method of the first command of the batch.
+   *
+   * @return {@link Method} Service method of the first command. The method never returns null.
+   */
+  @Override
+  public Method getServiceMethod( ) {
+    return commands.get(0).getServiceMethod();
+  }
+
+  /**
+   * Method returns the commands of the batch as parameters.
+   *
+   * @return {@link Object} Array with all commands of the batch. The method never returns null.
+   */
+  @Override
+  public Object[] getParameters( ) {
+    return commands.toArray();
+  }
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.io.Serializable;
+
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+
+/**
+ * Class contains the results of all commands of a {@link CommandBatch}. The results are accessed using the index of
+ * the command within the batch. Commands that were not executed as the execution of a fail fast batch stopped before
+ * neither have a result nor an exception.
+ *
+ * @author JEAF Development Team
+ */
+public final class CommandBatchResult implements Serializable {
+  /**
+   * Default serial version uid.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Results of all commands. The array has the same size as the batch.
+   */
+  private final Serializable[] results;
+
+  /**
+   * Exceptions of all commands. The array has the same size as the batch. Successful commands have no exception.
+   */
+  private final Exception[] exceptions;
+
+  /**
+   * Number of commands that were executed.
+   */
+  private int executedCommands;
+
+  /**
+   * Initialize object.
+   *
+   * @param pSize Number of commands of the batch.
+   */
+  CommandBatchResult( int pSize ) {
+    results = new Serializable[pSize];
+    exceptions = new Exception[pSize];
+  }
+
+  /**
+   * Method records the result of a successfully executed command.
+   *
+   * @param pIndex Index of the command within the batch.
+   * @param pResult Result of the command. The parameter may be null.
+   */
+  void commandSucceeded( int pIndex, Serializable pResult ) {
+    results[pIndex] = pResult;
+    executedCommands++;
+  }
+
+  /**
+   * Method records the exception of a failed command.
+   *
+   * @param pIndex Index of the command within the batch.
+   * @param pException Exception that occurred during the execution of the command. The parameter must not be null.
+   */
+  void commandFailed( int pIndex, Exception pException ) {
+    // Check parameter.
+    Assert.assertNotNull(pException, "pException");
+
+    exceptions[pIndex] = pException;
+    executedCommands++;
+  }
+
+  /**
+   * Method records that the changes of an already successfully executed command were rolled back as the transaction of
+   * the batch was marked for rollback.
+   *
+   * @param pIndex Index of the command within the batch.
+   * @param pException Exception that describes the rollback. The parameter must not be null.
+   */
+  void commandRolledBack( int pIndex, Exception pException ) {
+    // Check parameter.
+    Assert.assertNotNull(pException, "pException");
+
+    results[pIndex] = null;
+    exceptions[pIndex] = pException;
+  }
+
+  /**
+   * Method returns the number of commands of the batch.
+   *
+   * @return int Number of commands of the batch.
+   */
+  public int size( ) {
+    return results.length;
+  }
+
+  /**
+   * Method returns the number of commands that were executed. In case of a fail fast batch the number may be smaller
+   * than the size of the batch.
+   *
+   * @return int Number of executed commands.
+   */
+  public int getExecutedCommands( ) {
+    return executedCommands;
+  }
+
+  /**
+   * Method checks whether all commands of the batch were executed successfully.
+   *
+   * @return boolean Method returns true if all commands were executed successfully and false otherwise.
+   */
+  public boolean isSuccessful( ) {
+    boolean lSuccessful = executedCommands == results.length;
+    for (int i = 0; i < exceptions.length && lSuccessful == true; i++) {
+      lSuccessful = exceptions[i] == null;
+    }
+    return lSuccessful;
+  }
+
+  /**
+   * Method checks whether the command with the passed index was executed successfully.
+   *
+   * @param pIndex Index of the command within the batch.
+   * @return boolean Method returns true if the command was executed without exception and false otherwise.
+   */
+  public boolean isSuccessful( int pIndex ) {
+    return pIndex < executedCommands && exceptions[pIndex] == null;
+  }
+
+  /**
+   * Method returns the result of the command with the passed index.
+   *
+   * @param pIndex Index of the command within the batch.
+   * @return {@link Serializable} Result of the command. The method returns null if the command did not return a result,
+   * failed or was not executed.
+   */
+  public Serializable getResult( int pIndex ) {
+    return results[pIndex];
+  }
+
+  /**
+   * Method returns the exception of the command with the passed index.
+   *
+   * @param pIndex Index of the command within the batch.
+   * @return {@link Exception} Exception that occurred during the execution of the command. The method returns null if
+   * the command was successful or was not executed. Exceptions are either application or runtime exceptions.
+   */
+  public Exception getException( int pIndex ) {
+    return exceptions[pIndex];
+  }
+}
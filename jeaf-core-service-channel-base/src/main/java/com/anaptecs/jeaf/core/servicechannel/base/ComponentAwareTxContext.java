@@ -0,0 +1,28 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import com.anaptecs.jeaf.core.spi.ComponentImplementation;
+
+/**
+ * Interface has to be implemented by transaction contexts that manage resources per component. The service channel
+ * tells such a transaction context the component of every service call that is executed within its transaction. This
+ * way the transaction context does not have to resolve the component from the current service invocation context
+ * whenever a resource is requested.
+ *
+ * @author JEAF Development Team
+ */
+public interface ComponentAwareTxContext {
+  /**
+   * Method binds the passed component to this transaction context. The component stays bound until another component
+   * is bound.
+   *
+   * @param pComponent Component of the service call that is executed within the transaction. The parameter may be null.
+   * @return {@link ComponentImplementation} Component that was bound before. The method may return null. The service
+   * channel binds it again when the current service call completed.
+   */
+  ComponentImplementation bindComponent( ComponentImplementation pComponent );
+}
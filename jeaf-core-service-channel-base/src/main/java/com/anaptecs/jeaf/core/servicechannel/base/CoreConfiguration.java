@@ -84,17 +84,30 @@ public class CoreConfiguration extends AnnotationBasedConfiguration<CoreConfig>
     super(CoreConfig.JEAF_CORE_CONFIG_RESOURCE_NAME, JEAF.CORE_BASE_PATH, true);
 
     // In addition to standard configuration from annotation we also load component factories, service providers and
-    // activity implementations.
-    ConfigurationReader lReader = new ConfigurationReader();
-    componentFactoryClasses = lReader.readClassesFromConfigFile(
-        com.anaptecs.jeaf.core.annotations.ComponentFactory.COMPONENT_FACTORIES_RESOURCE_NAME, JEAF.CORE_BASE_PATH,
-        ComponentFactory.class);
-    serviceProviderFactoryClasses = lReader.readClassesFromConfigFile(
-        com.anaptecs.jeaf.core.annotations.ServiceProviderFactory.SERVICE_PROVIDER_FACTORIES_RESOURCE_NAME,
-        JEAF.CORE_BASE_PATH, ServiceProviderFactory.class);
-    activityImplClasses = lReader.readClassesFromConfigFile(
-        com.anaptecs.jeaf.core.annotations.JEAFActivityImpl.ACTIVITIES_IMPL_RESOURCE_NAME, JEAF.CORE_BASE_PATH,
-        Activity.class);
+    // activity implementations. If a startup snapshot is available they are taken from there.
+    StartupSnapshot lSnapshot = StartupSnapshot.getInstance();
+    componentFactoryClasses = lSnapshot.getClasses(StartupSnapshot.COMPONENT_FACTORIES, ComponentFactory.class);
+    serviceProviderFactoryClasses =
+        lSnapshot.getClasses(StartupSnapshot.SERVICE_PROVIDER_FACTORIES, ServiceProviderFactory.class);
+    activityImplClasses = lSnapshot.getClasses(StartupSnapshot.ACTIVITIES, Activity.class);
+
+    if (componentFactoryClasses == null || serviceProviderFactoryClasses == null || activityImplClasses == null) {
+      ConfigurationReader lReader = new ConfigurationReader();
+      componentFactoryClasses = lReader.readClassesFromConfigFile(
+          com.anaptecs.jeaf.core.annotations.ComponentFactory.COMPONENT_FACTORIES_RESOURCE_NAME, JEAF.CORE_BASE_PATH,
+          ComponentFactory.class);
+      serviceProviderFactoryClasses = lReader.readClassesFromConfigFile(
+          com.anaptecs.jeaf.core.annotations.ServiceProviderFactory.SERVICE_PROVIDER_FACTORIES_RESOURCE_NAME,
+          JEAF.CORE_BASE_PATH, ServiceProviderFactory.class);
+      activityImplClasses = lReader.readClassesFromConfigFile(
+          com.anaptecs.jeaf.core.annotations.JEAFActivityImpl.ACTIVITIES_IMPL_RESOURCE_NAME, JEAF.CORE_BASE_PATH,
+          Activity.class);
+
+      // Remember resolved classes for the next startup.
+      lSnapshot.setClasses(StartupSnapshot.COMPONENT_FACTORIES, componentFactoryClasses);
+      lSnapshot.setClasses(StartupSnapshot.SERVICE_PROVIDER_FACTORIES, serviceProviderFactoryClasses);
+      lSnapshot.setClasses(StartupSnapshot.ACTIVITIES, activityImplClasses);
+    }
   }
 
   @Override
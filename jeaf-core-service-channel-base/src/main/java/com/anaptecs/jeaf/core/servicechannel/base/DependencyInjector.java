@@ -8,12 +8,13 @@ package com.anaptecs.jeaf.core.servicechannel.base;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 import com.anaptecs.jeaf.core.annotations.JEAFActivity;
 import com.anaptecs.jeaf.core.annotations.JEAFService;
 import com.anaptecs.jeaf.core.annotations.JEAFServiceProvider;
-import com.anaptecs.jeaf.core.annotations.JEAFTrace;
 import com.anaptecs.jeaf.core.api.Activity;
 import com.anaptecs.jeaf.core.api.MessageConstants;
 import com.anaptecs.jeaf.core.api.Service;
@@ -22,15 +23,32 @@ import com.anaptecs.jeaf.core.servicechannel.api.LifecycleManager;
 import com.anaptecs.jeaf.xfun.api.XFun;
 import com.anaptecs.jeaf.xfun.api.checks.Assert;
 import com.anaptecs.jeaf.xfun.api.checks.Check;
-import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFSystemException;
-import com.anaptecs.jeaf.xfun.api.trace.Trace;
 
 /**
- * Class is responsible to inject dependencies to objects.
+ * Class is responsible to inject dependencies to objects. The injection points of every class are resolved only once
+ * and are cached for all instances of this class, so that injecting dependencies into an object of an already known
+ * class only requires the lookup of the dependencies and plain field writes. Instances of this class are thread safe
+ * and are shared by all callers of a lifecycle manager.
  * 
  * @author JEAF Development Team
  */
 class DependencyInjector {
+  /**
+   * Empty array that is used for all classes without injection points.
+   */
+  private static final InjectionPoint[] NO_INJECTION_POINTS = new InjectionPoint[] {};
+
+  /**
+   * Cache with the injection points of all classes into which dependencies were injected. The injection points of a
+   * class include the ones of its parent classes.
+   */
+  private static final ClassValue<InjectionPoint[]> INJECTION_POINTS = new ClassValue<InjectionPoint[]>() {
+    @Override
+    protected InjectionPoint[] computeValue( Class<?> pClass ) {
+      return resolveInjectionPoints(pClass);
+    }
+  };
+
   /**
    * Reference to lifecycle manager. Lifecycle manager is needed to resolve the declared dependencies.
    */
@@ -60,17 +78,11 @@ class DependencyInjector {
     // Check parameter.
     Check.checkInvalidParameterNull(pObject, "pObject");
 
-    // Inject dependencies to all services
-    this.injectServiceDependencies(pObject);
-
-    // Inject dependencies to all service providers
-    this.injectServiceProviderDependencies(pObject);
-
-    // Inject dependencies to all service providers
-    this.injectActivityDependencies(pObject);
-
-    // Inject dependency to trace object.
-    this.injectTraceDependencies(pObject);
+    // Inject dependencies to all services, service providers, activities and trace objects.
+    InjectionPoint[] lInjectionPoints = INJECTION_POINTS.get(pObject.getClass());
+    for (int i = 0; i < lInjectionPoints.length; i++) {
+      this.injectObject(pObject, lInjectionPoints[i], this.resolveDependency(lInjectionPoints[i]));
+    }
   }
 
   /**
@@ -91,149 +103,104 @@ class DependencyInjector {
   }
 
   /**
-   * Method injects dependencies to all service that are declared by the passed objects.
+   * Method resolves the dependency of the passed injection point.
    * 
-   * @param pObject Object on which all dependencies should be injected. The parameter must not be null.
+   * @param pInjectionPoint Injection point whose dependency should be resolved. The parameter must not be null.
+   * @return Object Service proxy, service provider, activity or trace object that should be injected. The method never
+   * returns null.
    */
-  private void injectServiceDependencies( Object pObject ) {
-    // Get all fields that declare a dependency to a JEAF service.
-    Class<?> lClass = pObject.getClass();
-    Collection<Field> lAnnotatedFields = this.getAnnotatedFields(lClass, JEAFService.class);
-
-    // Inject dependencies on all fields
-    for (Field lNextField : lAnnotatedFields) {
-      // Lookup desired service.
-      @SuppressWarnings("unchecked")
-      Service lDependency =
-          lifecycleManager.getServiceRegistry().getServiceProxy((Class<? extends Service>) lNextField.getType());
-
-      // Inject service on object.
-      this.injectObject(pObject, lNextField, lDependency);
+  @SuppressWarnings("unchecked")
+  private Object resolveDependency( InjectionPoint pInjectionPoint ) {
+    Class<?> lType = pInjectionPoint.getType();
+    Class<? extends Annotation> lAnnotation = pInjectionPoint.getAnnotation();
+    Object lDependency;
+    if (lAnnotation == JEAFService.class) {
+      lDependency = lifecycleManager.getServiceRegistry().getServiceProxy((Class<? extends Service>) lType);
     }
-  }
-
-  /**
-   * Method injects dependencies to all service providers that are declared by the passed objects.
-   * 
-   * @param pObject Object on which all dependencies should be injected. The parameter must not be null.
-   */
-  private void injectServiceProviderDependencies( Object pObject ) {
-    // Get all fields that declare a dependency to a JEAF service.
-    Class<?> lClass = pObject.getClass();
-    Collection<Field> lAnnotatedFields = this.getAnnotatedFields(lClass, JEAFServiceProvider.class);
-
-    // Inject dependencies on all fields
-    for (Field lNextField : lAnnotatedFields) {
-      // Lookup desired service provider.
-      @SuppressWarnings("unchecked")
-      ServiceProvider lDependency = lifecycleManager.getServiceProviderRegistry()
-          .getServiceProvider((Class<? extends ServiceProvider>) lNextField.getType());
-
-      // Inject service on object.
-      this.injectObject(pObject, lNextField, lDependency);
+    else if (lAnnotation == JEAFServiceProvider.class) {
+      lDependency =
+          lifecycleManager.getServiceProviderRegistry().getServiceProvider((Class<? extends ServiceProvider>) lType);
     }
-  }
-
-  /**
-   * Method injects dependencies to all activities that are declared by the passed objects.
-   * 
-   * @param pObject Object on which all dependencies should be injected. The parameter must not be null.
-   */
-  private void injectActivityDependencies( Object pObject ) {
-    // Get all fields that declare a dependency to a JEAF service.
-    Class<?> lClass = pObject.getClass();
-    Collection<Field> lAnnotatedFields = this.getAnnotatedFields(lClass, JEAFActivity.class);
-
-    // Inject dependencies on all fields
-    for (Field lNextField : lAnnotatedFields) {
-      // Lookup desired activity.
-      @SuppressWarnings("unchecked")
-      Activity lDependency =
-          lifecycleManager.getActivityRegistry().getActivity((Class<? extends Activity>) lNextField.getType());
-
-      // Inject service on object.
-      this.injectObject(pObject, lNextField, lDependency);
+    else if (lAnnotation == JEAFActivity.class) {
+      lDependency = lifecycleManager.getActivityRegistry().getActivity((Class<? extends Activity>) lType);
     }
-  }
-
-  /**
-   * Method injects dependencies to the current trace object for the passed object.
-   * 
-   * @param pObject Object on which the trace dependency should be injected. The parameter must not be null.
-   */
-  private void injectTraceDependencies( Object pObject ) {
-    // Get all fields that declare a dependency to a JEAF service.
-    Class<? extends Object> lClass = pObject.getClass();
-    Collection<Field> lAnnotatedFields = this.getAnnotatedFields(lClass, JEAFTrace.class);
-
-    // Inject dependencies on all fields
-    for (Field lNextField : lAnnotatedFields) {
-      // Get current trace
-      Trace lDependency = XFun.getTrace();
-
-      // Inject service on object.
-      this.injectObject(pObject, lNextField, lDependency);
+    else {
+      lDependency = XFun.getTrace();
     }
+    return lDependency;
   }
 
   /**
-   * Method returns all fields of the class and all of it parent classes, that have a dependency to any JEAFService
-   * (defined by an annotation).
+   * Method resolves all injection points of the class and all of it parent classes. Injection points of classes that
+   * are contained in the startup index (see {@link StartupIndex}) are taken from there. All other classes are searched
+   * by reflection. The injection points of the parent class are taken from the cache.
    * 
-   * @param pClass Class for which all dependencies to JEAF services should be returned. *
-   * @return {@link Collection} Collection contains all fields of the class and its parent classes that declare a
-   * dependency to a JEAF service. The method never returns null.
+   * @param pClass Class for which all injection points should be resolved. The parameter must not be null.
+   * @return {@link InjectionPoint} Array contains all injection points of the class and its parent classes. The method
+   * never returns null.
    */
-  private Collection<Field> getAnnotatedFields( Class<?> pClass, Class<? extends Annotation> pAnnotation ) {
+  private static InjectionPoint[] resolveInjectionPoints( Class<?> pClass ) {
     // Check parameter.
     Assert.assertNotNull(pClass, "pClass");
-    Assert.assertNotNull(pAnnotation, "pAnnotation");
 
-    Collection<Field> lAnnotatedFields = new ArrayList<Field>(0);
-    for (Field lNextField : pClass.getDeclaredFields()) {
-      if (lNextField.isAnnotationPresent(pAnnotation) == true) {
-        lAnnotatedFields.add(lNextField);
+    InjectionPoint[] lInjectionPoints;
+    if (pClass.isInterface() == false && pClass != Object.class) {
+      // Resolve injection points that are declared by the class itself.
+      StartupIndex lStartupIndex = StartupIndex.getInstance();
+      List<InjectionPoint> lDeclaredInjectionPoints = lStartupIndex.getInjectionPoints(pClass);
+      if (lDeclaredInjectionPoints == null) {
+        lDeclaredInjectionPoints = new ArrayList<InjectionPoint>(0);
+        for (Field lNextField : pClass.getDeclaredFields()) {
+          for (Class<? extends Annotation> lAnnotation : StartupIndex.INJECTION_ANNOTATIONS) {
+            if (lNextField.isAnnotationPresent(lAnnotation) == true) {
+              lDeclaredInjectionPoints.add(new InjectionPoint(lNextField, lAnnotation));
+            }
+          }
+        }
+        lStartupIndex.recordInjectionPoints(pClass, lDeclaredInjectionPoints);
       }
-    }
 
-    // Check parent class.
-    Class<?> lSuperclass = pClass.getSuperclass();
-    if (lSuperclass != null) {
-      Collection<Field> lSuperclassDependencies = this.getAnnotatedFields(lSuperclass, pAnnotation);
-      lAnnotatedFields.addAll(lSuperclassDependencies);
-    }
+      // Write trace message once per injection point instead of every injection.
+      for (InjectionPoint lInjectionPoint : lDeclaredInjectionPoints) {
+        XFun.getTrace().write(MessageConstants.INJECTING_DEPENDENCY, lInjectionPoint.getType().getName(),
+            pClass.getName());
+      }
 
-    // Return all annotated fields.
-    return lAnnotatedFields;
+      // Add injection points of parent classes.
+      InjectionPoint[] lParentInjectionPoints;
+      if (pClass.getSuperclass() != null) {
+        lParentInjectionPoints = INJECTION_POINTS.get(pClass.getSuperclass());
+      }
+      else {
+        lParentInjectionPoints = NO_INJECTION_POINTS;
+      }
+      if (lDeclaredInjectionPoints.isEmpty() == true) {
+        lInjectionPoints = lParentInjectionPoints;
+      }
+      else {
+        lDeclaredInjectionPoints.addAll(Arrays.asList(lParentInjectionPoints));
+        lInjectionPoints = lDeclaredInjectionPoints.toArray(new InjectionPoint[lDeclaredInjectionPoints.size()]);
+      }
+    }
+    else {
+      lInjectionPoints = NO_INJECTION_POINTS;
+    }
+    return lInjectionPoints;
   }
 
   /**
    * Method injects the passed dependency on the passed object.
    * 
    * @param pObject Object on which the dependent object should be injected. The parameter must not be null.
-   * @param pField Fields of the object on which the dependent object should be injected. The parameter must not be
-   * null.
+   * @param pInjectionPoint Injection point of the object on which the dependent object should be injected. The
+   * parameter must not be null.
    * @param pDependency Dependent object that should be injected on the object. The parameter must not be null.
    */
-  private void injectObject( Object pObject, Field pField, Object pDependency ) {
-    // Check parameters.
-    Check.checkInvalidParameterNull(pObject, "pObject");
-    Check.checkInvalidParameterNull(pField, "pField");
+  private void injectObject( Object pObject, InjectionPoint pInjectionPoint, Object pDependency ) {
+    // Check parameter.
     Check.checkInvalidParameterNull(pDependency, "pDependency");
 
-    try {
-      // Write trace message
-      XFun.getTrace().write(MessageConstants.INJECTING_DEPENDENCY, pField.getType().getName(),
-          pObject.getClass().getName());
-
-      // Inject dependency via reflection call.
-      pField.setAccessible(true);
-      pField.set(pObject, pDependency);
-    }
-    // Handle exception of reflection cause.
-    catch (IllegalAccessException e) {
-      throw new JEAFSystemException(MessageConstants.UNABLE_TO_INJECT_DEPENDENCY, e, pField.getType().getName(),
-          pObject.getClass().getName());
-    }
+    // Inject dependency via its prepared setter.
+    pInjectionPoint.inject(pObject, pDependency);
   }
 }
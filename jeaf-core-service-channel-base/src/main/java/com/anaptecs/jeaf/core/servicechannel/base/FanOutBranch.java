@@ -0,0 +1,115 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.io.Serializable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+
+import com.anaptecs.jeaf.core.servicechannel.api.Command;
+import com.anaptecs.jeaf.core.spi.TransactionBehavior;
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+import com.anaptecs.jeaf.xfun.api.errorhandling.ApplicationException;
+
+/**
+ * Class represents one branch of a parallel fan out. It executes its command with transaction behavior REQUIRES_NEW
+ * within a worker thread and records the result in the {@link FanOutResult}.
+ *
+ * @author JEAF Development Team
+ */
+final class FanOutBranch implements Runnable {
+  /**
+   * Service channel that executes the command.
+   */
+  private final AbstractServiceChannel serviceChannel;
+
+  /**
+   * Command of this branch.
+   */
+  private final Command command;
+
+  /**
+   * Index of this branch within the fan out.
+   */
+  private final int index;
+
+  /**
+   * Context of the caller that was captured in the calling thread.
+   */
+  private final CallerContext callerContext;
+
+  /**
+   * Result of the fan out to which the result of this branch is added.
+   */
+  private final FanOutResult fanOutResult;
+
+  /**
+   * Semaphore that limits the number of concurrently executed branches. The branch releases its permit when done.
+   */
+  private final Semaphore permits;
+
+  /**
+   * Latch is used to signal the completion of the branch to the caller.
+   */
+  private final CountDownLatch completion;
+
+  /**
+   * Initialize object.
+   *
+   * @param pServiceChannel Service channel that executes the command. The parameter must not be null.
+   * @param pCommand Command of this branch. The parameter must not be null.
+   * @param pIndex Index of this branch within the fan out.
+   * @param pCallerContext Context of the caller. The parameter must not be null.
+   * @param pFanOutResult Result of the fan out. The parameter must not be null.
+   * @param pPermits Semaphore that limits concurrency. The parameter must not be null.
+   * @param pCompletion Latch to signal completion. The parameter must not be null.
+   */
+  FanOutBranch( AbstractServiceChannel pServiceChannel, Command pCommand, int pIndex, CallerContext pCallerContext,
+      FanOutResult pFanOutResult, Semaphore pPermits, CountDownLatch pCompletion ) {
+    // Check parameters.
+    Assert.assertNotNull(pServiceChannel, "pServiceChannel");
+    Assert.assertNotNull(pCommand, "pCommand");
+    Assert.assertNotNull(pCallerContext, "pCallerContext");
+    Assert.assertNotNull(pFanOutResult, "pFanOutResult");
+    Assert.assertNotNull(pPermits, "pPermits");
+    Assert.assertNotNull(pCompletion, "pCompletion");
+
+    serviceChannel = pServiceChannel;
+    command = pCommand;
+    index = pIndex;
+    callerContext = pCallerContext;
+    fanOutResult = pFanOutResult;
+    permits = pPermits;
+    completion = pCompletion;
+  }
+
+  /**
+   * Method executes the command of this branch within its own transaction.
+   */
+  @Override
+  public void run( ) {
+    long lStart = System.nanoTime();
+    try {
+      Serializable lResult =
+          serviceChannel.executeAsyncServiceCall(command, TransactionBehavior.REQUIRES_NEW, callerContext);
+      fanOutResult.branchSucceeded(index, lResult, System.nanoTime() - lStart);
+    }
+    catch (ApplicationException | RuntimeException | Error e) {
+      fanOutResult.branchFailed(index, e, System.nanoTime() - lStart);
+    }
+    finally {
+      this.completed();
+    }
+  }
+
+  /**
+   * Method signals that this branch is done. It is also used if the branch could not be passed to the executor.
+   */
+  void completed( ) {
+    permits.release();
+    completion.countDown();
+  }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.io.Serializable;
+
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+
+/**
+ * Class contains the results of commands that were executed in parallel (see
+ * {@link AbstractServiceChannel#executeCommandsParallel(java.util.List, int)}). Every command is a branch of the fan
+ * out. Results, exceptions and execution times are accessed using the index of the command.
+ *
+ * Results are written by the worker threads. They are only visible to the caller after the fan out completed.
+ *
+ * @author JEAF Development Team
+ */
+public final class FanOutResult {
+  /**
+   * Results of all branches.
+   */
+  private final Serializable[] results;
+
+  /**
+   * Failures of all branches. Successful branches have no failure.
+   */
+  private final Throwable[] failures;
+
+  /**
+   * Execution time of every branch in nanoseconds.
+   */
+  private final long[] durations;
+
+  /**
+   * Execution time of the whole fan out in nanoseconds.
+   */
+  private long totalDuration;
+
+  /**
+   * Initialize object.
+   *
+   * @param pSize Number of branches.
+   */
+  FanOutResult( int pSize ) {
+    results = new Serializable[pSize];
+    failures = new Throwable[pSize];
+    durations = new long[pSize];
+  }
+
+  /**
+   * Method records the result of a successful branch.
+   *
+   * @param pIndex Index of the branch.
+   * @param pResult Result of the command. The parameter may be null.
+   * @param pDuration Execution time of the branch in nanoseconds.
+   */
+  void branchSucceeded( int pIndex, Serializable pResult, long pDuration ) {
+    results[pIndex] = pResult;
+    durations[pIndex] = pDuration;
+  }
+
+  /**
+   * Method records the failure of a branch.
+   *
+   * @param pIndex Index of the branch.
+   * @param pFailure Exception or error that occurred. The parameter must not be null.
+   * @param pDuration Execution time of the branch in nanoseconds.
+   */
+  void branchFailed( int pIndex, Throwable pFailure, long pDuration ) {
+    // Check parameter.
+    Assert.assertNotNull(pFailure, "pFailure");
+
+    failures[pIndex] = pFailure;
+    durations[pIndex] = pDuration;
+  }
+
+  /**
+   * Method sets the execution time of the whole fan out.
+   *
+   * @param pTotalDuration Execution time in nanoseconds.
+   */
+  void setTotalDuration( long pTotalDuration ) {
+    totalDuration = pTotalDuration;
+  }
+
+  /**
+   * Method returns the number of branches.
+   *
+   * @return int Number of branches.
+   */
+  public int size( ) {
+    return results.length;
+  }
+
+  /**
+   * Method checks whether all branches were executed successfully.
+   *
+   * @return boolean Method returns true if no branch failed and false otherwise.
+   */
+  public boolean isSuccessful( ) {
+    boolean lSuccessful = true;
+    for (int i = 0; i < failures.length && lSuccessful == true; i++) {
+      lSuccessful = failures[i] == null;
+    }
+    return lSuccessful;
+  }
+
+  /**
+   * Method checks whether the branch with the passed index was executed successfully.
+   *
+   * @param pIndex Index of the branch.
+   * @return boolean Method returns true if the branch was successful and false otherwise.
+   */
+  public boolean isSuccessful( int pIndex ) {
+    return failures[pIndex] == null;
+  }
+
+  /**
+   * Method returns the result of the branch with the passed index.
+   *
+   * @param pIndex Index of the branch.
+   * @return {@link Serializable} Result of the command. The method returns null if the command did not return a result
+   * or failed.
+   */
+  public Serializable getResult( int pIndex ) {
+    return results[pIndex];
+  }
+
+  /**
+   * Method returns the failure of the branch with the passed index.
+   *
+   * @param pIndex Index of the branch.
+   * @return {@link Throwable} Exception or error that occurred during the execution of the branch. The method returns
+   * null if the branch was successful.
+   */
+  public Throwable getFailure( int pIndex ) {
+    return failures[pIndex];
+  }
+
+  /**
+   * Method returns the execution time of the branch with the passed index. The time is measured within the worker
+   * thread and does not include the time the branch was waiting for execution.
+   *
+   * @param pIndex Index of the branch.
+   * @return long Execution time in nanoseconds.
+   */
+  public long getDuration( int pIndex ) {
+    return durations[pIndex];
+  }
+
+  /**
+   * Method returns the execution time of the whole fan out as seen by the caller.
+   *
+   * @return long Execution time in nanoseconds.
+   */
+  public long getTotalDuration( ) {
+    return totalDuration;
+  }
+}
@@ -11,10 +11,15 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import javax.naming.NamingException;
 import javax.security.auth.Subject;
@@ -99,6 +104,66 @@ public abstract class GenericLifecycleManager extends AbstractLifecycleManager {
     }
   }
 
+  /**
+   * Class contains everything that was created for a component during startup. Creating these objects is independent
+   * from other components, whereas their registration has to be done in the configured order of the components.
+   */
+  private static final class ComponentStartup {
+    /**
+     * Created component.
+     */
+    private final ComponentImplementation component;
+
+    /**
+     * Service instances of the component.
+     */
+    private final List<ServiceImplementation> serviceInstances = new ArrayList<ServiceImplementation>();
+
+    /**
+     * Service proxies of the component. The list has the same order as {@link #serviceInstances}.
+     */
+    private final List<ServiceProxy> serviceProxies = new ArrayList<ServiceProxy>();
+
+    /**
+     * Service factories of the component whose services are created lazily.
+     */
+    private final List<ServiceFactory> lazyServiceFactories = new ArrayList<ServiceFactory>();
+
+    /**
+     * Initialize object.
+     *
+     * @param pComponent Created component. The parameter must not be null.
+     */
+    ComponentStartup( ComponentImplementation pComponent ) {
+      component = pComponent;
+    }
+  }
+
+  /**
+   * Name of the startup step that initializes all service providers.
+   */
+  public static final String SERVICE_PROVIDERS_STEP = "Service providers";
+
+  /**
+   * Name of the startup step that creates all components and their services.
+   */
+  public static final String COMPONENTS_STEP = "Components";
+
+  /**
+   * Name of the startup step that creates all activities.
+   */
+  public static final String ACTIVITIES_STEP = "Activities";
+
+  /**
+   * Name of the startup step that injects all dependencies.
+   */
+  public static final String DEPENDENCY_INJECTION_STEP = "Dependency injection";
+
+  /**
+   * Report about the durations of the single startup steps.
+   */
+  private final StartupReport startupReport = new StartupReport();
+
   /**
    * Subject represents the logged in scheduler user. All scheduled tasks are run under the security context of this
    * subject.
@@ -113,7 +178,8 @@ public abstract class GenericLifecycleManager extends AbstractLifecycleManager {
   private Map<String, ComponentImplementation> components;
 
   /**
-   * Map contains the association between a service implementation and the component that provides the service.
+   * Map contains the association between a service implementation and the component that provides the service. As
+   * services may be created lazily the map may be modified after startup.
    */
   private Map<Class<? extends ServiceImplementation>, ComponentImplementation> serviceComponentMapping;
 
@@ -122,7 +188,7 @@ public abstract class GenericLifecycleManager extends AbstractLifecycleManager {
    * created by this class will be stored in the referenced service registry. The reference is never null since the
    * object will be created by the class' constructor.
    */
-  private final ServiceRegistry serviceRegistry;
+  private final ServiceRegistryImpl serviceRegistry;
 
   /**
    * Reference to service provider registry that is used by this lifecycle manager. All available activities will be
@@ -176,7 +242,7 @@ public abstract class GenericLifecycleManager extends AbstractLifecycleManager {
 
     // Create new map for all components.
     components = new HashMap<>();
-    serviceComponentMapping = new HashMap<>();
+    serviceComponentMapping = new ConcurrentHashMap<>();
   }
 
   /**
@@ -334,6 +400,23 @@ public abstract class GenericLifecycleManager extends AbstractLifecycleManager {
     return serviceChannel;
   }
 
+  /**
+   * Method returns the latency and outcome metrics of all services that were called through the service channel of
+   * this lifecycle manager.
+   * 
+   * @return {@link ServiceMetrics} Service metrics or null if the service channel does not record any metrics.
+   */
+  public final ServiceMetrics getServiceMetrics( ) {
+    ServiceMetrics lServiceMetrics;
+    if (serviceChannel instanceof AbstractServiceChannel) {
+      lServiceMetrics = ((AbstractServiceChannel) serviceChannel).getServiceMetrics();
+    }
+    else {
+      lServiceMetrics = null;
+    }
+    return lServiceMetrics;
+  }
+
   /**
    * Method returns the class objects of all services that were loaded by this life cycle manager.
    * 
@@ -356,6 +439,51 @@ public abstract class GenericLifecycleManager extends AbstractLifecycleManager {
     return serviceProviderRegistry.getAvailableServiceProviderClasses();
   }
 
+  /**
+   * Method returns the statistics of the passed service provider, e.g. the statistics of the result cache.
+   * 
+   * @param pServiceProviderInterface Interface of the service provider whose statistics should be returned. The
+   * parameter must not be null.
+   * @return {@link Collection} Statistics of the service provider. If the service provider is not available then an
+   * empty collection will be returned. The method never returns null.
+   */
+  public final <T, P extends ServiceProvider & StatisticsProvider<T>> Collection<T> getServiceProviderStatistics(
+      Class<P> pServiceProviderInterface ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pServiceProviderInterface, "pServiceProviderInterface");
+
+    Collection<T> lStatistics;
+    if (serviceProviderRegistry.getAvailableServiceProviderClasses().contains(pServiceProviderInterface) == true) {
+      lStatistics = serviceProviderRegistry.getServiceProvider(pServiceProviderInterface).getStatistics();
+    }
+    else {
+      lStatistics = Collections.emptyList();
+    }
+    return lStatistics;
+  }
+
+  /**
+   * Method returns the report about the durations of the single steps of the startup of this lifecycle manager.
+   * 
+   * @return {@link StartupReport} Startup report. The method never returns null.
+   */
+  public final StartupReport getStartupReport( ) {
+    return startupReport;
+  }
+
+  /**
+   * Method checks whether service providers may be initialized in parallel if this is enabled (see
+   * {@link ServiceChannelConfiguration#isParallelServiceProviderStartupEnabled()}). As service providers are
+   * initialized within the transaction of {@link #getUserTransaction()} this is only possible if the transaction is not
+   * bound to the thread that started it.
+   * 
+   * @return boolean Method returns true if service providers may be initialized in parallel and false otherwise. This
+   * implementation always returns false.
+   */
+  protected boolean isParallelServiceProviderStartupSupported( ) {
+    return false;
+  }
+
   /**
    * Method checks the current state of the service implementation that provides the passed service interface.
    * 
@@ -407,6 +535,10 @@ public abstract class GenericLifecycleManager extends AbstractLifecycleManager {
    * <li>Inject dependencies on all service and activity instances</li>
    * </ol>
    * 
+   * If parallel startup is enabled then service providers of the same dependency level as well as components and their
+   * services are created in parallel. The durations of all steps are recorded within the startup report (see
+   * {@link #getStartupReport()}).
+   * 
    * @see com.anaptecs.jeaf.core.servicechannel.api.LifecycleManager#performStartup()
    */
   @Override
@@ -415,17 +547,43 @@ public abstract class GenericLifecycleManager extends AbstractLifecycleManager {
     // this point within the startup the low level parts of the framework are not yet ready in order to generate trace
     // output.
 
-    // Initialize service providers. Since this is more complex than it seams it is extracted to a own method.
-    this.initializeServiceProviders();
-
-    // Initialize components.
-    this.initializeComponents();
-
-    // Initialize activities.
-    this.initializeActivities();
+    // Create pool for parallel startup if enabled.
+    ServiceChannelConfiguration lConfiguration = ServiceChannelConfiguration.getInstance();
+    ForkJoinPool lStartupPool;
+    if (lConfiguration.isParallelStartupEnabled() == true) {
+      lStartupPool = new ForkJoinPool(lConfiguration.getStartupParallelism());
+    }
+    else {
+      lStartupPool = null;
+    }
 
-    // Inject dependencies to service instances.
-    this.injectDependencies();
+    try {
+      // Initialize service providers. Since this is more complex than it seams it is extracted to a own method.
+      long lStartTime = System.nanoTime();
+      this.initializeServiceProviders(lStartupPool);
+      lStartTime = startupReport.stepCompleted(SERVICE_PROVIDERS_STEP, lStartTime);
+
+      // Initialize components.
+      this.initializeComponents(lStartupPool);
+      lStartTime = startupReport.stepCompleted(COMPONENTS_STEP, lStartTime);
+
+      // Initialize activities.
+      this.initializeActivities();
+      lStartTime = startupReport.stepCompleted(ACTIVITIES_STEP, lStartTime);
+
+      // Inject dependencies to service instances.
+      this.injectDependencies();
+      startupReport.stepCompleted(DEPENDENCY_INJECTION_STEP, lStartTime);
+      XFun.getTrace().info(startupReport.toString());
+
+      // Store resolved startup plan for the next startup if startup snapshots are enabled.
+      StartupSnapshot.getInstance().save();
+    }
+    finally {
+      if (lStartupPool != null) {
+        lStartupPool.shutdown();
+      }
+    }
   }
 
   private Subject getSchedulerSubject( ) {
@@ -455,8 +613,11 @@ public abstract class GenericLifecycleManager extends AbstractLifecycleManager {
   /**
    * Method initializes all service providers. Since service providers may need a transaction in order to communicate
    * with a resource, this method will start one transaction for all service providers during their initialization.
+   * 
+   * @param pStartupPool Pool that is used to initialize service providers in parallel. The parameter may be null in
+   * case of a sequential startup.
    */
-  private void initializeServiceProviders( ) {
+  private void initializeServiceProviders( ForkJoinPool pStartupPool ) {
     Trace lTrace = XFun.getTrace();
     lTrace.write(MessageConstants.INITIALIZING_SERVICE_PROVIDERS);
 
@@ -475,7 +636,7 @@ public abstract class GenericLifecycleManager extends AbstractLifecycleManager {
         lTranscationStarted = true;
 
         // Initialize all available service providers.
-        this.createServiceProviders();
+        this.createServiceProviders(pStartupPool);
         // Trace again
         lTrace.write(MessageConstants.INITIALIZING_SERVICE_PROVIDERS_COMPLETED);
 
@@ -515,77 +676,219 @@ public abstract class GenericLifecycleManager extends AbstractLifecycleManager {
 
   /**
    * Method initializes all configured service provider implementations. Therefore the factory class of all providers
-   * has to be configured within the property file <code>jeaf_service_providers.properties</code>.
+   * has to be configured within the property file <code>jeaf_service_providers.properties</code>. By default every
+   * service provider is initialized and registered before the next one is created. Only if parallel initialization of
+   * service providers is enabled (see {@link ServiceChannelConfiguration#isParallelServiceProviderStartupEnabled()})
+   * they are initialized in the order of their declared dependencies (see {@link ServiceProviderStartupOrder}).
    * 
+   * @param pStartupPool Pool that is used to initialize service providers of the same dependency level in parallel.
+   * The parameter may be null in case of a sequential startup.
    * @throws JEAFSystemException Exception will be thrown if an error occurs during the initialization of a service
    * provider implementation.
    */
-  private void createServiceProviders( ) throws JEAFSystemException {
+  private void createServiceProviders( ForkJoinPool pStartupPool ) throws JEAFSystemException {
     Trace lTrace = XFun.getTrace();
 
     // Resolve service provider factories from META-INF directory.
     Set<Class<? extends ServiceProviderFactory>> lServiceProviderFactories =
-        new HashSet<>(CoreConfiguration.getInstance().getServiceProviderFactoryClasses());
+        new LinkedHashSet<>(CoreConfiguration.getInstance().getServiceProviderFactoryClasses());
 
     // Write trace with debug level.
     final String[] lParams = new String[] { lServiceProviderFactories.toString() };
     lTrace.write(MessageConstants.SERVICE_PROVIDER_FACTORIES_TO_LOAD, lParams);
 
     // Create all service providers through the defined factories.
+    boolean lParallel = pStartupPool != null && this.isParallelServiceProviderStartupSupported() == true
+        && ServiceChannelConfiguration.getInstance().isParallelServiceProviderStartupEnabled() == true;
     ReflectionTools lReflectionTools = Tools.getReflectionTools();
+    Map<Class<? extends ServiceProvider>, ServiceProviderImplementation> lServiceProviders = new LinkedHashMap<>();
     for (Class<? extends ServiceProviderFactory> lNextFactoryClass : lServiceProviderFactories) {
       // Create next factory.
       lTrace.write(MessageConstants.CREATING_SERVICE_PROVIDER_FACTORY, lNextFactoryClass.getName());
       ServiceProviderFactory lNextFactory =
           lReflectionTools.newInstance(lNextFactoryClass, ServiceProviderFactory.class);
 
-      // Create new service provider and add it to map with all service providers.
+      // Create new service provider.
       ServiceProviderImplementation lServiceProviderImpl = lNextFactory.createServiceProviderImplementation();
+      Class<? extends ServiceProvider> lServiceProviderInterface = lNextFactory.getServiceProviderInterface();
 
-      // Initialize service provider.
-      lTrace.write(MessageConstants.INITIALIZING_SERVICE_PROVIDER, lServiceProviderImpl.getClass().getName());
-      lServiceProviderImpl.initialize();
+      // Service providers that are initialized in parallel are collected first. Existing implementations will not be
+      // overwritten.
+      if (lParallel == true) {
+        if (lServiceProviders.containsKey(lServiceProviderInterface) == false) {
+          lServiceProviders.put(lServiceProviderInterface, lServiceProviderImpl);
+        }
+        else {
+          lTrace.write(MessageConstants.OTHER_SERVICE_PROVIDER_IMPL_ALREADY_REGISTERED,
+              lServiceProviderImpl.getClass().getName(), lServiceProviderInterface.getName(),
+              lServiceProviders.get(lServiceProviderInterface).getClass().getName());
+        }
+      }
+      // Initialize service provider and associate it with its interface.
+      else {
+        this.initializeServiceProvider(lServiceProviderImpl);
+        this.makeServiceProviderAccessible(lServiceProviderInterface, lServiceProviderImpl);
+      }
+    }
 
-      // Associate service provider with its interface.
-      Class<? extends ServiceProvider> lServiceProviderInterface = lNextFactory.getServiceProviderInterface();
-      serviceProviderRegistry.registerServiceProvider(lServiceProviderInterface, lServiceProviderImpl);
+    // Initialize service providers level by level. Service providers of the same level do not depend on each other.
+    if (lParallel == true) {
+      for (List<Class<? extends ServiceProvider>> lLevel : new ServiceProviderStartupOrder(lServiceProviders)
+          .resolveLevels()) {
+        List<ForkJoinTask<?>> lTasks = new ArrayList<ForkJoinTask<?>>(lLevel.size());
+        for (final Class<? extends ServiceProvider> lServiceProviderInterface : lLevel) {
+          final ServiceProviderImplementation lServiceProviderImpl = lServiceProviders.get(lServiceProviderInterface);
+          lTasks.add(pStartupPool.submit(new Runnable() {
+            @Override
+            public void run( ) {
+              GenericLifecycleManager.this.initializeServiceProvider(lServiceProviderImpl);
+            }
+          }));
+        }
+        // Wait for all service providers of the level. Exceptions during their initialization are rethrown.
+        for (ForkJoinTask<?> lTask : lTasks) {
+          lTask.join();
+        }
 
-      // Write trace output.
-      String[] lParams2 =
-          new String[] { lServiceProviderInterface.getName(), lServiceProviderImpl.getClass().getName() };
-      lTrace.write(MessageConstants.SERVICE_PROVIDER_ACCESSABLE, lParams2);
+        // Associate service providers with their interface before the next level gets initialized.
+        for (Class<? extends ServiceProvider> lServiceProviderInterface : lLevel) {
+          ServiceProviderImplementation lServiceProviderImpl = lServiceProviders.get(lServiceProviderInterface);
+          this.makeServiceProviderAccessible(lServiceProviderInterface, lServiceProviderImpl);
+        }
+      }
     }
   }
 
   /**
-   * Method initializes all components.
+   * Method associates the passed service provider with its interface.
+   * 
+   * @param pServiceProviderInterface Interface of the service provider. The parameter must not be null.
+   * @param pServiceProviderImpl Initialized implementation of the service provider. The parameter must not be null.
    */
-  private void initializeComponents( ) {
-    // Create all component factories.
-    Collection<ComponentFactory> lComponentFactories = this.createComponentFactories();
+  private void makeServiceProviderAccessible( Class<? extends ServiceProvider> pServiceProviderInterface,
+      ServiceProviderImplementation pServiceProviderImpl ) {
+    serviceProviderRegistry.registerServiceProvider(pServiceProviderInterface, pServiceProviderImpl);
+
+    // Write trace output.
+    String[] lParams = new String[] { pServiceProviderInterface.getName(), pServiceProviderImpl.getClass().getName() };
+    XFun.getTrace().write(MessageConstants.SERVICE_PROVIDER_ACCESSABLE, lParams);
+  }
+
+  /**
+   * Method initializes the passed service provider and records the duration within the startup report.
+   * 
+   * @param pServiceProviderImpl Service provider that should be initialized. The parameter must not be null.
+   */
+  private void initializeServiceProvider( ServiceProviderImplementation pServiceProviderImpl ) {
+    String lClassName = pServiceProviderImpl.getClass().getName();
+    XFun.getTrace().write(MessageConstants.INITIALIZING_SERVICE_PROVIDER, lClassName);
+    long lStartTime = System.nanoTime();
+    pServiceProviderImpl.initialize();
+    startupReport.itemCompleted(SERVICE_PROVIDERS_STEP, lClassName, lStartTime);
+  }
+
+  /**
+   * Method initializes all components. Components are registered in the order in which their factories are configured
+   * in property file "ComponentFactories.properties", even if they are created in parallel.
+   * 
+   * @param pStartupPool Pool that is used to create components in parallel. The parameter may be null in case of a
+   * sequential startup.
+   */
+  private void initializeComponents( ForkJoinPool pStartupPool ) {
+    // Get name of all component factories.
+    List<Class<? extends ComponentFactory>> lFactoryClasses =
+        CoreConfiguration.getInstance().getComponentFactoryClasses();
 
     // Create all components
-    Iterator<ComponentFactory> lComponentFactoriesIterator = lComponentFactories.iterator();
-    while (lComponentFactoriesIterator.hasNext()) {
-      // Get next component factory and create new component.
-      ComponentFactory lNextComponentFactory = lComponentFactoriesIterator.next();
-      ComponentImplementation lComponent = lNextComponentFactory.createComponent();
-      this.addComponent(lComponent);
-
-      // Trace information about loaded component.
-      this.traceComponentInfo(lComponent);
-
-      // Get all service factories of the current component and use them to create service instances and proxies.
-      Collection<ServiceFactory> lServiceFactories = lNextComponentFactory.getServiceFactories();
-      for (ServiceFactory lServiceFactory : lServiceFactories) {
-
-        // Get next service factory and register its service.
-        ServiceImplementation lServiceInstance = lServiceFactory.createServiceInstance();
-        ServiceProxy lServiceProxy = lServiceFactory.createServiceProxy();
-        serviceRegistry.registerService(lServiceInstance, lServiceProxy);
-        serviceComponentMapping.put(lServiceInstance.getClass(), lComponent);
+    if (pStartupPool != null) {
+      List<ForkJoinTask<ComponentStartup>> lTasks = new ArrayList<>(lFactoryClasses.size());
+      for (final Class<? extends ComponentFactory> lNextFactory : lFactoryClasses) {
+        lTasks.add(pStartupPool.submit(new Callable<ComponentStartup>() {
+          @Override
+          public ComponentStartup call( ) {
+            return GenericLifecycleManager.this.createComponent(lNextFactory);
+          }
+        }));
+      }
+      // Exceptions during the creation of a component are rethrown when joining its task.
+      for (ForkJoinTask<ComponentStartup> lTask : lTasks) {
+        this.registerComponent(lTask.join());
+      }
+    }
+    else {
+      for (Class<? extends ComponentFactory> lNextFactory : lFactoryClasses) {
+        this.registerComponent(this.createComponent(lNextFactory));
+      }
+    }
+  }
+
+  /**
+   * Method creates the component of the passed component factory together with all its service instances and proxies.
+   * The method does not change the state of this lifecycle manager and thus can be called in parallel.
+   * 
+   * @param pFactoryClass Class of the component factory that should be used. The parameter must not be null.
+   * @return {@link ComponentStartup} Created component and services. The method never returns null.
+   */
+  private ComponentStartup createComponent( Class<? extends ComponentFactory> pFactoryClass ) {
+    // Create new factory.
+    long lStartTime = System.nanoTime();
+    ComponentFactory lComponentFactory = Tools.getReflectionTools().newInstance(pFactoryClass);
+    XFun.getTrace().write(MessageConstants.CREATED_COMPONENT_FACTORY, pFactoryClass.getName());
+
+    // Create new component.
+    ComponentStartup lComponentStartup = new ComponentStartup(lComponentFactory.createComponent());
+
+    // Prepare interceptor chain of the component so that it does not have to be done with the first service call.
+    if (serviceChannel instanceof AbstractServiceChannel) {
+      ((AbstractServiceChannel) serviceChannel).prepareInterceptorChain(lComponentStartup.component);
+    }
+
+    // Get all service factories of the current component and use them to create service instances and proxies. In
+    // case of lazy services only the factories are kept.
+    boolean lLazyServices = ServiceChannelConfiguration.getInstance().isLazyServicesEnabled();
+    Collection<ServiceFactory> lServiceFactories = lComponentFactory.getServiceFactories();
+    for (ServiceFactory lServiceFactory : lServiceFactories) {
+      if (lLazyServices == true) {
+        lComponentStartup.lazyServiceFactories.add(lServiceFactory);
+      }
+      else {
+        lComponentStartup.serviceInstances.add(lServiceFactory.createServiceInstance());
+        lComponentStartup.serviceProxies.add(lServiceFactory.createServiceProxy());
       }
     }
+    startupReport.itemCompleted(COMPONENTS_STEP, lComponentStartup.component.getName(), lStartTime);
+    return lComponentStartup;
+  }
+
+  /**
+   * Method registers the passed component and all its services.
+   * 
+   * @param pComponentStartup Component and services that should be registered. The parameter must not be null.
+   */
+  private void registerComponent( ComponentStartup pComponentStartup ) {
+    final ComponentImplementation lComponent = pComponentStartup.component;
+    this.addComponent(lComponent);
+
+    // Trace information about loaded component.
+    this.traceComponentInfo(lComponent);
+
+    // Register all services of the component.
+    for (int i = 0; i < pComponentStartup.serviceInstances.size(); i++) {
+      ServiceImplementation lServiceInstance = pComponentStartup.serviceInstances.get(i);
+      serviceRegistry.registerService(lServiceInstance, pComponentStartup.serviceProxies.get(i));
+      serviceComponentMapping.put(lServiceInstance.getClass(), lComponent);
+    }
+
+    // Register all services of the component that are created on first use.
+    for (ServiceFactory lServiceFactory : pComponentStartup.lazyServiceFactories) {
+      serviceRegistry.registerLazyService(new LazyService(lServiceFactory) {
+        @Override
+        protected void initializeServiceInstance( ServiceImplementation pServiceInstance ) {
+          serviceComponentMapping.put(pServiceInstance.getClass(), lComponent);
+          GenericLifecycleManager.this.getDependencyInjector().injectJEAFDependencies(pServiceInstance);
+        }
+      });
+    }
   }
 
   /**
@@ -607,38 +910,13 @@ public abstract class GenericLifecycleManager extends AbstractLifecycleManager {
     }
   }
 
-  /**
-   * Method creates all component factories that are configured in property file "ComponentFactories.properties".
-   * 
-   * @return Collection All created component factories. The method never returns null.
-   */
-  private Collection<ComponentFactory> createComponentFactories( ) {
-    // Get name of all component factories.
-    List<Class<? extends ComponentFactory>> lFactoryClasses =
-        CoreConfiguration.getInstance().getComponentFactoryClasses();
-
-    // Create all component factories.
-    ReflectionTools lReflectionTools = Tools.getReflectionTools();
-    Collection<ComponentFactory> lComponentFactories = new ArrayList<ComponentFactory>(lFactoryClasses.size());
-    for (Class<? extends ComponentFactory> lNextFactory : lFactoryClasses) {
-      // Create new factory.
-      lComponentFactories.add(lReflectionTools.newInstance(lNextFactory));
-
-      // Trace message
-      XFun.getTrace().write(MessageConstants.CREATED_COMPONENT_FACTORY, lNextFactory.getName());
-    }
-
-    // Return collection with all created component factories.
-    return lComponentFactories;
-  }
-
   /**
    * Method injects all dependencies to all created services and service providers.
    */
   private void injectDependencies( ) {
     // Inject dependencies on all service instances.
     Collection<ServiceImplementation> lServiceInstances = serviceRegistry.getAllServiceInstances();
-    DependencyInjector lDependencyInjector = new DependencyInjector(this);
+    DependencyInjector lDependencyInjector = this.getDependencyInjector();
     lDependencyInjector.injectJEAFDependencies(lServiceInstances);
 
     // Inject dependencies on all service providers
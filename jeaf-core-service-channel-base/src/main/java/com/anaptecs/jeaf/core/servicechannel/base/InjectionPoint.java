@@ -0,0 +1,119 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+import com.anaptecs.jeaf.core.api.MessageConstants;
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFSystemException;
+
+/**
+ * Class describes a field into which JEAF injects a dependency. The field is made accessible and its setter is resolved
+ * only once when the injection point is created, so that injecting a dependency is a plain field write.
+ *
+ * @author JEAF Development Team
+ */
+public final class InjectionPoint {
+  /**
+   * Type of all setters after they were adapted so that they can be called with {@link MethodHandle#invokeExact}.
+   */
+  private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+  /**
+   * Field into which the dependency is injected.
+   */
+  private final Field field;
+
+  /**
+   * Annotation that declares the dependency.
+   */
+  private final Class<? extends Annotation> annotation;
+
+  /**
+   * Setter of the field.
+   */
+  private final MethodHandle setter;
+
+  /**
+   * Initialize object.
+   *
+   * @param pField Field into which the dependency is injected. The parameter must not be null.
+   * @param pAnnotation Annotation that declares the dependency. The parameter must not be null.
+   */
+  public InjectionPoint( Field pField, Class<? extends Annotation> pAnnotation ) {
+    // Check parameters.
+    Check.checkInvalidParameterNull(pField, "pField");
+    Check.checkInvalidParameterNull(pAnnotation, "pAnnotation");
+
+    field = pField;
+    annotation = pAnnotation;
+    try {
+      pField.setAccessible(true);
+      setter = MethodHandles.lookup().unreflectSetter(pField).asType(SETTER_TYPE);
+    }
+    catch (IllegalAccessException | RuntimeException e) {
+      throw new JEAFSystemException(MessageConstants.UNABLE_TO_INJECT_DEPENDENCY, e, pField.getType().getName(),
+          pField.getDeclaringClass().getName());
+    }
+  }
+
+  /**
+   * Method returns the field into which the dependency is injected.
+   *
+   * @return {@link Field} Field of the injection point. The method never returns null.
+   */
+  public Field getField( ) {
+    return field;
+  }
+
+  /**
+   * Method returns the type of the dependency.
+   *
+   * @return {@link Class} Type of the field of the injection point. The method never returns null.
+   */
+  public Class<?> getType( ) {
+    return field.getType();
+  }
+
+  /**
+   * Method returns the annotation that declares the dependency.
+   *
+   * @return {@link Class} Annotation of the injection point. The method never returns null.
+   */
+  public Class<? extends Annotation> getAnnotation( ) {
+    return annotation;
+  }
+
+  /**
+   * Method injects the passed dependency into the passed object.
+   *
+   * @param pObject Object into which the dependency should be injected. The parameter must not be null and must be an
+   * instance of the class that declares the field of this injection point.
+   * @param pDependency Dependency that should be injected. The parameter must not be null.
+   */
+  public void inject( Object pObject, Object pDependency ) {
+    // Check parameters.
+    Assert.assertNotNull(pObject, "pObject");
+    Assert.assertNotNull(pDependency, "pDependency");
+
+    try {
+      setter.invokeExact(pObject, pDependency);
+    }
+    catch (RuntimeException | Error e) {
+      throw e;
+    }
+    catch (Throwable e) {
+      throw new JEAFSystemException(MessageConstants.UNABLE_TO_INJECT_DEPENDENCY, e, field.getType().getName(),
+          pObject.getClass().getName());
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.util.List;
+import java.util.Set;
+
+import com.anaptecs.jeaf.core.spi.ComponentImplementation;
+import com.anaptecs.jeaf.core.spi.ServiceChannelInterceptor;
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+
+/**
+ * Class represents the chain of all service channel interceptors that have to be called for services of one component.
+ * The chain consists of all global interceptors followed by the component specific interceptors. The interceptors are
+ * stored as an array that is computed once. This way dispatching a service call to its interceptors does not cause any
+ * allocations. Interceptors of a component are defined when the component is created and do not change afterwards.
+ *
+ * @author JEAF Development Team
+ */
+final class InterceptorChain {
+  /**
+   * Component to which the interceptor chain belongs.
+   */
+  private final ComponentImplementation component;
+
+  /**
+   * Array with all interceptors of the chain. The array is never modified after its creation.
+   */
+  private final ServiceChannelInterceptor[] interceptors;
+
+  /**
+   * Initialize object. Thereby the interceptor array will be computed.
+   *
+   * @param pComponent Component to which the interceptor chain belongs. The parameter must not be null.
+   * @param pGlobalInterceptors All global interceptors. The parameter must not be null.
+   */
+  InterceptorChain( ComponentImplementation pComponent, List<ServiceChannelInterceptor> pGlobalInterceptors ) {
+    // Check parameters.
+    Assert.assertNotNull(pComponent, "pComponent");
+    Assert.assertNotNull(pGlobalInterceptors, "pGlobalInterceptors");
+
+    component = pComponent;
+
+    // Global interceptors are always called before component specific ones.
+    Set<ServiceChannelInterceptor> lSpecificInterceptors = pComponent.getServiceChannelInterceptors();
+    int lGlobalCount = pGlobalInterceptors.size();
+    ServiceChannelInterceptor[] lInterceptors =
+        new ServiceChannelInterceptor[lGlobalCount + lSpecificInterceptors.size()];
+    pGlobalInterceptors.toArray(lInterceptors);
+    int lIndex = lGlobalCount;
+    for (ServiceChannelInterceptor lInterceptor : lSpecificInterceptors) {
+      lInterceptors[lIndex] = lInterceptor;
+      lIndex++;
+    }
+    interceptors = lInterceptors;
+  }
+
+  /**
+   * Method returns the component to which the interceptor chain belongs.
+   *
+   * @return {@link ComponentImplementation} Component of the chain. The method never returns null.
+   */
+  ComponentImplementation getComponent( ) {
+    return component;
+  }
+
+  /**
+   * Method returns all interceptors of this chain. For performance reasons the internal array is returned. It must not
+   * be modified by callers.
+   *
+   * @return {@link ServiceChannelInterceptor} Array with all interceptors. The method never returns null.
+   */
+  ServiceChannelInterceptor[] getInterceptors( ) {
+    return interceptors;
+  }
+}
@@ -0,0 +1,262 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.lang.reflect.Method;
+
+import com.anaptecs.jeaf.core.api.MessageConstants;
+import com.anaptecs.jeaf.core.api.Service;
+import com.anaptecs.jeaf.core.servicechannel.annotations.ReadOnly;
+import com.anaptecs.jeaf.core.spi.ComponentImplementation;
+import com.anaptecs.jeaf.core.spi.ServiceImplementation;
+import com.anaptecs.jeaf.core.spi.TransactionBehavior;
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+import com.anaptecs.jeaf.xfun.api.errorhandling.ErrorCode;
+import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFSystemException;
+
+/**
+ * Class represents the invocation plan for one service method that is called with a specific transaction behavior. The
+ * plan contains all information that does not change between two calls of the same service method. This includes the
+ * target service instance, the component that provides the service, all service channel interceptors and the
+ * transaction context transitions. Invocation plans are created once by {@link AbstractServiceChannel} and afterwards
+ * reused for all following calls.
+ *
+ * Instances of this class are immutable and thus can be shared between threads.
+ *
+ * @author JEAF Development Team
+ */
+final class InvocationPlan {
+  /**
+   * Class object of the service interface that is called.
+   */
+  private final Class<? extends Service> targetServiceClass;
+
+  /**
+   * Service method that is called.
+   */
+  private final Method serviceMethod;
+
+  /**
+   * Name of the called service method as it is used in trace and error messages. It is only built once per plan.
+   */
+  private final String calledServiceMethod;
+
+  /**
+   * Service instance that will be called.
+   */
+  private final ServiceImplementation targetService;
+
+  /**
+   * Component to which the called service belongs to.
+   */
+  private final ComponentImplementation component;
+
+  /**
+   * Chain with all interceptors (global and component specific ones) that have to be called for the service call.
+   */
+  private final InterceptorChain interceptorChain;
+
+  /**
+   * Transaction behavior that is used for the service call.
+   */
+  private final TransactionBehavior transactionBehavior;
+
+  /**
+   * Transaction context transitions that have to be performed. The array is indexed by the ordinal of {@link TxStatus}.
+   */
+  private final TxContextTransition[] txContextTransitions;
+
+  /**
+   * Attribute defines whether the rollback only state of the transaction has to be checked after a successful call.
+   * According to EJB 3.1 spec the method getRollbackOnly may only be called from some transaction behaviors (EJB 3.1:
+   * 13.6.2.8 Handling of setRollbackOnly Method). Read only service methods never require this check.
+   */
+  private final boolean rollbackCheckRequired;
+
+  /**
+   * Metrics of the service method. The reference is null if metrics are disabled.
+   */
+  private final ServiceMethodMetrics metrics;
+
+  /**
+   * Attribute defines whether the service method is read only (see {@link ReadOnly}).
+   */
+  private final boolean readOnly;
+
+  /**
+   * Timeout of transactions that are started for the service method in milliseconds. 0 means that there is no timeout.
+   */
+  private final long txTimeout;
+
+  /**
+   * Initialize object.
+   *
+   * @param pTargetServiceClass Class object of the service interface that is called. The parameter must not be null.
+   * @param pServiceMethod Service method that is called. The parameter must not be null.
+   * @param pCalledServiceMethod Name of the called service method as it is used in trace and error messages. The
+   * parameter must not be null.
+   * @param pTargetService Service instance that will be called. The parameter must not be null.
+   * @param pComponent Component to which the called service belongs to. The parameter must not be null.
+   * @param pInterceptorChain Chain with all interceptors that have to be called. The parameter must not be null.
+   * @param pTransactionBehavior Transaction behavior that is used for the service call. The parameter must not be null.
+   * @param pTxContextTransitions Transaction context transitions for all transaction states. The parameter must not be
+   * null.
+   * @param pMetrics Metrics of the service method. The parameter may be null if metrics are disabled.
+   * @param pReadOnly Parameter defines whether the service method is read only.
+   * @param pTxTimeout Timeout of transactions that are started for the service method in milliseconds. 0 means that
+   * there is no timeout.
+   */
+  InvocationPlan( Class<? extends Service> pTargetServiceClass, Method pServiceMethod, String pCalledServiceMethod,
+      ServiceImplementation pTargetService, ComponentImplementation pComponent,
+      InterceptorChain pInterceptorChain, TransactionBehavior pTransactionBehavior,
+      TxContextTransition[] pTxContextTransitions, ServiceMethodMetrics pMetrics, boolean pReadOnly,
+      long pTxTimeout ) {
+
+    // Check parameters.
+    Assert.assertNotNull(pTargetServiceClass, "pTargetServiceClass");
+    Assert.assertNotNull(pServiceMethod, "pServiceMethod");
+    Assert.assertNotNull(pCalledServiceMethod, "pCalledServiceMethod");
+    Assert.assertNotNull(pTargetService, "pTargetService");
+    Assert.assertNotNull(pComponent, "pComponent");
+    Assert.assertNotNull(pInterceptorChain, "pInterceptorChain");
+    Assert.assertNotNull(pTransactionBehavior, "pTransactionBehavior");
+    Assert.assertNotNull(pTxContextTransitions, "pTxContextTransitions");
+
+    targetServiceClass = pTargetServiceClass;
+    serviceMethod = pServiceMethod;
+    calledServiceMethod = pCalledServiceMethod;
+    targetService = pTargetService;
+    component = pComponent;
+    interceptorChain = pInterceptorChain;
+    transactionBehavior = pTransactionBehavior;
+    txContextTransitions = pTxContextTransitions;
+    rollbackCheckRequired = pTransactionBehavior != TransactionBehavior.SUPPORTS
+        && pTransactionBehavior != TransactionBehavior.NOT_SUPPORTED
+        && pTransactionBehavior != TransactionBehavior.NEVER && pReadOnly == false;
+    metrics = pMetrics;
+    readOnly = pReadOnly;
+    txTimeout = pTxTimeout;
+  }
+
+  /**
+   * Method returns the metrics of the service method.
+   *
+   * @return {@link ServiceMethodMetrics} Metrics of the service method or null if metrics are disabled.
+   */
+  ServiceMethodMetrics getMetrics( ) {
+    return metrics;
+  }
+
+  /**
+   * Method returns the class object of the service interface that is called.
+   *
+   * @return {@link Class} Service interface that is called. The method never returns null.
+   */
+  Class<? extends Service> getTargetServiceClass( ) {
+    return targetServiceClass;
+  }
+
+  /**
+   * Method returns the service method that is called.
+   *
+   * @return {@link Method} Called service method. The method never returns null.
+   */
+  Method getServiceMethod( ) {
+    return serviceMethod;
+  }
+
+  /**
+   * Method returns the name of the called service method as it is used in trace and error messages.
+   *
+   * @return {@link String} Name of the called service method. The method never returns null.
+   */
+  String getCalledServiceMethod( ) {
+    return calledServiceMethod;
+  }
+
+  /**
+   * Method returns the service instance that will be called.
+   *
+   * @return {@link ServiceImplementation} Called service instance. The method never returns null.
+   */
+  ServiceImplementation getTargetService( ) {
+    return targetService;
+  }
+
+  /**
+   * Method returns the component to which the called service belongs to.
+   *
+   * @return {@link ComponentImplementation} Component of the called service. The method never returns null.
+   */
+  ComponentImplementation getComponent( ) {
+    return component;
+  }
+
+  /**
+   * Method returns the chain with all interceptors that have to be called.
+   *
+   * @return {@link InterceptorChain} Interceptor chain of the service call. The method never returns null.
+   */
+  InterceptorChain getInterceptorChain( ) {
+    return interceptorChain;
+  }
+
+  /**
+   * Method returns the transaction behavior that is used for the service call.
+   *
+   * @return {@link TransactionBehavior} Transaction behavior of the call. The method never returns null.
+   */
+  TransactionBehavior getTransactionBehavior( ) {
+    return transactionBehavior;
+  }
+
+  /**
+   * Method checks whether the service method is read only.
+   *
+   * @return boolean Method returns true if the service method is read only and false otherwise.
+   */
+  boolean isReadOnly( ) {
+    return readOnly;
+  }
+
+  /**
+   * Method returns the timeout of transactions that are started for the service method.
+   *
+   * @return long Transaction timeout in milliseconds. 0 means that there is no timeout.
+   */
+  long getTxTimeout( ) {
+    return txTimeout;
+  }
+
+  /**
+   * Method checks whether the rollback only state has to be checked after a successful service call.
+   *
+   * @return boolean Method returns true if the rollback only state has to be checked and false otherwise.
+   */
+  boolean isRollbackCheckRequired( ) {
+    return rollbackCheckRequired;
+  }
+
+  /**
+   * Method returns the transaction context transition that has to be performed for the passed transaction status. In
+   * case that the transition would be {@link TxContextTransition#ERROR} the method will throw an exception.
+   *
+   * @param pTxStatus Current transaction status. The parameter must not be null.
+   * @return {@link TxContextTransition} Transition that has to be performed. The method never returns null.
+   * @throws JEAFSystemException In the case that the transition for the passed status is invalid.
+   */
+  TxContextTransition getTxContextTransition( TxStatus pTxStatus ) throws JEAFSystemException {
+    TxContextTransition lTxContextTransition = txContextTransitions[pTxStatus.ordinal()];
+    if (lTxContextTransition != TxContextTransition.ERROR) {
+      return lTxContextTransition;
+    }
+    else {
+      ErrorCode lErrorCode = MessageConstants.INVALID_TX_CONTEXT_TRANSITION;
+      String[] lParams = new String[] { transactionBehavior.toString(), pTxStatus.toString() };
+      throw new JEAFSystemException(lErrorCode, lParams);
+    }
+  }
+}
@@ -0,0 +1,244 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class implements a lock free histogram for latencies in nanoseconds. Like HDR histograms it uses buckets with
+ * logarithmically growing size. Every power of two is split into 8 linear sub buckets so that the relative error of
+ * every recorded value is below 12.5%. Recording a value requires no allocation in the common case. Counters are
+ * {@link LongAdder}s so that threads that record latencies of the same service method concurrently do not contend on
+ * the same memory location.
+ *
+ * Instances of this class are thread safe. Values that are read while other threads record new ones may be slightly
+ * inconsistent.
+ *
+ * @author JEAF Development Team
+ */
+public final class LatencyHistogram {
+  /**
+   * Number of bits that are used for the linear sub buckets of every power of two.
+   */
+  private static final int SUB_BUCKET_BITS = 3;
+
+  /**
+   * Number of linear sub buckets of every power of two.
+   */
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+  /**
+   * Values below this limit are stored in buckets of size 1.
+   */
+  private static final int LINEAR_LIMIT = SUB_BUCKET_COUNT << 1;
+
+  /**
+   * Exponent of the smallest value that is not stored in a bucket of size 1.
+   */
+  private static final int FIRST_EXPONENT = SUB_BUCKET_BITS + 1;
+
+  /**
+   * Total number of buckets. The largest positive long value has exponent 62.
+   */
+  private static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - FIRST_EXPONENT) * SUB_BUCKET_COUNT;
+
+  /**
+   * Counters of all buckets.
+   */
+  private final LongAdder[] buckets;
+
+  /**
+   * Number of recorded values.
+   */
+  private final LongAdder count = new LongAdder();
+
+  /**
+   * Sum of all recorded values.
+   */
+  private final LongAdder sum = new LongAdder();
+
+  /**
+   * Largest recorded value.
+   */
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Initialize object.
+   */
+  public LatencyHistogram( ) {
+    buckets = new LongAdder[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Method records the passed latency.
+   *
+   * @param pNanos Latency in nanoseconds. Negative values are recorded as 0.
+   */
+  public void record( long pNanos ) {
+    long lValue = Math.max(0, pNanos);
+    buckets[LatencyHistogram.getBucketIndex(lValue)].increment();
+    count.increment();
+    sum.add(lValue);
+
+    // Update maximum. Contention is rare as the maximum only changes for new peaks.
+    long lCurrentMax = max.get();
+    while (lValue > lCurrentMax && max.compareAndSet(lCurrentMax, lValue) == false) {
+      lCurrentMax = max.get();
+    }
+  }
+
+  /**
+   * Method returns the number of recorded values.
+   *
+   * @return long Number of recorded values.
+   */
+  public long getCount( ) {
+    return count.sum();
+  }
+
+  /**
+   * Method returns the mean of all recorded values.
+   *
+   * @return long Mean latency in nanoseconds or 0 if no value was recorded.
+   */
+  public long getMean( ) {
+    long lCount = count.sum();
+    long lMean;
+    if (lCount > 0) {
+      lMean = sum.sum() / lCount;
+    }
+    else {
+      lMean = 0;
+    }
+    return lMean;
+  }
+
+  /**
+   * Method returns the largest recorded value.
+   *
+   * @return long Maximum latency in nanoseconds or 0 if no value was recorded.
+   */
+  public long getMax( ) {
+    return max.get();
+  }
+
+  /**
+   * Method returns the value at the passed percentile. The returned value is the upper bound of the bucket that
+   * contains the percentile but never larger than the maximum recorded value.
+   *
+   * @param pPercentile Percentile between 0 and 100, e.g. 99.9.
+   * @return long Latency in nanoseconds at the passed percentile or 0 if no value was recorded.
+   */
+  public long getValueAtPercentile( double pPercentile ) {
+    long lTotal = 0;
+    long[] lCounts = new long[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      lCounts[i] = buckets[i].sum();
+      lTotal += lCounts[i];
+    }
+    long lValue = 0;
+    if (lTotal > 0) {
+      double lPercentile = Math.min(100, Math.max(0, pPercentile));
+      long lRank = Math.max(1, (long) Math.ceil(lTotal * lPercentile / 100));
+      long lSeen = 0;
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+        lSeen += lCounts[i];
+        if (lSeen >= lRank) {
+          lValue = Math.min(LatencyHistogram.getBucketUpperBound(i), max.get());
+          break;
+        }
+      }
+    }
+    return lValue;
+  }
+
+  /**
+   * Method resets the histogram.
+   */
+  public void reset( ) {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      buckets[i].reset();
+    }
+    count.reset();
+    sum.reset();
+    max.set(0);
+  }
+
+  /**
+   * Method returns a String representation of this histogram with count, mean, p50, p90, p99, p99.9 and max in
+   * microseconds.
+   *
+   * @return String String representation of this object. The method never returns null.
+   */
+  @Override
+  public String toString( ) {
+    StringBuilder lBuilder = new StringBuilder();
+    lBuilder.append("count=").append(this.getCount());
+    lBuilder.append(" mean=").append(LatencyHistogram.toMicros(this.getMean()));
+    lBuilder.append(" p50=").append(LatencyHistogram.toMicros(this.getValueAtPercentile(50)));
+    lBuilder.append(" p90=").append(LatencyHistogram.toMicros(this.getValueAtPercentile(90)));
+    lBuilder.append(" p99=").append(LatencyHistogram.toMicros(this.getValueAtPercentile(99)));
+    lBuilder.append(" p99.9=").append(LatencyHistogram.toMicros(this.getValueAtPercentile(99.9)));
+    lBuilder.append(" max=").append(LatencyHistogram.toMicros(this.getMax()));
+    lBuilder.append(" [us]");
+    return lBuilder.toString();
+  }
+
+  /**
+   * Method returns the index of the bucket for the passed value.
+   *
+   * @param pValue Value whose bucket should be determined. The value must not be negative.
+   * @return int Index of the bucket.
+   */
+  static int getBucketIndex( long pValue ) {
+    int lIndex;
+    if (pValue < LINEAR_LIMIT) {
+      lIndex = (int) pValue;
+    }
+    else {
+      int lExponent = 63 - Long.numberOfLeadingZeros(pValue);
+      int lSubBucket = (int) (pValue >>> (lExponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+      lIndex = LINEAR_LIMIT + (lExponent - FIRST_EXPONENT) * SUB_BUCKET_COUNT + lSubBucket;
+    }
+    return lIndex;
+  }
+
+  /**
+   * Method returns the largest value that is stored in the bucket with the passed index.
+   *
+   * @param pIndex Index of the bucket.
+   * @return long Upper bound of the bucket.
+   */
+  static long getBucketUpperBound( int pIndex ) {
+    long lUpperBound;
+    if (pIndex < LINEAR_LIMIT) {
+      lUpperBound = pIndex;
+    }
+    else {
+      int lExponent = (pIndex - LINEAR_LIMIT) / SUB_BUCKET_COUNT + FIRST_EXPONENT;
+      int lSubBucket = (pIndex - LINEAR_LIMIT) % SUB_BUCKET_COUNT;
+      long lBucketSize = 1L << (lExponent - SUB_BUCKET_BITS);
+      long lLowerBound = (1L << lExponent) + lSubBucket * lBucketSize;
+      lUpperBound = lLowerBound + lBucketSize - 1;
+    }
+    return lUpperBound;
+  }
+
+  /**
+   * Method converts the passed nanoseconds into microseconds.
+   *
+   * @param pNanos Value in nanoseconds.
+   * @return long Value in microseconds.
+   */
+  private static long toMicros( long pNanos ) {
+    return TimeUnit.NANOSECONDS.toMicros(pNanos);
+  }
+}
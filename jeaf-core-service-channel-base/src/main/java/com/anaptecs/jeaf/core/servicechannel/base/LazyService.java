@@ -0,0 +1,142 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import com.anaptecs.jeaf.core.api.MessageConstants;
+import com.anaptecs.jeaf.core.api.Service;
+import com.anaptecs.jeaf.core.servicechannel.api.ServiceFactory;
+import com.anaptecs.jeaf.core.servicechannel.api.ServiceProxy;
+import com.anaptecs.jeaf.core.spi.ServiceImplementation;
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+
+/**
+ * Class represents a service whose instance and proxy are only created when they are used for the first time (see
+ * {@link ServiceChannelConfiguration#isLazyServicesEnabled()}). Once created they are read without any locking.
+ *
+ * Proxy and instance are created independently of each other. As creating a proxy never requires other services,
+ * injecting the dependencies of a service instance only creates proxies of other services. This way cyclic
+ * dependencies between services do neither lead to an endless recursion nor to a deadlock.
+ *
+ * @author JEAF Development Team
+ */
+abstract class LazyService {
+  /**
+   * Factory that is used to create instance and proxy of the service.
+   */
+  private final ServiceFactory serviceFactory;
+
+  /**
+   * Lock that is used to create the service instance.
+   */
+  private final Object instanceLock = new Object();
+
+  /**
+   * Lock that is used to create the service proxy.
+   */
+  private final Object proxyLock = new Object();
+
+  /**
+   * Service instance. The attribute is null as long as the instance was not created yet.
+   */
+  private volatile ServiceImplementation serviceInstance;
+
+  /**
+   * Service proxy. The attribute is null as long as the proxy was not created yet.
+   */
+  private volatile ServiceProxy serviceProxy;
+
+  /**
+   * Initialize object.
+   *
+   * @param pServiceFactory Factory that is used to create instance and proxy of the service. The parameter must not be
+   * null.
+   */
+  LazyService( ServiceFactory pServiceFactory ) {
+    // Check parameter.
+    Assert.assertNotNull(pServiceFactory, "pServiceFactory");
+
+    serviceFactory = pServiceFactory;
+  }
+
+  /**
+   * Method returns the service interface of this service.
+   *
+   * @return {@link Class} Service interface. The method never returns null.
+   */
+  Class<? extends Service> getServiceType( ) {
+    return serviceFactory.getServiceInterfaceClass();
+  }
+
+  /**
+   * Method returns the instance of this service. If it does not exist yet then it will be created and initialized.
+   *
+   * @return {@link ServiceImplementation} Service instance. The method never returns null.
+   */
+  ServiceImplementation getServiceInstance( ) {
+    ServiceImplementation lServiceInstance = serviceInstance;
+    if (lServiceInstance == null) {
+      synchronized (instanceLock) {
+        lServiceInstance = serviceInstance;
+        if (lServiceInstance == null) {
+          lServiceInstance = serviceFactory.createServiceInstance();
+          this.initializeServiceInstance(lServiceInstance);
+          serviceInstance = lServiceInstance;
+
+          // Trace message. The proxy is not created just for tracing, so the service interface is traced instead.
+          XFun.getTrace().write(MessageConstants.CREATED_SERVICE, lServiceInstance.getClass().getName(),
+              this.getServiceType().getName());
+        }
+      }
+    }
+    return lServiceInstance;
+  }
+
+  /**
+   * Method returns the instance of this service if it was already created.
+   *
+   * @return {@link ServiceImplementation} Service instance or null if the instance was not created yet.
+   */
+  ServiceImplementation getCreatedServiceInstance( ) {
+    return serviceInstance;
+  }
+
+  /**
+   * Method returns the proxy of this service. If it does not exist yet then it will be created.
+   *
+   * @return {@link ServiceProxy} Service proxy. The method never returns null.
+   */
+  ServiceProxy getServiceProxy( ) {
+    ServiceProxy lServiceProxy = serviceProxy;
+    if (lServiceProxy == null) {
+      synchronized (proxyLock) {
+        lServiceProxy = serviceProxy;
+        if (lServiceProxy == null) {
+          lServiceProxy = serviceFactory.createServiceProxy();
+          serviceProxy = lServiceProxy;
+        }
+      }
+    }
+    return lServiceProxy;
+  }
+
+  /**
+   * Method returns the proxy of this service if it was already created.
+   *
+   * @return {@link ServiceProxy} Service proxy or null if the proxy was not created yet.
+   */
+  ServiceProxy getCreatedServiceProxy( ) {
+    return serviceProxy;
+  }
+
+  /**
+   * Method initializes the passed newly created service instance before it gets visible to other threads. Typically
+   * dependencies are injected here.
+   *
+   * @param pServiceInstance Newly created service instance. The parameter must not be null.
+   */
+  protected abstract void initializeServiceInstance( ServiceImplementation pServiceInstance );
+}
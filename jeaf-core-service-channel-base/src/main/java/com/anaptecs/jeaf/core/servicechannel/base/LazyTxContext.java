@@ -0,0 +1,39 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+/**
+ * Interface has to be implemented by transaction contexts whose transaction is only started when it is really required.
+ * The service channel creates such a transaction context as usual but it will not notify transaction listeners about
+ * the new transaction until the first resource is used within the transaction (e.g. an entity manager is requested).
+ * Transaction contexts whose transaction was never started will neither be committed nor rolled back and transaction
+ * listeners will not be notified about them at all.
+ *
+ * @author JEAF Development Team
+ */
+public interface LazyTxContext {
+  /**
+   * Method checks whether the transaction that is represented by this transaction context was already started.
+   *
+   * @return boolean Method returns true if the transaction was already started and false otherwise.
+   */
+  boolean isTransactionStarted( );
+
+  /**
+   * Method starts the transaction that is represented by this transaction context. Implementations have to call this
+   * method before the first resource is used within the transaction. Calling the method on a transaction context whose
+   * transaction is already started has no effect.
+   */
+  void startTransaction( );
+
+  /**
+   * Method sets the callback that has to be executed when the transaction is started.
+   *
+   * @param pCallback Callback that will be executed exactly once when the transaction is started. The parameter must
+   * not be null.
+   */
+  void setTransactionStartCallback( Runnable pCallback );
+}
@@ -0,0 +1,28 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+/**
+ * Interface has to be implemented by transaction contexts that are able to apply optimizations to read only
+ * transactions. The service channel marks transaction contexts that it creates for service methods annotated with
+ * {@link ReadOnly} as read only.
+ *
+ * @author JEAF Development Team
+ */
+public interface ReadOnlyTxContext {
+  /**
+   * Method marks the transaction that is represented by this transaction context as read only. A transaction can not
+   * be marked as read write again.
+   */
+  void markReadOnly( );
+
+  /**
+   * Method checks whether the transaction that is represented by this transaction context is read only.
+   *
+   * @return boolean Method returns true if the transaction is read only and false otherwise.
+   */
+  boolean isReadOnly( );
+}
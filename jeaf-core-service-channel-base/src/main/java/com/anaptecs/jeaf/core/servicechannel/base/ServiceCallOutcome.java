@@ -0,0 +1,38 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+/**
+ * Enumeration defines the possible outcomes of a service call that are distinguished by {@link ServiceMethodMetrics}.
+ *
+ * @author JEAF Development Team
+ */
+public enum ServiceCallOutcome {
+  /**
+   * Service call completed without exception.
+   */
+  SUCCESS,
+
+  /**
+   * Service call completed with an application exception.
+   */
+  APPLICATION_EXCEPTION,
+
+  /**
+   * Service call completed with a system exception.
+   */
+  SYSTEM_EXCEPTION,
+
+  /**
+   * Service call completed with a runtime exception that is not a system exception.
+   */
+  RUNTIME_EXCEPTION,
+
+  /**
+   * Service call completed with an error.
+   */
+  ERROR;
+}
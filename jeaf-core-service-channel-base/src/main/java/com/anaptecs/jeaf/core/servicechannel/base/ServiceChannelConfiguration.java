@@ -0,0 +1,489 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.config.Configuration;
+
+/**
+ * Class provides access to the tuning parameters of JEAF's service channel. In contrast to {@link CoreConfiguration}
+ * they are read from system properties and all of them have a meaningful default value. Most of them only change how
+ * the service channel works internally. Some of them also change behavior that applications can observe, e.g. lazy
+ * transaction begin, lazy services, asynchronous transaction listeners or transaction timeouts. This is described at
+ * the respective parameter.
+ *
+ * @author JEAF Development Team
+ */
+public final class ServiceChannelConfiguration {
+  /**
+   * Name of the system property that defines whether the service channel should recycle objects that are required for
+   * every service call instead of creating new ones.
+   */
+  public static final String OBJECT_RECYCLING_ENABLED = "jeaf.core.serviceChannel.objectRecyclingEnabled";
+
+  /**
+   * Name of the system property that defines whether asynchronous service calls should be executed on virtual threads
+   * instead of a pool of platform threads.
+   */
+  public static final String ASYNC_VIRTUAL_THREADS_ENABLED = "jeaf.core.serviceChannel.asyncVirtualThreadsEnabled";
+
+  /**
+   * Name of the system property that defines the number of platform threads that execute asynchronous service calls.
+   */
+  public static final String ASYNC_POOL_SIZE = "jeaf.core.serviceChannel.asyncPoolSize";
+
+  /**
+   * Name of the system property that defines whether the service channel should record latencies and outcomes of all
+   * service calls.
+   */
+  public static final String METRICS_ENABLED = "jeaf.core.serviceChannel.metricsEnabled";
+
+  /**
+   * Name of the system property that defines whether transactions of a {@link LazyTxContext} should only be started
+   * when the first resource is used.
+   */
+  public static final String LAZY_TX_BEGIN_ENABLED = "jeaf.core.serviceChannel.lazyTxBeginEnabled";
+
+  /**
+   * Name of the system property that defines whether entity managers should be cleared and reused by the next
+   * transaction of the same thread instead of closing them.
+   */
+  public static final String ENTITY_MANAGER_REUSE_ENABLED = "jeaf.core.serviceChannel.entityManagerReuseEnabled";
+
+  /**
+   * Name of the system property that defines whether transaction listeners should be notified asynchronously.
+   */
+  public static final String ASYNC_TX_LISTENERS_ENABLED = "jeaf.core.serviceChannel.asyncTxListenersEnabled";
+
+  /**
+   * Name of the system property that defines the maximum number of transaction events that are buffered for
+   * asynchronous transaction listeners.
+   */
+  public static final String TX_LISTENER_BUFFER_SIZE = "jeaf.core.serviceChannel.txListenerBufferSize";
+
+  /**
+   * Name of the system property that defines how many milliseconds a transaction waits for space in the buffer of
+   * asynchronous transaction listeners before the listeners are notified synchronously.
+   */
+  public static final String TX_LISTENER_BUFFER_TIMEOUT = "jeaf.core.serviceChannel.txListenerBufferTimeout";
+
+  /**
+   * Name of the system property that defines the default timeout in seconds of transactions that are managed by the
+   * service channel itself.
+   */
+  public static final String TX_TIMEOUT = "jeaf.core.serviceChannel.txTimeout";
+
+  /**
+   * Name of the system property that defines whether the thread that executes a service call should be interrupted
+   * when its transaction timed out.
+   */
+  public static final String TX_TIMEOUT_INTERRUPT_ENABLED = "jeaf.core.serviceChannel.txTimeoutInterruptEnabled";
+
+  /**
+   * Name of the system property that defines the maximum number of cached results per component.
+   */
+  public static final String RESULT_CACHE_MAX_SIZE = "jeaf.core.serviceChannel.resultCacheMaxSize";
+
+  /**
+   * Name of the system property that defines the time to live of cached results in seconds.
+   */
+  public static final String RESULT_CACHE_TIME_TO_LIVE = "jeaf.core.serviceChannel.resultCacheTimeToLive";
+
+  /**
+   * Name of the system property that defines whether components and service providers are started in parallel.
+   */
+  public static final String PARALLEL_STARTUP_ENABLED = "jeaf.core.serviceChannel.parallelStartupEnabled";
+
+  /**
+   * Name of the system property that defines whether service providers are initialized in parallel during a parallel
+   * startup.
+   */
+  public static final String PARALLEL_SERVICE_PROVIDER_STARTUP_ENABLED =
+      "jeaf.core.serviceChannel.parallelServiceProviderStartupEnabled";
+
+  /**
+   * Name of the system property that defines the number of threads that are used for a parallel startup.
+   */
+  public static final String STARTUP_PARALLELISM = "jeaf.core.serviceChannel.startupParallelism";
+
+  /**
+   * Name of the system property that defines whether the startup index that was generated at build time is used.
+   */
+  public static final String STARTUP_INDEX_ENABLED = "jeaf.core.serviceChannel.startupIndexEnabled";
+
+  /**
+   * Name of the system property that defines whether service instances and proxies are created on first use.
+   */
+  public static final String LAZY_SERVICES_ENABLED = "jeaf.core.serviceChannel.lazyServicesEnabled";
+
+  /**
+   * Name of the system property that defines the file in which the startup snapshot is stored.
+   */
+  public static final String STARTUP_SNAPSHOT_FILE = "jeaf.core.serviceChannel.startupSnapshotFile";
+
+  /**
+   * Only instance of this class. As configuration data is read from system properties the is no need to reload it
+   * during runtime.
+   */
+  private static final ServiceChannelConfiguration INSTANCE = new ServiceChannelConfiguration();
+
+  /**
+   * Attribute defines whether object recycling is enabled.
+   */
+  private final boolean objectRecyclingEnabled;
+
+  /**
+   * Attribute defines whether asynchronous service calls are executed on virtual threads.
+   */
+  private final boolean asyncVirtualThreadsEnabled;
+
+  /**
+   * Number of platform threads that execute asynchronous service calls.
+   */
+  private final int asyncPoolSize;
+
+  /**
+   * Attribute defines whether service call metrics are recorded.
+   */
+  private final boolean metricsEnabled;
+
+  /**
+   * Attribute defines whether transactions are started lazily.
+   */
+  private final boolean lazyTxBeginEnabled;
+
+  /**
+   * Attribute defines whether entity managers are reused.
+   */
+  private final boolean entityManagerReuseEnabled;
+
+  /**
+   * Attribute defines whether transaction listeners are notified asynchronously.
+   */
+  private final boolean asyncTxListenersEnabled;
+
+  /**
+   * Maximum number of buffered transaction events.
+   */
+  private final int txListenerBufferSize;
+
+  /**
+   * Maximum time in milliseconds that a transaction waits for space in the buffer of asynchronous transaction
+   * listeners.
+   */
+  private final long txListenerBufferTimeout;
+
+  /**
+   * Default transaction timeout in seconds.
+   */
+  private final int txTimeout;
+
+  /**
+   * Attribute defines whether service calls are interrupted when their transaction timed out.
+   */
+  private final boolean txTimeoutInterruptEnabled;
+
+  /**
+   * Maximum number of cached results per component.
+   */
+  private final int resultCacheMaxSize;
+
+  /**
+   * Time to live of cached results in seconds.
+   */
+  private final int resultCacheTimeToLive;
+
+  /**
+   * Attribute defines whether components and service providers are started in parallel.
+   */
+  private final boolean parallelStartupEnabled;
+
+  /**
+   * Number of threads that are used for a parallel startup.
+   */
+  private final int startupParallelism;
+
+  /**
+   * Attribute defines whether service providers are initialized in parallel during a parallel startup.
+   */
+  private final boolean parallelServiceProviderStartupEnabled;
+
+  /**
+   * Attribute defines whether the startup index is used.
+   */
+  private final boolean startupIndexEnabled;
+
+  /**
+   * Attribute defines whether service instances and proxies are created on first use.
+   */
+  private final boolean lazyServicesEnabled;
+
+  /**
+   * File in which the startup snapshot is stored.
+   */
+  private final String startupSnapshotFile;
+
+  /**
+   * Method returns the service channel configuration.
+   *
+   * @return {@link ServiceChannelConfiguration} Object providing access to the service channel configuration. The
+   * method never returns null.
+   */
+  public static ServiceChannelConfiguration getInstance( ) {
+    return INSTANCE;
+  }
+
+  /**
+   * Initialize object. During initialization the configuration will already be loaded.
+   */
+  private ServiceChannelConfiguration( ) {
+    Configuration lConfiguration = XFun.getConfigurationProvider().getSystemPropertiesConfiguration();
+    objectRecyclingEnabled =
+        lConfiguration.getConfigurationValue(OBJECT_RECYCLING_ENABLED, Boolean.FALSE, Boolean.class);
+    asyncVirtualThreadsEnabled =
+        lConfiguration.getConfigurationValue(ASYNC_VIRTUAL_THREADS_ENABLED, Boolean.FALSE, Boolean.class);
+    Integer lDefaultPoolSize = Runtime.getRuntime().availableProcessors();
+    asyncPoolSize = Math.max(1, lConfiguration.getConfigurationValue(ASYNC_POOL_SIZE, lDefaultPoolSize, Integer.class));
+    metricsEnabled = lConfiguration.getConfigurationValue(METRICS_ENABLED, Boolean.FALSE, Boolean.class);
+    lazyTxBeginEnabled = lConfiguration.getConfigurationValue(LAZY_TX_BEGIN_ENABLED, Boolean.FALSE, Boolean.class);
+    entityManagerReuseEnabled =
+        lConfiguration.getConfigurationValue(ENTITY_MANAGER_REUSE_ENABLED, Boolean.FALSE, Boolean.class);
+    asyncTxListenersEnabled =
+        lConfiguration.getConfigurationValue(ASYNC_TX_LISTENERS_ENABLED, Boolean.FALSE, Boolean.class);
+    txListenerBufferSize =
+        Math.max(1, lConfiguration.getConfigurationValue(TX_LISTENER_BUFFER_SIZE, 4096, Integer.class));
+    txListenerBufferTimeout =
+        Math.max(0, lConfiguration.getConfigurationValue(TX_LISTENER_BUFFER_TIMEOUT, 100L, Long.class));
+    txTimeout = Math.max(0, lConfiguration.getConfigurationValue(TX_TIMEOUT, 0, Integer.class));
+    txTimeoutInterruptEnabled =
+        lConfiguration.getConfigurationValue(TX_TIMEOUT_INTERRUPT_ENABLED, Boolean.FALSE, Boolean.class);
+    resultCacheMaxSize = Math.max(1, lConfiguration.getConfigurationValue(RESULT_CACHE_MAX_SIZE, 10000, Integer.class));
+    resultCacheTimeToLive =
+        Math.max(1, lConfiguration.getConfigurationValue(RESULT_CACHE_TIME_TO_LIVE, 300, Integer.class));
+    parallelStartupEnabled =
+        lConfiguration.getConfigurationValue(PARALLEL_STARTUP_ENABLED, Boolean.FALSE, Boolean.class);
+    startupParallelism =
+        Math.max(1, lConfiguration.getConfigurationValue(STARTUP_PARALLELISM, lDefaultPoolSize, Integer.class));
+    parallelServiceProviderStartupEnabled = lConfiguration
+        .getConfigurationValue(PARALLEL_SERVICE_PROVIDER_STARTUP_ENABLED, Boolean.FALSE, Boolean.class);
+    startupIndexEnabled = lConfiguration.getConfigurationValue(STARTUP_INDEX_ENABLED, Boolean.TRUE, Boolean.class);
+    lazyServicesEnabled = lConfiguration.getConfigurationValue(LAZY_SERVICES_ENABLED, Boolean.FALSE, Boolean.class);
+    startupSnapshotFile = lConfiguration.getConfigurationValue(STARTUP_SNAPSHOT_FILE, "", String.class);
+  }
+
+  /**
+   * Method checks whether the service channel should recycle objects that are required for every service call instead
+   * of creating new ones. Only objects that are immutable or that are not passed to application code will be recycled.
+   * Currently these are the context stack elements of the trace. Service calls, service invocation contexts and
+   * transaction contexts are passed to interceptors, services and transaction listeners and thus are created for every
+   * call. If recycling is enabled the service channel also counts the objects it creates (see
+   * {@link ServiceChannelStatistics}).
+   *
+   * @return boolean Method returns true if object recycling is enabled and false otherwise. By default object recycling
+   * is disabled.
+   */
+  public boolean isObjectRecyclingEnabled( ) {
+    return objectRecyclingEnabled;
+  }
+
+  /**
+   * Method checks whether asynchronous service calls should be executed on virtual threads. If the JVM does not support
+   * virtual threads then a pool of platform threads will be used anyway.
+   *
+   * @return boolean Method returns true if virtual threads should be used and false otherwise. By default platform
+   * threads are used.
+   */
+  public boolean isAsyncVirtualThreadsEnabled( ) {
+    return asyncVirtualThreadsEnabled;
+  }
+
+  /**
+   * Method returns the number of platform threads that execute asynchronous service calls.
+   *
+   * @return int Number of platform threads. By default the number of available processors is used.
+   */
+  public int getAsyncPoolSize( ) {
+    return asyncPoolSize;
+  }
+
+  /**
+   * Method checks whether the service channel should record latencies and outcomes of all service calls (see
+   * {@link ServiceMetrics}).
+   *
+   * @return boolean Method returns true if metrics are recorded and false otherwise. By default metrics are not
+   * recorded.
+   */
+  public boolean isMetricsEnabled( ) {
+    return metricsEnabled;
+  }
+
+  /**
+   * Method checks whether transactions of a {@link LazyTxContext} should only be started when the first resource is
+   * used within the transaction. Otherwise they are started as soon as the transaction context is created.
+   *
+   * @return boolean Method returns true if transactions are started lazily and false otherwise. By default transactions
+   * are started immediately.
+   */
+  public boolean isLazyTxBeginEnabled( ) {
+    return lazyTxBeginEnabled;
+  }
+
+  /**
+   * Method checks whether entity managers should be cleared and reused by the next transaction of the same thread
+   * instead of closing them when their transaction context is released. Reuse should only be enabled if service calls
+   * are executed by a limited number of threads.
+   *
+   * @return boolean Method returns true if entity managers are reused and false otherwise. By default entity managers
+   * are closed.
+   */
+  public boolean isEntityManagerReuseEnabled( ) {
+    return entityManagerReuseEnabled;
+  }
+
+  /**
+   * Method checks whether transaction listeners should be notified asynchronously within a background thread. Listeners
+   * that implement {@link SynchronousTransactionListener} are always notified synchronously.
+   *
+   * @return boolean Method returns true if transaction listeners are notified asynchronously and false otherwise. By
+   * default all listeners are notified synchronously.
+   */
+  public boolean isAsyncTxListenersEnabled( ) {
+    return asyncTxListenersEnabled;
+  }
+
+  /**
+   * Method returns the maximum number of transaction events that are buffered for asynchronous transaction listeners.
+   * If the buffer is full then transactions have to wait until there is space again (see
+   * {@link #getTxListenerBufferTimeout()}).
+   *
+   * @return int Maximum number of buffered events. By default 4096 events are buffered.
+   */
+  public int getTxListenerBufferSize( ) {
+    return txListenerBufferSize;
+  }
+
+  /**
+   * Method returns how long a transaction waits for space in the buffer of asynchronous transaction listeners. If there
+   * is still no space afterwards then the listeners are notified synchronously by the thread of the transaction.
+   *
+   * @return long Maximum waiting time in milliseconds. By default transactions wait for 100 milliseconds.
+   */
+  public long getTxListenerBufferTimeout( ) {
+    return txListenerBufferTimeout;
+  }
+
+  /**
+   * Method returns the default timeout of transactions that are managed by the service channel itself. The default
+   * timeout applies to all service methods that are not annotated with {@link TransactionTimeout}.
+   *
+   * @return int Default transaction timeout in seconds. 0 means that there is no timeout, which is also the default.
+   */
+  public int getTxTimeout( ) {
+    return txTimeout;
+  }
+
+  /**
+   * Method checks whether the thread that executes a service call should be interrupted when its transaction timed out.
+   * Interruption only helps if the service waits in blocking operations that react on it.
+   *
+   * @return boolean Method returns true if service calls are interrupted and false otherwise. By default transactions
+   * are only marked for roll back.
+   */
+  public boolean isTxTimeoutInterruptEnabled( ) {
+    return txTimeoutInterruptEnabled;
+  }
+
+  /**
+   * Method returns the maximum number of cached results per component. If a component exceeds this size then its least
+   * recently used results will be evicted.
+   *
+   * @return int Maximum number of cached results per component. By default 10000 results are cached.
+   */
+  public int getResultCacheMaxSize( ) {
+    return resultCacheMaxSize;
+  }
+
+  /**
+   * Method returns the time to live of cached results. It also limits how long results that were read concurrently to a
+   * changing transaction may be outdated.
+   *
+   * @return int Time to live in seconds. By default results are cached for 300 seconds.
+   */
+  public int getResultCacheTimeToLive( ) {
+    return resultCacheTimeToLive;
+  }
+
+  /**
+   * Method checks whether components should be started in parallel. Service providers are only initialized in parallel
+   * if this is enabled in addition (see {@link #isParallelServiceProviderStartupEnabled()}).
+   *
+   * @return boolean Method returns true if the startup is executed in parallel and false otherwise. By default the
+   * startup is sequential.
+   */
+  public boolean isParallelStartupEnabled( ) {
+    return parallelStartupEnabled;
+  }
+
+  /**
+   * Method checks whether service providers should be initialized in parallel during a parallel startup. Service
+   * providers are then initialized in the order of the dependencies that their implementations declare through fields
+   * that are annotated with {@link com.anaptecs.jeaf.core.annotations.JEAFServiceProvider}. As these fields are only
+   * injected after the startup, a service provider that looks up other service providers during its initialization has
+   * to declare them this way. Otherwise they might not be available yet. Cyclic dependencies are rejected.
+   *
+   * @return boolean Method returns true if service providers are initialized in parallel and false otherwise. By
+   * default service providers are initialized one after another in the order of their factories.
+   */
+  public boolean isParallelServiceProviderStartupEnabled( ) {
+    return parallelServiceProviderStartupEnabled;
+  }
+
+  /**
+   * Method returns the number of threads that are used for a parallel startup.
+   *
+   * @return int Number of threads. By default the number of available processors is used.
+   */
+  public int getStartupParallelism( ) {
+    return startupParallelism;
+  }
+
+  /**
+   * Method checks whether the startup index that was generated at build time should be used to find injection points
+   * (see {@link StartupIndex}). An index is only generated for modules that use the startup index processor. Index
+   * entries whose fields do not exist or are not annotated as expected are ignored. The index should only be disabled
+   * if injection points were added within an incremental build without annotation processing, as this can not be
+   * detected.
+   *
+   * @return boolean Method returns true if the startup index is used and false otherwise. By default the startup index
+   * is used if it is available.
+   */
+  public boolean isStartupIndexEnabled( ) {
+    return startupIndexEnabled;
+  }
+
+  /**
+   * Method checks whether service instances and proxies should only be created when they are used for the first time.
+   * Dependencies are injected into a service instance when it is created. Lazy creation shortens the startup of
+   * deployments that only use a few of the available services.
+   *
+   * @return boolean Method returns true if services are created lazily and false otherwise. By default all services
+   * are created during startup.
+   */
+  public boolean isLazyServicesEnabled( ) {
+    return lazyServicesEnabled;
+  }
+
+  /**
+   * Method returns the file in which the startup snapshot is stored (see {@link StartupSnapshot}). Snapshots are
+   * intended for applications that are started very often like command line tools.
+   *
+   * @return String Path of the snapshot file. An empty string means that no snapshot is used, which is also the
+   * default.
+   */
+  public String getStartupSnapshotFile( ) {
+    return startupSnapshotFile;
+  }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.errorhandling.ErrorCode;
+import com.anaptecs.jeaf.xfun.api.messages.MessageID;
+import com.anaptecs.jeaf.xfun.api.messages.MessageRepository;
+
+/**
+ * Class contains the constants for all trace and error messages that are only used by the implementation of the
+ * service channels. All other messages are defined by the JEAF Core API (see
+ * {@link com.anaptecs.jeaf.core.api.MessageConstants}). The texts of the messages are defined in resource
+ * {@link #MESSAGE_RESOURCE}. The class has the same structure as the generated message constants of JEAF so that it
+ * can be listed as message resource in the configuration of JEAF X-Fun.
+ *
+ * @author JEAF Development Team
+ */
+public final class ServiceChannelMessages {
+  /**
+   * Name of the XML resource that contains all messages that are defined within this class.
+   */
+  public static final String MESSAGE_RESOURCE = "ServiceChannelMessages.xml";
+
+  /**
+   * Trace message is written if a resource could not be rolled back. Parameters: resource.
+   */
+  public static final MessageID RESOURCE_ROLLBACK_FAILED;
+
+  /**
+   * Trace message is written if the timeout of a transaction expired. Parameters: thread, timeout in milliseconds.
+   */
+  public static final MessageID TX_TIMED_OUT;
+
+  /**
+   * Trace message is written if the timer wheel was unable to process transaction timeouts. Parameters: none.
+   */
+  public static final MessageID TX_TIMEOUT_PROCESSING_FAILED;
+
+  /**
+   * Trace message is written if the buffer of asynchronous transaction listeners is full and listeners are notified
+   * synchronously. Parameters: none.
+   */
+  public static final MessageID TX_LISTENER_BUFFER_FULL;
+
+  /**
+   * Trace message is written if classes of the startup snapshot can not be loaded any longer. Parameters: none.
+   */
+  public static final MessageID STARTUP_SNAPSHOT_OUTDATED;
+
+  /**
+   * Trace message is written if the startup snapshot could not be written. Parameters: snapshot file.
+   */
+  public static final MessageID STARTUP_SNAPSHOT_WRITE_FAILED;
+
+  /**
+   * Trace message is written if the startup snapshot could not be read. Parameters: snapshot file.
+   */
+  public static final MessageID STARTUP_SNAPSHOT_READ_FAILED;
+
+  /**
+   * Trace message is written if the startup snapshot is ignored as the configuration changed. Parameters: snapshot
+   * file.
+   */
+  public static final MessageID STARTUP_SNAPSHOT_IGNORED;
+
+  /**
+   * Trace message is written if the configuration could not be read to check whether the startup snapshot is up to
+   * date. Parameters: none.
+   */
+  public static final MessageID STARTUP_SNAPSHOT_HASH_FAILED;
+
+  /**
+   * Error code is used if a resource could not be enlisted in the current transaction. Parameters: resource.
+   */
+  public static final ErrorCode RESOURCE_ENLISTMENT_FAILED;
+
+  /**
+   * Error code is used if a resource could not be committed and the transaction was rolled back. Parameters: resource.
+   */
+  public static final ErrorCode RESOURCE_COMMIT_FAILED;
+
+  /**
+   * Error code is used if a resource could not be committed after other resources were already committed. The outcome
+   * of the transaction is heuristic. Parameters: resource.
+   */
+  public static final ErrorCode HEURISTIC_TX_OUTCOME;
+
+  /**
+   * Error code is used if a service channel does not support asynchronous service calls. Parameters: service channel
+   * class.
+   */
+  public static final ErrorCode ASYNC_EXECUTION_NOT_SUPPORTED;
+
+  /**
+   * Error code is used if a hash algorithm that is required by JEAF is not supported by the JVM. Parameters: algorithm.
+   */
+  public static final ErrorCode HASH_ALGORITHM_NOT_SUPPORTED;
+
+  /**
+   * Static initializer loads all messages from {@link #MESSAGE_RESOURCE}.
+   */
+  static {
+    MessageRepository lRepository = XFun.getMessageRepository();
+    lRepository.loadResource(MESSAGE_RESOURCE);
+
+    // Handle all trace messages.
+    RESOURCE_ROLLBACK_FAILED = lRepository.getMessageID(8100);
+    TX_TIMED_OUT = lRepository.getMessageID(8101);
+    TX_TIMEOUT_PROCESSING_FAILED = lRepository.getMessageID(8102);
+    TX_LISTENER_BUFFER_FULL = lRepository.getMessageID(8103);
+    STARTUP_SNAPSHOT_OUTDATED = lRepository.getMessageID(8104);
+    STARTUP_SNAPSHOT_WRITE_FAILED = lRepository.getMessageID(8105);
+    STARTUP_SNAPSHOT_READ_FAILED = lRepository.getMessageID(8106);
+    STARTUP_SNAPSHOT_IGNORED = lRepository.getMessageID(8107);
+    STARTUP_SNAPSHOT_HASH_FAILED = lRepository.getMessageID(8108);
+
+    // Handle all error codes.
+    RESOURCE_ENLISTMENT_FAILED = lRepository.getErrorCode(8500);
+    RESOURCE_COMMIT_FAILED = lRepository.getErrorCode(8501);
+    HEURISTIC_TX_OUTCOME = lRepository.getErrorCode(8502);
+    ASYNC_EXECUTION_NOT_SUPPORTED = lRepository.getErrorCode(8503);
+    HASH_ALGORITHM_NOT_SUPPORTED = lRepository.getErrorCode(8504);
+  }
+
+  /**
+   * Constructor is private as this class only contains constants.
+   */
+  private ServiceChannelMessages( ) {
+    // Nothing to do.
+  }
+}
@@ -0,0 +1,232 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class collects statistical information about the objects that are created by a service channel during service
+ * calls. This information can be used to verify the effects of object recycling (see
+ * {@link ServiceChannelConfiguration#isObjectRecyclingEnabled()}). Service calls as well as created and recycled
+ * objects are only counted while object recycling is enabled so that service calls do not pay for these counters
+ * otherwise. Started and timed out transactions are always counted.
+ *
+ * Instances of this class are thread safe. As the counters are updated during every service call they are based on
+ * {@link LongAdder} so that concurrent service calls do not contend for the same counter.
+ *
+ * @author JEAF Development Team
+ */
+public final class ServiceChannelStatistics {
+  /**
+   * Number of service calls that were executed.
+   */
+  private final LongAdder serviceCalls = new LongAdder();
+
+  /**
+   * Number of service invocation context objects that were created.
+   */
+  private final LongAdder createdServiceInvocationContexts = new LongAdder();
+
+  /**
+   * Number of transaction context objects that were created.
+   */
+  private final LongAdder createdTxContexts = new LongAdder();
+
+  /**
+   * Number of transactions that were really started.
+   */
+  private final LongAdder startedTransactions = new LongAdder();
+
+  /**
+   * Number of context stack elements that were created.
+   */
+  private final LongAdder createdContextStackElements = new LongAdder();
+
+  /**
+   * Number of context stack elements that were recycled instead of creating a new one.
+   */
+  private final LongAdder recycledContextStackElements = new LongAdder();
+
+  /**
+   * Number of transactions that timed out.
+   */
+  private final LongAdder timedOutTransactions = new LongAdder();
+
+  /**
+   * Number of service calls that were interrupted due to a transaction timeout.
+   */
+  private final LongAdder interruptedServiceCalls = new LongAdder();
+
+  /**
+   * Initialize object.
+   */
+  ServiceChannelStatistics( ) {
+    // Nothing to do.
+  }
+
+  /**
+   * Method returns the number of service calls that were executed.
+   *
+   * @return long Number of executed service calls.
+   */
+  public long getServiceCalls( ) {
+    return serviceCalls.sum();
+  }
+
+  /**
+   * Method returns the number of service invocation context objects that were created.
+   *
+   * @return long Number of created service invocation context objects.
+   */
+  public long getCreatedServiceInvocationContexts( ) {
+    return createdServiceInvocationContexts.sum();
+  }
+
+  /**
+   * Method returns the number of transaction context objects that were created.
+   *
+   * @return long Number of created transaction context objects.
+   */
+  public long getCreatedTxContexts( ) {
+    return createdTxContexts.sum();
+  }
+
+  /**
+   * Method returns the number of transactions that were really started. As transactions of a {@link LazyTxContext} are
+   * only started when a resource is used this value may be lower than the number of created transaction contexts.
+   *
+   * @return long Number of started transactions.
+   */
+  public long getStartedTransactions( ) {
+    return startedTransactions.sum();
+  }
+
+  /**
+   * Method returns the number of context stack elements that were created.
+   *
+   * @return long Number of created context stack elements.
+   */
+  public long getCreatedContextStackElements( ) {
+    return createdContextStackElements.sum();
+  }
+
+  /**
+   * Method returns the number of context stack elements that were recycled.
+   *
+   * @return long Number of recycled context stack elements.
+   */
+  public long getRecycledContextStackElements( ) {
+    return recycledContextStackElements.sum();
+  }
+
+  /**
+   * Method returns the number of transactions that timed out (see {@link TransactionTimeout}).
+   *
+   * @return long Number of timed out transactions.
+   */
+  public long getTimedOutTransactions( ) {
+    return timedOutTransactions.sum();
+  }
+
+  /**
+   * Method returns the number of service calls whose thread was interrupted due to a transaction timeout.
+   *
+   * @return long Number of interrupted service calls.
+   */
+  public long getInterruptedServiceCalls( ) {
+    return interruptedServiceCalls.sum();
+  }
+
+  /**
+   * Method resets all counters to 0. Service calls that are executed concurrently to the reset may or may not be
+   * included afterwards.
+   */
+  public void reset( ) {
+    serviceCalls.reset();
+    createdServiceInvocationContexts.reset();
+    createdTxContexts.reset();
+    startedTransactions.reset();
+    createdContextStackElements.reset();
+    recycledContextStackElements.reset();
+    timedOutTransactions.reset();
+    interruptedServiceCalls.reset();
+  }
+
+  /**
+   * Method records the execution of a service call.
+   */
+  void serviceCallExecuted( ) {
+    serviceCalls.increment();
+  }
+
+  /**
+   * Method records the creation of a service invocation context.
+   */
+  void serviceInvocationContextCreated( ) {
+    createdServiceInvocationContexts.increment();
+  }
+
+  /**
+   * Method records the creation of a transaction context.
+   */
+  void txContextCreated( ) {
+    createdTxContexts.increment();
+  }
+
+  /**
+   * Method records that a transaction was started.
+   */
+  void transactionStarted( ) {
+    startedTransactions.increment();
+  }
+
+  /**
+   * Method records the creation of a context stack element.
+   */
+  void contextStackElementCreated( ) {
+    createdContextStackElements.increment();
+  }
+
+  /**
+   * Method records that a context stack element was recycled.
+   */
+  void contextStackElementRecycled( ) {
+    recycledContextStackElements.increment();
+  }
+
+  /**
+   * Method records that a transaction timed out.
+   */
+  void transactionTimedOut( ) {
+    timedOutTransactions.increment();
+  }
+
+  /**
+   * Method records that a service call was interrupted due to a transaction timeout.
+   */
+  void serviceCallInterrupted( ) {
+    interruptedServiceCalls.increment();
+  }
+
+  /**
+   * Method returns a String representation of this object.
+   *
+   * @return String String representation of all counters. The method never returns null.
+   */
+  @Override
+  public String toString( ) {
+    StringBuilder lBuilder = new StringBuilder();
+    lBuilder.append("Service calls: ").append(serviceCalls.sum());
+    lBuilder.append(", created service invocation contexts: ").append(createdServiceInvocationContexts.sum());
+    lBuilder.append(", created tx contexts: ").append(createdTxContexts.sum());
+    lBuilder.append(", started transactions: ").append(startedTransactions.sum());
+    lBuilder.append(", created context stack elements: ").append(createdContextStackElements.sum());
+    lBuilder.append(", recycled context stack elements: ").append(recycledContextStackElements.sum());
+    lBuilder.append(", timed out transactions: ").append(timedOutTransactions.sum());
+    lBuilder.append(", interrupted service calls: ").append(interruptedServiceCalls.sum());
+    return lBuilder.toString();
+  }
+}
@@ -36,8 +36,8 @@ public class ServiceInvocationContextManagerImpl implements ServiceInvocationCon
 
     // TODO Check if this object is really the current context.
 
-    // Set current context to null.
-    currentServiceInvocationContext.set(null);
+    // Remove current context. Setting it to null would keep an entry in the thread local map of the thread.
+    currentServiceInvocationContext.remove();
   }
 
   @Override
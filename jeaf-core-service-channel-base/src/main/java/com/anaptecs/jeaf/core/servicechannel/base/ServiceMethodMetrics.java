@@ -0,0 +1,157 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.anaptecs.jeaf.core.api.Service;
+import com.anaptecs.jeaf.core.spi.TransactionBehavior;
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+
+/**
+ * Class contains the metrics of one service method that is called with a specific transaction behavior. Besides a
+ * latency histogram the number of calls per {@link ServiceCallOutcome} is counted. The latency covers the whole service
+ * call through the service channel including all service channel interceptors.
+ *
+ * Instances of this class are thread safe.
+ *
+ * @author JEAF Development Team
+ */
+public final class ServiceMethodMetrics {
+  /**
+   * Service interface whose method is measured.
+   */
+  private final Class<? extends Service> serviceClass;
+
+  /**
+   * Service method that is measured.
+   */
+  private final Method serviceMethod;
+
+  /**
+   * Transaction behavior with which the service method is called.
+   */
+  private final TransactionBehavior transactionBehavior;
+
+  /**
+   * Latencies of all service calls.
+   */
+  private final LatencyHistogram latencies = new LatencyHistogram();
+
+  /**
+   * Number of calls per outcome. The array is indexed by the ordinal of {@link ServiceCallOutcome}. As all calls of a
+   * service method update the same counters they are {@link LongAdder}s to avoid contention.
+   */
+  private final LongAdder[] outcomes;
+
+  /**
+   * Initialize object.
+   *
+   * @param pServiceClass Service interface whose method is measured. The parameter must not be null.
+   * @param pServiceMethod Service method that is measured. The parameter must not be null.
+   * @param pTransactionBehavior Transaction behavior with which the method is called. The parameter must not be null.
+   */
+  ServiceMethodMetrics( Class<? extends Service> pServiceClass, Method pServiceMethod,
+      TransactionBehavior pTransactionBehavior ) {
+    // Check parameters.
+    Assert.assertNotNull(pServiceClass, "pServiceClass");
+    Assert.assertNotNull(pServiceMethod, "pServiceMethod");
+    Assert.assertNotNull(pTransactionBehavior, "pTransactionBehavior");
+
+    serviceClass = pServiceClass;
+    serviceMethod = pServiceMethod;
+    transactionBehavior = pTransactionBehavior;
+    outcomes = new LongAdder[ServiceCallOutcome.values().length];
+    for (int i = 0; i < outcomes.length; i++) {
+      outcomes[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Method records a completed service call.
+   *
+   * @param pOutcome Outcome of the service call. The parameter must not be null.
+   * @param pNanos Latency of the service call in nanoseconds.
+   */
+  void record( ServiceCallOutcome pOutcome, long pNanos ) {
+    outcomes[pOutcome.ordinal()].increment();
+    latencies.record(pNanos);
+  }
+
+  /**
+   * Method returns the service interface whose method is measured.
+   *
+   * @return {@link Class} Service interface. The method never returns null.
+   */
+  public Class<? extends Service> getServiceClass( ) {
+    return serviceClass;
+  }
+
+  /**
+   * Method returns the service method that is measured.
+   *
+   * @return {@link Method} Service method. The method never returns null.
+   */
+  public Method getServiceMethod( ) {
+    return serviceMethod;
+  }
+
+  /**
+   * Method returns the transaction behavior with which the service method is called.
+   *
+   * @return {@link TransactionBehavior} Transaction behavior. The method never returns null.
+   */
+  public TransactionBehavior getTransactionBehavior( ) {
+    return transactionBehavior;
+  }
+
+  /**
+   * Method returns the latency histogram of the service method.
+   *
+   * @return {@link LatencyHistogram} Latency histogram. The method never returns null.
+   */
+  public LatencyHistogram getLatencies( ) {
+    return latencies;
+  }
+
+  /**
+   * Method returns the number of service calls with the passed outcome.
+   *
+   * @param pOutcome Outcome whose number of calls should be returned. The parameter must not be null.
+   * @return long Number of service calls with the passed outcome.
+   */
+  public long getCount( ServiceCallOutcome pOutcome ) {
+    return outcomes[pOutcome.ordinal()].sum();
+  }
+
+  /**
+   * Method resets all metrics.
+   */
+  public void reset( ) {
+    for (int i = 0; i < outcomes.length; i++) {
+      outcomes[i].reset();
+    }
+    latencies.reset();
+  }
+
+  /**
+   * Method returns a String representation of this object.
+   *
+   * @return String String representation of this object. The method never returns null.
+   */
+  @Override
+  public String toString( ) {
+    StringBuilder lBuilder = new StringBuilder();
+    lBuilder.append(serviceClass.getName()).append('.').append(serviceMethod.getName());
+    lBuilder.append(" (").append(transactionBehavior.name()).append("): ");
+    for (ServiceCallOutcome lOutcome : ServiceCallOutcome.values()) {
+      lBuilder.append(lOutcome.name()).append('=').append(this.getCount(lOutcome)).append(' ');
+    }
+    lBuilder.append(latencies.toString());
+    return lBuilder.toString();
+  }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.anaptecs.jeaf.core.api.Service;
+import com.anaptecs.jeaf.core.spi.TransactionBehavior;
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+
+/**
+ * Class contains the metrics of all service methods that were called through a service channel. Metrics are kept per
+ * service method and transaction behavior (see {@link ServiceMethodMetrics}). They are recorded by the service channel
+ * itself as long as metrics are enabled (see {@link ServiceChannelConfiguration#isMetricsEnabled()}).
+ *
+ * Instances of this class are thread safe.
+ *
+ * @author JEAF Development Team
+ */
+public final class ServiceMetrics {
+  /**
+   * Metrics of all service methods. The map is sorted by service, method and transaction behavior so that exports are
+   * stable.
+   */
+  private final ConcurrentMap<String, ServiceMethodMetrics> metrics =
+      new ConcurrentSkipListMap<String, ServiceMethodMetrics>();
+
+  /**
+   * Initialize object.
+   */
+  ServiceMetrics( ) {
+    // Nothing to do.
+  }
+
+  /**
+   * Method returns the metrics for the passed service method and transaction behavior. If they do not exist yet they
+   * will be created. The method is only called when a new invocation plan is created and not for every service call.
+   *
+   * @param pServiceClass Service interface. The parameter must not be null.
+   * @param pServiceMethod Service method. The parameter must not be null.
+   * @param pTransactionBehavior Transaction behavior. The parameter must not be null.
+   * @return {@link ServiceMethodMetrics} Metrics of the service method. The method never returns null.
+   */
+  ServiceMethodMetrics getServiceMethodMetrics( Class<? extends Service> pServiceClass, Method pServiceMethod,
+      TransactionBehavior pTransactionBehavior ) {
+    // Check parameters.
+    Assert.assertNotNull(pServiceClass, "pServiceClass");
+    Assert.assertNotNull(pServiceMethod, "pServiceMethod");
+    Assert.assertNotNull(pTransactionBehavior, "pTransactionBehavior");
+
+    String lKey = pServiceClass.getName() + '#' + pServiceMethod.toString() + '#' + pTransactionBehavior.name();
+    ServiceMethodMetrics lMetrics = metrics.get(lKey);
+    if (lMetrics == null) {
+      lMetrics = new ServiceMethodMetrics(pServiceClass, pServiceMethod, pTransactionBehavior);
+      ServiceMethodMetrics lExistingMetrics = metrics.putIfAbsent(lKey, lMetrics);
+      if (lExistingMetrics != null) {
+        lMetrics = lExistingMetrics;
+      }
+    }
+    return lMetrics;
+  }
+
+  /**
+   * Method returns the metrics of all service methods that were called.
+   *
+   * @return {@link Collection} Metrics of all called service methods. The method never returns null.
+   */
+  public Collection<ServiceMethodMetrics> getAllServiceMethodMetrics( ) {
+    return new ArrayList<ServiceMethodMetrics>(metrics.values());
+  }
+
+  /**
+   * Method returns the metrics of all methods of the passed service.
+   *
+   * @param pServiceClass Service whose metrics should be returned. The parameter must not be null.
+   * @return {@link List} Metrics of all called methods of the service. The method never returns null.
+   */
+  public List<ServiceMethodMetrics> getServiceMethodMetrics( Class<? extends Service> pServiceClass ) {
+    List<ServiceMethodMetrics> lMetrics = new ArrayList<ServiceMethodMetrics>();
+    for (ServiceMethodMetrics lNext : metrics.values()) {
+      if (lNext.getServiceClass().equals(pServiceClass) == true) {
+        lMetrics.add(lNext);
+      }
+    }
+    return lMetrics;
+  }
+
+  /**
+   * Method resets the metrics of all service methods.
+   */
+  public void reset( ) {
+    for (ServiceMethodMetrics lNext : metrics.values()) {
+      lNext.reset();
+    }
+  }
+
+  /**
+   * Method exports the metrics of all service methods as text. Every service method is written into a separate line.
+   *
+   * @return String Text representation of all metrics. The method never returns null.
+   */
+  public String exportAsText( ) {
+    StringBuilder lBuilder = new StringBuilder();
+    for (ServiceMethodMetrics lNext : metrics.values()) {
+      lBuilder.append(lNext.toString()).append(System.lineSeparator());
+    }
+    return lBuilder.toString();
+  }
+
+  /**
+   * Method returns a String representation of this object.
+   *
+   * @return String Text representation of all metrics. The method never returns null.
+   */
+  @Override
+  public String toString( ) {
+    return this.exportAsText();
+  }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.anaptecs.jeaf.core.annotations.JEAFServiceProvider;
+import com.anaptecs.jeaf.core.api.ServiceProvider;
+import com.anaptecs.jeaf.core.spi.ServiceProviderImplementation;
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+
+/**
+ * Class determines the order in which service providers are initialized. A service provider depends on all other
+ * service providers that its implementation declares as dependency using {@link JEAFServiceProvider}. Service providers
+ * are grouped into levels so that every service provider only depends on service providers of lower levels. Service
+ * providers of the same level are independent of each other and thus can be initialized in parallel.
+ *
+ * As the annotated fields are only injected after the startup they just declare the dependencies. Cyclic dependencies
+ * can not be resolved and are rejected.
+ *
+ * @author JEAF Development Team
+ */
+final class ServiceProviderStartupOrder {
+  /**
+   * All service providers that have to be initialized.
+   */
+  private final Map<Class<? extends ServiceProvider>, ServiceProviderImplementation> serviceProviders;
+
+  /**
+   * Level of all service providers whose level was already determined.
+   */
+  private final Map<Class<? extends ServiceProvider>, Integer> levels =
+      new HashMap<Class<? extends ServiceProvider>, Integer>();
+
+  /**
+   * Service providers whose level is currently determined in the order in which they were reached. The set is used to
+   * detect cyclic dependencies.
+   */
+  private final Set<Class<? extends ServiceProvider>> visiting =
+      new LinkedHashSet<Class<? extends ServiceProvider>>();
+
+  /**
+   * Initialize object.
+   *
+   * @param pServiceProviders All service providers that have to be initialized. The parameter must not be null.
+   */
+  ServiceProviderStartupOrder(
+      Map<Class<? extends ServiceProvider>, ServiceProviderImplementation> pServiceProviders ) {
+    // Check parameter.
+    Assert.assertNotNull(pServiceProviders, "pServiceProviders");
+
+    serviceProviders = pServiceProviders;
+  }
+
+  /**
+   * Method groups all service providers into levels.
+   *
+   * @return {@link List} Interfaces of all service providers grouped by their level starting with the service providers
+   * that do not depend on other ones. Within a level service providers keep the order in which they were passed. The
+   * method never returns null.
+   */
+  List<List<Class<? extends ServiceProvider>>> resolveLevels( ) {
+    List<List<Class<? extends ServiceProvider>>> lLevels = new ArrayList<List<Class<? extends ServiceProvider>>>();
+    for (Class<? extends ServiceProvider> lServiceProvider : serviceProviders.keySet()) {
+      int lLevel = this.getLevel(lServiceProvider);
+      while (lLevels.size() <= lLevel) {
+        lLevels.add(new ArrayList<Class<? extends ServiceProvider>>());
+      }
+      lLevels.get(lLevel).add(lServiceProvider);
+    }
+    return lLevels;
+  }
+
+  /**
+   * Method determines the level of the passed service provider.
+   *
+   * @param pServiceProvider Interface of the service provider whose level should be determined. The parameter must not
+   * be null.
+   * @return int Level of the service provider. Service providers without dependencies have level 0.
+   */
+  private int getLevel( Class<? extends ServiceProvider> pServiceProvider ) {
+    // Cyclic dependencies can not be resolved.
+    if (visiting.contains(pServiceProvider) == true) {
+      Assert.internalError("Fatal configuration issue: Cyclic dependency between service providers " + visiting
+          + " -> " + pServiceProvider.getName());
+    }
+
+    Integer lKnownLevel = levels.get(pServiceProvider);
+    int lLevel;
+    if (lKnownLevel != null) {
+      lLevel = lKnownLevel;
+    }
+    else {
+      visiting.add(pServiceProvider);
+      lLevel = 0;
+      for (Class<? extends ServiceProvider> lDependency : this.getDependencies(pServiceProvider)) {
+        lLevel = Math.max(lLevel, this.getLevel(lDependency) + 1);
+      }
+      visiting.remove(pServiceProvider);
+      levels.put(pServiceProvider, lLevel);
+    }
+    return lLevel;
+  }
+
+  /**
+   * Method returns all service providers on which the implementation of the passed service provider depends.
+   *
+   * @param pServiceProvider Interface of the service provider whose dependencies should be returned. The parameter must
+   * not be null.
+   * @return {@link List} Interfaces of all service providers that are required. Only service providers that have to be
+   * initialized are returned. The method never returns null.
+   */
+  private List<Class<? extends ServiceProvider>> getDependencies( Class<? extends ServiceProvider> pServiceProvider ) {
+    List<Class<? extends ServiceProvider>> lDependencies = new ArrayList<Class<? extends ServiceProvider>>(0);
+    Class<?> lClass = serviceProviders.get(pServiceProvider).getClass();
+    while (lClass != null) {
+      for (Field lField : lClass.getDeclaredFields()) {
+        if (lField.isAnnotationPresent(JEAFServiceProvider.class) == true && lField.getType() != pServiceProvider
+            && serviceProviders.containsKey(lField.getType()) == true) {
+
+          @SuppressWarnings("unchecked")
+          Class<? extends ServiceProvider> lDependency = (Class<? extends ServiceProvider>) lField.getType();
+          lDependencies.add(lDependency);
+        }
+      }
+      lClass = lClass.getSuperclass();
+    }
+    return lDependencies;
+  }
+}
@@ -5,10 +5,14 @@
  */
 package com.anaptecs.jeaf.core.servicechannel.base;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.anaptecs.jeaf.core.api.MessageConstants;
 import com.anaptecs.jeaf.core.api.Service;
@@ -21,7 +25,8 @@ import com.anaptecs.jeaf.xfun.api.checks.Check;
 import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFSystemException;
 
 /**
- * Service registry contains all service implementations and the corresponding proxy objects.
+ * Service registry contains all service implementations and the corresponding proxy objects. Services may also be
+ * registered lazily (see {@link LazyService}). Their instance and proxy are created on first access.
  * 
  * @author JEAF Development Team
  * @version 1.0
@@ -38,6 +43,12 @@ public final class ServiceRegistryImpl implements ServiceRegistry {
    */
   private final Map<Class<? extends Service>, ServiceProxy> proxies;
 
+  /**
+   * Map contains all services that were registered lazily. Thereby the class object of the service interface is used as
+   * key.
+   */
+  private final Map<Class<? extends Service>, LazyService> lazyServices;
+
   /**
    * Initialize object.
    */
@@ -45,6 +56,7 @@ public final class ServiceRegistryImpl implements ServiceRegistry {
     // Initialize maps.
     services = new HashMap<Class<? extends Service>, ServiceImplementation>();
     proxies = new HashMap<Class<? extends Service>, ServiceProxy>();
+    lazyServices = new HashMap<Class<? extends Service>, LazyService>();
   }
 
   /**
@@ -68,6 +80,29 @@ public final class ServiceRegistryImpl implements ServiceRegistry {
         pServiceProxy.getClass().getName());
   }
 
+  /**
+   * Method registers the passed service whose instance and proxy will only be created when they are accessed for the
+   * first time.
+   * 
+   * @param pLazyService Service that should be registered. The parameter must not be null and a service of the same
+   * service interface must not have been registered yet.
+   */
+  void registerLazyService( LazyService pLazyService ) {
+    // Check parameter.
+    Assert.assertNotNull(pLazyService, "pLazyService");
+
+    // Register service.
+    Class<? extends Service> lServiceType = pLazyService.getServiceType();
+    if (services.containsKey(lServiceType) == false && lazyServices.containsKey(lServiceType) == false) {
+      lazyServices.put(lServiceType, pLazyService);
+    }
+    // Service for defined service interface already exists.
+    else {
+      String[] lParams = new String[] { pLazyService.getClass().getName(), lServiceType.getName() };
+      throw new JEAFSystemException(MessageConstants.SERVICE_INSTANCE_ALREADY_SET, lParams);
+    }
+  }
+
   /**
    * Method adds the passed service INSTANCE as implementation for the corresponding service interface.
    * 
@@ -85,7 +120,7 @@ public final class ServiceRegistryImpl implements ServiceRegistry {
     Assert.assertNotNull(lServiceType, "lServiceType");
 
     // Register service INSTANCE.
-    if (services.containsKey(lServiceType) == false) {
+    if (services.containsKey(lServiceType) == false && lazyServices.containsKey(lServiceType) == false) {
       services.put(lServiceType, pServiceImplementation);
     }
     // Service INSTANCE for defined service INSTANCE already exists.
@@ -139,6 +174,11 @@ public final class ServiceRegistryImpl implements ServiceRegistry {
     if (lServiceInstance != null) {
       return lServiceInstance;
     }
+    // Create lazily registered service on first access.
+    LazyService lLazyService = lazyServices.get(pServiceType);
+    if (lLazyService != null) {
+      return lLazyService.getServiceInstance();
+    }
     // Service is not available.
     else {
       throw new JEAFSystemException(MessageConstants.SERVICE_NOT_AVAILABLE, pServiceType.getName());
@@ -146,14 +186,29 @@ public final class ServiceRegistryImpl implements ServiceRegistry {
   }
 
   /**
-   * Method returns all available service instances.
+   * Method returns all available service instances. Instances of lazily registered services are only returned if they
+   * were already created.
    * 
    * @return Collection All available service instances. The method never returns null and all objects within the
    * collection are INSTANCE of class com.anaptecs.jeaf.fwk.core.ServiceImplementation. The collection is immutable.
    */
   @Override
   public Collection<ServiceImplementation> getAllServiceInstances( ) {
-    return Collections.unmodifiableCollection(services.values());
+    Collection<ServiceImplementation> lServiceInstances;
+    if (lazyServices.isEmpty() == true) {
+      lServiceInstances = Collections.unmodifiableCollection(services.values());
+    }
+    else {
+      List<ServiceImplementation> lAllServiceInstances = new ArrayList<ServiceImplementation>(services.values());
+      for (LazyService lLazyService : lazyServices.values()) {
+        ServiceImplementation lServiceInstance = lLazyService.getCreatedServiceInstance();
+        if (lServiceInstance != null) {
+          lAllServiceInstances.add(lServiceInstance);
+        }
+      }
+      lServiceInstances = Collections.unmodifiableCollection(lAllServiceInstances);
+    }
+    return lServiceInstances;
   }
 
   /**
@@ -174,6 +229,11 @@ public final class ServiceRegistryImpl implements ServiceRegistry {
     if (lServiceProxy != null) {
       return lServiceProxy;
     }
+    // Create proxy of lazily registered service on first access.
+    LazyService lLazyService = lazyServices.get(pServiceType);
+    if (lLazyService != null) {
+      return lLazyService.getServiceProxy();
+    }
     // Service is not available.
     else {
       throw new JEAFSystemException(MessageConstants.SERVICE_NOT_AVAILABLE, pServiceType.getName());
@@ -181,14 +241,29 @@ public final class ServiceRegistryImpl implements ServiceRegistry {
   }
 
   /**
-   * Method returns all service proxies that are stored in this service registry.
+   * Method returns all service proxies that are stored in this service registry. Proxies of lazily registered services
+   * are only returned if they were already created.
    * 
    * @return {@link Collection} Collection with all service proxies of this service registry. The method never returns
    * null.
    */
   @Override
   public Collection<ServiceProxy> getAllServiceProxies( ) {
-    return Collections.unmodifiableCollection(proxies.values());
+    Collection<ServiceProxy> lServiceProxies;
+    if (lazyServices.isEmpty() == true) {
+      lServiceProxies = Collections.unmodifiableCollection(proxies.values());
+    }
+    else {
+      List<ServiceProxy> lAllServiceProxies = new ArrayList<ServiceProxy>(proxies.values());
+      for (LazyService lLazyService : lazyServices.values()) {
+        ServiceProxy lServiceProxy = lLazyService.getCreatedServiceProxy();
+        if (lServiceProxy != null) {
+          lAllServiceProxies.add(lServiceProxy);
+        }
+      }
+      lServiceProxies = Collections.unmodifiableCollection(lAllServiceProxies);
+    }
+    return lServiceProxies;
   }
 
   /**
@@ -199,7 +274,16 @@ public final class ServiceRegistryImpl implements ServiceRegistry {
    */
   @Override
   public Collection<Class<? extends Service>> getAvailableServiceClasses( ) {
-    return Collections.unmodifiableCollection(services.keySet());
+    Collection<Class<? extends Service>> lServiceClasses;
+    if (lazyServices.isEmpty() == true) {
+      lServiceClasses = Collections.unmodifiableCollection(services.keySet());
+    }
+    else {
+      Set<Class<? extends Service>> lAllServiceClasses = new LinkedHashSet<Class<? extends Service>>(services.keySet());
+      lAllServiceClasses.addAll(lazyServices.keySet());
+      lServiceClasses = Collections.unmodifiableCollection(lAllServiceClasses);
+    }
+    return lServiceClasses;
   }
 
   /**
@@ -215,6 +299,6 @@ public final class ServiceRegistryImpl implements ServiceRegistry {
     Check.checkInvalidParameterNull(pServiceClass, "pServiceClass");
 
     // Check if registry contains the passed service.
-    return proxies.containsKey(pServiceClass);
+    return proxies.containsKey(pServiceClass) || lazyServices.containsKey(pServiceClass);
   }
 }
@@ -0,0 +1,326 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import com.anaptecs.jeaf.core.annotations.JEAFActivity;
+import com.anaptecs.jeaf.core.annotations.JEAFService;
+import com.anaptecs.jeaf.core.annotations.JEAFServiceProvider;
+import com.anaptecs.jeaf.core.annotations.JEAFTrace;
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+
+/**
+ * Class provides access to the startup index that is generated at build time by the annotation processor of module
+ * <code>jeaf-core-startup-index-processor</code>. The processor is not active by default. Modules that want to use the
+ * index have to add it to the annotation processors of their build. The index contains the injection points of all
+ * classes with injection points that were compiled with the processor, so that they do not have to be searched by
+ * reflection during startup. Every module contributes its own index file. All index files on the classpath are merged.
+ *
+ * Index entries are generated by the same compilation as their class, so the injection points of indexed classes are
+ * taken from the index without searching the fields of the class by reflection. Only the listed fields are resolved
+ * and the entry is ignored if one of them does not exist or is not annotated as expected. Classes that are not
+ * contained in the index are not affected. Their injection points still have to be searched by reflection. If a
+ * startup snapshot is used (see {@link StartupSnapshot}) then these injection points are recorded and are part of the
+ * index with the next startup. As the snapshot is written at runtime its entries also contain the size and the last
+ * modification of the class file (see {@link #getClassFileStamp(Class)}). Entries whose class file changed are
+ * ignored.
+ *
+ * @author JEAF Development Team
+ */
+public final class StartupIndex {
+  /**
+   * Name of the resource that contains the startup index of a module. Every line of the file contains the binary name
+   * of a class as key and a comma separated list of its injection points as value. Every injection point is described
+   * by the name of the field and the simple name of its annotation separated by a colon.
+   */
+  public static final String STARTUP_INDEX_RESOURCE_NAME = "META-INF/JEAF/StartupIndex.properties";
+
+  /**
+   * Character that separates the class file stamp from the injection points within the entries of the startup
+   * snapshot. Index entries that contain the character were written by older versions of the processor and are ignored.
+   */
+  static final char STAMP_SEPARATOR = '|';
+
+  /**
+   * All annotations that declare injection points.
+   */
+  public static final List<Class<? extends Annotation>> INJECTION_ANNOTATIONS = Collections
+      .unmodifiableList(Arrays.<Class<? extends Annotation>> asList(JEAFService.class, JEAFServiceProvider.class,
+          JEAFActivity.class, JEAFTrace.class));
+
+  /**
+   * Class implements the holder idiom so that the index is only loaded when it is used for the first time.
+   */
+  private static final class Holder {
+    /**
+     * Only instance of the startup index.
+     */
+    private static final StartupIndex INSTANCE = new StartupIndex();
+  }
+
+  /**
+   * Map contains the injection points of all classes from the index files. The binary name of the class is used as key.
+   */
+  private final Map<String, String> indexEntries;
+
+  /**
+   * Map contains the class file stamp and the injection points of all classes from the startup snapshot. The binary
+   * name of the class is used as key.
+   */
+  private final Map<String, String> snapshotEntries;
+
+  /**
+   * Initialize object. During initialization all index files are loaded.
+   */
+  private StartupIndex( ) {
+    this(ServiceChannelConfiguration.getInstance().isStartupIndexEnabled() == true ? loadEntries()
+        : new HashMap<String, String>(), StartupSnapshot.getInstance().getInjectionPoints());
+  }
+
+  /**
+   * Initialize object with the passed entries.
+   *
+   * @param pIndexEntries Entries of the index files. The parameter must not be null.
+   * @param pSnapshotEntries Entries of the startup snapshot. The parameter must not be null.
+   */
+  StartupIndex( Map<String, String> pIndexEntries, Map<String, String> pSnapshotEntries ) {
+    indexEntries = pIndexEntries;
+    snapshotEntries = pSnapshotEntries;
+  }
+
+  /**
+   * Method returns the startup index.
+   *
+   * @return {@link StartupIndex} Startup index. The method never returns null.
+   */
+  public static StartupIndex getInstance( ) {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * Method checks whether a startup index is available.
+   *
+   * @return boolean Method returns true if at least one class is indexed and false otherwise.
+   */
+  public boolean isAvailable( ) {
+    return indexEntries.isEmpty() == false || snapshotEntries.isEmpty() == false;
+  }
+
+  /**
+   * Method returns the injection points that are declared by the passed class itself. Injection points of its parent
+   * classes are not returned.
+   *
+   * @param pClass Class whose injection points should be returned. The parameter must not be null.
+   * @return {@link List} Injection points of the class. The method returns null if the class is not indexed or if its
+   * index entry is outdated. In this case the injection points have to be searched by reflection.
+   */
+  public List<InjectionPoint> getInjectionPoints( Class<?> pClass ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pClass, "pClass");
+
+    // Index files were generated together with the class. Entries in the old format still contain a fingerprint.
+    String lEntry = indexEntries.get(pClass.getName());
+    if (lEntry != null) {
+      if (lEntry.indexOf(STAMP_SEPARATOR) >= 0) {
+        lEntry = null;
+      }
+    }
+    // Snapshot entries are only valid as long as the class file did not change.
+    else {
+      lEntry = snapshotEntries.get(pClass.getName());
+      if (lEntry != null) {
+        int lSeparator = lEntry.indexOf(STAMP_SEPARATOR);
+        String lStamp = getClassFileStamp(pClass);
+        if (lSeparator >= 0 && lStamp != null && lEntry.substring(0, lSeparator).equals(lStamp) == true) {
+          lEntry = lEntry.substring(lSeparator + 1);
+        }
+        else {
+          lEntry = null;
+        }
+      }
+    }
+
+    List<InjectionPoint> lInjectionPoints;
+    if (lEntry == null) {
+      lInjectionPoints = null;
+    }
+    else if (lEntry.isEmpty() == true) {
+      lInjectionPoints = Collections.emptyList();
+    }
+    else {
+      lInjectionPoints = new ArrayList<InjectionPoint>();
+      for (String lInjectionPoint : lEntry.split(",")) {
+        int lSeparator = lInjectionPoint.indexOf(':');
+        Class<? extends Annotation> lAnnotation = getInjectionAnnotation(lInjectionPoint.substring(lSeparator + 1));
+        Field lField = getDeclaredField(pClass, lInjectionPoint.substring(0, Math.max(0, lSeparator)));
+
+        // Index entry does not match the class.
+        if (lAnnotation == null || lField == null || lField.isAnnotationPresent(lAnnotation) == false) {
+          lInjectionPoints = null;
+          break;
+        }
+        lInjectionPoints.add(new InjectionPoint(lField, lAnnotation));
+      }
+    }
+    return lInjectionPoints;
+  }
+
+  /**
+   * Method records the injection points of a class that is not contained in the index and whose injection points were
+   * searched by reflection. They are added to the startup snapshot if it is enabled and if the class was loaded from a
+   * class file.
+   *
+   * @param pClass Class whose injection points were searched. The parameter must not be null.
+   * @param pInjectionPoints Injection points that are declared by the class itself. The parameter must not be null.
+   */
+  public void recordInjectionPoints( Class<?> pClass, List<InjectionPoint> pInjectionPoints ) {
+    // Check parameters.
+    Check.checkInvalidParameterNull(pClass, "pClass");
+    Check.checkInvalidParameterNull(pInjectionPoints, "pInjectionPoints");
+
+    String lStamp = getClassFileStamp(pClass);
+    if (lStamp != null) {
+      StringBuilder lBuilder = new StringBuilder();
+      lBuilder.append(lStamp).append(STAMP_SEPARATOR);
+      for (int i = 0; i < pInjectionPoints.size(); i++) {
+        InjectionPoint lInjectionPoint = pInjectionPoints.get(i);
+        if (i > 0) {
+          lBuilder.append(',');
+        }
+        lBuilder.append(lInjectionPoint.getField().getName()).append(':');
+        lBuilder.append(lInjectionPoint.getAnnotation().getSimpleName());
+      }
+      StartupSnapshot.getInstance().setInjectionPoints(pClass.getName(), lBuilder.toString());
+    }
+  }
+
+  /**
+   * Method returns the stamp of the class file from which the passed class was loaded. The stamp consists of the size
+   * and the time of the last modification of the class file. It is read from the file system or the archive that
+   * contains the class without looking at the class itself.
+   *
+   * @param pClass Class whose stamp should be returned. The parameter must not be null.
+   * @return {@link String} Stamp of the class file. The method returns null if the class was not loaded from a class
+   * file that can be accessed through its class loader.
+   */
+  static String getClassFileStamp( Class<?> pClass ) {
+    ClassLoader lClassLoader = pClass.getClassLoader();
+    URL lClassFile;
+    if (lClassLoader != null) {
+      lClassFile = lClassLoader.getResource(pClass.getName().replace('.', '/') + ".class");
+    }
+    else {
+      lClassFile = null;
+    }
+
+    String lStamp;
+    if (lClassFile != null) {
+      // Content of the class file is not read. The stream is only opened so that it can be closed properly.
+      try {
+        URLConnection lConnection = lClassFile.openConnection();
+        try (InputStream lInputStream = lConnection.getInputStream()) {
+          long lSize = lConnection.getContentLengthLong();
+          long lLastModified = lConnection.getLastModified();
+          if (lSize >= 0 && lLastModified > 0) {
+            lStamp = Long.toHexString(lSize) + "." + Long.toHexString(lLastModified);
+          }
+          else {
+            lStamp = null;
+          }
+        }
+      }
+      catch (IOException e) {
+        lStamp = null;
+      }
+    }
+    else {
+      lStamp = null;
+    }
+    return lStamp;
+  }
+
+  /**
+   * Method returns the injection annotation with the passed simple name.
+   *
+   * @param pSimpleName Simple name of the annotation. The parameter must not be null.
+   * @return {@link Class} Annotation with the passed name or null if there is no such injection annotation.
+   */
+  private static Class<? extends Annotation> getInjectionAnnotation( String pSimpleName ) {
+    Class<? extends Annotation> lAnnotation = null;
+    for (Class<? extends Annotation> lNextAnnotation : INJECTION_ANNOTATIONS) {
+      if (lNextAnnotation.getSimpleName().equals(pSimpleName) == true) {
+        lAnnotation = lNextAnnotation;
+        break;
+      }
+    }
+    return lAnnotation;
+  }
+
+  /**
+   * Method returns the field with the passed name that is declared by the passed class.
+   *
+   * @param pClass Class that declares the field. The parameter must not be null.
+   * @param pFieldName Name of the field. The parameter must not be null.
+   * @return {@link Field} Field with the passed name or null if the class does not declare such a field.
+   */
+  private static Field getDeclaredField( Class<?> pClass, String pFieldName ) {
+    Field lField;
+    try {
+      lField = pClass.getDeclaredField(pFieldName);
+    }
+    catch (NoSuchFieldException e) {
+      lField = null;
+    }
+    return lField;
+  }
+
+  /**
+   * Method loads all index files from the classpath.
+   *
+   * @return {@link Map} Map with the entries of all index files. The method never returns null.
+   */
+  private static Map<String, String> loadEntries( ) {
+    ClassLoader lClassLoader = Thread.currentThread().getContextClassLoader();
+    if (lClassLoader == null) {
+      lClassLoader = StartupIndex.class.getClassLoader();
+    }
+
+    Map<String, String> lEntries = new HashMap<String, String>();
+    try {
+      Enumeration<URL> lResources = lClassLoader.getResources(STARTUP_INDEX_RESOURCE_NAME);
+      while (lResources.hasMoreElements()) {
+        Properties lProperties = new Properties();
+        try (InputStream lInputStream = lResources.nextElement().openStream()) {
+          lProperties.load(lInputStream);
+        }
+        for (String lClassName : lProperties.stringPropertyNames()) {
+          lEntries.put(lClassName, lProperties.getProperty(lClassName).trim());
+        }
+      }
+    }
+    // Without index all injection points are searched by reflection.
+    catch (IOException e) {
+      XFun.getTrace().error("Unable to load JEAF startup index. Injection points will be searched by reflection.", e);
+      lEntries.clear();
+    }
+    return lEntries;
+  }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+
+/**
+ * Class collects the durations of all steps of the startup of a lifecycle manager as well as the durations of the
+ * single service providers and components that were initialized within a step. As items may be initialized in parallel
+ * the sum of their durations may be higher than the duration of the step.
+ *
+ * Instances of this class are thread safe.
+ *
+ * @author JEAF Development Team
+ */
+public final class StartupReport {
+  /**
+   * Number of slowest items per step that are contained in the String representation of the report.
+   */
+  private static final int SLOWEST_ITEMS = 5;
+
+  /**
+   * Class represents the duration of one item of a step.
+   */
+  private static final class Item {
+    /**
+     * Name of the item.
+     */
+    private final String name;
+
+    /**
+     * Duration of the item in nanoseconds.
+     */
+    private final long duration;
+
+    /**
+     * Initialize object.
+     *
+     * @param pName Name of the item. The parameter must not be null.
+     * @param pDuration Duration of the item in nanoseconds.
+     */
+    Item( String pName, long pDuration ) {
+      name = pName;
+      duration = pDuration;
+    }
+  }
+
+  /**
+   * Comparator sorts items by descending duration.
+   */
+  private static final Comparator<Item> SLOWEST_FIRST = new Comparator<Item>() {
+    @Override
+    public int compare( Item pItem1, Item pItem2 ) {
+      return Long.compare(pItem2.duration, pItem1.duration);
+    }
+  };
+
+  /**
+   * Durations of all completed steps in nanoseconds in the order in which they were completed.
+   */
+  private final Map<String, Long> steps = new LinkedHashMap<String, Long>();
+
+  /**
+   * Items of all steps.
+   */
+  private final Map<String, List<Item>> items = new LinkedHashMap<String, List<Item>>();
+
+  /**
+   * Initialize object.
+   */
+  StartupReport( ) {
+    // Nothing to do.
+  }
+
+  /**
+   * Method records that the passed step was completed.
+   *
+   * @param pStep Name of the step. The parameter must not be null.
+   * @param pStartTime Point in time (see {@link System#nanoTime()}) when the step was started.
+   * @return long Current point in time which can be used as start time of the next step.
+   */
+  synchronized long stepCompleted( String pStep, long pStartTime ) {
+    // Check parameter.
+    Assert.assertNotNull(pStep, "pStep");
+
+    long lNow = System.nanoTime();
+    steps.put(pStep, lNow - pStartTime);
+    return lNow;
+  }
+
+  /**
+   * Method records that an item of the passed step was completed.
+   *
+   * @param pStep Name of the step to which the item belongs to. The parameter must not be null.
+   * @param pItem Name of the item. The parameter must not be null.
+   * @param pStartTime Point in time (see {@link System#nanoTime()}) when the item was started.
+   */
+  synchronized void itemCompleted( String pStep, String pItem, long pStartTime ) {
+    // Check parameters.
+    Assert.assertNotNull(pStep, "pStep");
+    Assert.assertNotNull(pItem, "pItem");
+
+    List<Item> lItems = items.get(pStep);
+    if (lItems == null) {
+      lItems = new ArrayList<Item>();
+      items.put(pStep, lItems);
+    }
+    lItems.add(new Item(pItem, System.nanoTime() - pStartTime));
+  }
+
+  /**
+   * Method returns the durations of all completed steps.
+   *
+   * @return {@link Map} Map with the names of all steps as key and their duration in milliseconds as value. The map is
+   * ordered by the completion of the steps. The method never returns null.
+   */
+  public synchronized Map<String, Long> getStepDurations( ) {
+    Map<String, Long> lDurations = new LinkedHashMap<String, Long>();
+    for (Map.Entry<String, Long> lEntry : steps.entrySet()) {
+      lDurations.put(lEntry.getKey(), TimeUnit.NANOSECONDS.toMillis(lEntry.getValue()));
+    }
+    return lDurations;
+  }
+
+  /**
+   * Method returns the durations of all items of the passed step.
+   *
+   * @param pStep Name of the step whose items should be returned. The parameter must not be null.
+   * @return {@link Map} Map with the names of all items as key and their duration in milliseconds as value. The map is
+   * ordered by the completion of the items. The method never returns null.
+   */
+  public synchronized Map<String, Long> getItemDurations( String pStep ) {
+    Map<String, Long> lDurations = new LinkedHashMap<String, Long>();
+    List<Item> lItems = items.get(pStep);
+    if (lItems != null) {
+      for (Item lItem : lItems) {
+        lDurations.put(lItem.name, TimeUnit.NANOSECONDS.toMillis(lItem.duration));
+      }
+    }
+    return lDurations;
+  }
+
+  /**
+   * Method returns a String representation of this report. It contains the durations of all steps together with their
+   * slowest items.
+   *
+   * @return String String representation of the report. The method never returns null.
+   */
+  @Override
+  public synchronized String toString( ) {
+    StringBuilder lBuilder = new StringBuilder("JEAF startup");
+    for (Map.Entry<String, Long> lStep : steps.entrySet()) {
+      lBuilder.append("\n  ").append(lStep.getKey()).append(": ");
+      lBuilder.append(TimeUnit.NANOSECONDS.toMillis(lStep.getValue())).append("ms");
+
+      List<Item> lItems = items.get(lStep.getKey());
+      if (lItems != null) {
+        List<Item> lSlowestItems = new ArrayList<Item>(lItems);
+        Collections.sort(lSlowestItems, SLOWEST_FIRST);
+        for (Item lItem : lSlowestItems.subList(0, Math.min(SLOWEST_ITEMS, lSlowestItems.size()))) {
+          lBuilder.append("\n    ").append(lItem.name).append(": ");
+          lBuilder.append(TimeUnit.NANOSECONDS.toMillis(lItem.duration)).append("ms");
+        }
+      }
+    }
+    return lBuilder.toString();
+  }
+}
@@ -0,0 +1,400 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.anaptecs.jeaf.core.annotations.ComponentFactory;
+import com.anaptecs.jeaf.core.annotations.CoreConfig;
+import com.anaptecs.jeaf.core.annotations.JEAFActivityImpl;
+import com.anaptecs.jeaf.core.annotations.ServiceProviderFactory;
+import com.anaptecs.jeaf.core.api.JEAF;
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFSystemException;
+
+/**
+ * Class represents the startup snapshot of an application (see
+ * {@link ServiceChannelConfiguration#getStartupSnapshotFile()}). The snapshot contains the resolved startup plan, this
+ * means the classes of all component factories, service provider factories and activities as well as the injection
+ * points of all classes into which dependencies were injected. Live instances are not part of the snapshot.
+ *
+ * The snapshot is written after the first startup and reused by all further startups as long as the resources from
+ * which it was resolved do not change. Therefore the snapshot contains a hash over location and content of JEAF's
+ * configuration files and startup index files as they are seen by the class loader. This also works for deployments
+ * into application servers and exploded directories. If the hash does not match then the snapshot is ignored and
+ * written again after the startup. Recorded injection points contain the size and the last modification of their
+ * class file (see {@link StartupIndex}) so that changed classes are searched by reflection again.
+ *
+ * @author JEAF Development Team
+ */
+public final class StartupSnapshot {
+  /**
+   * Key of the snapshot entry that contains the classes of all component factories.
+   */
+  public static final String COMPONENT_FACTORIES = "jeaf.componentFactories";
+
+  /**
+   * Key of the snapshot entry that contains the classes of all service provider factories.
+   */
+  public static final String SERVICE_PROVIDER_FACTORIES = "jeaf.serviceProviderFactories";
+
+  /**
+   * Key of the snapshot entry that contains the classes of all activities.
+   */
+  public static final String ACTIVITIES = "jeaf.activities";
+
+  /**
+   * Key of the snapshot entry that contains the hash of the resources from which the snapshot was resolved.
+   */
+  private static final String RESOURCE_HASH = "jeaf.resourceHash";
+
+  /**
+   * Algorithm that is used to calculate the hash of the resources.
+   */
+  private static final String HASH_ALGORITHM = "SHA-256";
+
+  /**
+   * Names of JEAF's configuration files from which the snapshot is resolved. The names are relative to
+   * {@link JEAF#CORE_BASE_PATH}.
+   */
+  private static final String[] CONFIGURATION_RESOURCES = new String[] { CoreConfig.JEAF_CORE_CONFIG_RESOURCE_NAME,
+    ComponentFactory.COMPONENT_FACTORIES_RESOURCE_NAME, ServiceProviderFactory.SERVICE_PROVIDER_FACTORIES_RESOURCE_NAME,
+    JEAFActivityImpl.ACTIVITIES_IMPL_RESOURCE_NAME };
+
+  /**
+   * Prefix of all snapshot entries that contain the injection points of a class. The format of the injection points is
+   * the same as in the startup index.
+   */
+  private static final String INJECTION_POINTS_PREFIX = "inject.";
+
+  /**
+   * Class implements the holder idiom so that the snapshot is only loaded when it is used for the first time.
+   */
+  private static final class Holder {
+    /**
+     * Only instance of the startup snapshot.
+     */
+    private static final StartupSnapshot INSTANCE = new StartupSnapshot();
+  }
+
+  /**
+   * File that contains the snapshot. The attribute is null if snapshots are disabled.
+   */
+  private final File file;
+
+  /**
+   * Hash of the current resources from which the snapshot is resolved.
+   */
+  private final String resourceHash;
+
+  /**
+   * Entries of the snapshot.
+   */
+  private final Map<String, String> entries = new ConcurrentHashMap<String, String>();
+
+  /**
+   * Attribute defines whether the loaded snapshot matches the current resources.
+   */
+  private final boolean valid;
+
+  /**
+   * Attribute defines whether the snapshot was changed since it was loaded.
+   */
+  private volatile boolean modified;
+
+  /**
+   * Initialize object. During initialization the snapshot file is loaded if it exists.
+   */
+  private StartupSnapshot( ) {
+    String lFileName = ServiceChannelConfiguration.getInstance().getStartupSnapshotFile();
+    String lResourceHash;
+    if (lFileName != null && lFileName.trim().isEmpty() == false) {
+      lResourceHash = calculateResourceHash();
+    }
+    else {
+      lResourceHash = null;
+    }
+
+    // Snapshot can only be used if it can be checked whether it is up to date.
+    if (lResourceHash != null) {
+      file = new File(lFileName.trim());
+      resourceHash = lResourceHash;
+      valid = this.load();
+      modified = valid == false;
+    }
+    else {
+      file = null;
+      resourceHash = null;
+      valid = false;
+      modified = false;
+    }
+  }
+
+  /**
+   * Method returns the startup snapshot.
+   *
+   * @return {@link StartupSnapshot} Startup snapshot. The method never returns null.
+   */
+  public static StartupSnapshot getInstance( ) {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * Method checks whether a snapshot was loaded that matches the current resources.
+   *
+   * @return boolean Method returns true if the snapshot can be used and false otherwise.
+   */
+  public boolean isAvailable( ) {
+    return valid;
+  }
+
+  /**
+   * Method returns the classes that are stored under the passed key.
+   *
+   * @param pKey Key of the snapshot entry, e.g. {@link #COMPONENT_FACTORIES}. The parameter must not be null.
+   * @param pType Type of the classes. The parameter must not be null.
+   * @return {@link List} Immutable list with all classes of the entry. The method returns null if the snapshot is not
+   * available or if one of the classes can not be loaded. In this case the classes have to be resolved from JEAF's
+   * configuration files.
+   */
+  public <T> List<Class<? extends T>> getClasses( String pKey, Class<T> pType ) {
+    // Check parameters.
+    Check.checkInvalidParameterNull(pKey, "pKey");
+    Check.checkInvalidParameterNull(pType, "pType");
+
+    String lEntry = entries.get(pKey);
+    List<Class<? extends T>> lClasses;
+    if (valid == true && lEntry != null) {
+      lClasses = new ArrayList<Class<? extends T>>();
+      try {
+        for (String lClassName : lEntry.split(",")) {
+          if (lClassName.isEmpty() == false) {
+            lClasses.add(Class.forName(lClassName, true, getClassLoader()).asSubclass(pType));
+          }
+        }
+        lClasses = Collections.unmodifiableList(lClasses);
+      }
+      catch (ClassNotFoundException | ClassCastException | LinkageError e) {
+        XFun.getTrace().error(ServiceChannelMessages.STARTUP_SNAPSHOT_OUTDATED, e);
+        lClasses = null;
+      }
+    }
+    else {
+      lClasses = null;
+    }
+    return lClasses;
+  }
+
+  /**
+   * Method stores the passed classes under the passed key. The snapshot will be written when {@link #save()} is called.
+   *
+   * @param pKey Key of the snapshot entry, e.g. {@link #COMPONENT_FACTORIES}. The parameter must not be null.
+   * @param pClasses Classes that should be stored. The parameter must not be null.
+   */
+  public void setClasses( String pKey, List<? extends Class<?>> pClasses ) {
+    // Check parameters.
+    Check.checkInvalidParameterNull(pKey, "pKey");
+    Check.checkInvalidParameterNull(pClasses, "pClasses");
+
+    if (file != null) {
+      StringBuilder lBuilder = new StringBuilder();
+      for (Class<?> lClass : pClasses) {
+        if (lBuilder.length() > 0) {
+          lBuilder.append(',');
+        }
+        lBuilder.append(lClass.getName());
+      }
+      String lEntry = lBuilder.toString();
+      if (lEntry.equals(entries.put(pKey, lEntry)) == false) {
+        modified = true;
+      }
+    }
+  }
+
+  /**
+   * Method returns the injection points of all classes that are contained in the snapshot.
+   *
+   * @return {@link Map} Map with the name of the class as key and its injection points as value. The format is the same
+   * as in the startup index. The method returns an empty map if the snapshot is not available.
+   */
+  Map<String, String> getInjectionPoints( ) {
+    Map<String, String> lInjectionPoints = new ConcurrentHashMap<String, String>();
+    if (valid == true) {
+      for (Map.Entry<String, String> lEntry : entries.entrySet()) {
+        if (lEntry.getKey().startsWith(INJECTION_POINTS_PREFIX) == true) {
+          lInjectionPoints.put(lEntry.getKey().substring(INJECTION_POINTS_PREFIX.length()), lEntry.getValue());
+        }
+      }
+    }
+    return lInjectionPoints;
+  }
+
+  /**
+   * Method stores the injection points of the passed class. The snapshot will be written when {@link #save()} is
+   * called.
+   *
+   * @param pClassName Name of the class. The parameter must not be null.
+   * @param pInjectionPoints Injection points of the class in the format of the startup index. The parameter must not be
+   * null.
+   */
+  void setInjectionPoints( String pClassName, String pInjectionPoints ) {
+    if (file != null) {
+      String lPrevious = entries.put(INJECTION_POINTS_PREFIX + pClassName, pInjectionPoints);
+      if (pInjectionPoints.equals(lPrevious) == false) {
+        modified = true;
+      }
+    }
+  }
+
+  /**
+   * Method writes the snapshot file if the snapshot was changed since it was loaded. The file is replaced atomically so
+   * that concurrently starting applications never read an incomplete snapshot. If the file can not be written then an
+   * error is traced, as the snapshot is only an optimization.
+   */
+  public synchronized void save( ) {
+    if (file != null && modified == true) {
+      Properties lProperties = new Properties();
+      lProperties.putAll(entries);
+      lProperties.setProperty(RESOURCE_HASH, resourceHash);
+      try {
+        Path lTarget = file.getAbsoluteFile().toPath();
+        Files.createDirectories(lTarget.getParent());
+        Path lTempFile = Files.createTempFile(lTarget.getParent(), file.getName(), ".tmp");
+        try {
+          try (OutputStream lOutputStream = Files.newOutputStream(lTempFile)) {
+            lProperties.store(lOutputStream, "JEAF startup snapshot");
+          }
+          try {
+            Files.move(lTempFile, lTarget, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+          }
+          // Not every file system supports atomic moves.
+          catch (AtomicMoveNotSupportedException e) {
+            Files.move(lTempFile, lTarget, StandardCopyOption.REPLACE_EXISTING);
+          }
+          modified = false;
+        }
+        finally {
+          Files.deleteIfExists(lTempFile);
+        }
+      }
+      catch (IOException | RuntimeException e) {
+        XFun.getTrace().error(ServiceChannelMessages.STARTUP_SNAPSHOT_WRITE_FAILED, e,
+            new String[] { file.getAbsolutePath() });
+      }
+    }
+  }
+
+  /**
+   * Method loads the snapshot file.
+   *
+   * @return boolean Method returns true if the snapshot was loaded and matches the current resources and false
+   * otherwise.
+   */
+  private boolean load( ) {
+    boolean lValid = false;
+    if (file.isFile() == true) {
+      Properties lProperties = new Properties();
+      try (InputStream lInputStream = Files.newInputStream(file.toPath())) {
+        lProperties.load(lInputStream);
+        if (resourceHash.equals(lProperties.getProperty(RESOURCE_HASH)) == true) {
+          for (String lKey : lProperties.stringPropertyNames()) {
+            entries.put(lKey, lProperties.getProperty(lKey));
+          }
+          entries.remove(RESOURCE_HASH);
+          lValid = true;
+        }
+        else {
+          XFun.getTrace().write(ServiceChannelMessages.STARTUP_SNAPSHOT_IGNORED, file.getAbsolutePath());
+        }
+      }
+      catch (IOException | IllegalArgumentException e) {
+        XFun.getTrace().error(ServiceChannelMessages.STARTUP_SNAPSHOT_READ_FAILED, e,
+            new String[] { file.getAbsolutePath() });
+      }
+    }
+    return lValid;
+  }
+
+  /**
+   * Method calculates a hash over location and content of all configuration files and startup index files that are
+   * visible to the class loader.
+   *
+   * @return String Hash of the resources as hex string. The method returns null if the resources could not be read.
+   */
+  private static String calculateResourceHash( ) {
+    List<String> lResourceNames = new ArrayList<String>();
+    for (String lResourceName : CONFIGURATION_RESOURCES) {
+      lResourceNames.add(JEAF.CORE_BASE_PATH + "/" + lResourceName);
+    }
+    lResourceNames.add(StartupIndex.STARTUP_INDEX_RESOURCE_NAME);
+
+    String lHash;
+    try {
+      MessageDigest lDigest = MessageDigest.getInstance(HASH_ALGORITHM);
+      byte[] lBuffer = new byte[4096];
+      ClassLoader lClassLoader = getClassLoader();
+      for (String lResourceName : lResourceNames) {
+        Enumeration<URL> lResources = lClassLoader.getResources(lResourceName);
+        while (lResources.hasMoreElements()) {
+          URL lResource = lResources.nextElement();
+          lDigest.update(lResource.toExternalForm().getBytes(StandardCharsets.UTF_8));
+          try (InputStream lInputStream = lResource.openStream()) {
+            int lBytesRead;
+            while ((lBytesRead = lInputStream.read(lBuffer)) != -1) {
+              lDigest.update(lBuffer, 0, lBytesRead);
+            }
+          }
+        }
+      }
+      StringBuilder lBuilder = new StringBuilder();
+      for (byte lByte : lDigest.digest()) {
+        lBuilder.append(String.format("%02x", lByte));
+      }
+      lHash = lBuilder.toString();
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new JEAFSystemException(ServiceChannelMessages.HASH_ALGORITHM_NOT_SUPPORTED, e, HASH_ALGORITHM);
+    }
+    // Without hash it can not be checked whether a snapshot is up to date.
+    catch (IOException e) {
+      XFun.getTrace().error(ServiceChannelMessages.STARTUP_SNAPSHOT_HASH_FAILED, e);
+      lHash = null;
+    }
+    return lHash;
+  }
+
+  /**
+   * Method returns the class loader that is used to load classes from the snapshot.
+   *
+   * @return {@link ClassLoader} Class loader. The method never returns null.
+   */
+  private static ClassLoader getClassLoader( ) {
+    ClassLoader lClassLoader = Thread.currentThread().getContextClassLoader();
+    if (lClassLoader == null) {
+      lClassLoader = StartupSnapshot.class.getClassLoader();
+    }
+    return lClassLoader;
+  }
+}
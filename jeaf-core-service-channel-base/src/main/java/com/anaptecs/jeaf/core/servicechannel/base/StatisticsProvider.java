@@ -0,0 +1,26 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.util.Collection;
+
+/**
+ * Interface can be extended by service provider interfaces whose implementations collect statistics. Their statistics
+ * can be read through the lifecycle manager without knowing the concrete service provider (see
+ * {@link GenericLifecycleManager#getServiceProviderStatistics(Class)}).
+ *
+ * @param <T> Type of the statistics that are provided.
+ *
+ * @author JEAF Development Team
+ */
+public interface StatisticsProvider<T> {
+  /**
+   * Method returns the current statistics of the service provider.
+   *
+   * @return {@link Collection} Current statistics. The method never returns null.
+   */
+  Collection<T> getStatistics( );
+}
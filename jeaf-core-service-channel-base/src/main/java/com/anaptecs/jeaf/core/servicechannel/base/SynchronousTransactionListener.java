@@ -0,0 +1,21 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import com.anaptecs.jeaf.core.spi.TransactionListener;
+
+/**
+ * Marker interface for transaction listeners that always have to be notified synchronously within the thread that
+ * executes the transaction. This is required if a listener has to complete its work before the service call returns,
+ * e.g. to invalidate cached data. As synchronous listeners are notified before the transaction context is released
+ * they can still prevent the commit by throwing an exception. All other listeners are notified asynchronously if this
+ * is enabled (see
+ * {@link ServiceChannelConfiguration#isAsyncTxListenersEnabled()}).
+ *
+ * @author JEAF Development Team
+ */
+public interface SynchronousTransactionListener extends TransactionListener {
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import com.anaptecs.jeaf.core.api.ServiceInvocationContext;
+import com.anaptecs.jeaf.core.api.TxContext;
+
+/**
+ * Class holds the transaction and service invocation context of the current thread. In contrast to separate thread
+ * locals for every kind of context only one entry per thread is required and the entry is removed completely as soon
+ * as no context is active any longer. Threads that are currently not executing a service call therefore do not keep
+ * any JEAF related entry in their thread local map. This is essential when service calls are executed on a huge
+ * number of short living (virtual) threads.
+ *
+ * The class does not use any synchronization so that virtual threads will never be pinned to their carrier thread.
+ *
+ * @author JEAF Development Team
+ */
+final class ThreadContextHolder {
+  /**
+   * Thread local contains the holder of the current thread. The thread local is intentionally not inheritable as
+   * contexts must never be shared between threads.
+   */
+  private static final ThreadLocal<ThreadContextHolder> CURRENT = new ThreadLocal<ThreadContextHolder>();
+
+  /**
+   * Transaction context of the current thread. The reference may be null.
+   */
+  private TxContext txContext;
+
+  /**
+   * Service invocation context of the current thread. The reference may be null.
+   */
+  private ServiceInvocationContext serviceInvocationContext;
+
+  /**
+   * Initialize object.
+   */
+  private ThreadContextHolder( ) {
+    // Nothing to do.
+  }
+
+  /**
+   * Method returns the transaction context of the current thread.
+   *
+   * @return {@link TxContext} Current transaction context or null if none is set.
+   */
+  static TxContext getTxContext( ) {
+    ThreadContextHolder lHolder = CURRENT.get();
+    TxContext lTxContext;
+    if (lHolder != null) {
+      lTxContext = lHolder.txContext;
+    }
+    else {
+      lTxContext = null;
+    }
+    return lTxContext;
+  }
+
+  /**
+   * Method sets the transaction context of the current thread.
+   *
+   * @param pTxContext Transaction context that should be set. The parameter may be null.
+   */
+  static void setTxContext( TxContext pTxContext ) {
+    ThreadContextHolder lHolder = ThreadContextHolder.resolveHolder(pTxContext != null);
+    if (lHolder != null) {
+      lHolder.txContext = pTxContext;
+      lHolder.removeIfEmpty();
+    }
+  }
+
+  /**
+   * Method returns the service invocation context of the current thread.
+   *
+   * @return {@link ServiceInvocationContext} Current service invocation context or null if none is set.
+   */
+  static ServiceInvocationContext getServiceInvocationContext( ) {
+    ThreadContextHolder lHolder = CURRENT.get();
+    ServiceInvocationContext lServiceInvocationContext;
+    if (lHolder != null) {
+      lServiceInvocationContext = lHolder.serviceInvocationContext;
+    }
+    else {
+      lServiceInvocationContext = null;
+    }
+    return lServiceInvocationContext;
+  }
+
+  /**
+   * Method sets the service invocation context of the current thread.
+   *
+   * @param pServiceInvocationContext Service invocation context that should be set. The parameter may be null.
+   */
+  static void setServiceInvocationContext( ServiceInvocationContext pServiceInvocationContext ) {
+    ThreadContextHolder lHolder = ThreadContextHolder.resolveHolder(pServiceInvocationContext != null);
+    if (lHolder != null) {
+      lHolder.serviceInvocationContext = pServiceInvocationContext;
+      lHolder.removeIfEmpty();
+    }
+  }
+
+  /**
+   * Method returns the holder of the current thread.
+   *
+   * @param pCreate Parameter defines whether a new holder should be created if the current thread does not have one.
+   * @return {@link ThreadContextHolder} Holder of the current thread. The method only returns null if the current
+   * thread does not have a holder and <code>pCreate</code> is false.
+   */
+  private static ThreadContextHolder resolveHolder( boolean pCreate ) {
+    ThreadContextHolder lHolder = CURRENT.get();
+    if (lHolder == null && pCreate == true) {
+      lHolder = new ThreadContextHolder();
+      CURRENT.set(lHolder);
+    }
+    return lHolder;
+  }
+
+  /**
+   * Method removes the holder from the current thread if it does not contain any context any longer.
+   */
+  private void removeIfEmpty( ) {
+    if (txContext == null && serviceInvocationContext == null) {
+      CURRENT.remove();
+    }
+  }
+}
@@ -0,0 +1,30 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import com.anaptecs.jeaf.core.spi.TransactionListener;
+
+/**
+ * Interface can be implemented by transaction listeners that also have to know the final outcome of a transaction.
+ * Like all other listeners they are told that the transaction is committing or rolling back before the service channel
+ * releases the transaction context. In addition they are notified once the transaction was really completed. In case
+ * of container managed transactions this happens when the container completed the transaction, which may be after the
+ * service call returned and within another thread. While the listener is notified about the completion the contexts
+ * of the transaction are available through {@link TransactionEventContext}.
+ *
+ * Listeners are notified about the completion synchronously within the thread that completes the transaction.
+ * Read only transactions are not reported.
+ *
+ * @author JEAF Development Team
+ */
+public interface TransactionCompletionListener extends TransactionListener {
+  /**
+   * Method is called once after the transaction was completed.
+   *
+   * @param pCommitted Parameter defines whether the transaction was committed (true) or rolled back (false).
+   */
+  void completedTransaction( boolean pCommitted );
+}
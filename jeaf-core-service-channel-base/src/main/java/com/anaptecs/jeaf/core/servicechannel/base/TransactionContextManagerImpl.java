@@ -46,8 +46,8 @@ public class TransactionContextManagerImpl implements TransactionContextManager
 
     // TODO Check if this object is really the current context.
 
-    // Set current context to null.
-    currentTxContext.set(null);
+    // Remove current context. Setting it to null would keep an entry in the thread local map of the thread.
+    currentTxContext.remove();
   }
 
   @Override
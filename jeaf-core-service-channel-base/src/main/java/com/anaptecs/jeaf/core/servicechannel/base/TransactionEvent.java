@@ -0,0 +1,73 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import com.anaptecs.jeaf.core.spi.TransactionListener;
+
+/**
+ * Enumeration defines all events that transaction listeners are notified about. As the events do not have any state
+ * they can be passed to other threads without creating new objects.
+ *
+ * @author JEAF Development Team
+ */
+enum TransactionEvent {
+  /**
+   * A new transaction was started.
+   */
+  STARTED,
+
+  /**
+   * The current transaction is about to be committed.
+   */
+  COMMITTING,
+
+  /**
+   * The current transaction is about to be rolled back as it is marked for roll back.
+   */
+  ROLLBACKING,
+
+  /**
+   * The transaction was committed. The event is only delivered to {@link TransactionCompletionListener}s.
+   */
+  COMMITTED,
+
+  /**
+   * The transaction was rolled back. The event is only delivered to {@link TransactionCompletionListener}s.
+   */
+  ROLLED_BACK;
+
+  /**
+   * Method delivers this event to the passed transaction listener.
+   *
+   * @param pListener Listener that should be notified. The parameter must not be null.
+   */
+  void deliverTo( TransactionListener pListener ) {
+    switch (this) {
+      case STARTED:
+        pListener.startedTransaction();
+        break;
+
+      case COMMITTING:
+        pListener.committingTransaction();
+        break;
+
+      case ROLLBACKING:
+        pListener.rollbackingTransaction();
+        break;
+
+      case COMMITTED:
+        ((TransactionCompletionListener) pListener).completedTransaction(true);
+        break;
+
+      case ROLLED_BACK:
+        ((TransactionCompletionListener) pListener).completedTransaction(false);
+        break;
+
+      default:
+        break;
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import com.anaptecs.jeaf.core.api.ServiceInvocationContext;
+import com.anaptecs.jeaf.core.api.TxContext;
+
+/**
+ * Class provides access to the transaction about which an asynchronous transaction listener is currently notified. As
+ * asynchronous listeners are notified by a background thread (see {@link TransactionEventDispatcher}) the transaction
+ * context and the service invocation context of the transaction are no longer available as current contexts. Instead
+ * they are captured when the event occurs and can be read through this class while the listener is notified. As the
+ * transaction may already be completed both contexts must only be used to identify the transaction and its caller.
+ *
+ * Synchronous listeners are notified within the thread of the transaction and can use the current contexts directly.
+ * {@link TransactionCompletionListener}s are notified about the completion of a transaction with the captured contexts
+ * as well, as the transaction may be completed after its service call returned (e.g. by an EJB container).
+ *
+ * @author JEAF Development Team
+ */
+public final class TransactionEventContext {
+  /**
+   * Notification that is currently delivered by the current thread. The reference is null if the current thread does
+   * not notify asynchronous listeners.
+   */
+  private static final ThreadLocal<TransactionNotification> CURRENT_NOTIFICATION =
+      new ThreadLocal<TransactionNotification>();
+
+  /**
+   * Constructor is private as this is a utility class.
+   */
+  private TransactionEventContext( ) {
+    // Nothing to do.
+  }
+
+  /**
+   * Method returns the transaction context of the transaction about which an asynchronous listener is currently
+   * notified.
+   *
+   * @return {@link TxContext} Transaction context of the notified transaction. The method returns null if the current
+   * thread does not notify an asynchronous transaction listener.
+   */
+  public static TxContext getTxContext( ) {
+    TransactionNotification lNotification = CURRENT_NOTIFICATION.get();
+    TxContext lTxContext;
+    if (lNotification != null) {
+      lTxContext = lNotification.getTxContext();
+    }
+    else {
+      lTxContext = null;
+    }
+    return lTxContext;
+  }
+
+  /**
+   * Method returns the service invocation context of the service call in which the event occurred about which an
+   * asynchronous listener is currently notified.
+   *
+   * @return {@link ServiceInvocationContext} Service invocation context of the notified transaction. The method returns
+   * null if the current thread does not notify an asynchronous transaction listener.
+   */
+  public static ServiceInvocationContext getServiceInvocationContext( ) {
+    TransactionNotification lNotification = CURRENT_NOTIFICATION.get();
+    ServiceInvocationContext lServiceInvocationContext;
+    if (lNotification != null) {
+      lServiceInvocationContext = lNotification.getServiceInvocationContext();
+    }
+    else {
+      lServiceInvocationContext = null;
+    }
+    return lServiceInvocationContext;
+  }
+
+  /**
+   * Method sets the passed notification as the one that is currently delivered by the current thread.
+   *
+   * @param pNotification Notification that is delivered. The parameter may be null.
+   * @return {@link TransactionNotification} Notification that was delivered before. The method may return null.
+   */
+  static TransactionNotification setCurrentNotification( TransactionNotification pNotification ) {
+    TransactionNotification lPreviousNotification = CURRENT_NOTIFICATION.get();
+    if (pNotification != null) {
+      CURRENT_NOTIFICATION.set(pNotification);
+    }
+    // Setting it to null would keep an entry in the thread local map of the thread.
+    else {
+      CURRENT_NOTIFICATION.remove();
+    }
+    return lPreviousNotification;
+  }
+}
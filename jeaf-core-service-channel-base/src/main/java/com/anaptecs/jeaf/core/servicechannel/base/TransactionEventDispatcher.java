@@ -0,0 +1,149 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+
+/**
+ * Class delivers transaction notifications to asynchronous transaction listeners within one background thread that is
+ * shared by all service channels. Notifications are stored within a bounded buffer (see
+ * {@link ServiceChannelConfiguration#getTxListenerBufferSize()}) and are delivered in batches in the order in which
+ * they occurred. If the buffer is full the thread that executes the transaction waits for a limited time (see
+ * {@link ServiceChannelConfiguration#getTxListenerBufferTimeout()}). If there is still no space afterwards it notifies
+ * the listeners itself. This way no notification will be lost, the memory consumption is limited and transactions are
+ * not blocked by slow listeners for an unlimited time.
+ *
+ * @author JEAF Development Team
+ */
+final class TransactionEventDispatcher implements Runnable {
+  /**
+   * Maximum number of notifications that are taken from the buffer at once.
+   */
+  private static final int BATCH_SIZE = 64;
+
+  /**
+   * Class holds the dispatcher. It will only be created and started when it is required for the first time.
+   */
+  private static final class Holder {
+    /**
+     * Dispatcher that is shared by all service channels.
+     */
+    static final TransactionEventDispatcher DISPATCHER = TransactionEventDispatcher.start();
+  }
+
+  /**
+   * Buffer with all notifications that were not delivered yet.
+   */
+  private final BlockingQueue<TransactionNotification> notifications;
+
+  /**
+   * Maximum time in milliseconds that is waited for space in the buffer.
+   */
+  private final long timeout;
+
+  /**
+   * Method returns the dispatcher that is shared by all service channels.
+   *
+   * @return {@link TransactionEventDispatcher} Started dispatcher. The method never returns null.
+   */
+  static TransactionEventDispatcher getDispatcher( ) {
+    return Holder.DISPATCHER;
+  }
+
+  /**
+   * Method creates a new dispatcher and starts its background thread.
+   *
+   * @return {@link TransactionEventDispatcher} Started dispatcher. The method never returns null.
+   */
+  private static TransactionEventDispatcher start( ) {
+    ServiceChannelConfiguration lConfiguration = ServiceChannelConfiguration.getInstance();
+    TransactionEventDispatcher lDispatcher = new TransactionEventDispatcher(lConfiguration.getTxListenerBufferSize(),
+        lConfiguration.getTxListenerBufferTimeout());
+    Thread lThread = new Thread(lDispatcher, "JEAF-TxListener-Dispatcher");
+    lThread.setDaemon(true);
+    lThread.start();
+    return lDispatcher;
+  }
+
+  /**
+   * Initialize object.
+   *
+   * @param pCapacity Maximum number of notifications that can be buffered.
+   * @param pTimeout Maximum time in milliseconds that is waited for space in the buffer.
+   */
+  private TransactionEventDispatcher( int pCapacity, long pTimeout ) {
+    notifications = new ArrayBlockingQueue<TransactionNotification>(Math.max(1, pCapacity));
+    timeout = Math.max(0, pTimeout);
+  }
+
+  /**
+   * Method adds the passed notification to the buffer. If the buffer is full the method waits until there is space
+   * again but not longer than the configured timeout. If the notification could still not be buffered then it will be
+   * delivered by the current thread.
+   *
+   * @param pNotification Notification that should be delivered. The parameter must not be null.
+   */
+  void dispatch( TransactionNotification pNotification ) {
+    // Check parameter.
+    Assert.assertNotNull(pNotification, "pNotification");
+
+    boolean lBuffered;
+    boolean lInterrupted = false;
+    try {
+      lBuffered = notifications.offer(pNotification, timeout, TimeUnit.MILLISECONDS);
+    }
+    catch (InterruptedException e) {
+      lBuffered = notifications.offer(pNotification);
+      lInterrupted = true;
+    }
+
+    // Buffer is full, so the notification is delivered synchronously.
+    if (lBuffered == false) {
+      XFun.getTrace().write(ServiceChannelMessages.TX_LISTENER_BUFFER_FULL);
+      pNotification.deliver();
+    }
+
+    // Restore interrupted state of current thread.
+    if (lInterrupted == true) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Method delivers all buffered notifications until the background thread is interrupted.
+   */
+  @Override
+  public void run( ) {
+    List<TransactionNotification> lBatch = new ArrayList<TransactionNotification>(BATCH_SIZE);
+    while (true) {
+      try {
+        lBatch.add(notifications.take());
+      }
+      catch (InterruptedException e) {
+        break;
+      }
+      notifications.drainTo(lBatch, BATCH_SIZE - 1);
+
+      // Deliver all notifications of the batch. Nothing must stop the background thread as it is the only one.
+      for (int i = 0; i < lBatch.size(); i++) {
+        try {
+          lBatch.get(i).deliver();
+        }
+        catch (Throwable e) {
+          XFun.getTrace().error(e.getMessage(), e);
+        }
+      }
+      lBatch.clear();
+    }
+  }
+}
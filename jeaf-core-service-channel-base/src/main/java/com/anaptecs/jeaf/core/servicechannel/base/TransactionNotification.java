@@ -0,0 +1,103 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import com.anaptecs.jeaf.core.api.ServiceInvocationContext;
+import com.anaptecs.jeaf.core.api.TxContext;
+import com.anaptecs.jeaf.core.spi.TransactionListener;
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+
+/**
+ * Class describes the notification of a set of transaction listeners about one transaction event outside of the service
+ * call in which it occurred. The transaction context and the service invocation context of the transaction are captured
+ * when the event occurs. While the listeners are notified both are available through {@link TransactionEventContext}.
+ *
+ * Instances of this class are immutable.
+ *
+ * @author JEAF Development Team
+ */
+final class TransactionNotification {
+  /**
+   * Event about which the listeners are notified.
+   */
+  private final TransactionEvent event;
+
+  /**
+   * Listeners that are notified.
+   */
+  private final TransactionListener[] listeners;
+
+  /**
+   * Transaction context of the transaction in which the event occurred. The reference may be null.
+   */
+  private final TxContext txContext;
+
+  /**
+   * Service invocation context of the service call in which the event occurred. The reference may be null.
+   */
+  private final ServiceInvocationContext serviceInvocationContext;
+
+  /**
+   * Initialize object.
+   *
+   * @param pEvent Event about which the listeners are notified. The parameter must not be null.
+   * @param pListeners Listeners that are notified. The parameter must not be null.
+   * @param pTxContext Transaction context of the transaction in which the event occurred. The parameter may be null.
+   * @param pServiceInvocationContext Service invocation context of the service call in which the event occurred. The
+   * parameter may be null.
+   */
+  TransactionNotification( TransactionEvent pEvent, TransactionListener[] pListeners, TxContext pTxContext,
+      ServiceInvocationContext pServiceInvocationContext ) {
+    // Check parameters.
+    Assert.assertNotNull(pEvent, "pEvent");
+    Assert.assertNotNull(pListeners, "pListeners");
+
+    event = pEvent;
+    listeners = pListeners;
+    txContext = pTxContext;
+    serviceInvocationContext = pServiceInvocationContext;
+  }
+
+  /**
+   * Method returns the transaction context of the transaction in which the event occurred.
+   *
+   * @return {@link TxContext} Captured transaction context. The method may return null.
+   */
+  TxContext getTxContext( ) {
+    return txContext;
+  }
+
+  /**
+   * Method returns the service invocation context of the service call in which the event occurred.
+   *
+   * @return {@link ServiceInvocationContext} Captured service invocation context. The method may return null.
+   */
+  ServiceInvocationContext getServiceInvocationContext( ) {
+    return serviceInvocationContext;
+  }
+
+  /**
+   * Method delivers the event to all listeners within the current thread. Exceptions and errors that are thrown by a
+   * listener are reported but do not prevent the notification of the other listeners.
+   */
+  void deliver( ) {
+    TransactionNotification lPreviousNotification = TransactionEventContext.setCurrentNotification(this);
+    try {
+      for (int i = 0; i < listeners.length; i++) {
+        try {
+          event.deliverTo(listeners[i]);
+        }
+        catch (RuntimeException | Error e) {
+          XFun.getTrace().error(e.getMessage(), e);
+        }
+      }
+    }
+    finally {
+      TransactionEventContext.setCurrentNotification(lPreviousNotification);
+    }
+  }
+}
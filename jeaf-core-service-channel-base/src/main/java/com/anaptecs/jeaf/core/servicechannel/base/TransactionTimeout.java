@@ -0,0 +1,37 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation defines the timeout of transactions that are started for a service method. It can be used on service
+ * interfaces, service implementations, their methods as well as on component implementations. If more than one
+ * annotation applies to a service method then the most specific one is used. Service methods without annotation use
+ * the default timeout (see {@link ServiceChannelConfiguration#getTxTimeout()}).
+ *
+ * When the timeout expires the transaction will be marked for roll back and the service call will fail once it
+ * returns. Optionally the thread that executes the service call will also be interrupted (see
+ * {@link ServiceChannelConfiguration#isTxTimeoutInterruptEnabled()}). Timeouts are only enforced by service channels
+ * that manage transactions on their own. Inside an EJB container the timeout of the container applies.
+ *
+ * @author JEAF Development Team
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+public @interface TransactionTimeout {
+  /**
+   * Timeout of the transaction in seconds. A value of 0 or less disables the timeout.
+   *
+   * @return int Timeout in seconds.
+   */
+  int value();
+}
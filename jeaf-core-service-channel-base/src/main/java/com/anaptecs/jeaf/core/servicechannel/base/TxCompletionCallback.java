@@ -0,0 +1,21 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+/**
+ * Interface is used by service channels to report the final outcome of a transaction once it is completed (see
+ * {@link AbstractServiceChannel#afterCompletion(com.anaptecs.jeaf.core.api.TxContext, TxCompletionCallback)}).
+ *
+ * @author JEAF Development Team
+ */
+public interface TxCompletionCallback {
+  /**
+   * Method is called exactly once after the transaction was completed.
+   *
+   * @param pCommitted Parameter defines whether the transaction was committed (true) or rolled back (false).
+   */
+  void completed( boolean pCommitted );
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import com.anaptecs.jeaf.core.api.TxContext;
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+
+/**
+ * Class represents the timeout of one transaction that is monitored by {@link TxTimeoutWheel}. The timeout either
+ * expires or is cancelled by the thread that executes the transaction when the service call completed. Both actions are
+ * synchronized so that a transaction will never be marked for roll back after it was released.
+ *
+ * As cancelled timeouts stay in their slot of the timer wheel until it reaches them, the references to the transaction
+ * context and its thread are released as soon as the timeout is cancelled.
+ *
+ * @author JEAF Development Team
+ */
+final class TxTimeout {
+  /**
+   * Transaction context whose timeout is monitored. The reference is null after the timeout was cancelled or expired.
+   */
+  private TxContext txContext;
+
+  /**
+   * Thread that executes the transaction. The reference is null after the timeout was cancelled.
+   */
+  private Thread worker;
+
+  /**
+   * Attribute defines whether {@link #worker} should be interrupted when the timeout expires.
+   */
+  private final boolean interruptEnabled;
+
+  /**
+   * Statistics of the service channel that started the transaction.
+   */
+  private final ServiceChannelStatistics statistics;
+
+  /**
+   * Timeout of the transaction in milliseconds.
+   */
+  private final long timeout;
+
+  /**
+   * Point in time (see {@link System#nanoTime()}) when the timeout expires.
+   */
+  private final long deadline;
+
+  /**
+   * Number of complete rotations of the timer wheel that have to pass until the timeout expires. The attribute is only
+   * accessed by the thread of the timer wheel.
+   */
+  private long remainingRounds;
+
+  /**
+   * Attribute indicates whether the timeout was cancelled.
+   */
+  private boolean cancelled;
+
+  /**
+   * Attribute indicates whether the timeout expired.
+   */
+  private boolean expired;
+
+  /**
+   * Attribute indicates whether {@link #worker} was interrupted due to this timeout.
+   */
+  private boolean interrupted;
+
+  /**
+   * Initialize object. The timeout of the transaction starts now.
+   *
+   * @param pTxContext Transaction context whose timeout is monitored. The parameter must not be null.
+   * @param pTimeout Timeout of the transaction in milliseconds.
+   * @param pInterruptEnabled Parameter defines whether the current thread should be interrupted when the timeout
+   * expires.
+   * @param pStatistics Statistics of the service channel that started the transaction. The parameter must not be null.
+   */
+  TxTimeout( TxContext pTxContext, long pTimeout, boolean pInterruptEnabled, ServiceChannelStatistics pStatistics ) {
+    // Check parameters.
+    Assert.assertNotNull(pTxContext, "pTxContext");
+    Assert.assertNotNull(pStatistics, "pStatistics");
+
+    txContext = pTxContext;
+    worker = Thread.currentThread();
+    interruptEnabled = pInterruptEnabled;
+    statistics = pStatistics;
+    timeout = pTimeout;
+    deadline = System.nanoTime() + pTimeout * 1000000L;
+  }
+
+  /**
+   * Method returns the point in time when the timeout expires.
+   *
+   * @return long Deadline of the transaction as defined by {@link System#nanoTime()}.
+   */
+  long getDeadline( ) {
+    return deadline;
+  }
+
+  /**
+   * Method returns the number of complete rotations of the timer wheel that have to pass until the timeout expires.
+   *
+   * @return long Number of remaining rotations.
+   */
+  long getRemainingRounds( ) {
+    return remainingRounds;
+  }
+
+  /**
+   * Method sets the number of complete rotations of the timer wheel that have to pass until the timeout expires.
+   *
+   * @param pRemainingRounds Number of remaining rotations.
+   */
+  void setRemainingRounds( long pRemainingRounds ) {
+    remainingRounds = pRemainingRounds;
+  }
+
+  /**
+   * Method checks whether the timeout was cancelled.
+   *
+   * @return boolean Method returns true if the timeout was cancelled and false otherwise.
+   */
+  synchronized boolean isCancelled( ) {
+    return cancelled;
+  }
+
+  /**
+   * Method checks whether the timeout expired.
+   *
+   * @return boolean Method returns true if the timeout expired and false otherwise.
+   */
+  synchronized boolean isExpired( ) {
+    return expired;
+  }
+
+  /**
+   * Method cancels the timeout. The method has to be called by the thread that executes the transaction before the
+   * transaction is released. If the thread was interrupted due to this timeout then its interrupted state will be
+   * cleared so that it does not affect code that runs after the service call. Interrupts that were not caused by this
+   * timeout are kept.
+   */
+  synchronized void cancel( ) {
+    if (expired == false) {
+      cancelled = true;
+    }
+    else if (interrupted == true && worker == Thread.currentThread()) {
+      Thread.interrupted();
+    }
+    interrupted = false;
+
+    // Release references so that cancelled timeouts that are still stored by the timer wheel do not keep them alive.
+    txContext = null;
+    worker = null;
+  }
+
+  /**
+   * Method is called by the timer wheel when the timeout expired. The transaction will be marked for roll back and if
+   * required the thread that executes it will be interrupted. Expired timeouts that were already cancelled are ignored.
+   */
+  synchronized void expire( ) {
+    if (cancelled == false && expired == false) {
+      expired = true;
+      txContext.setRollbackOnly();
+      statistics.transactionTimedOut();
+      XFun.getTrace().write(ServiceChannelMessages.TX_TIMED_OUT, worker.getName(), String.valueOf(timeout));
+
+      if (interruptEnabled == true) {
+        interrupted = true;
+        worker.interrupt();
+        statistics.serviceCallInterrupted();
+      }
+      txContext = null;
+    }
+  }
+}
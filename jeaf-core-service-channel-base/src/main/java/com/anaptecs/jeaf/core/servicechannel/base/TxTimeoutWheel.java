@@ -0,0 +1,196 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.anaptecs.jeaf.core.api.TxContext;
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+
+/**
+ * Class monitors the timeouts of all transactions that are managed by service channels themselves. Timeouts are stored
+ * within a hashed timer wheel that is driven by one background thread shared by all service channels. Scheduling and
+ * cancelling a timeout therefore does not require any locking between service calls: new timeouts are handed over
+ * through a lock free queue and cancelled ones are only removed when the wheel reaches their slot. Until then they do
+ * not reference their transaction context or thread anymore (see {@link TxTimeout#cancel()}).
+ *
+ * Timeouts expire with a precision of {@link #TICK_DURATION}, which is sufficient for transaction timeouts that are
+ * defined in seconds.
+ *
+ * @author JEAF Development Team
+ */
+final class TxTimeoutWheel implements Runnable {
+  /**
+   * Duration of one tick of the timer wheel in nanoseconds.
+   */
+  static final long TICK_DURATION = TimeUnit.MILLISECONDS.toNanos(100);
+
+  /**
+   * Number of slots of the timer wheel. The value has to be a power of 2. With a tick duration of 100ms one rotation of
+   * the wheel takes about 51 seconds.
+   */
+  private static final int WHEEL_SIZE = 512;
+
+  /**
+   * Class holds the timer wheel. It will only be created and started when it is required for the first time.
+   */
+  private static final class Holder {
+    /**
+     * Timer wheel that is shared by all service channels.
+     */
+    static final TxTimeoutWheel WHEEL = TxTimeoutWheel.start();
+  }
+
+  /**
+   * Slots of the timer wheel. The slots are only accessed by the thread of the timer wheel.
+   */
+  private final List<List<TxTimeout>> slots;
+
+  /**
+   * Timeouts that were scheduled but not yet added to a slot.
+   */
+  private final Queue<TxTimeout> scheduledTimeouts = new ConcurrentLinkedQueue<TxTimeout>();
+
+  /**
+   * Point in time (see {@link System#nanoTime()}) when the timer wheel was started.
+   */
+  private final long startTime;
+
+  /**
+   * Number of ticks that were processed since the timer wheel was started. The attribute is only accessed by the
+   * thread of the timer wheel.
+   */
+  private long tick;
+
+  /**
+   * Method returns the timer wheel that is shared by all service channels.
+   *
+   * @return {@link TxTimeoutWheel} Started timer wheel. The method never returns null.
+   */
+  static TxTimeoutWheel getWheel( ) {
+    return Holder.WHEEL;
+  }
+
+  /**
+   * Method creates a new timer wheel and starts its background thread.
+   *
+   * @return {@link TxTimeoutWheel} Started timer wheel. The method never returns null.
+   */
+  private static TxTimeoutWheel start( ) {
+    TxTimeoutWheel lWheel = new TxTimeoutWheel();
+    Thread lThread = new Thread(lWheel, "JEAF-TxTimeout-Wheel");
+    lThread.setDaemon(true);
+    lThread.start();
+    return lWheel;
+  }
+
+  /**
+   * Initialize object.
+   */
+  private TxTimeoutWheel( ) {
+    slots = new ArrayList<List<TxTimeout>>(WHEEL_SIZE);
+    for (int i = 0; i < WHEEL_SIZE; i++) {
+      slots.add(new ArrayList<TxTimeout>());
+    }
+    startTime = System.nanoTime();
+  }
+
+  /**
+   * Method schedules a timeout for the passed transaction context which is executed by the current thread.
+   *
+   * @param pTxContext Transaction context whose timeout should be monitored. The parameter must not be null.
+   * @param pTimeout Timeout of the transaction in milliseconds.
+   * @param pInterruptEnabled Parameter defines whether the current thread should be interrupted when the timeout
+   * expires.
+   * @param pStatistics Statistics of the service channel that started the transaction. The parameter must not be null.
+   * @return {@link TxTimeout} Scheduled timeout. It has to be cancelled before the transaction is released. The method
+   * never returns null.
+   */
+  TxTimeout schedule( TxContext pTxContext, long pTimeout, boolean pInterruptEnabled,
+      ServiceChannelStatistics pStatistics ) {
+    // Check parameters.
+    Assert.assertNotNull(pTxContext, "pTxContext");
+    Assert.assertNotNull(pStatistics, "pStatistics");
+
+    TxTimeout lTimeout = new TxTimeout(pTxContext, pTimeout, pInterruptEnabled, pStatistics);
+    scheduledTimeouts.add(lTimeout);
+    return lTimeout;
+  }
+
+  /**
+   * Method processes one tick after the other until the background thread is interrupted.
+   */
+  @Override
+  public void run( ) {
+    while (true) {
+      // Wait until the current tick is over.
+      long lSleepTime = startTime + (tick + 1) * TICK_DURATION - System.nanoTime();
+      if (lSleepTime > 0) {
+        try {
+          TimeUnit.NANOSECONDS.sleep(lSleepTime);
+        }
+        catch (InterruptedException e) {
+          break;
+        }
+      }
+
+      // Problems with single timeouts must not stop the timer wheel.
+      try {
+        this.transferScheduledTimeouts();
+        this.expireTimeouts(slots.get((int) (tick & (WHEEL_SIZE - 1))));
+      }
+      catch (RuntimeException e) {
+        XFun.getTrace().error(ServiceChannelMessages.TX_TIMEOUT_PROCESSING_FAILED, e);
+      }
+      tick++;
+    }
+  }
+
+  /**
+   * Method adds all newly scheduled timeouts to the slot in which they will expire. Timeouts that were already
+   * cancelled are dropped.
+   */
+  private void transferScheduledTimeouts( ) {
+    TxTimeout lTimeout = scheduledTimeouts.poll();
+    while (lTimeout != null) {
+      if (lTimeout.isCancelled() == false) {
+        // Timeouts whose deadline already passed expire with the current tick.
+        long lExpirationTick = Math.max(tick, (lTimeout.getDeadline() - startTime) / TICK_DURATION);
+        lTimeout.setRemainingRounds((lExpirationTick - tick) / WHEEL_SIZE);
+        slots.get((int) (lExpirationTick & (WHEEL_SIZE - 1))).add(lTimeout);
+      }
+      lTimeout = scheduledTimeouts.poll();
+    }
+  }
+
+  /**
+   * Method expires all timeouts of the passed slot that are due within the current rotation and removes cancelled ones.
+   *
+   * @param pSlot Slot that should be processed. The parameter must not be null.
+   */
+  private void expireTimeouts( List<TxTimeout> pSlot ) {
+    Iterator<TxTimeout> lIterator = pSlot.iterator();
+    while (lIterator.hasNext()) {
+      TxTimeout lTimeout = lIterator.next();
+      if (lTimeout.isCancelled() == true) {
+        lIterator.remove();
+      }
+      else if (lTimeout.getRemainingRounds() <= 0) {
+        lIterator.remove();
+        lTimeout.expire();
+      }
+      else {
+        lTimeout.setRemainingRounds(lTimeout.getRemainingRounds() - 1);
+      }
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import com.anaptecs.jeaf.core.api.ServiceInvocationContext;
+import com.anaptecs.jeaf.core.servicechannel.api.ServiceInvocationContextManager;
+
+/**
+ * Implementation of {@link ServiceInvocationContextManager} that is suitable for service calls that are executed on
+ * virtual threads. It shares its per thread storage with {@link VirtualThreadTransactionContextManagerImpl}. The
+ * implementation can be activated through <code>CoreConfig.serviceInvocationContextManager</code>.
+ *
+ * @author JEAF Development Team
+ */
+public class VirtualThreadServiceInvocationContextManagerImpl implements ServiceInvocationContextManager {
+  /**
+   * Method returns the current service invocation context.
+   *
+   * @return {@link ServiceInvocationContext} Current service invocation context or null if none is set.
+   */
+  @Override
+  public ServiceInvocationContext getCurrentServiceInvocationContext( ) {
+    return ThreadContextHolder.getServiceInvocationContext();
+  }
+
+  /**
+   * Method sets the passed context object to the current context.
+   *
+   * @param pServiceInvocationContext Context that should become the current one. The parameter must not be null.
+   */
+  @Override
+  public void setToCurrentServiceInvocationContext( ServiceInvocationContext pServiceInvocationContext ) {
+    // Ensure that this context object is still valid.
+    pServiceInvocationContext.checkValidity();
+
+    // Set this object to the current context.
+    ThreadContextHolder.setServiceInvocationContext(pServiceInvocationContext);
+  }
+
+  /**
+   * Method removes the passed context object as current.
+   *
+   * @param pServiceInvocationContext Context that should no longer be the current one. The parameter must not be null.
+   */
+  @Override
+  public void unsetAsCurrentServiceInvocationContext( ServiceInvocationContext pServiceInvocationContext ) {
+    // Ensure that this context object is still valid.
+    pServiceInvocationContext.checkValidity();
+
+    // Remove current context.
+    ThreadContextHolder.setServiceInvocationContext(null);
+  }
+
+  /**
+   * Method checks whether a service invocation context is available for the current thread.
+   *
+   * @return boolean Method returns true if a service invocation context is available and false otherwise.
+   */
+  @Override
+  public boolean isServiceInvocationContextAvailable( ) {
+    return this.getCurrentServiceInvocationContext() != null;
+  }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import com.anaptecs.jeaf.core.api.TxContext;
+import com.anaptecs.jeaf.core.servicechannel.api.TransactionContextManager;
+
+/**
+ * Implementation of {@link TransactionContextManager} that is suitable for service calls that are executed on virtual
+ * threads. Together with {@link VirtualThreadServiceInvocationContextManagerImpl} only one thread local entry is used
+ * per thread and this entry is removed as soon as the outermost service call is finished. The implementation can be
+ * activated through <code>CoreConfig.transactionContextManager</code>.
+ *
+ * @author JEAF Development Team
+ */
+public class VirtualThreadTransactionContextManagerImpl implements TransactionContextManager {
+  /**
+   * Method returns the current transaction context.
+   *
+   * @return {@link TxContext} Current transaction context or null if none is running.
+   */
+  @Override
+  public TxContext getCurrentTransactionContext( ) {
+    return ThreadContextHolder.getTxContext();
+  }
+
+  /**
+   * Method sets the passed TxContext object to the current context.
+   *
+   * @param pTxContext Transaction context that should become the current one. The parameter must not be null.
+   */
+  @Override
+  public void setToCurrentTxContext( TxContext pTxContext ) {
+    // Ensure that this context object is still valid.
+    pTxContext.checkValidity();
+
+    // Set this object to the current context.
+    ThreadContextHolder.setTxContext(pTxContext);
+  }
+
+  /**
+   * Method removes the passed context object as current.
+   *
+   * @param pTxContext Transaction context that should no longer be the current one. The parameter must not be null.
+   */
+  @Override
+  public void unsetAsCurrentTxContext( TxContext pTxContext ) {
+    // Ensure that this context object is still valid.
+    pTxContext.checkValidity();
+
+    // Remove current context.
+    ThreadContextHolder.setTxContext(null);
+  }
+
+  /**
+   * Method checks whether a transaction context is available for the current thread.
+   *
+   * @return boolean Method returns true if a transaction context is available and false otherwise.
+   */
+  @Override
+  public boolean isTransactionContextAvailable( ) {
+    return this.getCurrentTransactionContext() != null;
+  }
+}
@@ -0,0 +1,293 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+
+/**
+ * Class represents the region of one component within the {@link ResultCache}. Entries are stored in a concurrent map
+ * so that reads never block each other. Every entry remembers when it was used for the last time. If the region exceeds
+ * its maximum size then one thread removes all expired entries and evicts the least recently used ones until the region
+ * is 10% below its maximum size again. This way eviction only happens from time to time and the region may temporarily
+ * contain slightly more entries than its maximum size. Expired entries are also removed when they are accessed.
+ *
+ * Instances of this class are thread safe.
+ *
+ * @author JEAF Development Team
+ */
+final class CacheRegion {
+  /**
+   * Class represents one cached result together with the point in time when it expires.
+   */
+  private static final class Entry {
+    /**
+     * Cached result.
+     */
+    private final Object result;
+
+    /**
+     * Point in time (see {@link System#nanoTime()}) when the entry expires.
+     */
+    private final long expirationTime;
+
+    /**
+     * Point in time (see {@link System#nanoTime()}) when the entry was used for the last time.
+     */
+    private volatile long lastAccessTime;
+
+    /**
+     * Initialize object.
+     *
+     * @param pResult Cached result. The parameter must not be null.
+     * @param pCreationTime Point in time when the entry was created.
+     * @param pExpirationTime Point in time when the entry expires.
+     */
+    Entry( Object pResult, long pCreationTime, long pExpirationTime ) {
+      result = pResult;
+      lastAccessTime = pCreationTime;
+      expirationTime = pExpirationTime;
+    }
+  }
+
+  /**
+   * Class represents an entry that may be evicted. As entries are still used concurrently the time of their last access
+   * is copied so that it does not change while candidates are sorted.
+   */
+  private static final class EvictionCandidate {
+    /**
+     * Key of the entry.
+     */
+    private final Object key;
+
+    /**
+     * Entry that may be evicted.
+     */
+    private final Entry entry;
+
+    /**
+     * Point in time when the entry was used for the last time before eviction started.
+     */
+    private final long lastAccessTime;
+
+    /**
+     * Initialize object.
+     *
+     * @param pKey Key of the entry. The parameter must not be null.
+     * @param pEntry Entry that may be evicted. The parameter must not be null.
+     */
+    EvictionCandidate( Object pKey, Entry pEntry ) {
+      key = pKey;
+      entry = pEntry;
+      lastAccessTime = pEntry.lastAccessTime;
+    }
+  }
+
+  /**
+   * Comparator sorts eviction candidates from the least to the most recently used one.
+   */
+  private static final Comparator<EvictionCandidate> LEAST_RECENTLY_USED_FIRST = new Comparator<EvictionCandidate>() {
+    @Override
+    public int compare( EvictionCandidate pFirst, EvictionCandidate pSecond ) {
+      return Long.signum(pFirst.lastAccessTime - pSecond.lastAccessTime);
+    }
+  };
+
+  /**
+   * Id of the component to which the region belongs to.
+   */
+  private final String componentID;
+
+  /**
+   * Maximum number of entries of the region.
+   */
+  private final int maxSize;
+
+  /**
+   * Number of entries to which the region is reduced when it exceeded its maximum size.
+   */
+  private final int evictionTargetSize;
+
+  /**
+   * Time to live of all entries in nanoseconds.
+   */
+  private final long timeToLive;
+
+  /**
+   * All entries of the region.
+   */
+  private final ConcurrentHashMap<Object, Entry> entries = new ConcurrentHashMap<Object, Entry>();
+
+  /**
+   * Lock ensures that only one thread evicts entries at a time. Other threads do not wait for it.
+   */
+  private final ReentrantLock evictionLock = new ReentrantLock();
+
+  /**
+   * Statistics of the region.
+   */
+  private final ResultCacheStatistics statistics;
+
+  /**
+   * Initialize object.
+   *
+   * @param pComponentID Id of the component to which the region belongs to. The parameter must not be null.
+   * @param pMaxSize Maximum number of entries of the region.
+   * @param pTimeToLive Time to live of all entries in nanoseconds.
+   */
+  CacheRegion( String pComponentID, int pMaxSize, long pTimeToLive ) {
+    // Check parameter.
+    Assert.assertNotNull(pComponentID, "pComponentID");
+
+    componentID = pComponentID;
+    maxSize = pMaxSize;
+    evictionTargetSize = pMaxSize - pMaxSize / 10;
+    timeToLive = pTimeToLive;
+    statistics = new ResultCacheStatistics(this);
+  }
+
+  /**
+   * Method returns the id of the component to which the region belongs to.
+   *
+   * @return String Id of the component. The method never returns null.
+   */
+  String getComponentID( ) {
+    return componentID;
+  }
+
+  /**
+   * Method returns the statistics of the region.
+   *
+   * @return {@link ResultCacheStatistics} Statistics of the region. The method never returns null.
+   */
+  ResultCacheStatistics getStatistics( ) {
+    return statistics;
+  }
+
+  /**
+   * Method returns the current number of entries of the region.
+   *
+   * @return int Number of entries including the ones that are expired but not yet removed.
+   */
+  int size( ) {
+    return entries.size();
+  }
+
+  /**
+   * Method returns the cached result for the passed key.
+   *
+   * @param pKey Key of the result. The parameter must not be null.
+   * @return Object Cached result or null if there is no valid entry for the key.
+   */
+  Object get( Object pKey ) {
+    Object lResult;
+    Entry lEntry = entries.get(pKey);
+    if (lEntry == null) {
+      lResult = null;
+    }
+    else {
+      long lNow = System.nanoTime();
+      if (lEntry.expirationTime - lNow <= 0) {
+        // Entry might have been replaced concurrently.
+        if (entries.remove(pKey, lEntry) == true) {
+          statistics.expired();
+        }
+        lResult = null;
+      }
+      else {
+        lEntry.lastAccessTime = lNow;
+        lResult = lEntry.result;
+      }
+    }
+
+    if (lResult != null) {
+      statistics.hit();
+    }
+    else {
+      statistics.miss();
+    }
+    return lResult;
+  }
+
+  /**
+   * Method adds the passed result to the region.
+   *
+   * @param pKey Key of the result. The parameter must not be null.
+   * @param pResult Result that should be cached. The parameter must not be null.
+   */
+  void put( Object pKey, Object pResult ) {
+    long lNow = System.nanoTime();
+    entries.put(pKey, new Entry(pResult, lNow, lNow + timeToLive));
+    statistics.put();
+    if (entries.size() > maxSize) {
+      this.evict();
+    }
+  }
+
+  /**
+   * Method removes the cached result for the passed key.
+   *
+   * @param pKey Key of the result. The parameter must not be null.
+   */
+  void invalidate( Object pKey ) {
+    entries.remove(pKey);
+    statistics.invalidated();
+  }
+
+  /**
+   * Method removes all cached results of the region.
+   */
+  void invalidateAll( ) {
+    entries.clear();
+    statistics.invalidated();
+  }
+
+  /**
+   * Method removes all expired entries and evicts the least recently used ones until the region reached its eviction
+   * target size. If another thread is already evicting entries then the method returns immediately.
+   */
+  private void evict( ) {
+    if (evictionLock.tryLock() == true) {
+      try {
+        // Remove expired entries and collect all others as candidates for eviction.
+        long lNow = System.nanoTime();
+        List<EvictionCandidate> lCandidates = new ArrayList<EvictionCandidate>(entries.size());
+        for (Map.Entry<Object, Entry> lNextEntry : entries.entrySet()) {
+          if (lNextEntry.getValue().expirationTime - lNow <= 0) {
+            if (entries.remove(lNextEntry.getKey(), lNextEntry.getValue()) == true) {
+              statistics.expired();
+            }
+          }
+          else {
+            lCandidates.add(new EvictionCandidate(lNextEntry.getKey(), lNextEntry.getValue()));
+          }
+        }
+
+        // Evict least recently used entries.
+        int lEvictions = lCandidates.size() - evictionTargetSize;
+        if (lEvictions > 0) {
+          Collections.sort(lCandidates, LEAST_RECENTLY_USED_FIRST);
+          for (int i = 0; i < lEvictions; i++) {
+            EvictionCandidate lCandidate = lCandidates.get(i);
+            if (entries.remove(lCandidate.key, lCandidate.entry) == true) {
+              statistics.evicted();
+            }
+          }
+        }
+      }
+      finally {
+        evictionLock.unlock();
+      }
+    }
+  }
+}
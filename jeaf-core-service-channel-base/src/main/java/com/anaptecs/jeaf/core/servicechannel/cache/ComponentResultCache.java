@@ -0,0 +1,378 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import com.anaptecs.jeaf.core.api.JEAF;
+import com.anaptecs.jeaf.core.api.ServiceInvocationContext;
+import com.anaptecs.jeaf.core.api.TxContext;
+import com.anaptecs.jeaf.core.servicechannel.base.AttributeAwareTxContext;
+import com.anaptecs.jeaf.core.servicechannel.base.ReadOnlyTxContext;
+import com.anaptecs.jeaf.core.servicechannel.base.ServiceChannelConfiguration;
+import com.anaptecs.jeaf.core.servicechannel.base.TransactionEventContext;
+import com.anaptecs.jeaf.core.spi.ServiceProviderImplementation;
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+import com.anaptecs.jeaf.xfun.api.health.CheckLevel;
+import com.anaptecs.jeaf.xfun.api.health.HealthCheckResult;
+
+/**
+ * Class implements the {@link ResultCache} service provider. There is only one instance per JVM. It is only registered
+ * if an application lists {@link ComponentResultCacheFactory} within its service provider factories. Invalidations are
+ * only repeated after the transaction in which they occurred was committed if {@link ResultCacheTransactionListener} is
+ * configured as transaction listener as well. The invalidations that have to be repeated are stored as attribute of
+ * their transaction context (see {@link AttributeAwareTxContext}). As long as a transaction has pending invalidations
+ * for a region, results that are read within the transaction are not added to that region as they may already
+ * reflect changes that are not committed yet.
+ *
+ * @author JEAF Development Team
+ */
+public final class ComponentResultCache implements ResultCache, ServiceProviderImplementation {
+  /**
+   * Id that is used as region for results that are cached outside of service calls.
+   */
+  private static final String NO_COMPONENT = "";
+
+  /**
+   * Class holds the only instance of the cache. It will only be created when it is required for the first time.
+   */
+  private static final class Holder {
+    /**
+     * Cache that is shared by all components.
+     */
+    static final ComponentResultCache INSTANCE = new ComponentResultCache();
+  }
+
+  /**
+   * Class represents an invalidation that has to be repeated after the current transaction was committed.
+   */
+  private static final class PendingInvalidation {
+    /**
+     * Region in which the invalidation occurred.
+     */
+    private final CacheRegion region;
+
+    /**
+     * Key that was invalidated. The reference is null if the whole region was invalidated.
+     */
+    private final Object key;
+
+    /**
+     * Initialize object.
+     *
+     * @param pRegion Region in which the invalidation occurred. The parameter must not be null.
+     * @param pKey Key that was invalidated. The parameter may be null if the whole region was invalidated.
+     */
+    PendingInvalidation( CacheRegion pRegion, Object pKey ) {
+      region = pRegion;
+      key = pKey;
+    }
+  }
+
+  /**
+   * Key of the transaction context attribute that contains the invalidations that have to be repeated after the
+   * transaction was committed.
+   */
+  private static final Object PENDING_INVALIDATIONS = new Object();
+
+  /**
+   * Regions of all components. The map is indexed by the id of the component.
+   */
+  private final ConcurrentMap<String, CacheRegion> regions = new ConcurrentHashMap<String, CacheRegion>();
+
+  /**
+   * Maximum number of entries per region.
+   */
+  private final int maxSize;
+
+  /**
+   * Time to live of all entries in nanoseconds.
+   */
+  private final long timeToLive;
+
+  /**
+   * Attribute defines whether invalidations are remembered so that they can be repeated after their transaction was
+   * committed. This is only the case if a {@link ResultCacheTransactionListener} was created. Otherwise remembered
+   * invalidations would never be removed again.
+   */
+  private volatile boolean pendingInvalidationsEnabled;
+
+  /**
+   * Method returns the only instance of the cache.
+   *
+   * @return {@link ComponentResultCache} Cache that is shared by all components. The method never returns null.
+   */
+  public static ComponentResultCache getInstance( ) {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * Initialize object.
+   */
+  private ComponentResultCache( ) {
+    ServiceChannelConfiguration lConfiguration = ServiceChannelConfiguration.getInstance();
+    maxSize = lConfiguration.getResultCacheMaxSize();
+    timeToLive = TimeUnit.SECONDS.toNanos(lConfiguration.getResultCacheTimeToLive());
+  }
+
+  /**
+   * Method initializes the service provider. As regions are created on demand nothing has to be done.
+   */
+  @Override
+  public void initialize( ) {
+    // Nothing to do.
+  }
+
+  /**
+   * Method checks the state of the service provider. As the cache only works in memory there is nothing to check.
+   *
+   * @param pCheckLevel Level of check that should be performed. The parameter is not used.
+   * @return {@link HealthCheckResult} Method always returns null.
+   */
+  @Override
+  public HealthCheckResult check( CheckLevel pCheckLevel ) {
+    return null;
+  }
+
+  /**
+   * Method returns the cached result for the passed key.
+   *
+   * @param pKey Key of the result within the region of the current component. The parameter must not be null.
+   * @return Object Cached result or null if there is no valid entry for the key.
+   *
+   * @see ResultCache#get(Object)
+   */
+  @Override
+  public Object get( Object pKey ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pKey, "pKey");
+
+    return this.getCurrentRegion().get(pKey);
+  }
+
+  /**
+   * Method adds the passed result to the cache. If the current transaction already invalidated entries of the region
+   * the result will not be added as it may reflect changes that are not committed yet.
+   *
+   * @param pKey Key of the result within the region of the current component. The parameter must not be null.
+   * @param pResult Result that should be cached. The parameter must not be null.
+   *
+   * @see ResultCache#put(Object, Object)
+   */
+  @Override
+  public void put( Object pKey, Object pResult ) {
+    // Check parameters.
+    Check.checkInvalidParameterNull(pKey, "pKey");
+    Check.checkInvalidParameterNull(pResult, "pResult");
+
+    CacheRegion lRegion = this.getCurrentRegion();
+    if (this.hasPendingInvalidations(lRegion) == false) {
+      lRegion.put(pKey, pResult);
+    }
+  }
+
+  /**
+   * Method removes the cached result for the passed key.
+   *
+   * @param pKey Key of the result within the region of the current component. The parameter must not be null.
+   *
+   * @see ResultCache#invalidate(Object)
+   */
+  @Override
+  public void invalidate( Object pKey ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pKey, "pKey");
+
+    CacheRegion lRegion = this.getCurrentRegion();
+    lRegion.invalidate(pKey);
+    this.addPendingInvalidation(new PendingInvalidation(lRegion, pKey));
+  }
+
+  /**
+   * Method removes all cached results of the current component.
+   *
+   * @see ResultCache#invalidateAll()
+   */
+  @Override
+  public void invalidateAll( ) {
+    CacheRegion lRegion = this.getCurrentRegion();
+    lRegion.invalidateAll();
+    this.addPendingInvalidation(new PendingInvalidation(lRegion, null));
+  }
+
+  /**
+   * Method returns the statistics of all regions of the cache.
+   *
+   * @return {@link Collection} Statistics of all regions. The method never returns null.
+   *
+   * @see ResultCache#getStatistics()
+   */
+  @Override
+  public Collection<ResultCacheStatistics> getStatistics( ) {
+    List<ResultCacheStatistics> lStatistics = new ArrayList<ResultCacheStatistics>(regions.size());
+    for (CacheRegion lRegion : regions.values()) {
+      lStatistics.add(lRegion.getStatistics());
+    }
+    return lStatistics;
+  }
+
+  /**
+   * Method enables that invalidations within transactions are remembered so that they can be repeated after the
+   * transaction was committed.
+   */
+  void enablePendingInvalidations( ) {
+    pendingInvalidationsEnabled = true;
+  }
+
+  /**
+   * Method repeats all invalidations that occurred within the completed transaction if it was committed. Otherwise they
+   * are discarded as data did not change.
+   *
+   * @param pCommitted Parameter defines whether the transaction was committed.
+   */
+  void transactionCompleted( boolean pCommitted ) {
+    List<PendingInvalidation> lInvalidations = this.removePendingInvalidations();
+    if (lInvalidations != null && pCommitted == true) {
+      for (PendingInvalidation lInvalidation : lInvalidations) {
+        if (lInvalidation.key != null) {
+          lInvalidation.region.invalidate(lInvalidation.key);
+        }
+        else {
+          lInvalidation.region.invalidateAll();
+        }
+      }
+    }
+  }
+
+  /**
+   * Method returns the region of the component of the current service call. If the region does not exist yet it will be
+   * created.
+   *
+   * @return {@link CacheRegion} Region of the current component. The method never returns null.
+   */
+  private CacheRegion getCurrentRegion( ) {
+    ServiceInvocationContext lServiceInvocationContext = JEAF.getContext().getServiceInvocationContext();
+    String lComponentID;
+    if (lServiceInvocationContext != null) {
+      lComponentID = lServiceInvocationContext.getComponent().getComponentID();
+    }
+    else {
+      lComponentID = NO_COMPONENT;
+    }
+
+    CacheRegion lRegion = regions.get(lComponentID);
+    if (lRegion == null) {
+      lRegion = new CacheRegion(lComponentID, maxSize, timeToLive);
+      CacheRegion lExistingRegion = regions.putIfAbsent(lComponentID, lRegion);
+      if (lExistingRegion != null) {
+        lRegion = lExistingRegion;
+      }
+    }
+    return lRegion;
+  }
+
+  /**
+   * Method remembers the passed invalidation so that it can be repeated after the current transaction was committed.
+   * Outside of transactions and within read only transactions nothing will be done as transaction listeners will not be
+   * notified about them. The same applies to transaction contexts that can not store attributes.
+   *
+   * @param pInvalidation Invalidation that should be repeated. The parameter must not be null.
+   */
+  private void addPendingInvalidation( PendingInvalidation pInvalidation ) {
+    AttributeAwareTxContext lTxContext = this.getPendingInvalidationsTxContext();
+    if (lTxContext != null) {
+      @SuppressWarnings("unchecked")
+      List<PendingInvalidation> lInvalidations =
+          (List<PendingInvalidation>) lTxContext.getAttribute(PENDING_INVALIDATIONS);
+      if (lInvalidations == null) {
+        lInvalidations = new ArrayList<PendingInvalidation>();
+        lTxContext.setAttribute(PENDING_INVALIDATIONS, lInvalidations);
+      }
+      lInvalidations.add(pInvalidation);
+    }
+  }
+
+  /**
+   * Method checks whether the current transaction has pending invalidations for the passed region.
+   *
+   * @param pRegion Region that should be checked. The parameter must not be null.
+   * @return boolean Method returns true if the current transaction invalidated entries of the region and false
+   * otherwise.
+   */
+  private boolean hasPendingInvalidations( CacheRegion pRegion ) {
+    boolean lPending = false;
+    AttributeAwareTxContext lTxContext = this.getPendingInvalidationsTxContext();
+    if (lTxContext != null) {
+      @SuppressWarnings("unchecked")
+      List<PendingInvalidation> lInvalidations =
+          (List<PendingInvalidation>) lTxContext.getAttribute(PENDING_INVALIDATIONS);
+      if (lInvalidations != null) {
+        for (PendingInvalidation lInvalidation : lInvalidations) {
+          if (lInvalidation.region == pRegion) {
+            lPending = true;
+            break;
+          }
+        }
+      }
+    }
+    return lPending;
+  }
+
+  /**
+   * Method returns the current transaction context if it is able to store pending invalidations.
+   *
+   * @return {@link AttributeAwareTxContext} Current transaction context or null if pending invalidations are disabled,
+   * if there is no transaction, if the transaction is read only or if the transaction context can not store attributes.
+   */
+  private AttributeAwareTxContext getPendingInvalidationsTxContext( ) {
+    AttributeAwareTxContext lAttributeAwareTxContext;
+    if (pendingInvalidationsEnabled == true) {
+      TxContext lTxContext = JEAF.getContext().getTransactionContext();
+      boolean lReadOnly = lTxContext instanceof ReadOnlyTxContext && ((ReadOnlyTxContext) lTxContext).isReadOnly();
+      if (lTxContext instanceof AttributeAwareTxContext && lReadOnly == false) {
+        lAttributeAwareTxContext = (AttributeAwareTxContext) lTxContext;
+      }
+      else {
+        lAttributeAwareTxContext = null;
+      }
+    }
+    else {
+      lAttributeAwareTxContext = null;
+    }
+    return lAttributeAwareTxContext;
+  }
+
+  /**
+   * Method removes all pending invalidations of the completed transaction. If the transaction was completed after its
+   * service call returned it is no longer the current one but available through {@link TransactionEventContext}.
+   *
+   * @return {@link List} Pending invalidations of the completed transaction or null if there are none.
+   */
+  private List<PendingInvalidation> removePendingInvalidations( ) {
+    TxContext lTxContext = TransactionEventContext.getTxContext();
+    if (lTxContext == null) {
+      lTxContext = JEAF.getContext().getTransactionContext();
+    }
+    List<PendingInvalidation> lInvalidations;
+    if (lTxContext instanceof AttributeAwareTxContext) {
+      AttributeAwareTxContext lAttributeAwareTxContext = (AttributeAwareTxContext) lTxContext;
+      @SuppressWarnings("unchecked")
+      List<PendingInvalidation> lPendingInvalidations =
+          (List<PendingInvalidation>) lAttributeAwareTxContext.getAttribute(PENDING_INVALIDATIONS);
+      lAttributeAwareTxContext.setAttribute(PENDING_INVALIDATIONS, null);
+      lInvalidations = lPendingInvalidations;
+    }
+    else {
+      lInvalidations = null;
+    }
+    return lInvalidations;
+  }
+}
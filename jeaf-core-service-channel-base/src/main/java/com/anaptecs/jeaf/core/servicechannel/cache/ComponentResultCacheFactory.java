@@ -0,0 +1,47 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.cache;
+
+import com.anaptecs.jeaf.core.api.ServiceProvider;
+import com.anaptecs.jeaf.core.servicechannel.api.ServiceProviderFactory;
+import com.anaptecs.jeaf.core.spi.ServiceProviderImplementation;
+
+/**
+ * Factory registers the {@link ComponentResultCache} as {@link ResultCache} service provider. The cache is not active
+ * by default. Applications that want to use it have to list this factory within their service provider factories and
+ * {@link ResultCacheTransactionListener} within the transaction listeners of their core configuration.
+ *
+ * @author JEAF Development Team
+ */
+public class ComponentResultCacheFactory implements ServiceProviderFactory {
+  /**
+   * Initialize object.
+   */
+  public ComponentResultCacheFactory( ) {
+    // Nothing to do.
+  }
+
+  /**
+   * Method returns the only instance of the component result cache.
+   *
+   * @return {@link ServiceProviderImplementation} Cache that is shared by all components. The method never returns
+   * null.
+   */
+  @Override
+  public ServiceProviderImplementation createServiceProviderImplementation( ) {
+    return ComponentResultCache.getInstance();
+  }
+
+  /**
+   * Method returns the service provider interface that is implemented by the cache.
+   *
+   * @return {@link Class} Class object of {@link ResultCache}. The method never returns null.
+   */
+  @Override
+  public Class<? extends ServiceProvider> getServiceProviderInterface( ) {
+    return ResultCache.class;
+  }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.cache;
+
+import java.util.Collection;
+
+import com.anaptecs.jeaf.core.api.ServiceProvider;
+import com.anaptecs.jeaf.core.servicechannel.base.StatisticsProvider;
+
+/**
+ * Service provider caches results of idempotent reads of service implementations. Every component has its own region
+ * within the cache. The region is determined from the current service invocation context so keys only have to be
+ * unique within a component. Calls from outside of a service call share one region.
+ *
+ * Entries expire after a configurable time to live and the least recently used entries are evicted if a region exceeds
+ * its maximum size (see {@link com.anaptecs.jeaf.core.servicechannel.base.ServiceChannelConfiguration}). Invalidations
+ * within a transaction are performed immediately and once more after the transaction was committed so that results
+ * that were read concurrently from the old data do not survive the commit. As cached objects are shared between
+ * threads they must not be modified.
+ *
+ * The cache is optional. It is only available if {@link ComponentResultCacheFactory} is configured as service provider
+ * factory and {@link ResultCacheTransactionListener} as transaction listener. The statistics of the cache can also be
+ * read through the lifecycle manager (see {@link StatisticsProvider}).
+ *
+ * @author JEAF Development Team
+ */
+public interface ResultCache extends ServiceProvider, StatisticsProvider<ResultCacheStatistics> {
+  /**
+   * Method returns the cached result for the passed key.
+   *
+   * @param pKey Key of the result within the region of the current component. The parameter must not be null.
+   * @return Object Cached result or null if there is no valid entry for the key.
+   */
+  Object get( Object pKey );
+
+  /**
+   * Method adds the passed result to the cache. An existing entry with the same key will be replaced. If the current
+   * transaction already invalidated entries of the component then the result is not cached as it may reflect changes
+   * that are not committed yet.
+   *
+   * @param pKey Key of the result within the region of the current component. The parameter must not be null.
+   * @param pResult Result that should be cached. The parameter must not be null.
+   */
+  void put( Object pKey, Object pResult );
+
+  /**
+   * Method removes the cached result for the passed key.
+   *
+   * @param pKey Key of the result within the region of the current component. The parameter must not be null.
+   */
+  void invalidate( Object pKey );
+
+  /**
+   * Method removes all cached results of the current component.
+   */
+  void invalidateAll( );
+
+  /**
+   * Method returns the statistics of all regions of the cache.
+   *
+   * @return {@link Collection} Statistics of all regions. The method never returns null.
+   */
+  @Override
+  Collection<ResultCacheStatistics> getStatistics( );
+}
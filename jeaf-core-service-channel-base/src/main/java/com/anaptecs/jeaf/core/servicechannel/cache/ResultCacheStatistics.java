@@ -0,0 +1,207 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class collects statistical information about one region of the {@link ResultCache}.
+ *
+ * Instances of this class are thread safe.
+ *
+ * @author JEAF Development Team
+ */
+public final class ResultCacheStatistics {
+  /**
+   * Region to which the statistics belong to.
+   */
+  private final CacheRegion region;
+
+  /**
+   * Number of requests that were answered from the cache.
+   */
+  private final AtomicLong hits = new AtomicLong();
+
+  /**
+   * Number of requests that could not be answered from the cache.
+   */
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Number of results that were added to the cache.
+   */
+  private final AtomicLong puts = new AtomicLong();
+
+  /**
+   * Number of entries that were removed as their time to live was over.
+   */
+  private final AtomicLong expirations = new AtomicLong();
+
+  /**
+   * Number of entries that were removed as the region exceeded its maximum size.
+   */
+  private final AtomicLong evictions = new AtomicLong();
+
+  /**
+   * Number of invalidations.
+   */
+  private final AtomicLong invalidations = new AtomicLong();
+
+  /**
+   * Initialize object.
+   *
+   * @param pRegion Region to which the statistics belong to. The parameter must not be null.
+   */
+  ResultCacheStatistics( CacheRegion pRegion ) {
+    region = pRegion;
+  }
+
+  /**
+   * Method returns the id of the component to which the region belongs to.
+   *
+   * @return String Id of the component. An empty String is returned for results that were cached outside of service
+   * calls.
+   */
+  public String getComponentID( ) {
+    return region.getComponentID();
+  }
+
+  /**
+   * Method returns the current number of entries of the region.
+   *
+   * @return int Number of entries.
+   */
+  public int getSize( ) {
+    return region.size();
+  }
+
+  /**
+   * Method returns the number of requests that were answered from the cache.
+   *
+   * @return long Number of cache hits.
+   */
+  public long getHits( ) {
+    return hits.get();
+  }
+
+  /**
+   * Method returns the number of requests that could not be answered from the cache.
+   *
+   * @return long Number of cache misses.
+   */
+  public long getMisses( ) {
+    return misses.get();
+  }
+
+  /**
+   * Method returns the number of results that were added to the cache.
+   *
+   * @return long Number of added results.
+   */
+  public long getPuts( ) {
+    return puts.get();
+  }
+
+  /**
+   * Method returns the number of entries that were removed as their time to live was over.
+   *
+   * @return long Number of expired entries.
+   */
+  public long getExpirations( ) {
+    return expirations.get();
+  }
+
+  /**
+   * Method returns the number of entries that were removed as the region exceeded its maximum size.
+   *
+   * @return long Number of evicted entries.
+   */
+  public long getEvictions( ) {
+    return evictions.get();
+  }
+
+  /**
+   * Method returns the number of invalidations.
+   *
+   * @return long Number of invalidations.
+   */
+  public long getInvalidations( ) {
+    return invalidations.get();
+  }
+
+  /**
+   * Method resets all counters to 0.
+   */
+  public void reset( ) {
+    hits.set(0);
+    misses.set(0);
+    puts.set(0);
+    expirations.set(0);
+    evictions.set(0);
+    invalidations.set(0);
+  }
+
+  /**
+   * Method records a cache hit.
+   */
+  void hit( ) {
+    hits.incrementAndGet();
+  }
+
+  /**
+   * Method records a cache miss.
+   */
+  void miss( ) {
+    misses.incrementAndGet();
+  }
+
+  /**
+   * Method records that a result was added.
+   */
+  void put( ) {
+    puts.incrementAndGet();
+  }
+
+  /**
+   * Method records that an entry expired.
+   */
+  void expired( ) {
+    expirations.incrementAndGet();
+  }
+
+  /**
+   * Method records that an entry was evicted.
+   */
+  void evicted( ) {
+    evictions.incrementAndGet();
+  }
+
+  /**
+   * Method records an invalidation.
+   */
+  void invalidated( ) {
+    invalidations.incrementAndGet();
+  }
+
+  /**
+   * Method returns a String representation of this object.
+   *
+   * @return String String representation of all counters. The method never returns null.
+   */
+  @Override
+  public String toString( ) {
+    StringBuilder lBuilder = new StringBuilder();
+    lBuilder.append("Component: ").append(region.getComponentID());
+    lBuilder.append(", size: ").append(region.size());
+    lBuilder.append(", hits: ").append(hits.get());
+    lBuilder.append(", misses: ").append(misses.get());
+    lBuilder.append(", puts: ").append(puts.get());
+    lBuilder.append(", expirations: ").append(expirations.get());
+    lBuilder.append(", evictions: ").append(evictions.get());
+    lBuilder.append(", invalidations: ").append(invalidations.get());
+    return lBuilder.toString();
+  }
+}
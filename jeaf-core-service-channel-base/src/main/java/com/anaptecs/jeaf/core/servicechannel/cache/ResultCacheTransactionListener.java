@@ -0,0 +1,62 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.cache;
+
+import com.anaptecs.jeaf.core.servicechannel.base.SynchronousTransactionListener;
+import com.anaptecs.jeaf.core.servicechannel.base.TransactionCompletionListener;
+
+/**
+ * Transaction listener repeats the invalidations of the {@link ComponentResultCache} after the transaction in which
+ * they occurred was completed. Without this listener invalidations are only performed immediately. As the listener is
+ * only notified once the transaction was really committed (see {@link TransactionCompletionListener}), results that
+ * were read concurrently from the old data do not survive the commit. In case of container managed transactions this
+ * may happen after the service call already returned.
+ *
+ * @author JEAF Development Team
+ */
+public class ResultCacheTransactionListener implements SynchronousTransactionListener, TransactionCompletionListener {
+  /**
+   * Initialize object.
+   */
+  public ResultCacheTransactionListener( ) {
+    ComponentResultCache.getInstance().enablePendingInvalidations();
+  }
+
+  /**
+   * Nothing has to be done when a transaction is started.
+   */
+  @Override
+  public void startedTransaction( ) {
+    // Nothing to do.
+  }
+
+  /**
+   * Nothing has to be done before the transaction is committed. Invalidations are repeated once it was completed.
+   */
+  @Override
+  public void committingTransaction( ) {
+    // Nothing to do.
+  }
+
+  /**
+   * Nothing has to be done before the transaction is rolled back. Invalidations are discarded once it was completed.
+   */
+  @Override
+  public void rollbackingTransaction( ) {
+    // Nothing to do.
+  }
+
+  /**
+   * Method repeats all invalidations that occurred within the transaction if it was committed and discards them
+   * otherwise.
+   *
+   * @param pCommitted Parameter defines whether the transaction was committed.
+   */
+  @Override
+  public void completedTransaction( boolean pCommitted ) {
+    ComponentResultCache.getInstance().transactionCompleted(pCommitted);
+  }
+}
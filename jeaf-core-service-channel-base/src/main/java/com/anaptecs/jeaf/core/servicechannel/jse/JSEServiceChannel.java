@@ -21,6 +21,7 @@ import com.anaptecs.jeaf.xfun.api.errorhandling.SystemException;
 import com.anaptecs.jeaf.xfun.api.health.CheckLevel;
 import com.anaptecs.jeaf.xfun.api.health.HealthCheckResult;
 import com.anaptecs.jeaf.xfun.api.info.ApplicationInfo;
+import com.anaptecs.jeaf.xfun.api.trace.ContextStackElement;
 
 /**
  * Core implementation of JEAF's service channel interface. This class is a minimum implementation of a service channel
@@ -60,18 +61,22 @@ public abstract class JSEServiceChannel extends AbstractServiceChannel {
   @Override
   protected final ServiceInvocationContext createServiceInvocationContext( Class<? extends Service> pTargetServiceClass,
       Component pComponent, ApplicationInfo pInvokingApplication, SessionContext pSessionContext ) {
+    // Resolve context stack element for the trace. Depending on the configuration it may be recycled.
+    ContextStackElement lContextStackElement = this.getContextStackElement(pTargetServiceClass, pComponent);
+
     // Get current service invocation context
     ServiceInvocationContext lParentContext = lifecycleManager.getContext().getServiceInvocationContext();
 
     // This is the first service call within this thread thus a new CoreRootContext has to be created.
     ServiceInvocationContext lNewContext;
     if (lParentContext == null) {
-      lNewContext = new RootContextImpl(pTargetServiceClass, pComponent, pInvokingApplication, pSessionContext);
+      lNewContext = new RootContextImpl(pTargetServiceClass, pComponent, pInvokingApplication, pSessionContext,
+          lContextStackElement, this.getCallerPrincipal());
     }
     // Create new service invocation context.
     else {
       lNewContext = new ServiceInvocationContextImpl(lParentContext, pTargetServiceClass, pComponent,
-          pInvokingApplication, pSessionContext);
+          pInvokingApplication, pSessionContext, lContextStackElement);
     }
     // Return created context.
     return lNewContext;
@@ -0,0 +1,144 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.unmanaged;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+
+/**
+ * Class enlists a JDBC connection in a transaction that is coordinated by the service channel (see
+ * {@link LocalTxCoordinator}). While the connection is enlisted auto commit is disabled. After the transaction
+ * completed the former auto commit mode is restored. As JDBC does not support a prepare phase for local transactions
+ * {@link #prepare()} does nothing. Thus JDBC connections should be enlisted last if possible.
+ *
+ * @author JEAF Development Team
+ */
+public final class ConnectionTxResource implements LocalTxResource {
+  /**
+   * JDBC connection that takes part in the transaction.
+   */
+  private final Connection connection;
+
+  /**
+   * Auto commit mode of the connection before it was enlisted.
+   */
+  private boolean autoCommit;
+
+  /**
+   * Initialize object.
+   *
+   * @param pConnection JDBC connection that should take part in the transaction. The parameter must not be null.
+   */
+  public ConnectionTxResource( Connection pConnection ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pConnection, "pConnection");
+
+    connection = pConnection;
+  }
+
+  /**
+   * Method disables auto commit of the connection.
+   *
+   * @throws SQLException In case that auto commit could not be disabled.
+   *
+   * @see LocalTxResource#begin()
+   */
+  @Override
+  public void begin( ) throws SQLException {
+    autoCommit = connection.getAutoCommit();
+    if (autoCommit == true) {
+      connection.setAutoCommit(false);
+    }
+  }
+
+  /**
+   * JDBC connections do not support a prepare phase for local transactions so nothing will be done.
+   *
+   * @see LocalTxResource#prepare()
+   */
+  @Override
+  public void prepare( ) {
+    // Nothing to do.
+  }
+
+  /**
+   * Method commits the current transaction of the connection.
+   *
+   * @throws SQLException In case that the transaction could not be committed.
+   *
+   * @see LocalTxResource#commit()
+   */
+  @Override
+  public void commit( ) throws SQLException {
+    try {
+      connection.commit();
+    }
+    finally {
+      this.restoreAutoCommit();
+    }
+  }
+
+  /**
+   * Method rolls back the current transaction of the connection.
+   *
+   * @throws SQLException In case that the transaction could not be rolled back.
+   *
+   * @see LocalTxResource#rollback()
+   */
+  @Override
+  public void rollback( ) throws SQLException {
+    try {
+      connection.rollback();
+    }
+    finally {
+      this.restoreAutoCommit();
+    }
+  }
+
+  /**
+   * Method restores the auto commit mode that the connection had before it was enlisted.
+   *
+   * @throws SQLException In case that the auto commit mode could not be changed.
+   */
+  private void restoreAutoCommit( ) throws SQLException {
+    if (autoCommit == true && connection.isClosed() == false) {
+      connection.setAutoCommit(true);
+    }
+  }
+
+  /**
+   * Method checks whether the passed object wraps the same connection as this object.
+   *
+   * @param pObject Object to compare with. The parameter may be null.
+   * @return boolean Method returns true if both objects wrap the same connection and false otherwise.
+   */
+  @Override
+  public boolean equals( Object pObject ) {
+    return pObject instanceof ConnectionTxResource && ((ConnectionTxResource) pObject).connection == connection;
+  }
+
+  /**
+   * Method returns the hash code of the wrapped connection.
+   *
+   * @return int Identity hash code of the wrapped connection.
+   */
+  @Override
+  public int hashCode( ) {
+    return System.identityHashCode(connection);
+  }
+
+  /**
+   * Method returns a String representation of this object.
+   *
+   * @return String Description of the wrapped connection. The method never returns null.
+   */
+  @Override
+  public String toString( ) {
+    return "JDBC connection " + connection;
+  }
+}
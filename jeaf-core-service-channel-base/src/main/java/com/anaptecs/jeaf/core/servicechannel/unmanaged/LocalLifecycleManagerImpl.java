@@ -57,6 +57,17 @@ public class LocalLifecycleManagerImpl extends GenericLifecycleManager {
     return new SimpleUserTransaction();
   }
 
+  /**
+   * Method checks whether service providers may be initialized in parallel. As {@link SimpleUserTransaction} is not
+   * bound to a thread this is always possible in JSE environments.
+   *
+   * @return boolean Method always returns true.
+   */
+  @Override
+  protected boolean isParallelServiceProviderStartupSupported( ) {
+    return true;
+  }
+
   /**
    * Method overrides implementation of base class in order to provide platform specific triggering mechanism. This
    * means for JSE environments that JEAF that a timer task will be used.
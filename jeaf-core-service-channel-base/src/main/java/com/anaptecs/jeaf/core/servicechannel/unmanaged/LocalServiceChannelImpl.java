@@ -21,6 +21,7 @@ import com.anaptecs.jeaf.xfun.api.errorhandling.SystemException;
 import com.anaptecs.jeaf.xfun.api.health.CheckLevel;
 import com.anaptecs.jeaf.xfun.api.health.HealthCheckResult;
 import com.anaptecs.jeaf.xfun.api.info.ApplicationInfo;
+import com.anaptecs.jeaf.xfun.api.trace.ContextStackElement;
 
 /**
  * Class provides a base implementation for a local service channel. Local here means that all services that are
@@ -28,13 +29,19 @@ import com.anaptecs.jeaf.xfun.api.info.ApplicationInfo;
  * in classic JSE environments as well as inside a Web Container. However it's not intended to be used inside an EJB
  * Container.
  * 
- * The implementation of this base class does not support transactions, but this can easily be added by subclasses.
+ * Transactions are coordinated by the service channel itself. All resources that are enlisted in a transaction (see
+ * {@link LocalTxCoordinator}) are committed or rolled back together when the transaction context is released.
  * 
  * Instances of this class are state less and support multi threading.
  * 
  * @author JEAF Development Team
  */
 public class LocalServiceChannelImpl extends AbstractServiceChannel {
+  /**
+   * Statistics about the transactions that were coordinated by this service channel.
+   */
+  private final LocalTxStatistics localTxStatistics = new LocalTxStatistics();
+
   /**
    * Initialize object. Currently no actions are performed.
    * 
@@ -61,19 +68,22 @@ public class LocalServiceChannelImpl extends AbstractServiceChannel {
   @Override
   protected final ServiceInvocationContext createServiceInvocationContext( Class<? extends Service> pTargetServiceClass,
       Component pComponent, ApplicationInfo pInvokingApplication, SessionContext pSessionContext ) {
+    // Resolve context stack element for the trace. Depending on the configuration it may be recycled.
+    ContextStackElement lContextStackElement = this.getContextStackElement(pTargetServiceClass, pComponent);
+
     // Get current service invocation context
     ServiceInvocationContext lParentContext = lifecycleManager.getContext().getServiceInvocationContext();
 
     // This is the first service call within this thread thus a new RootServiceInvovationContextImpl has to be created.
     ServiceInvocationContext lNewContext;
     if (lParentContext == null) {
-      lNewContext =
-          new RootServiceInvovationContextImpl(pTargetServiceClass, pComponent, pInvokingApplication, pSessionContext);
+      lNewContext = new RootServiceInvovationContextImpl(pTargetServiceClass, pComponent, pInvokingApplication,
+          pSessionContext, lContextStackElement, this.getCallerPrincipal());
     }
     // Create new service invocation context.
     else {
       lNewContext = new ServiceInvocationContextImpl(lParentContext, pTargetServiceClass, pComponent,
-          pInvokingApplication, pSessionContext);
+          pInvokingApplication, pSessionContext, lContextStackElement);
     }
     // Return created context.
     return lNewContext;
@@ -99,14 +109,39 @@ public class LocalServiceChannelImpl extends AbstractServiceChannel {
    * whether actions have to performed or not. The method will be called before the transaction context will be released
    * and become invalid.
    * 
-   * This class only provides an empty implementation.
+   * This class commits or rolls back all resources that were enlisted in the transaction (see
+   * {@link LocalTxCoordinator}).
    * 
-   * @param pTxContext Transaction context that will be released. The parameter is never used since this service channel
-   * implementation does not support transactions.
+   * @param pTxContext Transaction context that will be released. The parameter must not be null.
    */
   @Override
   protected void releasingTxContext( TxContext pTxContext ) {
-    // Since this service channel does not support transactions this method has nothing to do.
+    // Transaction contexts of subclasses may not coordinate any resources.
+    if (pTxContext instanceof SimpleTxContext) {
+      ((SimpleTxContext) pTxContext).completeTransaction(localTxStatistics);
+    }
+  }
+
+  /**
+   * Method returns statistics about the transactions that were coordinated by this service channel.
+   * 
+   * @return {@link LocalTxStatistics} Statistics about coordinated transactions. The method never returns null.
+   */
+  public final LocalTxStatistics getLocalTxStatistics( ) {
+    return localTxStatistics;
+  }
+
+  /**
+   * Method checks whether this service channel enforces transaction timeouts. As there is no container that could
+   * abort long running transactions this service channel always does it on its own.
+   * 
+   * @return boolean Method always returns true.
+   * 
+   * @see AbstractServiceChannel#isTxTimeoutEnforced()
+   */
+  @Override
+  protected boolean isTxTimeoutEnforced( ) {
+    return true;
   }
 
   /**
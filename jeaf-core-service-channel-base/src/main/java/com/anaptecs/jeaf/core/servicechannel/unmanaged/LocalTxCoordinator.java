@@ -0,0 +1,34 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.unmanaged;
+
+/**
+ * Interface is implemented by transaction contexts of {@link LocalServiceChannelImpl} that coordinate the local
+ * transactions of several resources. Service implementations get it by casting the current transaction context.
+ * Resources can be enlisted as long as the transaction context is valid. When the transaction context is released all
+ * resources are committed or rolled back together. Transaction listeners are notified before, so that synchronous
+ * listeners can still take part in the transaction. Listeners that have to know whether the commit really succeeded
+ * have to implement {@link com.anaptecs.jeaf.core.servicechannel.base.TransactionCompletionListener}.
+ *
+ * Entity managers of JPA transaction contexts that implement this interface are enlisted automatically when they are
+ * used for the first time (see <code>JPATxContext</code>). JDBC connections are not obtained through the service
+ * channel. Services have to enlist them explicitly using {@link ConnectionTxResource}.
+ *
+ * Commit uses the last resource optimization: All resources except the last enlisted one are prepared first. Then the
+ * last resource is committed which decides about the outcome of the whole transaction. Afterwards all other resources
+ * are committed in the order in which they were enlisted.
+ *
+ * @author JEAF Development Team
+ */
+public interface LocalTxCoordinator {
+  /**
+   * Method enlists the passed resource in the current transaction. The transaction will be started if this was not
+   * already done before. Resources that are already enlisted are ignored.
+   *
+   * @param pResource Resource that should be enlisted. The parameter must not be null.
+   */
+  void enlistResource( LocalTxResource pResource );
+}
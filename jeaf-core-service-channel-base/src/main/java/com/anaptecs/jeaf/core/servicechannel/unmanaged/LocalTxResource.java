@@ -0,0 +1,50 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.unmanaged;
+
+/**
+ * Interface describes a resource such as a JDBC connection or an entity manager that takes part in a transaction which
+ * is coordinated by the service channel itself (see {@link LocalTxCoordinator}). Resources are not able to perform a
+ * real two phase commit. Instead {@link #prepare()} writes all pending changes so that the following commit is unlikely
+ * to fail.
+ *
+ * Implementations have to implement <code>equals(Object)</code> and <code>hashCode()</code> based on the wrapped
+ * resource so that a resource is only enlisted once per transaction.
+ *
+ * @author JEAF Development Team
+ */
+public interface LocalTxResource {
+  /**
+   * Method is called when the resource is enlisted in a transaction. It has to start a local transaction on the
+   * resource.
+   *
+   * @throws Exception In case that the local transaction could not be started.
+   */
+  void begin( ) throws Exception;
+
+  /**
+   * Method prepares the resource for commit by writing all pending changes. It is called for all resources except the
+   * last enlisted one before any resource is committed.
+   *
+   * @throws Exception In case that the resource is not able to commit its changes. The whole transaction will be rolled
+   * back then.
+   */
+  void prepare( ) throws Exception;
+
+  /**
+   * Method commits the local transaction of the resource.
+   *
+   * @throws Exception In case that the local transaction could not be committed.
+   */
+  void commit( ) throws Exception;
+
+  /**
+   * Method rolls back the local transaction of the resource.
+   *
+   * @throws Exception In case that the local transaction could not be rolled back.
+   */
+  void rollback( ) throws Exception;
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.unmanaged;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.anaptecs.jeaf.core.servicechannel.base.LatencyHistogram;
+
+/**
+ * Class collects statistical information about the transactions that were coordinated by a
+ * {@link LocalServiceChannelImpl} (see {@link LocalTxCoordinator}). Only transactions with at least one enlisted
+ * resource are taken into account.
+ *
+ * Instances of this class are thread safe.
+ *
+ * @author JEAF Development Team
+ */
+public final class LocalTxStatistics {
+  /**
+   * Number of transactions that were committed successfully.
+   */
+  private final AtomicLong commits = new AtomicLong();
+
+  /**
+   * Number of transactions that were rolled back as they were marked for roll back.
+   */
+  private final AtomicLong rollbacks = new AtomicLong();
+
+  /**
+   * Number of transactions that were rolled back as their commit failed.
+   */
+  private final AtomicLong failedCommits = new AtomicLong();
+
+  /**
+   * Number of transactions where at least one resource could not be committed after the last resource was committed.
+   */
+  private final AtomicLong heuristicOutcomes = new AtomicLong();
+
+  /**
+   * Latencies of all successful commits including the prepare phase.
+   */
+  private final LatencyHistogram commitLatencies = new LatencyHistogram();
+
+  /**
+   * Initialize object.
+   */
+  LocalTxStatistics( ) {
+    // Nothing to do.
+  }
+
+  /**
+   * Method returns the number of transactions that were committed successfully.
+   *
+   * @return long Number of committed transactions.
+   */
+  public long getCommits( ) {
+    return commits.get();
+  }
+
+  /**
+   * Method returns the number of transactions that were rolled back as they were marked for roll back.
+   *
+   * @return long Number of rolled back transactions.
+   */
+  public long getRollbacks( ) {
+    return rollbacks.get();
+  }
+
+  /**
+   * Method returns the number of transactions that were rolled back as their commit failed.
+   *
+   * @return long Number of failed commits.
+   */
+  public long getFailedCommits( ) {
+    return failedCommits.get();
+  }
+
+  /**
+   * Method returns the number of transactions where some resources were committed and others not. Such transactions
+   * require manual intervention.
+   *
+   * @return long Number of transactions with heuristic outcome.
+   */
+  public long getHeuristicOutcomes( ) {
+    return heuristicOutcomes.get();
+  }
+
+  /**
+   * Method returns the latencies of all successful commits.
+   *
+   * @return {@link LatencyHistogram} Commit latencies in nanoseconds. The method never returns null.
+   */
+  public LatencyHistogram getCommitLatencies( ) {
+    return commitLatencies;
+  }
+
+  /**
+   * Method resets all counters and latencies.
+   */
+  public void reset( ) {
+    commits.set(0);
+    rollbacks.set(0);
+    failedCommits.set(0);
+    heuristicOutcomes.set(0);
+    commitLatencies.reset();
+  }
+
+  /**
+   * Method records a successful commit.
+   *
+   * @param pNanos Duration of the commit in nanoseconds.
+   */
+  void transactionCommitted( long pNanos ) {
+    commits.incrementAndGet();
+    commitLatencies.record(pNanos);
+  }
+
+  /**
+   * Method records a roll back.
+   */
+  void transactionRolledBack( ) {
+    rollbacks.incrementAndGet();
+  }
+
+  /**
+   * Method records a failed commit.
+   */
+  void commitFailed( ) {
+    failedCommits.incrementAndGet();
+  }
+
+  /**
+   * Method records a transaction with heuristic outcome.
+   */
+  void heuristicOutcome( ) {
+    heuristicOutcomes.incrementAndGet();
+  }
+
+  /**
+   * Method returns a String representation of this object.
+   *
+   * @return String String representation of all counters. The method never returns null.
+   */
+  @Override
+  public String toString( ) {
+    StringBuilder lBuilder = new StringBuilder();
+    lBuilder.append("Commits: ").append(commits.get());
+    lBuilder.append(", rollbacks: ").append(rollbacks.get());
+    lBuilder.append(", failed commits: ").append(failedCommits.get());
+    lBuilder.append(", heuristic outcomes: ").append(heuristicOutcomes.get());
+    lBuilder.append(", commit latencies: ").append(commitLatencies);
+    return lBuilder.toString();
+  }
+}
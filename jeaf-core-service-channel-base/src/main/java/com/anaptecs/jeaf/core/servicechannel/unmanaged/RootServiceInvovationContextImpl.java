@@ -13,6 +13,7 @@ import com.anaptecs.jeaf.core.api.Service;
 import com.anaptecs.jeaf.core.api.ServiceInvocationContext;
 import com.anaptecs.jeaf.core.api.SessionContext;
 import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
 import com.anaptecs.jeaf.xfun.api.info.ApplicationInfo;
 import com.anaptecs.jeaf.xfun.api.trace.ContextStackElement;
 
@@ -36,20 +37,28 @@ final class RootServiceInvovationContextImpl extends ServiceInvocationContext {
   private final Principal principal;
 
   /**
-   * Initialize object. Thereby a new principal for the current user will be created.
+   * Initialize object.
+   * 
+   * @param pTargetServiceClass Class object of service interface that is called. The parameter must not be null.
+   * @param pComponent Component to which the represented service call belongs to. The parameter must not be null.
+   * @param pInvokingApplication Information about the invoking application. The parameter must not be null.
+   * @param pSessionContext Session context that belongs to the current call.
+   * @param pContextStackElement Context stack element that will be used for the trace. The parameter must not be null.
+   * @param pPrincipal Principal of the caller. The parameter may be null.
    */
   RootServiceInvovationContextImpl( Class<? extends Service> pTargetServiceClass, Component pComponent,
-      ApplicationInfo pInvokingApplication, SessionContext pSessionContext ) {
+      ApplicationInfo pInvokingApplication, SessionContext pSessionContext,
+      ContextStackElement pContextStackElement, Principal pPrincipal ) {
 
     // Call constructor of super class. There all parameters will be checked.
     super(pTargetServiceClass, pComponent, pInvokingApplication, pSessionContext);
 
     // Set depth on the stack of service invocation context objects.
-    ContextStackElement lContext = new ContextStackElement(pTargetServiceClass.getName(), pComponent.getComponentID());
-    XFun.getTrace().newContextStack(lContext);
+    Assert.assertNotNull(pContextStackElement, "pContextStackElement");
+    XFun.getTrace().newContextStack(pContextStackElement);
 
-    // Create new principal for the current user.
-    principal = XFun.getPrincipalProvider().getCurrentPrincipal();
+    // Principal of the current user is resolved by the service channel as it may belong to another thread.
+    principal = pPrincipal;
   }
 
   /**
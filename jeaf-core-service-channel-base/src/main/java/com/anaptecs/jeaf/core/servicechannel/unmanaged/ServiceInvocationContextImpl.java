@@ -41,21 +41,23 @@ final class ServiceInvocationContextImpl extends ServiceInvocationContext {
    * @param pComponent Component to which the represented service call belongs to. The parameter must not be null.
    * @param pInvokingApplication Information about the invoking application. The parameter must not be null.
    * @param pSessionContext Session context that belongs to the current call.
+   * @param pContextStackElement Context stack element that will be pushed to the trace. The parameter must not be null.
    */
   ServiceInvocationContextImpl( ServiceInvocationContext pParent, Class<? extends Service> pTargetServiceClass,
-      Component pComponent, ApplicationInfo pInvokingApplication, SessionContext pSessionContext ) {
+      Component pComponent, ApplicationInfo pInvokingApplication, SessionContext pSessionContext,
+      ContextStackElement pContextStackElement ) {
 
     // Call constructor of super class. There all parameters will be checked.
     super(pTargetServiceClass, pComponent, pInvokingApplication, pSessionContext);
 
     // Check parameter for null.
     Assert.assertNotNull(pParent, "pParent");
+    Assert.assertNotNull(pContextStackElement, "pContextStackElement");
 
     parent = pParent;
 
     // Push new context to context stack of trace
-    ContextStackElement lContext = new ContextStackElement(pTargetServiceClass.getName(), pComponent.getComponentID());
-    XFun.getTrace().pushContextStackElement(lContext);
+    XFun.getTrace().pushContextStackElement(pContextStackElement);
   }
 
   /**
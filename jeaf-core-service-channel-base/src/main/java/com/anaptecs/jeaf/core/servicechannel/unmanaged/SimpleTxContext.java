@@ -5,32 +5,77 @@
  */
 package com.anaptecs.jeaf.core.servicechannel.unmanaged;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import com.anaptecs.jeaf.core.api.TxContext;
+import com.anaptecs.jeaf.core.servicechannel.base.AttributeAwareTxContext;
+import com.anaptecs.jeaf.core.servicechannel.base.LazyTxContext;
+import com.anaptecs.jeaf.core.servicechannel.base.ReadOnlyTxContext;
+import com.anaptecs.jeaf.core.servicechannel.base.ServiceChannelMessages;
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFSystemException;
 
 /**
- * This is a really simple implementation of a transaction context and can not be used as an implementation for
- * production use if real transaction handling is required.
+ * This is a simple implementation of a transaction context that coordinates the local transactions of all resources
+ * that were enlisted (see {@link LocalTxCoordinator}). It does not support distributed transactions. The transaction
+ * is only started if a resource is enlisted or if {@link #startTransaction()} is called explicitly.
  * 
  * 
  * @author JEAF Development Team
  * @version 1.0
  */
-final class SimpleTxContext extends TxContext {
+final class SimpleTxContext extends TxContext
+    implements LazyTxContext, ReadOnlyTxContext, LocalTxCoordinator, AttributeAwareTxContext {
   /**
    * Default Serial Version UID
    */
   private static final long serialVersionUID = 1L;
 
   /**
-   * Attribute indicates if an roll back is required for te represented transaction.
+   * Attribute indicates if an roll back is required for te represented transaction. As transactions may be marked for
+   * roll back by the timer that monitors transaction timeouts the attribute is volatile.
+   */
+  private volatile boolean txRollbackRequired;
+
+  /**
+   * Attribute indicates if the represented transaction was already started.
+   */
+  private boolean transactionStarted;
+
+  /**
+   * Callback that has to be executed when the transaction is started. The reference may be null.
+   */
+  private transient Runnable transactionStartCallback;
+
+  /**
+   * Attribute indicates if the represented transaction is read only.
+   */
+  private boolean readOnly;
+
+  /**
+   * Resources that were enlisted in the transaction in the order of their enlistment. The list is only created when the
+   * first resource is enlisted.
+   */
+  private transient List<LocalTxResource> resources;
+
+  /**
+   * Attributes of the transaction (see {@link AttributeAwareTxContext}). The map is only created when the first
+   * attribute is set.
    */
-  private boolean txRollbackRequired;
+  private transient Map<Object, Object> attributes;
 
   /**
    * Initialize object.
    */
   SimpleTxContext( ) {
     txRollbackRequired = false;
+    transactionStarted = false;
+    readOnly = false;
   }
 
   /**
@@ -57,4 +102,245 @@ final class SimpleTxContext extends TxContext {
   public void setRollbackOnly( ) {
     txRollbackRequired = true;
   }
+
+  /**
+   * Method checks whether the transaction represented by this transaction context was already started.
+   * 
+   * @return boolean The method returns true if the transaction was already started and false otherwise.
+   * 
+   * @see LazyTxContext#isTransactionStarted()
+   */
+  @Override
+  public boolean isTransactionStarted( ) {
+    return transactionStarted;
+  }
+
+  /**
+   * Method starts the transaction represented by this transaction context if this was not already done before.
+   * 
+   * @see LazyTxContext#startTransaction()
+   */
+  @Override
+  public void startTransaction( ) {
+    if (transactionStarted == false) {
+      transactionStarted = true;
+      if (transactionStartCallback != null) {
+        transactionStartCallback.run();
+      }
+    }
+  }
+
+  /**
+   * Method sets the callback that has to be executed when the transaction is started.
+   * 
+   * @param pCallback Callback that will be executed when the transaction is started. The parameter must not be null.
+   * 
+   * @see LazyTxContext#setTransactionStartCallback(Runnable)
+   */
+  @Override
+  public void setTransactionStartCallback( Runnable pCallback ) {
+    // Check parameter.
+    Assert.assertNotNull(pCallback, "pCallback");
+
+    transactionStartCallback = pCallback;
+  }
+
+  /**
+   * Method marks the transaction represented by this transaction context as read only.
+   * 
+   * @see ReadOnlyTxContext#markReadOnly()
+   */
+  @Override
+  public void markReadOnly( ) {
+    readOnly = true;
+  }
+
+  /**
+   * Method checks whether the transaction represented by this transaction context is read only.
+   * 
+   * @return boolean The method returns true if the transaction is marked as read only and false otherwise.
+   * 
+   * @see ReadOnlyTxContext#isReadOnly()
+   */
+  @Override
+  public boolean isReadOnly( ) {
+    return readOnly;
+  }
+
+  /**
+   * Method returns the attribute with the passed key.
+   * 
+   * @param pKey Key of the attribute. The parameter must not be null.
+   * @return Object Value of the attribute or null if the attribute is not set.
+   * 
+   * @see AttributeAwareTxContext#getAttribute(Object)
+   */
+  @Override
+  public Object getAttribute( Object pKey ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pKey, "pKey");
+
+    Object lValue;
+    if (attributes != null) {
+      lValue = attributes.get(pKey);
+    }
+    else {
+      lValue = null;
+    }
+    return lValue;
+  }
+
+  /**
+   * Method sets the attribute with the passed key.
+   * 
+   * @param pKey Key of the attribute. The parameter must not be null.
+   * @param pValue Value of the attribute. The parameter may be null. In this case the attribute is removed.
+   * 
+   * @see AttributeAwareTxContext#setAttribute(Object, Object)
+   */
+  @Override
+  public void setAttribute( Object pKey, Object pValue ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pKey, "pKey");
+
+    if (pValue != null) {
+      if (attributes == null) {
+        attributes = new HashMap<Object, Object>(4);
+      }
+      attributes.put(pKey, pValue);
+    }
+    else if (attributes != null) {
+      attributes.remove(pKey);
+    }
+  }
+
+  /**
+   * Method enlists the passed resource in the transaction represented by this transaction context.
+   * 
+   * @param pResource Resource that should be enlisted. The parameter must not be null.
+   * 
+   * @see LocalTxCoordinator#enlistResource(LocalTxResource)
+   */
+  @Override
+  public void enlistResource( LocalTxResource pResource ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pResource, "pResource");
+
+    if (resources == null) {
+      resources = new ArrayList<LocalTxResource>(2);
+    }
+    if (resources.contains(pResource) == false) {
+      this.startTransaction();
+      try {
+        pResource.begin();
+      }
+      catch (Exception e) {
+        txRollbackRequired = true;
+        throw new JEAFSystemException(ServiceChannelMessages.RESOURCE_ENLISTMENT_FAILED, e, pResource.toString());
+      }
+      resources.add(pResource);
+    }
+  }
+
+  /**
+   * Method completes the transaction represented by this transaction context. If the transaction is marked for roll
+   * back then all enlisted resources will be rolled back. Otherwise they will be committed using the last resource
+   * optimization (see {@link LocalTxCoordinator}).
+   * 
+   * @param pStatistics Statistics to which the outcome of the transaction is reported. The parameter must not be null.
+   * @throws JEAFSystemException In case that the transaction could not be committed.
+   */
+  void completeTransaction( LocalTxStatistics pStatistics ) throws JEAFSystemException {
+    // Check parameter.
+    Assert.assertNotNull(pStatistics, "pStatistics");
+
+    List<LocalTxResource> lResources = resources;
+    if (lResources != null && lResources.isEmpty() == false) {
+      resources = null;
+      if (txRollbackRequired == true) {
+        this.rollbackResources(lResources);
+        pStatistics.transactionRolledBack();
+      }
+      else {
+        this.commitResources(lResources, pStatistics);
+      }
+    }
+  }
+
+  /**
+   * Method commits all passed resources using the last resource optimization.
+   * 
+   * @param pResources Resources that should be committed. The parameter must not be null and must not be empty.
+   * @param pStatistics Statistics to which the outcome of the transaction is reported. The parameter must not be null.
+   * @throws JEAFSystemException In case that the transaction could not be committed.
+   */
+  private void commitResources( List<LocalTxResource> pResources, LocalTxStatistics pStatistics )
+    throws JEAFSystemException {
+
+    long lStartTime = System.nanoTime();
+    int lLastIndex = pResources.size() - 1;
+    LocalTxResource lCurrentResource = null;
+    try {
+      // Prepare all resources except the last one.
+      for (int i = 0; i < lLastIndex; i++) {
+        lCurrentResource = pResources.get(i);
+        lCurrentResource.prepare();
+      }
+
+      // Commit of the last resource decides about the outcome of the whole transaction.
+      lCurrentResource = pResources.get(lLastIndex);
+      lCurrentResource.commit();
+    }
+    catch (Exception e) {
+      txRollbackRequired = true;
+      this.rollbackResources(pResources);
+      pStatistics.commitFailed();
+      throw new JEAFSystemException(ServiceChannelMessages.RESOURCE_COMMIT_FAILED, e, lCurrentResource.toString());
+    }
+
+    // Commit all other resources. As the last resource is already committed failures can not be undone any longer.
+    Exception lHeuristicException = null;
+    LocalTxResource lHeuristicResource = null;
+    for (int i = 0; i < lLastIndex; i++) {
+      lCurrentResource = pResources.get(i);
+      try {
+        lCurrentResource.commit();
+      }
+      catch (Exception e) {
+        XFun.getTrace().error(ServiceChannelMessages.HEURISTIC_TX_OUTCOME, e,
+            new String[] { lCurrentResource.toString() });
+        if (lHeuristicException == null) {
+          lHeuristicException = e;
+          lHeuristicResource = lCurrentResource;
+        }
+      }
+    }
+    if (lHeuristicException == null) {
+      pStatistics.transactionCommitted(System.nanoTime() - lStartTime);
+    }
+    else {
+      pStatistics.heuristicOutcome();
+      throw new JEAFSystemException(ServiceChannelMessages.HEURISTIC_TX_OUTCOME, lHeuristicException,
+          lHeuristicResource.toString());
+    }
+  }
+
+  /**
+   * Method rolls back all passed resources in reverse order of their enlistment. Failures are traced but do not stop
+   * the roll back of the other resources.
+   * 
+   * @param pResources Resources that should be rolled back. The parameter must not be null.
+   */
+  private void rollbackResources( List<LocalTxResource> pResources ) {
+    for (int i = pResources.size() - 1; i >= 0; i--) {
+      LocalTxResource lResource = pResources.get(i);
+      try {
+        lResource.rollback();
+      }
+      catch (Exception e) {
+        XFun.getTrace().error(ServiceChannelMessages.RESOURCE_ROLLBACK_FAILED, e,
+            new String[] { lResource.toString() });
+      }
+    }
+  }
 }
@@ -13,6 +13,7 @@ import javax.transaction.UserTransaction;
 
 import com.anaptecs.jeaf.core.servicechannel.api.ServiceChannel;
 import com.anaptecs.jeaf.core.servicechannel.base.GenericLifecycleManager;
+import com.anaptecs.jeaf.core.servicechannel.jpa.JPATxContext;
 
 /**
  * This class implements a JEAF life cycle manager that is intended to be used when JEAF is running inside an EJB
@@ -34,6 +35,31 @@ public final class EJBLifecycleManager extends GenericLifecycleManager {
     // Nothing to do.
   }
 
+  /**
+   * Method overrides implementation of base class in order to resolve the entity manager factories of all components
+   * already during startup. This way service calls never have to wait for JNDI lookups.
+   */
+  @Override
+  public synchronized void performStartup( ) {
+    // Call implementation of base class.
+    super.performStartup();
+
+    // Resolve entity manager factories of all persistence units.
+    EntityManagerFactoryResolver.resolveEntityManagerFactories(this.getComponents());
+  }
+
+  /**
+   * Method overrides implementation of base class in order to close all entity managers that are kept for reuse by the
+   * threads of the EJB container. Otherwise they would stay open after the application was undeployed.
+   */
+  @Override
+  public void performShutdown( ) {
+    // Call implementation of base class.
+    super.performShutdown();
+
+    JPATxContext.closeIdleEntityManagers();
+  }
+
   /**
    * Method creates a new instance of the service channel that should be used in the specific runtime environment for
    * which a concrete life cycle manager implementation is designed for.
@@ -0,0 +1,144 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.ejb.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.persistence.EntityManagerFactory;
+
+import com.anaptecs.jeaf.core.api.Component;
+import com.anaptecs.jeaf.core.api.MessageConstants;
+import com.anaptecs.jeaf.core.servicechannel.jpa.JPATxContext;
+import com.anaptecs.jeaf.core.spi.ComponentImplementation;
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFSystemException;
+
+/**
+ * Class resolves the entity manager factories of all persistence units from JNDI and registers them at
+ * {@link JPATxContext}. All factories are resolved during the startup of the lifecycle manager so that
+ * service calls do not have to perform any JNDI lookups. Only persistence units whose factory could not be resolved
+ * during startup are looked up again when they are used for the first time.
+ *
+ * @author JEAF Development Team
+ */
+final class EntityManagerFactoryResolver {
+  /**
+   * Class holds the JNDI root path of all entity manager factories. The EJB container configuration is only read once
+   * when it is required for the first time.
+   */
+  private static final class ConfigurationHolder {
+    /**
+     * JNDI root path of all entity manager factories. The value may be null.
+     */
+    static final String ENTITY_MANAGER_JNDI_ROOT_PATH = new EJBContainerConfiguration().getEntityManagerJNDIRootPath();
+  }
+
+  /**
+   * Constructor is private as this is a utility class.
+   */
+  private EntityManagerFactoryResolver( ) {
+    // Nothing to do.
+  }
+
+  /**
+   * Method returns the entity manager factory of the passed persistence unit. If the factory was not resolved before
+   * then it will be looked up from JNDI.
+   *
+   * @param pPersistenceUnitName Name of the persistence unit. The parameter must not be null.
+   * @return {@link EntityManagerFactory} Entity manager factory of the persistence unit. The method never returns null.
+   */
+  static EntityManagerFactory getEntityManagerFactory( String pPersistenceUnitName ) {
+    // Check parameter.
+    Assert.assertNotNull(pPersistenceUnitName, "pPersistenceUnitName");
+
+    EntityManagerFactory lFactory = JPATxContext.getCachedEntityManagerFactory(pPersistenceUnitName);
+    if (lFactory == null) {
+      lFactory = lookupEntityManagerFactory(pPersistenceUnitName);
+      JPATxContext.registerEntityManagerFactories(Collections.singletonMap(pPersistenceUnitName, lFactory));
+    }
+    return lFactory;
+  }
+
+  /**
+   * Method resolves the entity manager factories of all persistence units of the passed components. All lookups are
+   * done within the current thread as application servers only provide a naming context to their own threads.
+   * Persistence units that can not be resolved are reported but do not cause the startup to fail. They will be looked
+   * up again when they are used for the first time.
+   *
+   * @param pComponents Components whose persistence units should be resolved. The parameter must not be null.
+   */
+  static void resolveEntityManagerFactories( Collection<Component> pComponents ) {
+    // Check parameter.
+    Assert.assertNotNull(pComponents, "pComponents");
+
+    // Determine all persistence units that are not resolved yet. All persistence units get their index right now.
+    Set<String> lPersistenceUnitNames = new LinkedHashSet<String>();
+    for (Component lNextComponent : pComponents) {
+      ComponentImplementation lComponent = (ComponentImplementation) lNextComponent;
+      if (lComponent.hasPersistenceUnit() == true) {
+        String lPersistenceUnitName = lComponent.getPersistenceUnitName();
+        JPATxContext.getPersistenceUnitIndex(lPersistenceUnitName);
+        if (JPATxContext.getCachedEntityManagerFactory(lPersistenceUnitName) == null) {
+          lPersistenceUnitNames.add(lPersistenceUnitName);
+        }
+      }
+    }
+
+    // Lookup all factories within the current thread as JNDI lookups in java:comp require a thread that is managed by
+    // the EJB container.
+    Map<String, EntityManagerFactory> lFactories = new HashMap<String, EntityManagerFactory>();
+    for (String lNextPersistenceUnitName : lPersistenceUnitNames) {
+      try {
+        lFactories.put(lNextPersistenceUnitName, lookupEntityManagerFactory(lNextPersistenceUnitName));
+      }
+      catch (RuntimeException e) {
+        XFun.getTrace().error(e.getMessage(), e);
+      }
+    }
+    JPATxContext.registerEntityManagerFactories(lFactories);
+  }
+
+  /**
+   * Method looks up the entity manager factory of the passed persistence unit from JNDI.
+   *
+   * @param pPersistenceUnitName Name of the persistence unit. The parameter must not be null.
+   * @return {@link EntityManagerFactory} Entity manager factory of the persistence unit. The method never returns null.
+   * @throws JEAFSystemException If the entity manager factory could not be found.
+   */
+  private static EntityManagerFactory lookupEntityManagerFactory( String pPersistenceUnitName ) {
+    // Get JNDI name of entity manager factory.
+    String lEntityManagerJNDIRootPath = ConfigurationHolder.ENTITY_MANAGER_JNDI_ROOT_PATH;
+    String lEntityManagerJNDI;
+    if (lEntityManagerJNDIRootPath != null) {
+      lEntityManagerJNDI = lEntityManagerJNDIRootPath + "/" + pPersistenceUnitName;
+    }
+    else {
+      lEntityManagerJNDI = pPersistenceUnitName;
+    }
+
+    // Use JNDI lookup to find entity manager factory
+    try {
+      XFun.getTrace().write(MessageConstants.LOOKING_UP_ENTITY_MANAGER, new String[] { lEntityManagerJNDI });
+
+      // Create new initial context for JNDI lookups.
+      InitialContext lInitialContext = new InitialContext();
+      // Lookup entity manager and return it.
+      return (EntityManagerFactory) lInitialContext.lookup(lEntityManagerJNDI);
+    }
+    // Catch Naming exception if the entity manager factory could not be found.
+    catch (NamingException e) {
+      throw new JEAFSystemException(MessageConstants.LOOKUP_FOR_ENTITY_MANAGER_FAILED, e, lEntityManagerJNDI);
+    }
+  }
+}
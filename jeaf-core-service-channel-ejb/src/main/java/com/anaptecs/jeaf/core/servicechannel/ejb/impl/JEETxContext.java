@@ -6,18 +6,13 @@
 package com.anaptecs.jeaf.core.servicechannel.ejb.impl;
 
 import javax.ejb.SessionContext;
-import javax.naming.InitialContext;
-import javax.naming.NamingException;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 
 import com.anaptecs.jeaf.core.api.Component;
-import com.anaptecs.jeaf.core.api.MessageConstants;
 import com.anaptecs.jeaf.core.servicechannel.jpa.JPATxContext;
 import com.anaptecs.jeaf.core.spi.ComponentImplementation;
-import com.anaptecs.jeaf.xfun.api.XFun;
 import com.anaptecs.jeaf.xfun.api.checks.Assert;
-import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFSystemException;
 
 /**
  * Class provides an JPA Transaction Context implementation for the use within JEE environments.
@@ -72,8 +67,21 @@ public final class JEETxContext extends JPATxContext {
   }
 
   /**
-   * Method performs a lookup for the entity manager factory for the passed component. This method is based on the
-   * design that every JEAF Component may have its own entity manager.
+   * Method lets the passed entity manager that was used by a previous transaction of the current thread join the
+   * current JTA transaction.
+   * 
+   * @param pEntityManager Reused entity manager. The parameter is never null.
+   * 
+   * @see JPATxContext#prepareReusedEntityManager(EntityManager)
+   */
+  @Override
+  protected void prepareReusedEntityManager( EntityManager pEntityManager ) {
+    pEntityManager.joinTransaction();
+  }
+
+  /**
+   * Method returns the entity manager factory for the passed component. Factories are resolved during the startup of
+   * the lifecycle manager so that usually no JNDI lookup is required (see {@link EntityManagerFactoryResolver}).
    * 
    * @param pComponent Component whose entity manager should be returned by this method. The parameter is never null.
    * @return {@link EntityManagerFactory} Entity manager factory for the passed component. The method must not return
@@ -83,43 +91,7 @@ public final class JEETxContext extends JPATxContext {
     // Check parameter for null.
     Assert.assertNotNull(pComponent, "pComponent");
 
-    // Try to get cached factory or create it if it does not exist yet.
-    final String lPersistenceUnitName = pComponent.getPersistenceUnitName();
-    EntityManagerFactory lFactory = JPATxContext.getCachedEntityManagerFactory(lPersistenceUnitName);
-
-    // Factory was not yet used.
-    if (lFactory == null) {
-      // Get JNDI name of entity manager factory.
-      EJBContainerConfiguration lConfiguration = new EJBContainerConfiguration();
-      String lEntityManagerJNDIRootPath = lConfiguration.getEntityManagerJNDIRootPath();
-      String lEntityManagerJNDI;
-      if (lEntityManagerJNDIRootPath != null) {
-        lEntityManagerJNDI = lEntityManagerJNDIRootPath + "/" + pComponent.getPersistenceUnitName();
-      }
-      else {
-        lEntityManagerJNDI = pComponent.getPersistenceUnitName();
-      }
-
-      // Use JNDI lookup to find entity manager factory
-      try {
-        XFun.getTrace().write(MessageConstants.LOOKING_UP_ENTITY_MANAGER, new String[] { lEntityManagerJNDI });
-
-        // Create new initial context for JNDI lookups.
-        InitialContext lInitialContext = new InitialContext();
-        // Lookup entity manager and return it.
-        lFactory = (EntityManagerFactory) lInitialContext.lookup(lEntityManagerJNDI);
-      }
-      // Catch Naming exception if the entity manager factory could not be found.
-      catch (NamingException e) {
-        throw new JEAFSystemException(MessageConstants.LOOKUP_FOR_ENTITY_MANAGER_FAILED, e, lEntityManagerJNDI);
-      }
-
-      // Add factory to static map with all factories.
-      this.registerEntityManagerFactory(lPersistenceUnitName, lFactory);
-    }
-
-    // Return entity manager factory.
-    return lFactory;
+    return EntityManagerFactoryResolver.getEntityManagerFactory(pComponent.getPersistenceUnitName());
   }
 
   /**
@@ -6,11 +6,18 @@
 package com.anaptecs.jeaf.core.servicechannel.ejb.impl;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import javax.ejb.SessionBean;
 import javax.ejb.SessionContext;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
 
 import com.anaptecs.jeaf.core.api.Component;
 import com.anaptecs.jeaf.core.api.MessageConstants;
@@ -21,7 +28,9 @@ import com.anaptecs.jeaf.core.servicechannel.JEAFCore;
 import com.anaptecs.jeaf.core.servicechannel.api.Command;
 import com.anaptecs.jeaf.core.servicechannel.api.ServiceChannel;
 import com.anaptecs.jeaf.core.servicechannel.base.AbstractServiceChannel;
+import com.anaptecs.jeaf.core.servicechannel.base.CommandBatch;
 import com.anaptecs.jeaf.core.servicechannel.base.SecurityConfiguration;
+import com.anaptecs.jeaf.core.servicechannel.base.TxCompletionCallback;
 import com.anaptecs.jeaf.core.servicechannel.ejb.api.EJBSystemException;
 import com.anaptecs.jeaf.core.spi.TransactionBehavior;
 import com.anaptecs.jeaf.xfun.api.XFun;
@@ -44,6 +53,11 @@ public class ServiceChannelEJBBean extends AbstractServiceChannel implements Ses
    */
   private static final long serialVersionUID = 1L;
 
+  /**
+   * Constant for the JNDI name of the transaction synchronization registry as defined by the JEE standard.
+   */
+  public static final String TX_SYNCHRONIZATION_REGISTRY_JNDI_NAME = "java:comp/TransactionSynchronizationRegistry";
+
   /**
    * Reference to session context that can be used to communicate with the EJB container, mainly for transaction
    * management. The reference will be set right before the call of a business method.
@@ -61,6 +75,11 @@ public class ServiceChannelEJBBean extends AbstractServiceChannel implements Ses
    */
   private Set<Class<? extends Service>> exportedServices = new HashSet<>();
 
+  /**
+   * Transaction synchronization registry of the EJB container. The reference will be resolved on first use.
+   */
+  private transient TransactionSynchronizationRegistry txSynchronizationRegistry;
+
   /**
    * Initialize object. Currently no actions are performed.
    */
@@ -161,6 +180,18 @@ public class ServiceChannelEJBBean extends AbstractServiceChannel implements Ses
         pSessionContext);
   }
 
+  /**
+   * Method checks whether this service channel is able to execute service calls within worker threads. As worker
+   * threads are not managed by the EJB container they would run outside of its security and transaction context.
+   * Therefore asynchronous service calls are not supported by the EJB service channel.
+   * 
+   * @return boolean The method always returns false.
+   */
+  @Override
+  protected boolean isAsyncExecutionSupported( ) {
+    return false;
+  }
+
   /**
    * Method executes the passed command. Which actions are performed in detail depends on the service channel
    * implementation. The command may be executed within the same VM (J2SE environments) or on some remote host (J2EE
@@ -366,14 +397,78 @@ public class ServiceChannelEJBBean extends AbstractServiceChannel implements Ses
    * Method will be called whenever a previously created transaction context is about to be released. This means
    * depending on the transactions state that is will either be committed or rolled back (see
    * <code>TxContext.getRollbackOnly()</code>). Due to the fact that in this environment the transaction handling is
-   * provided by the application server namely the ejb container nothing has to be done within this method.
+   * provided by the application server namely the ejb container only the entity managers that were used within the
+   * transaction have to be released.
    * 
    * @param pTxContext Transaction context that will be release. The parameter is never null.
    */
   @Override
   protected void releasingTxContext( TxContext pTxContext ) {
-    // Due to the fact that in this environment the transaction handling is provided by the application server namely
-    // the ejb container nothing has to be done within this method.
+    // Commit or rollback is done by the ejb container. We only have to take care about the used entity managers.
+    ((JEETxContext) pTxContext).releaseEntityManagers();
+  }
+
+  /**
+   * Method overrides the implementation of the base class as transactions are committed or rolled back by the EJB
+   * container after the service call returned. Thus the passed callback is registered at the transaction of the
+   * container and called once it was completed. If there is no active transaction or if the transaction
+   * synchronization registry is not available then the callback will be called immediately.
+   * 
+   * The method is only called if {@link com.anaptecs.jeaf.core.servicechannel.base.TransactionCompletionListener}s
+   * like {@link com.anaptecs.jeaf.core.servicechannel.cache.ResultCacheTransactionListener} are configured. All other
+   * transaction listeners are still notified before the transaction context is released.
+   * 
+   * @param pTxContext Transaction context that was released. The parameter is never null.
+   * @param pCallback Callback that has to be called exactly once after the transaction was completed. The parameter is
+   * never null.
+   */
+  @Override
+  protected void afterCompletion( TxContext pTxContext, final TxCompletionCallback pCallback ) {
+    TransactionSynchronizationRegistry lRegistry = this.getTxSynchronizationRegistry();
+    int lStatus;
+    if (lRegistry != null) {
+      lStatus = lRegistry.getTransactionStatus();
+    }
+    else {
+      lStatus = Status.STATUS_NO_TRANSACTION;
+    }
+
+    // Callback can only be registered while the transaction of the container is still in progress.
+    if (lStatus == Status.STATUS_ACTIVE || lStatus == Status.STATUS_MARKED_ROLLBACK) {
+      lRegistry.registerInterposedSynchronization(new Synchronization() {
+        @Override
+        public void beforeCompletion( ) {
+          // Nothing to do.
+        }
+
+        @Override
+        public void afterCompletion( int pStatus ) {
+          pCallback.completed(pStatus == Status.STATUS_COMMITTED);
+        }
+      });
+    }
+    else {
+      super.afterCompletion(pTxContext, pCallback);
+    }
+  }
+
+  /**
+   * Method returns the transaction synchronization registry of the EJB container.
+   * 
+   * @return {@link TransactionSynchronizationRegistry} Registry of the EJB container. The method returns null if the
+   * registry could not be resolved.
+   */
+  private TransactionSynchronizationRegistry getTxSynchronizationRegistry( ) {
+    if (txSynchronizationRegistry == null) {
+      try {
+        txSynchronizationRegistry =
+            (TransactionSynchronizationRegistry) new InitialContext().lookup(TX_SYNCHRONIZATION_REGISTRY_JNDI_NAME);
+      }
+      catch (NamingException e) {
+        XFun.getTrace().error(e.getMessage(), e);
+      }
+    }
+    return txSynchronizationRegistry;
   }
 
   /**
@@ -399,11 +494,21 @@ public class ServiceChannelEJBBean extends AbstractServiceChannel implements Ses
       String lThisApplicationID = XFun.getInfoProvider().getApplicationInfo().getApplicationID();
       String lCallingApplicationID = pCommand.getInvokingApplication().getApplicationID();
       if (lThisApplicationID.equals(lCallingApplicationID) == false) {
-        // Check if called service is in whitelist.
-        Class<? extends Service> lTargetServiceClass = pCommand.getTargetServiceClass();
-        if (exportedServices.contains(lTargetServiceClass) == false) {
-          ErrorCode lErrorCode = MessageConstants.SERVICE_NOT_EXPORTED;
-          throw new EJBSystemException(lErrorCode, new String[] { lTargetServiceClass.getName() });
+        // In case of a command batch all contained commands have to be checked.
+        List<Command> lCommands;
+        if (pCommand instanceof CommandBatch) {
+          lCommands = ((CommandBatch) pCommand).getCommands();
+        }
+        else {
+          lCommands = Collections.singletonList(pCommand);
+        }
+        // Check if called services are in whitelist.
+        for (Command lCommand : lCommands) {
+          Class<? extends Service> lTargetServiceClass = lCommand.getTargetServiceClass();
+          if (exportedServices.contains(lTargetServiceClass) == false) {
+            ErrorCode lErrorCode = MessageConstants.SERVICE_NOT_EXPORTED;
+            throw new EJBSystemException(lErrorCode, new String[] { lTargetServiceClass.getName() });
+          }
         }
       }
     }
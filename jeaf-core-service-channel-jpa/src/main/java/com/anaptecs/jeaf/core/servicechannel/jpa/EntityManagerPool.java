@@ -0,0 +1,171 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.jpa;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.persistence.EntityManager;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+
+/**
+ * Class keeps at most one idle entity manager per persistence unit and thread so that it can be reused by the next
+ * transaction context of the same thread. Entity managers are cleared before they are returned to the pool so that no
+ * first level cache survives its transaction.
+ *
+ * As pooled entity managers are bound to their thread the pool should only be used with a limited number of threads
+ * like a pool of worker threads of an application server. When JEAF is shut down all idle entity managers have to be
+ * closed (see {@link #closeIdleEntityManagers()}). Otherwise they would stay open as long as the threads exist, which
+ * in case of container managed threads also keeps the classloader of the application alive.
+ *
+ * @author JEAF Development Team
+ */
+final class EntityManagerPool {
+  /**
+   * Idle entity managers of the current thread. The map is indexed by the name of the persistence unit. As idle entity
+   * managers are closed by the thread that shuts down JEAF the map has to be thread safe.
+   */
+  private static final ThreadLocal<ConcurrentMap<String, EntityManager>> IDLE_ENTITY_MANAGERS =
+      new ThreadLocal<ConcurrentMap<String, EntityManager>>();
+
+  /**
+   * Idle entity managers of all threads. Threads are only weakly referenced so that the pool does not prevent them from
+   * being garbage collected.
+   */
+  private static final Map<Thread, ConcurrentMap<String, EntityManager>> ALL_IDLE_ENTITY_MANAGERS =
+      new WeakHashMap<Thread, ConcurrentMap<String, EntityManager>>();
+
+  /**
+   * Attribute defines whether the pool is closed. Entity managers that are released afterwards will not be pooled
+   * anymore.
+   */
+  private static volatile boolean closed = false;
+
+  /**
+   * Constructor is private as this is a utility class.
+   */
+  private EntityManagerPool( ) {
+    // Nothing to do.
+  }
+
+  /**
+   * Method takes the idle entity manager of the passed persistence unit from the pool of the current thread.
+   *
+   * @param pPersistenceUnitName Name of the persistence unit. The parameter must not be null.
+   * @return {@link EntityManager} Idle entity manager or null if the pool does not contain a usable one.
+   */
+  static EntityManager acquire( String pPersistenceUnitName ) {
+    // Check parameter.
+    Assert.assertNotNull(pPersistenceUnitName, "pPersistenceUnitName");
+
+    EntityManager lEntityManager;
+    Map<String, EntityManager> lIdleEntityManagers = IDLE_ENTITY_MANAGERS.get();
+    if (lIdleEntityManagers != null) {
+      lEntityManager = lIdleEntityManagers.remove(pPersistenceUnitName);
+      if (lEntityManager != null && lEntityManager.isOpen() == false) {
+        lEntityManager = null;
+      }
+    }
+    else {
+      lEntityManager = null;
+    }
+    return lEntityManager;
+  }
+
+  /**
+   * Method returns the passed entity manager to the pool of the current thread.
+   *
+   * @param pPersistenceUnitName Name of the persistence unit to which the entity manager belongs. The parameter must
+   * not be null.
+   * @param pEntityManager Entity manager that should be returned. The parameter must not be null.
+   * @return boolean Method returns true if the entity manager was added to the pool and false if the pool already
+   * contains an idle entity manager for the persistence unit or if the pool is closed. In this case the caller has to
+   * close it.
+   */
+  static boolean release( String pPersistenceUnitName, EntityManager pEntityManager ) {
+    // Check parameters.
+    Assert.assertNotNull(pPersistenceUnitName, "pPersistenceUnitName");
+    Assert.assertNotNull(pEntityManager, "pEntityManager");
+
+    boolean lAdded;
+    if (closed == false) {
+      ConcurrentMap<String, EntityManager> lIdleEntityManagers = EntityManagerPool.getIdleEntityManagers();
+      lAdded = lIdleEntityManagers.putIfAbsent(pPersistenceUnitName, pEntityManager) == null;
+
+      // Pool was closed concurrently. In this case the entity manager must not stay in the pool.
+      if (lAdded == true && closed == true) {
+        lAdded = lIdleEntityManagers.remove(pPersistenceUnitName, pEntityManager) == false;
+      }
+    }
+    else {
+      lAdded = false;
+    }
+    return lAdded;
+  }
+
+  /**
+   * Method returns the idle entity managers of the current thread. If the thread does not have any yet then they will
+   * be created.
+   *
+   * @return {@link ConcurrentMap} Idle entity managers of the current thread. The method never returns null.
+   */
+  private static ConcurrentMap<String, EntityManager> getIdleEntityManagers( ) {
+    ConcurrentMap<String, EntityManager> lIdleEntityManagers = IDLE_ENTITY_MANAGERS.get();
+    if (lIdleEntityManagers == null) {
+      lIdleEntityManagers = new ConcurrentHashMap<String, EntityManager>(4);
+      IDLE_ENTITY_MANAGERS.set(lIdleEntityManagers);
+      synchronized (ALL_IDLE_ENTITY_MANAGERS) {
+        ALL_IDLE_ENTITY_MANAGERS.put(Thread.currentThread(), lIdleEntityManagers);
+      }
+    }
+    return lIdleEntityManagers;
+  }
+
+  /**
+   * Method closes the pool. All idle entity managers of all threads will be closed and entity managers that are
+   * released afterwards will not be pooled anymore. The method has to be called when JEAF is shut down.
+   *
+   * @param pStatistics Statistics to which the closed entity managers are reported. The parameter must not be null.
+   */
+  static void closeIdleEntityManagers( EntityManagerStatistics pStatistics ) {
+    // Check parameter.
+    Assert.assertNotNull(pStatistics, "pStatistics");
+
+    closed = true;
+    List<ConcurrentMap<String, EntityManager>> lAllIdleEntityManagers;
+    synchronized (ALL_IDLE_ENTITY_MANAGERS) {
+      lAllIdleEntityManagers = new ArrayList<ConcurrentMap<String, EntityManager>>(ALL_IDLE_ENTITY_MANAGERS.values());
+      ALL_IDLE_ENTITY_MANAGERS.clear();
+    }
+
+    // Entity managers are removed one by one so that a concurrent acquire of its thread can not get the same one.
+    for (ConcurrentMap<String, EntityManager> lIdleEntityManagers : lAllIdleEntityManagers) {
+      Collection<String> lPersistenceUnitNames = new ArrayList<String>(lIdleEntityManagers.keySet());
+      for (String lPersistenceUnitName : lPersistenceUnitNames) {
+        EntityManager lEntityManager = lIdleEntityManagers.remove(lPersistenceUnitName);
+        if (lEntityManager != null) {
+          try {
+            if (lEntityManager.isOpen() == true) {
+              lEntityManager.close();
+            }
+            pStatistics.entityManagerClosed();
+          }
+          catch (RuntimeException e) {
+            pStatistics.entityManagerCloseFailed();
+            XFun.getTrace().error("Unable to close entity manager of persistence unit " + lPersistenceUnitName, e);
+          }
+        }
+      }
+    }
+  }
+}
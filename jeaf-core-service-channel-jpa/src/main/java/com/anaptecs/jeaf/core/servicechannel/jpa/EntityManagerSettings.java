@@ -0,0 +1,218 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.jpa;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.persistence.EntityManager;
+import javax.persistence.FlushModeType;
+
+import com.anaptecs.jeaf.xfun.api.checks.Assert;
+
+/**
+ * Class contains the performance settings that are applied to every entity manager of a persistence unit when it is
+ * used within a transaction context for the first time. Settings are defined as properties of the persistence unit
+ * within <code>persistence.xml</code>, e.g.
+ * <code>&lt;property name="jeaf.core.jpa.flushMode" value="COMMIT"/&gt;</code>.
+ * They are read from the properties of the entity manager factory when the persistence unit is used for the first time
+ * (see {@link javax.persistence.EntityManagerFactory#getProperties()}). This way every persistence unit keeps its
+ * settings together with all other properties that affect its performance.
+ *
+ * Transactions that are marked as read only (see {@link JPATxContext#markReadOnly()}) always use flush mode
+ * {@link FlushModeType#COMMIT}. Their changes are never written to the database as entity managers are cleared before
+ * they are released. As JPA does not define a standard hint for read only entity managers, the name of a provider
+ * specific hint can be configured, e.g. <code>jeaf.core.jpa.readOnlyHint=org.hibernate.readOnly</code>. It is passed to
+ * entity managers of read only transactions so that the persistence provider does not have to perform dirty checking.
+ *
+ * There is no setting for the JDBC batch size. JPA does not define a hint for it and persistence providers only read it
+ * when the entity manager factory is created. Entity managers ignore it if it is passed to them, e.g. Hibernate only
+ * accepts a fixed set of entity manager properties. The batch size therefore has to be defined as property of the
+ * persistence unit next to the settings of this class, e.g. <code>hibernate.jdbc.batch_size</code> or
+ * <code>eclipselink.jdbc.batch-writing.size</code>.
+ *
+ * Instances of this class are immutable.
+ *
+ * @author JEAF Development Team
+ */
+public final class EntityManagerSettings {
+  /**
+   * Name of the persistence unit property that defines the flush mode of a persistence unit.
+   */
+  public static final String FLUSH_MODE = "jeaf.core.jpa.flushMode";
+
+  /**
+   * Name of the persistence unit property that defines whether all transactions of a persistence unit are read only.
+   */
+  public static final String READ_ONLY = "jeaf.core.jpa.readOnly";
+
+  /**
+   * Name of the persistence unit property that defines the name of the provider specific entity manager property that
+   * is used as hint for read only transactions.
+   */
+  public static final String READ_ONLY_HINT = "jeaf.core.jpa.readOnlyHint";
+
+  /**
+   * Map contains the settings of all persistence units that were already used.
+   */
+  private static final ConcurrentMap<String, EntityManagerSettings> SETTINGS =
+      new ConcurrentHashMap<String, EntityManagerSettings>();
+
+  /**
+   * Flush mode that is used by entity managers of the persistence unit.
+   */
+  private final FlushModeType flushMode;
+
+  /**
+   * Name of the entity manager property that is used as read only hint. The reference is null if no hint is passed.
+   */
+  private final String readOnlyHint;
+
+  /**
+   * Attribute defines whether all transactions of the persistence unit are read only.
+   */
+  private final boolean readOnly;
+
+  /**
+   * Initialize object.
+   *
+   * @param pFlushMode Flush mode of the persistence unit. The parameter must not be null.
+   * @param pReadOnly Parameter defines whether all transactions are read only.
+   * @param pReadOnlyHint Name of the entity manager property that is used as read only hint. The parameter may be null.
+   */
+  private EntityManagerSettings( FlushModeType pFlushMode, boolean pReadOnly, String pReadOnlyHint ) {
+    flushMode = pFlushMode;
+    readOnly = pReadOnly;
+    readOnlyHint = pReadOnlyHint;
+  }
+
+  /**
+   * Method returns the settings of the persistence unit with the passed name. If the persistence unit was not used
+   * before then its settings are read from the properties of the entity manager factory of the passed entity manager.
+   *
+   * @param pPersistenceUnitName Name of the persistence unit. The parameter must not be null.
+   * @param pEntityManager Entity manager of the persistence unit. The parameter must not be null.
+   * @return {@link EntityManagerSettings} Settings of the persistence unit. The method never returns null.
+   */
+  public static EntityManagerSettings getSettings( String pPersistenceUnitName, EntityManager pEntityManager ) {
+    // Check parameters.
+    Assert.assertNotNull(pPersistenceUnitName, "pPersistenceUnitName");
+    Assert.assertNotNull(pEntityManager, "pEntityManager");
+
+    EntityManagerSettings lSettings = SETTINGS.get(pPersistenceUnitName);
+    if (lSettings == null) {
+      lSettings = loadSettings(pEntityManager.getEntityManagerFactory().getProperties());
+      SETTINGS.putIfAbsent(pPersistenceUnitName, lSettings);
+    }
+    return lSettings;
+  }
+
+  /**
+   * Method reads the settings from the passed properties of a persistence unit.
+   *
+   * @param pProperties Properties of the persistence unit. The parameter must not be null.
+   * @return {@link EntityManagerSettings} Settings of the persistence unit. The method never returns null.
+   */
+  private static EntityManagerSettings loadSettings( Map<String, Object> pProperties ) {
+    String lFlushMode = getProperty(pProperties, FLUSH_MODE);
+    String lReadOnly = getProperty(pProperties, READ_ONLY);
+    FlushModeType lFlushModeType;
+    if (lFlushMode != null) {
+      lFlushModeType = FlushModeType.valueOf(lFlushMode);
+    }
+    else {
+      lFlushModeType = FlushModeType.AUTO;
+    }
+    return new EntityManagerSettings(lFlushModeType, Boolean.parseBoolean(lReadOnly),
+        getProperty(pProperties, READ_ONLY_HINT));
+  }
+
+  /**
+   * Method returns the value of the passed property of a persistence unit.
+   *
+   * @param pProperties Properties of the persistence unit. The parameter must not be null.
+   * @param pName Name of the property. The parameter must not be null.
+   * @return String Trimmed value of the property. The method returns null if the property is not set or empty.
+   */
+  private static String getProperty( Map<String, Object> pProperties, String pName ) {
+    Object lValue = pProperties.get(pName);
+    String lProperty;
+    if (lValue != null && lValue.toString().trim().isEmpty() == false) {
+      lProperty = lValue.toString().trim();
+    }
+    else {
+      lProperty = null;
+    }
+    return lProperty;
+  }
+
+  /**
+   * Method returns the flush mode that is used by entity managers of the persistence unit.
+   *
+   * @return {@link FlushModeType} Flush mode of the persistence unit. The method never returns null. By default
+   * {@link FlushModeType#AUTO} is used.
+   */
+  public FlushModeType getFlushMode( ) {
+    return flushMode;
+  }
+
+  /**
+   * Method returns the name of the provider specific entity manager property that is used as read only hint.
+   *
+   * @return String Name of the read only hint. The method returns null if no hint is passed which is also the default.
+   */
+  public String getReadOnlyHint( ) {
+    return readOnlyHint;
+  }
+
+  /**
+   * Method checks whether all transactions of the persistence unit are read only.
+   *
+   * @return boolean Method returns true if all transactions are read only and false otherwise. By default transactions
+   * are not read only.
+   */
+  public boolean isReadOnly( ) {
+    return readOnly;
+  }
+
+  /**
+   * Method applies these settings to the passed entity manager. As entity managers may be reused all settings are
+   * applied even if they have their default value.
+   *
+   * @param pEntityManager Entity manager to which the settings should be applied. The parameter must not be null.
+   * @param pReadOnlyTransaction Parameter defines whether the current transaction is marked as read only.
+   */
+  void applyTo( EntityManager pEntityManager, boolean pReadOnlyTransaction ) {
+    // Check parameter.
+    Assert.assertNotNull(pEntityManager, "pEntityManager");
+
+    boolean lReadOnly = readOnly == true || pReadOnlyTransaction == true;
+    if (lReadOnly == true) {
+      pEntityManager.setFlushMode(FlushModeType.COMMIT);
+    }
+    else {
+      pEntityManager.setFlushMode(flushMode);
+    }
+    if (readOnlyHint != null) {
+      pEntityManager.setProperty(readOnlyHint, lReadOnly);
+    }
+  }
+
+  /**
+   * Method returns a String representation of this object.
+   *
+   * @return String String representation of all settings. The method never returns null.
+   */
+  @Override
+  public String toString( ) {
+    StringBuilder lBuilder = new StringBuilder();
+    lBuilder.append("Flush mode: ").append(flushMode);
+    lBuilder.append(", read only: ").append(readOnly);
+    lBuilder.append(", read only hint: ").append(readOnlyHint);
+    return lBuilder.toString();
+  }
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.jpa;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class collects statistical information about the lifecycle of all entity managers that are used by
+ * {@link JPATxContext}. Entity managers that could not be closed are counted as failed closes. Entity managers that
+ * are idle in the pool of a thread are still counted as open until they are reused or closed when JEAF is shut down.
+ *
+ * Instances of this class are thread safe.
+ *
+ * @author JEAF Development Team
+ */
+public final class EntityManagerStatistics {
+  /**
+   * Number of entity managers that were created.
+   */
+  private final AtomicLong createdEntityManagers = new AtomicLong();
+
+  /**
+   * Number of entity managers that were reused by another transaction context instead of creating a new one.
+   */
+  private final AtomicLong reusedEntityManagers = new AtomicLong();
+
+  /**
+   * Number of entity managers that were closed.
+   */
+  private final AtomicLong closedEntityManagers = new AtomicLong();
+
+  /**
+   * Number of entity managers that could not be closed.
+   */
+  private final AtomicLong failedCloses = new AtomicLong();
+
+  /**
+   * Initialize object.
+   */
+  EntityManagerStatistics( ) {
+    // Nothing to do.
+  }
+
+  /**
+   * Method returns the number of entity managers that were created.
+   *
+   * @return long Number of created entity managers.
+   */
+  public long getCreatedEntityManagers( ) {
+    return createdEntityManagers.get();
+  }
+
+  /**
+   * Method returns the number of entity managers that were reused instead of creating a new one.
+   *
+   * @return long Number of reused entity managers.
+   */
+  public long getReusedEntityManagers( ) {
+    return reusedEntityManagers.get();
+  }
+
+  /**
+   * Method returns the number of entity managers that were closed.
+   *
+   * @return long Number of closed entity managers.
+   */
+  public long getClosedEntityManagers( ) {
+    return closedEntityManagers.get();
+  }
+
+  /**
+   * Method returns the number of entity managers for which closing failed.
+   *
+   * @return long Number of entity managers that could not be closed.
+   */
+  public long getFailedCloses( ) {
+    return failedCloses.get();
+  }
+
+  /**
+   * Method returns the number of entity managers that are currently open. This includes entity managers that are kept
+   * for reuse.
+   *
+   * @return long Number of open entity managers.
+   */
+  public long getOpenEntityManagers( ) {
+    return createdEntityManagers.get() - closedEntityManagers.get() - failedCloses.get();
+  }
+
+  /**
+   * Method resets all counters to 0.
+   */
+  public void reset( ) {
+    createdEntityManagers.set(0);
+    reusedEntityManagers.set(0);
+    closedEntityManagers.set(0);
+    failedCloses.set(0);
+  }
+
+  /**
+   * Method records the creation of an entity manager.
+   */
+  void entityManagerCreated( ) {
+    createdEntityManagers.incrementAndGet();
+  }
+
+  /**
+   * Method records that an entity manager was reused.
+   */
+  void entityManagerReused( ) {
+    reusedEntityManagers.incrementAndGet();
+  }
+
+  /**
+   * Method records that an entity manager was closed.
+   */
+  void entityManagerClosed( ) {
+    closedEntityManagers.incrementAndGet();
+  }
+
+  /**
+   * Method records that an entity manager could not be closed.
+   */
+  void entityManagerCloseFailed( ) {
+    failedCloses.incrementAndGet();
+  }
+
+  /**
+   * Method returns a String representation of this object.
+   *
+   * @return String String representation of all counters. The method never returns null.
+   */
+  @Override
+  public String toString( ) {
+    StringBuilder lBuilder = new StringBuilder();
+    lBuilder.append("Created entity managers: ").append(createdEntityManagers.get());
+    lBuilder.append(", reused entity managers: ").append(reusedEntityManagers.get());
+    lBuilder.append(", closed entity managers: ").append(closedEntityManagers.get());
+    lBuilder.append(", failed closes: ").append(failedCloses.get());
+    return lBuilder.toString();
+  }
+}
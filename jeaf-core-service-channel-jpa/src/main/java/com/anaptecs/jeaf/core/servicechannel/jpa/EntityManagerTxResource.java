@@ -0,0 +1,118 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.jpa;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import com.anaptecs.jeaf.core.servicechannel.unmanaged.LocalTxCoordinator;
+import com.anaptecs.jeaf.core.servicechannel.unmanaged.LocalTxResource;
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+
+/**
+ * Class enlists an entity manager of a resource local persistence unit in a transaction that is coordinated by the
+ * service channel (see {@link LocalTxCoordinator}). This allows to use JPA outside of an EJB container. The prepare
+ * phase flushes the entity manager so that constraint violations are detected before any resource is committed.
+ *
+ * @author JEAF Development Team
+ */
+public final class EntityManagerTxResource implements LocalTxResource {
+  /**
+   * Entity manager that takes part in the transaction.
+   */
+  private final EntityManager entityManager;
+
+  /**
+   * Initialize object.
+   *
+   * @param pEntityManager Entity manager of a resource local persistence unit that should take part in the transaction.
+   * The parameter must not be null.
+   */
+  public EntityManagerTxResource( EntityManager pEntityManager ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pEntityManager, "pEntityManager");
+
+    entityManager = pEntityManager;
+  }
+
+  /**
+   * Method starts the resource local transaction of the entity manager if it is not already active.
+   *
+   * @see LocalTxResource#begin()
+   */
+  @Override
+  public void begin( ) {
+    EntityTransaction lTransaction = entityManager.getTransaction();
+    if (lTransaction.isActive() == false) {
+      lTransaction.begin();
+    }
+  }
+
+  /**
+   * Method flushes all pending changes of the entity manager.
+   *
+   * @see LocalTxResource#prepare()
+   */
+  @Override
+  public void prepare( ) {
+    entityManager.flush();
+  }
+
+  /**
+   * Method commits the resource local transaction of the entity manager.
+   *
+   * @see LocalTxResource#commit()
+   */
+  @Override
+  public void commit( ) {
+    entityManager.getTransaction().commit();
+  }
+
+  /**
+   * Method rolls back the resource local transaction of the entity manager if it is still active.
+   *
+   * @see LocalTxResource#rollback()
+   */
+  @Override
+  public void rollback( ) {
+    EntityTransaction lTransaction = entityManager.getTransaction();
+    if (lTransaction.isActive() == true) {
+      lTransaction.rollback();
+    }
+  }
+
+  /**
+   * Method checks whether the passed object wraps the same entity manager as this object.
+   *
+   * @param pObject Object to compare with. The parameter may be null.
+   * @return boolean Method returns true if both objects wrap the same entity manager and false otherwise.
+   */
+  @Override
+  public boolean equals( Object pObject ) {
+    return pObject instanceof EntityManagerTxResource
+        && ((EntityManagerTxResource) pObject).entityManager == entityManager;
+  }
+
+  /**
+   * Method returns the hash code of the wrapped entity manager.
+   *
+   * @return int Identity hash code of the wrapped entity manager.
+   */
+  @Override
+  public int hashCode( ) {
+    return System.identityHashCode(entityManager);
+  }
+
+  /**
+   * Method returns a String representation of this object.
+   *
+   * @return String Description of the wrapped entity manager. The method never returns null.
+   */
+  @Override
+  public String toString( ) {
+    return "Entity manager " + entityManager;
+  }
+}
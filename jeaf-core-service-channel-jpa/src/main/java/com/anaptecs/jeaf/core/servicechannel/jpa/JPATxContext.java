@@ -6,10 +6,15 @@
 
 package com.anaptecs.jeaf.core.servicechannel.jpa;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
@@ -17,7 +22,14 @@ import javax.persistence.EntityManagerFactory;
 import com.anaptecs.jeaf.core.api.JEAF;
 import com.anaptecs.jeaf.core.api.ServiceInvocationContext;
 import com.anaptecs.jeaf.core.api.TxContext;
+import com.anaptecs.jeaf.core.servicechannel.base.AttributeAwareTxContext;
+import com.anaptecs.jeaf.core.servicechannel.base.ComponentAwareTxContext;
+import com.anaptecs.jeaf.core.servicechannel.base.LazyTxContext;
+import com.anaptecs.jeaf.core.servicechannel.base.ReadOnlyTxContext;
+import com.anaptecs.jeaf.core.servicechannel.base.ServiceChannelConfiguration;
+import com.anaptecs.jeaf.core.servicechannel.unmanaged.LocalTxCoordinator;
 import com.anaptecs.jeaf.core.spi.ComponentImplementation;
+import com.anaptecs.jeaf.xfun.api.XFun;
 import com.anaptecs.jeaf.xfun.api.checks.Assert;
 import com.anaptecs.jeaf.xfun.api.checks.Check;
 
@@ -26,26 +38,109 @@ import com.anaptecs.jeaf.xfun.api.checks.Check;
  * differences between the use of JPA within an EJB container or in a unmanaged environment this class is abstract.
  * Concrete subclasses have to deal with the slight difference of looking up an entity manager
  * 
+ * The transaction is started lazily when the first entity manager is requested. Service calls that never use an entity
+ * manager do not cause any transaction handling at all.
+ * 
+ * All entity managers that were used within the transaction are closed when the transaction context is released (see
+ * {@link #releaseEntityManagers()}). If entity manager reuse is enabled (see
+ * {@link ServiceChannelConfiguration#isEntityManagerReuseEnabled()}) they are cleared and kept for the next
+ * transaction context of the same thread instead.
+ * 
+ * Every persistence unit gets an index when it is registered. Entity managers are stored by this index. As the
+ * service channel binds the component of the current service call to the transaction context (see
+ * {@link ComponentAwareTxContext}) repeated calls of {@link #getCurrentEntityManager()} within the same service call
+ * only have to read a field.
+ * 
+ * Performance settings like the flush mode are applied per persistence unit when an entity manager is used for the
+ * first time within a transaction context (see {@link EntityManagerSettings}).
+ * 
+ * Subclasses that coordinate the local transactions of resource local persistence units themselves have to implement
+ * {@link LocalTxCoordinator}. Their entity managers are enlisted automatically when they are used for the first time
+ * within a transaction context (see {@link #enlistEntityManager(EntityManager)}).
+ * 
  * @author JEAF Development Team
  * @version 1.0
  */
-public abstract class JPATxContext extends TxContext {
+public abstract class JPATxContext extends TxContext
+    implements LazyTxContext, ComponentAwareTxContext, ReadOnlyTxContext, AttributeAwareTxContext {
   /**
    * Default serial version UID
    */
   private static final long serialVersionUID = 1L;
 
   /**
-   * Map contains all entity managers that were used within this transaction context. Every time a entity manager is
-   * required for a component a lookup will be performed and the result will be stored within this map until the context
-   * is invalidated.
+   * Empty array of entity managers that is used as long as no entity manager was used within a transaction context.
+   */
+  private static final EntityManager[] NO_ENTITY_MANAGERS = new EntityManager[0];
+
+  /**
+   * Array contains all entity managers that were used within this transaction context. The array is indexed by the
+   * index of the persistence unit (see {@link #getPersistenceUnitIndex(String)}). Every time a entity manager is
+   * required for a component a lookup will be performed and the result will be stored within this array until the
+   * context is invalidated.
+   */
+  private EntityManager[] entityManagers = NO_ENTITY_MANAGERS;
+
+  /**
+   * Component of the current service call that was bound by the service channel. The reference may be null.
+   */
+  private transient ComponentImplementation boundComponent;
+
+  /**
+   * Entity manager of the bound component. The reference is null as long as it was not requested within the current
+   * service call.
+   */
+  private transient EntityManager boundEntityManager;
+
+  /**
+   * Map contains the index of all registered persistence units.
+   */
+  private static final Map<String, Integer> PERSISTENCE_UNIT_INDEXES = new ConcurrentHashMap<String, Integer>();
+
+  /**
+   * List contains the names of all registered persistence units. The position of a name is the index of the
+   * persistence unit.
+   */
+  private static final List<String> PERSISTENCE_UNIT_NAMES = new CopyOnWriteArrayList<String>();
+
+  /**
+   * Map contains all entity manager factories that were created by this object. As factories are registered
+   * concurrently by service calls and during startup the map has to be thread safe.
+   */
+  private static final Map<String, EntityManagerFactory> FACTORIES =
+      new ConcurrentHashMap<String, EntityManagerFactory>();
+
+  /**
+   * Statistics about the lifecycle of all entity managers.
+   */
+  private static final EntityManagerStatistics STATISTICS = new EntityManagerStatistics();
+
+  /**
+   * Attribute defines whether entity managers are reused instead of closing them.
+   */
+  private static final boolean ENTITY_MANAGER_REUSE_ENABLED =
+      ServiceChannelConfiguration.getInstance().isEntityManagerReuseEnabled();
+
+  /**
+   * Attribute indicates if the represented transaction was already started.
+   */
+  private boolean transactionStarted;
+
+  /**
+   * Callback that has to be executed when the transaction is started. The reference may be null.
+   */
+  private transient Runnable transactionStartCallback;
+
+  /**
+   * Attribute indicates if the represented transaction is read only.
    */
-  private final Map<String, EntityManager> entityManagers = new HashMap<String, EntityManager>();
+  private boolean readOnly;
 
   /**
-   * Map contains all entity manager factories that were created by this object.
+   * Attributes of the transaction (see {@link AttributeAwareTxContext}). The map is only created when the first
+   * attribute is set.
    */
-  private static final Map<String, EntityManagerFactory> FACTORIES = new HashMap<String, EntityManagerFactory>();
+  private transient Map<Object, Object> attributes;
 
   /**
    * Initialize object.
@@ -56,28 +151,296 @@ public abstract class JPATxContext extends TxContext {
 
   /**
    * Method returns the entity manager for the component of the current service call that is used within the transaction
-   * that is represented by this transaction context.
+   * that is represented by this transaction context. If the transaction was not started yet then this will be done
+   * now.
    * 
    * @return {@link EntityManager} Used entity manager. The method never returns null.
    */
   public final EntityManager getCurrentEntityManager( ) {
-    // Get component of current service call.
-    ServiceInvocationContext lServiceInvocationContext = JEAF.getContext().getServiceInvocationContext();
-    ComponentImplementation lComponent = (ComponentImplementation) lServiceInvocationContext.getComponent();
+    // Entity manager of the bound component was already requested within the current service call.
+    EntityManager lCurrentEntityManager = boundEntityManager;
+    if (lCurrentEntityManager == null) {
+      // Entity managers must only be used within a running transaction.
+      if (transactionStarted == false) {
+        this.startTransaction();
+      }
 
-    // Check if a lookup for the entity manager of the current component was already performed.
-    String lPersistenceUnitName = lComponent.getPersistenceUnitName();
-    EntityManager lCurrentEntityManager = entityManagers.get(lPersistenceUnitName);
+      // Get component of current service call. If the service channel did not bind it then it has to be resolved from
+      // the current service invocation context.
+      ComponentImplementation lComponent = boundComponent;
+      if (lComponent == null) {
+        ServiceInvocationContext lServiceInvocationContext = JEAF.getContext().getServiceInvocationContext();
+        lComponent = (ComponentImplementation) lServiceInvocationContext.getComponent();
+      }
+      lCurrentEntityManager = this.resolveEntityManager(lComponent);
 
-    // Entity manager was not used before.
-    if (lCurrentEntityManager == null) {
-      // Perform lookup for entity manager and store it within the map of entity managers.
-      lCurrentEntityManager = this.lookupEntityManager(lComponent);
-      entityManagers.put(lPersistenceUnitName, lCurrentEntityManager);
+      // Remember entity manager for further calls within the current service call.
+      if (lComponent == boundComponent) {
+        boundEntityManager = lCurrentEntityManager;
+      }
     }
     return lCurrentEntityManager;
   }
 
+  /**
+   * Method binds the passed component to this transaction context. Entity managers that are requested afterwards
+   * belong to the persistence unit of this component.
+   * 
+   * @param pComponent Component of the current service call. The parameter may be null.
+   * @return {@link ComponentImplementation} Component that was bound before. The method may return null.
+   * 
+   * @see ComponentAwareTxContext#bindComponent(ComponentImplementation)
+   */
+  @Override
+  public final ComponentImplementation bindComponent( ComponentImplementation pComponent ) {
+    ComponentImplementation lPreviousComponent = boundComponent;
+    if (pComponent != lPreviousComponent) {
+      boundComponent = pComponent;
+      boundEntityManager = null;
+    }
+    return lPreviousComponent;
+  }
+
+  /**
+   * Method returns the entity manager for the passed component. If it was not used within this transaction context yet
+   * then an idle entity manager of the current thread will be reused or a new one will be looked up.
+   * 
+   * @param pComponent Component whose entity manager should be returned. The parameter must not be null.
+   * @return {@link EntityManager} Entity manager of the component. The method never returns null.
+   */
+  private EntityManager resolveEntityManager( ComponentImplementation pComponent ) {
+    // Check if a lookup for the entity manager of the passed component was already performed.
+    String lPersistenceUnitName = pComponent.getPersistenceUnitName();
+    int lIndex = getPersistenceUnitIndex(lPersistenceUnitName);
+    if (lIndex >= entityManagers.length) {
+      entityManagers = Arrays.copyOf(entityManagers, Math.max(lIndex + 1, PERSISTENCE_UNIT_NAMES.size()));
+    }
+    EntityManager lEntityManager = entityManagers[lIndex];
+
+    // Entity manager was not used before.
+    if (lEntityManager == null) {
+      // Try to reuse an idle entity manager of the current thread.
+      if (ENTITY_MANAGER_REUSE_ENABLED == true) {
+        lEntityManager = EntityManagerPool.acquire(lPersistenceUnitName);
+      }
+      if (lEntityManager != null) {
+        this.prepareReusedEntityManager(lEntityManager);
+        STATISTICS.entityManagerReused();
+      }
+      // Perform lookup for entity manager.
+      else {
+        lEntityManager = this.lookupEntityManager(pComponent);
+        STATISTICS.entityManagerCreated();
+      }
+      // Apply performance settings of the persistence unit and store entity manager.
+      EntityManagerSettings.getSettings(lPersistenceUnitName, lEntityManager).applyTo(lEntityManager, readOnly);
+      entityManagers[lIndex] = lEntityManager;
+      this.enlistEntityManager(lEntityManager);
+    }
+    return lEntityManager;
+  }
+
+  /**
+   * Method marks the transaction represented by this transaction context as read only. All its entity managers will use
+   * flush mode {@link javax.persistence.FlushModeType#COMMIT} and get the configured read only hint. This also applies
+   * to entity managers that were already used within this transaction context. Their changes are discarded when the
+   * transaction context is released. A transaction can not be marked as read write again.
+   * 
+   * @see ReadOnlyTxContext#markReadOnly()
+   */
+  @Override
+  public final void markReadOnly( ) {
+    if (readOnly == false) {
+      readOnly = true;
+      for (int i = 0; i < entityManagers.length; i++) {
+        EntityManager lEntityManager = entityManagers[i];
+        if (lEntityManager != null) {
+          String lPersistenceUnitName = PERSISTENCE_UNIT_NAMES.get(i);
+          EntityManagerSettings.getSettings(lPersistenceUnitName, lEntityManager).applyTo(lEntityManager, true);
+        }
+      }
+    }
+  }
+
+  /**
+   * Method checks whether the transaction represented by this transaction context is read only.
+   * 
+   * @return boolean The method returns true if the transaction is marked as read only and false otherwise.
+   * 
+   * @see ReadOnlyTxContext#isReadOnly()
+   */
+  @Override
+  public final boolean isReadOnly( ) {
+    return readOnly;
+  }
+
+  /**
+   * Method returns the attribute with the passed key.
+   * 
+   * @param pKey Key of the attribute. The parameter must not be null.
+   * @return Object Value of the attribute or null if the attribute is not set.
+   * 
+   * @see AttributeAwareTxContext#getAttribute(Object)
+   */
+  @Override
+  public final Object getAttribute( Object pKey ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pKey, "pKey");
+
+    Object lValue;
+    if (attributes != null) {
+      lValue = attributes.get(pKey);
+    }
+    else {
+      lValue = null;
+    }
+    return lValue;
+  }
+
+  /**
+   * Method sets the attribute with the passed key.
+   * 
+   * @param pKey Key of the attribute. The parameter must not be null.
+   * @param pValue Value of the attribute. The parameter may be null. In this case the attribute is removed.
+   * 
+   * @see AttributeAwareTxContext#setAttribute(Object, Object)
+   */
+  @Override
+  public final void setAttribute( Object pKey, Object pValue ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pKey, "pKey");
+
+    if (pValue != null) {
+      if (attributes == null) {
+        attributes = new HashMap<Object, Object>(4);
+      }
+      attributes.put(pKey, pValue);
+    }
+    else if (attributes != null) {
+      attributes.remove(pKey);
+    }
+  }
+
+  /**
+   * Method releases all entity managers that were used within this transaction context. Depending on the configuration
+   * they are either closed or cleared and kept for reuse by the next transaction context of the current thread. In the
+   * latter case pending changes are flushed before unless the transaction is marked for rollback or read only. Changes
+   * of read only transactions are always discarded as their entity managers are cleared without flushing them. Entity
+   * managers that can not be closed are reported as failed closes.
+   * 
+   * The method has to be called by the service channel when the transaction context is about to be released.
+   */
+  public final void releaseEntityManagers( ) {
+    boolean lRollbackOnly = this.getRollbackOnly();
+    for (int i = 0; i < entityManagers.length; i++) {
+      EntityManager lEntityManager = entityManagers[i];
+      if (lEntityManager == null) {
+        continue;
+      }
+      String lPersistenceUnitName = PERSISTENCE_UNIT_NAMES.get(i);
+      EntityManagerSettings lSettings = EntityManagerSettings.getSettings(lPersistenceUnitName, lEntityManager);
+      boolean lReadOnly = readOnly == true || lSettings.isReadOnly() == true;
+      try {
+        // Entity manager was already closed by the application.
+        if (lEntityManager.isOpen() == false) {
+          STATISTICS.entityManagerClosed();
+        }
+        else {
+          // Keep entity manager for reuse. Its first level cache must not survive the transaction.
+          boolean lPooled = false;
+          boolean lSkipFlush = lReadOnly == true || lRollbackOnly == true;
+          if (ENTITY_MANAGER_REUSE_ENABLED == true && this.clearEntityManager(lEntityManager, lSkipFlush) == true) {
+            lPooled = EntityManagerPool.release(lPersistenceUnitName, lEntityManager);
+          }
+          // Close entity manager. Changes of read only transactions are discarded independent of whether entity
+          // managers are reused. Otherwise they would still be written when the transaction is committed.
+          if (lPooled == false) {
+            if (lReadOnly == true) {
+              lEntityManager.clear();
+            }
+            lEntityManager.close();
+            STATISTICS.entityManagerClosed();
+          }
+        }
+      }
+      catch (RuntimeException e) {
+        STATISTICS.entityManagerCloseFailed();
+        XFun.getTrace().error("Unable to close entity manager of persistence unit " + lPersistenceUnitName, e);
+      }
+    }
+    Arrays.fill(entityManagers, null);
+    boundEntityManager = null;
+  }
+
+  /**
+   * Method clears the passed entity manager so that it can be reused by another transaction.
+   * 
+   * @param pEntityManager Entity manager that should be cleared. The parameter must not be null.
+   * @param pSkipFlush Parameter defines whether pending changes must not be flushed e.g. because the current
+   * transaction is marked for rollback.
+   * @return boolean Method returns true if the entity manager was cleared and false if it can not be reused.
+   */
+  private boolean clearEntityManager( EntityManager pEntityManager, boolean pSkipFlush ) {
+    boolean lCleared;
+    try {
+      if (pSkipFlush == false) {
+        pEntityManager.flush();
+      }
+      pEntityManager.clear();
+      lCleared = true;
+    }
+    catch (RuntimeException e) {
+      // Flushing failed so the transaction has to be rolled back and the entity manager must not be reused.
+      this.setRollbackOnly();
+      XFun.getTrace().error(e.getMessage(), e);
+      lCleared = false;
+    }
+    return lCleared;
+  }
+
+  /**
+   * Method prepares an entity manager that was used by a previous transaction context of the current thread for its use
+   * within this transaction context. Subclasses may overwrite this method e.g. to let the entity manager join the
+   * current transaction. The default implementation does nothing.
+   * 
+   * @param pEntityManager Reused entity manager. The parameter is never null.
+   */
+  protected void prepareReusedEntityManager( EntityManager pEntityManager ) {
+    // Nothing to do.
+  }
+
+  /**
+   * Method lets the passed entity manager take part in the transaction that is represented by this transaction context.
+   * The method is called when an entity manager is used for the first time within this transaction context. If this
+   * transaction context coordinates local transactions (see {@link LocalTxCoordinator}) then the entity manager is
+   * enlisted through an {@link EntityManagerTxResource}. Otherwise it is expected to join the transaction of the
+   * container on its own and nothing has to be done.
+   * 
+   * @param pEntityManager Entity manager that is used within this transaction context. The parameter is never null.
+   */
+  protected void enlistEntityManager( EntityManager pEntityManager ) {
+    if (this instanceof LocalTxCoordinator) {
+      ((LocalTxCoordinator) this).enlistResource(new EntityManagerTxResource(pEntityManager));
+    }
+  }
+
+  /**
+   * Method returns the statistics about the lifecycle of all entity managers.
+   * 
+   * @return {@link EntityManagerStatistics} Entity manager statistics. The method never returns null.
+   */
+  public static EntityManagerStatistics getEntityManagerStatistics( ) {
+    return STATISTICS;
+  }
+
+  /**
+   * Method closes all entity managers that are kept for reuse by any thread. Entity managers that are released
+   * afterwards will be closed instead of being kept for reuse. The method has to be called when JEAF is shut down.
+   */
+  public static void closeIdleEntityManagers( ) {
+    EntityManagerPool.closeIdleEntityManagers(STATISTICS);
+  }
+
   /**
    * Method returns all entity managers that were used within this transaction context.
    * 
@@ -85,7 +448,55 @@ public abstract class JPATxContext extends TxContext {
    * never returns null.
    */
   public final Collection<EntityManager> getAllEntityManagers( ) {
-    return entityManagers.values();
+    List<EntityManager> lEntityManagers = new ArrayList<EntityManager>(entityManagers.length);
+    for (EntityManager lNextEntityManager : entityManagers) {
+      if (lNextEntityManager != null) {
+        lEntityManagers.add(lNextEntityManager);
+      }
+    }
+    return lEntityManagers;
+  }
+
+  /**
+   * Method checks whether the transaction represented by this transaction context was already started.
+   * 
+   * @return boolean The method returns true if the transaction was already started and false otherwise.
+   * 
+   * @see LazyTxContext#isTransactionStarted()
+   */
+  @Override
+  public final boolean isTransactionStarted( ) {
+    return transactionStarted;
+  }
+
+  /**
+   * Method starts the transaction represented by this transaction context if this was not already done before.
+   * 
+   * @see LazyTxContext#startTransaction()
+   */
+  @Override
+  public final void startTransaction( ) {
+    if (transactionStarted == false) {
+      transactionStarted = true;
+      if (transactionStartCallback != null) {
+        transactionStartCallback.run();
+      }
+    }
+  }
+
+  /**
+   * Method sets the callback that has to be executed when the transaction is started.
+   * 
+   * @param pCallback Callback that will be executed when the transaction is started. The parameter must not be null.
+   * 
+   * @see LazyTxContext#setTransactionStartCallback(Runnable)
+   */
+  @Override
+  public final void setTransactionStartCallback( Runnable pCallback ) {
+    // Check parameter.
+    Assert.assertNotNull(pCallback, "pCallback");
+
+    transactionStartCallback = pCallback;
   }
 
   /**
@@ -98,6 +509,32 @@ public abstract class JPATxContext extends TxContext {
    */
   protected abstract EntityManager lookupEntityManager( ComponentImplementation pComponent );
 
+  /**
+   * Method returns the index of the persistence unit with the passed name. If the persistence unit was not registered
+   * before then it will get the next free index. Persistence units of all components should be registered during
+   * startup.
+   * 
+   * @param pPersistenceUnitName Name of the persistence unit. The parameter must not be null.
+   * @return int Index of the persistence unit. Indexes start with 0 and never change.
+   */
+  public static int getPersistenceUnitIndex( String pPersistenceUnitName ) {
+    // Check parameters.
+    Assert.assertNotNull(pPersistenceUnitName, "pPersistenceUnitName");
+
+    Integer lIndex = PERSISTENCE_UNIT_INDEXES.get(pPersistenceUnitName);
+    if (lIndex == null) {
+      synchronized (PERSISTENCE_UNIT_NAMES) {
+        lIndex = PERSISTENCE_UNIT_INDEXES.get(pPersistenceUnitName);
+        if (lIndex == null) {
+          lIndex = PERSISTENCE_UNIT_NAMES.size();
+          PERSISTENCE_UNIT_NAMES.add(pPersistenceUnitName);
+          PERSISTENCE_UNIT_INDEXES.put(pPersistenceUnitName, lIndex);
+        }
+      }
+    }
+    return lIndex;
+  }
+
   /**
    * Method returns the cached entity manager factory that was cached for the persistence unit with the passed name.
    * 
@@ -129,6 +566,7 @@ public abstract class JPATxContext extends TxContext {
 
     // Add factory to static map with all factories.
     FACTORIES.put(pPersistenceUnitName, pEntityManagerFactory);
+    getPersistenceUnitIndex(pPersistenceUnitName);
   }
 
   public static void registerEntityManagerFactories( Map<String, EntityManagerFactory> pFactories ) {
@@ -138,6 +576,7 @@ public abstract class JPATxContext extends TxContext {
     // Add all factories
     for (Entry<String, EntityManagerFactory> lNextEntry : pFactories.entrySet()) {
       FACTORIES.put(lNextEntry.getKey(), lNextEntry.getValue());
+      getPersistenceUnitIndex(lNextEntry.getKey());
     }
   }
 }
@@ -19,9 +19,11 @@ import com.anaptecs.jeaf.xfun.api.principal.PrincipalProvider;
  */
 public class JSEPrincipalProviderImpl implements PrincipalProvider {
   /**
-   * Current JEAFPrincipal object. The reference may be null.
+   * Current JEAFPrincipal object. The reference may be null. As the principal represents the user under which this JVM
+   * is run it is shared by all threads. The attribute is volatile so that a principal that was set during login is
+   * visible to all (virtual) threads without any synchronization.
    */
-  private UserPrincipal principal;
+  private volatile UserPrincipal principal;
 
   /**
    * Initialize object.
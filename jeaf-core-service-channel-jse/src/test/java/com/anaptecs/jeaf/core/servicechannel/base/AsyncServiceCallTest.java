@@ -0,0 +1,192 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.anaptecs.jeaf.core.api.JEAF;
+import com.anaptecs.jeaf.core.api.ServiceInvocationContext;
+import com.anaptecs.jeaf.core.spi.TransactionBehavior;
+import com.anaptecs.jeaf.xfun.api.errorhandling.ApplicationException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+/**
+ * Class tests asynchronous service calls (see {@link AsyncServiceCall}) and the default executor that executes them
+ * (see {@link AsyncExecutors}).
+ *
+ * @author JEAF Development Team
+ */
+public class AsyncServiceCallTest {
+  /**
+   * Service channel that is used by the tests.
+   */
+  private static AbstractServiceChannel serviceChannel;
+
+  /**
+   * Executor with a single worker thread so that the state of the worker can be checked after a service call.
+   */
+  private static ExecutorService worker;
+
+  /**
+   * Method initializes JEAF before the tests are executed.
+   */
+  @BeforeAll
+  public static void initialize( ) {
+    serviceChannel = TestCommand.resolveServiceChannel();
+    worker = Executors.newSingleThreadExecutor();
+  }
+
+  /**
+   * Method stops the worker thread after all tests were executed.
+   */
+  @AfterAll
+  public static void shutdown( ) {
+    worker.shutdownNow();
+  }
+
+  /**
+   * Method tests that the future is completed with the result of the service call.
+   */
+  @Test
+  public void testResult( ) throws InterruptedException, ExecutionException {
+    CompletableFuture<Serializable> lFuture =
+        serviceChannel.executeCommandAsync(TestCommand.returning("A"), TransactionBehavior.REQUIRED, worker);
+    assertEquals("A", lFuture.get());
+  }
+
+  /**
+   * Method tests that the future is completed exceptionally if the service call fails.
+   */
+  @Test
+  public void testFailedServiceCall( ) {
+    final IllegalStateException lException = new IllegalStateException("Failed");
+    final CompletableFuture<Serializable> lFuture =
+        serviceChannel.executeCommandAsync(TestCommand.throwing(lException), TransactionBehavior.REQUIRED, worker);
+    ExecutionException lExecutionException = assertThrows(ExecutionException.class, new Executable() {
+      @Override
+      public void execute( ) throws Throwable {
+        lFuture.get();
+      }
+    });
+    assertSame(lException, lExecutionException.getCause());
+  }
+
+  /**
+   * Method tests that the future is completed exceptionally if the executor rejects the service call.
+   */
+  @Test
+  public void testRejectedExecution( ) {
+    Executor lRejectingExecutor = new Executor() {
+      @Override
+      public void execute( Runnable pCommand ) {
+        throw new RejectedExecutionException("Rejected");
+      }
+    };
+    final CompletableFuture<Serializable> lFuture = serviceChannel.executeCommandAsync(TestCommand.returning("A"),
+        TransactionBehavior.REQUIRED, lRejectingExecutor);
+    assertTrue(lFuture.isCompletedExceptionally());
+    ExecutionException lExecutionException = assertThrows(ExecutionException.class, new Executable() {
+      @Override
+      public void execute( ) throws Throwable {
+        lFuture.get();
+      }
+    });
+    assertTrue(lExecutionException.getCause() instanceof RejectedExecutionException);
+  }
+
+  /**
+   * Method tests that the context of the caller is used within the worker thread and that it is removed from the worker
+   * thread once the service call is done.
+   */
+  @Test
+  public void testCallerContextPropagation( ) throws ApplicationException, ReflectiveOperationException,
+    InterruptedException, ExecutionException {
+
+    final ServiceInvocationContext[] lContexts = new ServiceInvocationContext[2];
+    final Throwable[] lFailure = new Throwable[1];
+    final Runnable lInnerAction = new Runnable() {
+      @Override
+      public void run( ) {
+        lContexts[1] = JEAF.getContext().getServiceInvocationContext();
+      }
+    };
+    serviceChannel.executeCommandTxRequired(TestCommand.executing(new Runnable() {
+      @Override
+      public void run( ) {
+        lContexts[0] = JEAF.getContext().getServiceInvocationContext();
+        try {
+          serviceChannel.executeCommandAsync(TestCommand.executing(lInnerAction), TransactionBehavior.REQUIRED, worker)
+              .get();
+        }
+        catch (InterruptedException | ExecutionException e) {
+          lFailure[0] = e;
+        }
+      }
+    }));
+    assertNull(lFailure[0]);
+    assertNotNull(lContexts[0]);
+    assertNotNull(lContexts[1]);
+    assertNotSame(lContexts[0], lContexts[1]);
+    assertSame(lContexts[0].getInvokingApplication(), lContexts[1].getInvokingApplication());
+    assertSame(lContexts[0].getSessionContext(), lContexts[1].getSessionContext());
+    assertSame(lContexts[0].getCurrentPrincipal(), lContexts[1].getCurrentPrincipal());
+
+    // Caller context must not remain in the worker thread.
+    Field lField = AbstractServiceChannel.class.getDeclaredField("ASYNC_CALLER_CONTEXT");
+    lField.setAccessible(true);
+    final ThreadLocal<?> lCallerContext = (ThreadLocal<?>) lField.get(null);
+    Future<Object> lWorkerState = worker.submit(new Callable<Object>() {
+      @Override
+      public Object call( ) {
+        return lCallerContext.get();
+      }
+    });
+    assertNull(lWorkerState.get());
+  }
+
+  /**
+   * Method tests that the default executor is created only once and executes service calls on daemon threads.
+   */
+  @Test
+  public void testDefaultExecutor( ) throws InterruptedException, ExecutionException {
+    Executor lExecutor = AsyncExecutors.getDefaultExecutor();
+    assertNotNull(lExecutor);
+    assertSame(lExecutor, AsyncExecutors.getDefaultExecutor());
+
+    final CompletableFuture<Boolean> lDaemon = new CompletableFuture<Boolean>();
+    lExecutor.execute(new Runnable() {
+      @Override
+      public void run( ) {
+        lDaemon.complete(Thread.currentThread().isDaemon());
+      }
+    });
+    assertTrue(lDaemon.get());
+
+    CompletableFuture<Serializable> lFuture =
+        serviceChannel.executeCommandAsync(TestCommand.returning("B"), TransactionBehavior.REQUIRES_NEW);
+    assertEquals("B", lFuture.get());
+  }
+}
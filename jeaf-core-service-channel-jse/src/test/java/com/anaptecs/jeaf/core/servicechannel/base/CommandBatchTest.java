@@ -0,0 +1,164 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+
+import com.anaptecs.jeaf.core.api.MessageConstants;
+import com.anaptecs.jeaf.xfun.api.errorhandling.ApplicationException;
+import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFSystemException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class tests the execution of command batches through the service channel.
+ *
+ * @author JEAF Development Team
+ */
+public class CommandBatchTest {
+  /**
+   * Service channel that is used by the tests.
+   */
+  private static AbstractServiceChannel serviceChannel;
+
+  /**
+   * Method initializes JEAF before the tests are executed.
+   */
+  @BeforeAll
+  public static void initialize( ) {
+    serviceChannel = TestCommand.resolveServiceChannel();
+  }
+
+  /**
+   * Method tests a batch whose commands are all executed successfully.
+   */
+  @Test
+  public void testSuccessfulBatch( ) throws ApplicationException {
+    CommandBatch lBatch =
+        new CommandBatch(Arrays.asList(TestCommand.returning("A"), TestCommand.returning("B")), false);
+    CommandBatchResult lResult = (CommandBatchResult) serviceChannel.executeCommandTxRequired(lBatch);
+
+    assertTrue(lResult.isSuccessful());
+    assertEquals(2, lResult.getExecutedCommands());
+    assertEquals("A", lResult.getResult(0));
+    assertEquals("B", lResult.getResult(1));
+  }
+
+  /**
+   * Method tests that in continue on error mode no command of a batch is reported as successful if the shared
+   * transaction is rolled back due to a runtime exception of another command.
+   */
+  @Test
+  public void testMixedBatchWithinTransaction( ) throws ApplicationException {
+    RuntimeException lException = new IllegalStateException("Command failed");
+    CommandBatch lBatch = new CommandBatch(
+        Arrays.asList(TestCommand.returning("A"), TestCommand.throwing(lException), TestCommand.returning("C")), false);
+    CommandBatchResult lResult = (CommandBatchResult) serviceChannel.executeCommandTxRequired(lBatch);
+
+    // All commands were executed but none of them was successful.
+    assertFalse(lResult.isSuccessful());
+    assertEquals(3, lResult.getExecutedCommands());
+    for (int i = 0; i < lResult.size(); i++) {
+      assertFalse(lResult.isSuccessful(i));
+      assertNull(lResult.getResult(i));
+    }
+
+    // The failed command keeps its own exception, the other ones report the rollback.
+    assertSame(lException, lResult.getException(1));
+    assertEquals(MessageConstants.TX_MARKED_FOR_ROLLBACK,
+        ((JEAFSystemException) lResult.getException(0)).getErrorCode());
+    assertEquals(MessageConstants.TX_MARKED_FOR_ROLLBACK,
+        ((JEAFSystemException) lResult.getException(2)).getErrorCode());
+  }
+
+  /**
+   * Method tests that without a transaction the results of successful commands are kept if another command fails.
+   */
+  @Test
+  public void testMixedBatchWithoutTransaction( ) throws ApplicationException {
+    RuntimeException lException = new IllegalStateException("Command failed");
+    CommandBatch lBatch = new CommandBatch(
+        Arrays.asList(TestCommand.returning("A"), TestCommand.throwing(lException), TestCommand.returning("C")), false);
+    CommandBatchResult lResult = (CommandBatchResult) serviceChannel.executeCommandTxNotSupported(lBatch);
+
+    assertFalse(lResult.isSuccessful());
+    assertEquals(3, lResult.getExecutedCommands());
+    assertTrue(lResult.isSuccessful(0));
+    assertEquals("A", lResult.getResult(0));
+    assertSame(lException, lResult.getException(1));
+    assertTrue(lResult.isSuccessful(2));
+    assertEquals("C", lResult.getResult(2));
+  }
+
+  /**
+   * Method tests that a fail fast batch stops with the first failed command.
+   */
+  @Test
+  public void testFailFastBatch( ) throws ApplicationException {
+    RuntimeException lException = new IllegalStateException("Command failed");
+    CommandBatch lBatch = new CommandBatch(
+        Arrays.asList(TestCommand.returning("A"), TestCommand.throwing(lException), TestCommand.returning("C")), true);
+    CommandBatchResult lResult = (CommandBatchResult) serviceChannel.executeCommandTxRequired(lBatch);
+
+    assertFalse(lResult.isSuccessful());
+    assertEquals(2, lResult.getExecutedCommands());
+    assertFalse(lResult.isSuccessful(0));
+    assertSame(lException, lResult.getException(1));
+    assertNull(lResult.getException(2));
+  }
+
+  /**
+   * Method tests that no command of a batch is reported as successful if the transaction of the batch timed out.
+   */
+  @Test
+  public void testTimedOutBatch( ) throws ApplicationException, ReflectiveOperationException {
+    // Test requires a service channel that enforces transaction timeouts.
+    assumeTrue(serviceChannel.isTxTimeoutEnforced());
+
+    Runnable lSlowAction = new Runnable() {
+      @Override
+      public void run( ) {
+        try {
+          Thread.sleep(500);
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    };
+    CommandBatch lBatch = new CommandBatch(Arrays.asList(TestCommand.returning("A"), TestCommand.executing(lSlowAction),
+        TestCommand.returning("C")), false);
+
+    Field lField = AbstractServiceChannel.class.getDeclaredField("defaultTxTimeout");
+    lField.setAccessible(true);
+    Object lDefaultTxTimeout = lField.get(serviceChannel);
+    CommandBatchResult lResult;
+    try {
+      lField.set(serviceChannel, 100L);
+      lResult = (CommandBatchResult) serviceChannel.executeCommandTxRequired(lBatch);
+    }
+    finally {
+      lField.set(serviceChannel, lDefaultTxTimeout);
+    }
+
+    assertFalse(lResult.isSuccessful());
+    assertEquals(3, lResult.getExecutedCommands());
+    for (int i = 0; i < lResult.size(); i++) {
+      assertFalse(lResult.isSuccessful(i));
+      assertNull(lResult.getResult(i));
+      assertEquals(MessageConstants.TX_MARKED_FOR_ROLLBACK,
+          ((JEAFSystemException) lResult.getException(i)).getErrorCode());
+    }
+  }
+}
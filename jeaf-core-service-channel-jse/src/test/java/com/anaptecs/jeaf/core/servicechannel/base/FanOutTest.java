@@ -0,0 +1,318 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.anaptecs.jeaf.core.api.JEAF;
+import com.anaptecs.jeaf.core.api.ServiceInvocationContext;
+import com.anaptecs.jeaf.core.api.TxContext;
+import com.anaptecs.jeaf.xfun.api.errorhandling.ApplicationException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class tests the parallel execution of commands (see
+ * {@link AbstractServiceChannel#executeCommandsParallel(List, int, Executor)}), its branches (see {@link FanOutBranch})
+ * and its default executor (see {@link AsyncExecutors}).
+ *
+ * @author JEAF Development Team
+ */
+public class FanOutTest {
+  /**
+   * Action waits for the passed time and records when it is done.
+   */
+  private static final class DelayedAction implements Runnable {
+    /**
+     * Index of the branch that executes the action.
+     */
+    private final int index;
+
+    /**
+     * Time in milliseconds that the action waits.
+     */
+    private final long delay;
+
+    /**
+     * Indexes of all branches in the order in which they were done.
+     */
+    private final ConcurrentLinkedQueue<Integer> completionOrder;
+
+    /**
+     * Initialize object.
+     *
+     * @param pIndex Index of the branch that executes the action.
+     * @param pDelay Time in milliseconds that the action waits.
+     * @param pCompletionOrder Indexes of all branches in the order in which they were done. The parameter must not be
+     * null.
+     */
+    DelayedAction( int pIndex, long pDelay, ConcurrentLinkedQueue<Integer> pCompletionOrder ) {
+      index = pIndex;
+      delay = pDelay;
+      completionOrder = pCompletionOrder;
+    }
+
+    @Override
+    public void run( ) {
+      sleep(delay);
+      completionOrder.add(index);
+    }
+  }
+
+  /**
+   * Action captures the contexts that are visible within a branch.
+   */
+  private static final class ContextCapture implements Runnable {
+    /**
+     * Service invocation context of the branch.
+     */
+    volatile ServiceInvocationContext serviceInvocationContext;
+
+    /**
+     * Transaction context of the branch.
+     */
+    volatile TxContext txContext;
+
+    @Override
+    public void run( ) {
+      serviceInvocationContext = JEAF.getContext().getServiceInvocationContext();
+      txContext = JEAF.getContext().getTransactionContext();
+    }
+  }
+
+  /**
+   * Number of commands that are executed by most tests.
+   */
+  private static final int BRANCHES = 4;
+
+  /**
+   * Service channel that is used by the tests.
+   */
+  private static AbstractServiceChannel serviceChannel;
+
+  /**
+   * Executor that executes the branches.
+   */
+  private static ExecutorService executor;
+
+  /**
+   * Method initializes JEAF before the tests are executed.
+   */
+  @BeforeAll
+  public static void initialize( ) {
+    serviceChannel = TestCommand.resolveServiceChannel();
+    executor = Executors.newFixedThreadPool(BRANCHES);
+  }
+
+  /**
+   * Method stops the worker threads after all tests were executed.
+   */
+  @AfterAll
+  public static void shutdown( ) {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Method tests that the results are returned in the order of the commands even if the commands are done in another
+   * order.
+   */
+  @Test
+  public void testResultOrdering( ) {
+    ConcurrentLinkedQueue<Integer> lCompletionOrder = new ConcurrentLinkedQueue<Integer>();
+    List<TestCommand> lCommands = new ArrayList<TestCommand>();
+    for (int i = 0; i < BRANCHES; i++) {
+      // Earlier commands take longer so that they are done last.
+      DelayedAction lAction = new DelayedAction(i, (BRANCHES - i) * 50L, lCompletionOrder);
+      lCommands.add(TestCommand.returning("Result " + i, lAction));
+    }
+    FanOutResult lResult = serviceChannel.executeCommandsParallel(lCommands, 0, executor);
+
+    assertEquals(BRANCHES, lResult.size());
+    assertTrue(lResult.isSuccessful());
+    assertEquals(BRANCHES, lCompletionOrder.size());
+    long lMaxDuration = 0;
+    for (int i = 0; i < BRANCHES; i++) {
+      assertTrue(lResult.isSuccessful(i));
+      assertEquals("Result " + i, lResult.getResult(i));
+      assertNull(lResult.getFailure(i));
+      assertTrue(lResult.getDuration(i) > 0);
+      lMaxDuration = Math.max(lMaxDuration, lResult.getDuration(i));
+    }
+    assertTrue(lResult.getTotalDuration() >= lMaxDuration);
+  }
+
+  /**
+   * Method tests that the failure of a branch is reported for this branch only and does not affect the other branches.
+   */
+  @Test
+  public void testBranchFailures( ) {
+    IllegalStateException lFirstException = new IllegalStateException("First");
+    IllegalArgumentException lSecondException = new IllegalArgumentException("Second");
+    List<TestCommand> lCommands = new ArrayList<TestCommand>();
+    lCommands.add(TestCommand.returning("A"));
+    lCommands.add(TestCommand.throwing(lFirstException));
+    lCommands.add(TestCommand.returning("C"));
+    lCommands.add(TestCommand.throwing(lSecondException));
+    FanOutResult lResult = serviceChannel.executeCommandsParallel(lCommands, 0, executor);
+
+    assertFalse(lResult.isSuccessful());
+    assertTrue(lResult.isSuccessful(0));
+    assertEquals("A", lResult.getResult(0));
+    assertFalse(lResult.isSuccessful(1));
+    assertSame(lFirstException, lResult.getFailure(1));
+    assertNull(lResult.getResult(1));
+    assertTrue(lResult.isSuccessful(2));
+    assertEquals("C", lResult.getResult(2));
+    assertFalse(lResult.isSuccessful(3));
+    assertSame(lSecondException, lResult.getFailure(3));
+  }
+
+  /**
+   * Method tests that every branch sees the invoking application, the session context and the principal of the caller
+   * but runs within its own transaction.
+   */
+  @Test
+  public void testCallerContext( ) throws ApplicationException {
+    final ContextCapture lCaller = new ContextCapture();
+    final List<ContextCapture> lBranches = new ArrayList<ContextCapture>();
+    final FanOutResult[] lResult = new FanOutResult[1];
+    serviceChannel.executeCommandTxRequired(TestCommand.executing(new Runnable() {
+      @Override
+      public void run( ) {
+        lCaller.run();
+        List<TestCommand> lCommands = new ArrayList<TestCommand>();
+        for (int i = 0; i < BRANCHES; i++) {
+          ContextCapture lCapture = new ContextCapture();
+          lBranches.add(lCapture);
+          lCommands.add(TestCommand.executing(lCapture));
+        }
+        lResult[0] = serviceChannel.executeCommandsParallel(lCommands, 0, executor);
+      }
+    }));
+
+    assertTrue(lResult[0].isSuccessful());
+    assertNotNull(lCaller.serviceInvocationContext);
+    for (int i = 0; i < BRANCHES; i++) {
+      ContextCapture lBranch = lBranches.get(i);
+      assertNotNull(lBranch.serviceInvocationContext);
+      assertNotSame(lCaller.serviceInvocationContext, lBranch.serviceInvocationContext);
+      assertSame(lCaller.serviceInvocationContext.getInvokingApplication(),
+          lBranch.serviceInvocationContext.getInvokingApplication());
+      assertSame(lCaller.serviceInvocationContext.getSessionContext(),
+          lBranch.serviceInvocationContext.getSessionContext());
+      assertSame(lCaller.serviceInvocationContext.getCurrentPrincipal(),
+          lBranch.serviceInvocationContext.getCurrentPrincipal());
+
+      // Every branch runs within its own transaction.
+      assertNotNull(lBranch.txContext);
+      assertNotSame(lCaller.txContext, lBranch.txContext);
+      for (int j = 0; j < i; j++) {
+        assertNotSame(lBranches.get(j).txContext, lBranch.txContext);
+      }
+    }
+  }
+
+  /**
+   * Method tests that not more than the maximum number of branches are executed at the same time.
+   */
+  @Test
+  public void testMaxConcurrency( ) {
+    final AtomicInteger lActive = new AtomicInteger();
+    final AtomicInteger lMaxActive = new AtomicInteger();
+    Runnable lAction = new Runnable() {
+      @Override
+      public void run( ) {
+        int lCurrent = lActive.incrementAndGet();
+        int lMax = lMaxActive.get();
+        while (lCurrent > lMax && lMaxActive.compareAndSet(lMax, lCurrent) == false) {
+          lMax = lMaxActive.get();
+        }
+        sleep(50);
+        lActive.decrementAndGet();
+      }
+    };
+    List<TestCommand> lCommands = new ArrayList<TestCommand>();
+    for (int i = 0; i < BRANCHES * 2; i++) {
+      lCommands.add(TestCommand.executing(lAction));
+    }
+    FanOutResult lResult = serviceChannel.executeCommandsParallel(lCommands, 2, executor);
+
+    assertTrue(lResult.isSuccessful());
+    assertEquals(BRANCHES * 2, lResult.size());
+    assertTrue(lMaxActive.get() <= 2, "Too many concurrent branches: " + lMaxActive.get());
+  }
+
+  /**
+   * Method tests that branches that are rejected by the executor are reported as failed and that the method still
+   * returns.
+   */
+  @Test
+  public void testRejectedExecution( ) {
+    Executor lRejectingExecutor = new Executor() {
+      @Override
+      public void execute( Runnable pCommand ) {
+        throw new RejectedExecutionException("Rejected");
+      }
+    };
+    List<TestCommand> lCommands = new ArrayList<TestCommand>();
+    lCommands.add(TestCommand.returning("A"));
+    lCommands.add(TestCommand.returning("B"));
+    FanOutResult lResult = serviceChannel.executeCommandsParallel(lCommands, 1, lRejectingExecutor);
+
+    assertFalse(lResult.isSuccessful());
+    for (int i = 0; i < lCommands.size(); i++) {
+      assertTrue(lResult.getFailure(i) instanceof RejectedExecutionException);
+      assertEquals(0, lResult.getDuration(i));
+    }
+  }
+
+  /**
+   * Method tests that commands are executed by the default executor if no executor is passed.
+   */
+  @Test
+  public void testDefaultExecutor( ) {
+    List<TestCommand> lCommands = new ArrayList<TestCommand>();
+    for (int i = 0; i < BRANCHES; i++) {
+      lCommands.add(TestCommand.returning(i));
+    }
+    FanOutResult lResult = serviceChannel.executeCommandsParallel(lCommands, 0);
+
+    assertTrue(lResult.isSuccessful());
+    for (int i = 0; i < BRANCHES; i++) {
+      assertEquals(i, lResult.getResult(i));
+    }
+  }
+
+  /**
+   * Method lets the current thread sleep for the passed time.
+   *
+   * @param pDelay Time in milliseconds.
+   */
+  private static void sleep( long pDelay ) {
+    try {
+      Thread.sleep(pDelay);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
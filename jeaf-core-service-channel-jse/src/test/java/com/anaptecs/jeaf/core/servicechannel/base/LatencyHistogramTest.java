@@ -0,0 +1,98 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class tests the buckets and percentiles of {@link LatencyHistogram}.
+ *
+ * @author JEAF Development Team
+ */
+public class LatencyHistogramTest {
+  /**
+   * Method tests that small values are stored in buckets of size 1.
+   */
+  @Test
+  public void testLinearBuckets( ) {
+    for (int i = 0; i < 16; i++) {
+      assertEquals(i, LatencyHistogram.getBucketIndex(i));
+      assertEquals(i, LatencyHistogram.getBucketUpperBound(i));
+    }
+  }
+
+  /**
+   * Method tests that every value is stored in a bucket that contains it and whose relative error is below 12.5%.
+   */
+  @Test
+  public void testLogarithmicBuckets( ) {
+    long[] lValues = new long[] { 16, 17, 31, 32, 33, 1000, 1023, 1024, 123456789, Long.MAX_VALUE };
+    for (long lValue : lValues) {
+      int lIndex = LatencyHistogram.getBucketIndex(lValue);
+      long lUpperBound = LatencyHistogram.getBucketUpperBound(lIndex);
+      assertTrue(lValue <= lUpperBound, "Value " + lValue + " exceeds its bucket.");
+      assertTrue(lUpperBound - lValue < lValue / 8.0, "Bucket of value " + lValue + " is too large.");
+      if (lIndex > 0) {
+        assertTrue(LatencyHistogram.getBucketUpperBound(lIndex - 1) < lValue, "Value " + lValue + " in wrong bucket.");
+      }
+    }
+
+    // Buckets follow each other without gaps.
+    int lLastIndex = LatencyHistogram.getBucketIndex(Long.MAX_VALUE);
+    for (int i = 1; i <= lLastIndex; i++) {
+      long lLowerBound = LatencyHistogram.getBucketUpperBound(i - 1) + 1;
+      assertEquals(i, LatencyHistogram.getBucketIndex(lLowerBound));
+    }
+  }
+
+  /**
+   * Method tests count, mean, maximum and percentiles of recorded values.
+   */
+  @Test
+  public void testPercentiles( ) {
+    LatencyHistogram lHistogram = new LatencyHistogram();
+    assertEquals(0, lHistogram.getCount());
+    assertEquals(0, lHistogram.getMean());
+    assertEquals(0, lHistogram.getValueAtPercentile(50));
+
+    for (int i = 1; i <= 1000; i++) {
+      lHistogram.record(i);
+    }
+    assertEquals(1000, lHistogram.getCount());
+    assertEquals(500, lHistogram.getMean());
+    assertEquals(1000, lHistogram.getMax());
+    assertEquals(1, lHistogram.getValueAtPercentile(0));
+    assertEquals(1000, lHistogram.getValueAtPercentile(100));
+    assertInRange(500, lHistogram.getValueAtPercentile(50));
+    assertInRange(900, lHistogram.getValueAtPercentile(90));
+    assertInRange(990, lHistogram.getValueAtPercentile(99));
+
+    // Negative values are recorded as 0.
+    lHistogram.record(-5);
+    assertEquals(1001, lHistogram.getCount());
+    assertEquals(0, lHistogram.getValueAtPercentile(0));
+
+    lHistogram.reset();
+    assertEquals(0, lHistogram.getCount());
+    assertEquals(0, lHistogram.getMax());
+    assertEquals(0, lHistogram.getValueAtPercentile(99));
+  }
+
+  /**
+   * Method checks that the passed percentile value is at least the expected value and below the upper bound of the
+   * bucket of the expected value.
+   *
+   * @param pExpected Exact value at the percentile.
+   * @param pActual Value that was returned by the histogram.
+   */
+  private static void assertInRange( long pExpected, long pActual ) {
+    long lUpperBound = LatencyHistogram.getBucketUpperBound(LatencyHistogram.getBucketIndex(pExpected));
+    assertTrue(pActual >= pExpected && pActual <= lUpperBound, "Unexpected percentile value " + pActual);
+  }
+}
@@ -0,0 +1,315 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.anaptecs.jeaf.core.api.MessageConstants;
+import com.anaptecs.jeaf.core.api.Service;
+import com.anaptecs.jeaf.core.servicechannel.JEAFCore;
+import com.anaptecs.jeaf.core.servicechannel.api.LifecycleManager;
+import com.anaptecs.jeaf.core.servicechannel.api.ServiceFactory;
+import com.anaptecs.jeaf.core.servicechannel.api.ServiceProxy;
+import com.anaptecs.jeaf.core.spi.ServiceImplementation;
+import com.anaptecs.jeaf.junit.core.GeneratorTestService;
+import com.anaptecs.jeaf.junit.core.JEAFTestService;
+import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFSystemException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+/**
+ * Class tests services that are registered lazily (see {@link LazyService}). Every test uses its own service registry.
+ * Instances and proxies are taken from the services that were created by JEAF so that the test only has to count how
+ * often they are created.
+ *
+ * @author JEAF Development Team
+ */
+public class LazyServiceTest {
+  /**
+   * Service factory counts how often instance and proxy of its service are created.
+   */
+  private static final class CountingServiceFactory extends ServiceFactory {
+    /**
+     * Service interface of the service.
+     */
+    private final Class<? extends Service> serviceType;
+
+    /**
+     * Number of created service instances.
+     */
+    final AtomicInteger createdInstances = new AtomicInteger();
+
+    /**
+     * Number of created service proxies.
+     */
+    final AtomicInteger createdProxies = new AtomicInteger();
+
+    /**
+     * Initialize object.
+     *
+     * @param pServiceType Service interface of the service. The parameter must not be null.
+     */
+    CountingServiceFactory( Class<? extends Service> pServiceType ) {
+      super(lifecycleManager.getComponent(lifecycleManager.getServiceRegistry().getServiceInstance(pServiceType)));
+      serviceType = pServiceType;
+    }
+
+    @Override
+    public Class<? extends Service> getServiceInterfaceClass( ) {
+      return serviceType;
+    }
+
+    @Override
+    public ServiceImplementation createServiceInstance( ) {
+      createdInstances.incrementAndGet();
+      return lifecycleManager.getServiceRegistry().getServiceInstance(serviceType);
+    }
+
+    @Override
+    public ServiceProxy createServiceProxy( ) {
+      createdProxies.incrementAndGet();
+      return lifecycleManager.getServiceRegistry().getServiceProxy(serviceType);
+    }
+  }
+
+  /**
+   * Lazy service injects the proxy of another service when its instance is initialized. Optionally initializations wait
+   * for each other so that they run concurrently.
+   */
+  private final class InjectingLazyService extends LazyService {
+    /**
+     * Service interface of the service whose proxy is injected.
+     */
+    private final Class<? extends Service> dependency;
+
+    /**
+     * Latch on which all initializations wait before they request their dependency. The reference may be null.
+     */
+    private final CountDownLatch initializationLatch;
+
+    /**
+     * Proxy that was injected into the service instance.
+     */
+    volatile ServiceProxy injectedProxy;
+
+    /**
+     * Initialize object.
+     *
+     * @param pServiceFactory Factory of the service. The parameter must not be null.
+     * @param pDependency Service interface of the service whose proxy is injected. The parameter must not be null.
+     * @param pInitializationLatch Latch on which all initializations wait. The parameter may be null.
+     */
+    InjectingLazyService( ServiceFactory pServiceFactory, Class<? extends Service> pDependency,
+        CountDownLatch pInitializationLatch ) {
+      super(pServiceFactory);
+      dependency = pDependency;
+      initializationLatch = pInitializationLatch;
+    }
+
+    @Override
+    protected void initializeServiceInstance( ServiceImplementation pServiceInstance ) {
+      if (initializationLatch != null) {
+        initializationLatch.countDown();
+        try {
+          initializationLatch.await(TIMEOUT, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      injectedProxy = registry.getServiceProxy(dependency);
+    }
+  }
+
+  /**
+   * Maximum time in seconds that a test waits for other threads.
+   */
+  private static final int TIMEOUT = 10;
+
+  /**
+   * Number of threads that access a service concurrently.
+   */
+  private static final int THREADS = 8;
+
+  /**
+   * Lifecycle manager of JEAF that provides instances and proxies of the services.
+   */
+  private static LifecycleManager lifecycleManager;
+
+  /**
+   * Executor that is used to access services concurrently.
+   */
+  private static ExecutorService executor;
+
+  /**
+   * Service registry that is used by the current test.
+   */
+  private ServiceRegistryImpl registry;
+
+  /**
+   * Method initializes JEAF before the tests are executed.
+   */
+  @BeforeAll
+  public static void initialize( ) {
+    TestCommand.resolveServiceChannel();
+    lifecycleManager = JEAFCore.getInstance().getLifecycleManager();
+    executor = Executors.newFixedThreadPool(THREADS);
+  }
+
+  /**
+   * Method stops all threads after all tests were executed.
+   */
+  @AfterAll
+  public static void shutdown( ) {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Method creates a new service registry for every test.
+   */
+  @BeforeEach
+  public void createRegistry( ) {
+    registry = new ServiceRegistryImpl();
+  }
+
+  /**
+   * Method tests that a lazily registered service is available before its instance and proxy are created and that they
+   * are only created once on first access.
+   */
+  @Test
+  public void testLazyRegistration( ) {
+    final CountingServiceFactory lFactory = new CountingServiceFactory(GeneratorTestService.class);
+    InjectingLazyService lLazyService = new InjectingLazyService(lFactory, GeneratorTestService.class, null);
+    registry.registerLazyService(lLazyService);
+
+    // Nothing was created during registration.
+    assertTrue(registry.isServiceAvailable(GeneratorTestService.class));
+    assertTrue(registry.getAvailableServiceClasses().contains(GeneratorTestService.class));
+    assertTrue(registry.getAllServiceInstances().isEmpty());
+    assertTrue(registry.getAllServiceProxies().isEmpty());
+    assertEquals(0, lFactory.createdInstances.get());
+    assertEquals(0, lFactory.createdProxies.get());
+
+    // Proxy is created without the instance.
+    ServiceProxy lProxy = registry.getServiceProxy(GeneratorTestService.class);
+    assertSame(lProxy, registry.getServiceProxy(GeneratorTestService.class));
+    assertEquals(1, lFactory.createdProxies.get());
+    assertNull(lLazyService.getCreatedServiceInstance());
+
+    // Instance is created and initialized once.
+    ServiceImplementation lInstance = registry.getServiceInstance(GeneratorTestService.class);
+    assertSame(lInstance, registry.getServiceInstance(GeneratorTestService.class));
+    assertEquals(1, lFactory.createdInstances.get());
+    assertSame(lProxy, lLazyService.injectedProxy);
+    assertTrue(registry.getAllServiceInstances().contains(lInstance));
+    assertTrue(registry.getAllServiceProxies().contains(lProxy));
+
+    // Service can not be registered twice.
+    JEAFSystemException lException = assertThrows(JEAFSystemException.class, new Executable() {
+      @Override
+      public void execute( ) {
+        registry.registerLazyService(new InjectingLazyService(lFactory, GeneratorTestService.class, null));
+      }
+    });
+    assertEquals(MessageConstants.SERVICE_INSTANCE_ALREADY_SET, lException.getErrorCode());
+  }
+
+  /**
+   * Method tests that instance and proxy of a lazily registered service are only created once if they are accessed by
+   * many threads at the same time.
+   */
+  @Test
+  public void testConcurrentFirstAccess( ) throws InterruptedException, ExecutionException, TimeoutException {
+    CountingServiceFactory lFactory = new CountingServiceFactory(GeneratorTestService.class);
+    registry.registerLazyService(new InjectingLazyService(lFactory, GeneratorTestService.class, null));
+
+    final CountDownLatch lStart = new CountDownLatch(1);
+    List<Future<Object[]>> lResults = new ArrayList<Future<Object[]>>();
+    for (int i = 0; i < THREADS; i++) {
+      lResults.add(executor.submit(new Callable<Object[]>() {
+        @Override
+        public Object[] call( ) throws InterruptedException {
+          lStart.await();
+          ServiceImplementation lInstance = registry.getServiceInstance(GeneratorTestService.class);
+          ServiceProxy lProxy = registry.getServiceProxy(GeneratorTestService.class);
+          return new Object[] { lInstance, lProxy };
+        }
+      }));
+    }
+    lStart.countDown();
+
+    Object[] lExpected = lResults.get(0).get(TIMEOUT, TimeUnit.SECONDS);
+    for (Future<Object[]> lResult : lResults) {
+      Object[] lActual = lResult.get(TIMEOUT, TimeUnit.SECONDS);
+      assertSame(lExpected[0], lActual[0]);
+      assertSame(lExpected[1], lActual[1]);
+    }
+    assertEquals(1, lFactory.createdInstances.get());
+    assertEquals(1, lFactory.createdProxies.get());
+  }
+
+  /**
+   * Method tests that two lazily registered services that depend on each other can be created at the same time by
+   * different threads. As only proxies are injected neither an endless recursion nor a deadlock occurs.
+   */
+  @Test
+  public void testCyclicInjection( ) throws InterruptedException, ExecutionException, TimeoutException {
+    // Test requires a second service that is provided by JEAF.
+    assumeTrue(lifecycleManager.getServiceRegistry().isServiceAvailable(JEAFTestService.class));
+
+    CountDownLatch lInitializationLatch = new CountDownLatch(2);
+    InjectingLazyService lFirstService = new InjectingLazyService(
+        new CountingServiceFactory(GeneratorTestService.class), JEAFTestService.class, lInitializationLatch);
+    InjectingLazyService lSecondService = new InjectingLazyService(new CountingServiceFactory(JEAFTestService.class),
+        GeneratorTestService.class, lInitializationLatch);
+    registry.registerLazyService(lFirstService);
+    registry.registerLazyService(lSecondService);
+
+    Future<ServiceImplementation> lFirstInstance = executor.submit(new Callable<ServiceImplementation>() {
+      @Override
+      public ServiceImplementation call( ) {
+        return registry.getServiceInstance(GeneratorTestService.class);
+      }
+    });
+    Future<ServiceImplementation> lSecondInstance = executor.submit(new Callable<ServiceImplementation>() {
+      @Override
+      public ServiceImplementation call( ) {
+        return registry.getServiceInstance(JEAFTestService.class);
+      }
+    });
+
+    // Both initializations ran at the same time and got the proxy of the other service.
+    ServiceImplementation lFirst = lFirstInstance.get(TIMEOUT, TimeUnit.SECONDS);
+    ServiceImplementation lSecond = lSecondInstance.get(TIMEOUT, TimeUnit.SECONDS);
+    assertSame(lFirstService.getCreatedServiceInstance(), lFirst);
+    assertSame(lSecondService.getCreatedServiceInstance(), lSecond);
+    assertEquals(0, lInitializationLatch.getCount());
+    assertSame(registry.getServiceProxy(JEAFTestService.class), lFirstService.injectedProxy);
+    assertSame(registry.getServiceProxy(GeneratorTestService.class), lSecondService.injectedProxy);
+    assertNotSame(lFirstService.injectedProxy, lSecondService.injectedProxy);
+  }
+}
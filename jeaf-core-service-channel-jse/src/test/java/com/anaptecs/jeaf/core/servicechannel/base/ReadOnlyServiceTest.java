@@ -0,0 +1,251 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.anaptecs.jeaf.core.api.JEAF;
+import com.anaptecs.jeaf.core.api.MessageConstants;
+import com.anaptecs.jeaf.core.api.TxContext;
+import com.anaptecs.jeaf.core.servicechannel.annotations.ReadOnly;
+import com.anaptecs.jeaf.core.spi.TransactionBehavior;
+import com.anaptecs.jeaf.core.spi.TransactionListener;
+import com.anaptecs.jeaf.junit.core.GeneratorTestService;
+import com.anaptecs.jeaf.xfun.api.errorhandling.ApplicationException;
+import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFSystemException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+/**
+ * Class tests the service channel for service methods that are marked as {@link ReadOnly}. As the service methods that
+ * are available to the tests are not annotated, the test replaces the invocation plan of the called service method by
+ * a read only copy.
+ *
+ * @author JEAF Development Team
+ */
+public class ReadOnlyServiceTest {
+  /**
+   * Listener records all events it is notified about.
+   */
+  private static final class RecordingListener
+      implements SynchronousTransactionListener, TransactionCompletionListener {
+    /**
+     * Events that were received by the listener.
+     */
+    final List<TransactionEvent> events = new ArrayList<TransactionEvent>();
+
+    @Override
+    public void startedTransaction( ) {
+      events.add(TransactionEvent.STARTED);
+    }
+
+    @Override
+    public void committingTransaction( ) {
+      events.add(TransactionEvent.COMMITTING);
+    }
+
+    @Override
+    public void rollbackingTransaction( ) {
+      events.add(TransactionEvent.ROLLBACKING);
+    }
+
+    @Override
+    public void completedTransaction( boolean pCommitted ) {
+      if (pCommitted == true) {
+        events.add(TransactionEvent.COMMITTED);
+      }
+      else {
+        events.add(TransactionEvent.ROLLED_BACK);
+      }
+    }
+  }
+
+  /**
+   * Action marks the transaction of the current service call for roll back without throwing an exception.
+   */
+  private static final class RollbackAction implements Runnable {
+    /**
+     * Attribute defines whether the action was executed.
+     */
+    boolean executed;
+
+    /**
+     * Transaction context of the service call in which the action was executed.
+     */
+    TxContext txContext;
+
+    @Override
+    public void run( ) {
+      executed = true;
+      txContext = JEAF.getContext().getTransactionContext();
+      txContext.setRollbackOnly();
+    }
+  }
+
+  /**
+   * Service channel that is used by the tests.
+   */
+  private static AbstractServiceChannel serviceChannel;
+
+  /**
+   * Listener that is notified during the tests.
+   */
+  private RecordingListener listener;
+
+  /**
+   * Configured transaction listeners of the service channel.
+   */
+  private Object configuredListeners;
+
+  /**
+   * Configured completion listeners of the service channel.
+   */
+  private Object configuredCompletionListeners;
+
+  /**
+   * Cached invocation plans of the called service method. The array is indexed by the ordinal of the transaction
+   * behavior.
+   */
+  private InvocationPlan[] methodPlans;
+
+  /**
+   * Invocation plan of the called service method with transaction behavior REQUIRED as it was created by the service
+   * channel.
+   */
+  private InvocationPlan configuredPlan;
+
+  /**
+   * Method initializes JEAF before the tests are executed.
+   */
+  @BeforeAll
+  public static void initialize( ) {
+    serviceChannel = TestCommand.resolveServiceChannel();
+  }
+
+  /**
+   * Method replaces the configured transaction listeners by a recording listener.
+   */
+  @BeforeEach
+  public void installListener( ) throws ReflectiveOperationException {
+    listener = new RecordingListener();
+    configuredListeners =
+        this.replaceField("synchronousTransactionListeners", new TransactionListener[] { listener });
+    configuredCompletionListeners = this.replaceField("completionListeners", new TransactionListener[] { listener });
+  }
+
+  /**
+   * Method restores the configuration of the service channel.
+   */
+  @AfterEach
+  public void restoreConfiguration( ) throws ReflectiveOperationException {
+    this.replaceField("synchronousTransactionListeners", configuredListeners);
+    this.replaceField("completionListeners", configuredCompletionListeners);
+    if (methodPlans != null) {
+      methodPlans[TransactionBehavior.REQUIRED.ordinal()] = configuredPlan;
+    }
+  }
+
+  /**
+   * Method tests that a service method that is not read only fails if it marks its transaction for roll back and that
+   * transaction listeners are notified about its transaction.
+   */
+  @Test
+  public void testReadWriteServiceMethod( ) {
+    JEAFSystemException lException = assertThrows(JEAFSystemException.class, new Executable() {
+      @Override
+      public void execute( ) throws Throwable {
+        serviceChannel.executeCommandTxRequired(TestCommand.executing(new RollbackAction()));
+      }
+    });
+    assertEquals(MessageConstants.TX_MARKED_FOR_ROLLBACK, lException.getErrorCode());
+    assertEquals(Arrays.asList(TransactionEvent.STARTED, TransactionEvent.ROLLBACKING, TransactionEvent.ROLLED_BACK),
+        listener.events);
+  }
+
+  /**
+   * Method tests that the rollback only state of the transaction of a read only service method is not checked and that
+   * transaction listeners are not notified about it.
+   */
+  @Test
+  public void testReadOnlyServiceMethod( ) throws ApplicationException, ReflectiveOperationException {
+    this.installReadOnlyPlan();
+    listener.events.clear();
+    RollbackAction lAction = new RollbackAction();
+    serviceChannel.executeCommandTxRequired(TestCommand.executing(lAction));
+
+    assertTrue(lAction.executed);
+    if (lAction.txContext instanceof ReadOnlyTxContext) {
+      assertTrue(((ReadOnlyTxContext) lAction.txContext).isReadOnly());
+    }
+    assertEquals(0, listener.events.size());
+  }
+
+  /**
+   * Method replaces the invocation plan of the called service method with transaction behavior REQUIRED by a read only
+   * copy. The original plan is restored after the test.
+   */
+  private void installReadOnlyPlan( ) throws ApplicationException, ReflectiveOperationException {
+    // Ensure that the invocation plan was created.
+    TestCommand lCommand = TestCommand.returning(null);
+    serviceChannel.executeCommandTxRequired(lCommand);
+    Method lServiceMethod = lCommand.getServiceMethod();
+
+    @SuppressWarnings("unchecked")
+    Map<Object, Map<Method, InvocationPlan[]>> lInvocationPlans =
+        (Map<Object, Map<Method, InvocationPlan[]>>) this.readField(AbstractServiceChannel.class, serviceChannel,
+            "invocationPlans");
+    methodPlans = lInvocationPlans.get(GeneratorTestService.class).get(lServiceMethod);
+    int lIndex = TransactionBehavior.REQUIRED.ordinal();
+    configuredPlan = methodPlans[lIndex];
+    TxContextTransition[] lTransitions =
+        (TxContextTransition[]) this.readField(InvocationPlan.class, configuredPlan, "txContextTransitions");
+    methodPlans[lIndex] = new InvocationPlan(configuredPlan.getTargetServiceClass(), lServiceMethod,
+        configuredPlan.getCalledServiceMethod(), configuredPlan.getTargetService(), configuredPlan.getComponent(),
+        configuredPlan.getInterceptorChain(), TransactionBehavior.REQUIRED, lTransitions, configuredPlan.getMetrics(),
+        true, configuredPlan.getTxTimeout());
+  }
+
+  /**
+   * Method reads the value of the passed field.
+   *
+   * @param pClass Class that declares the field. The parameter must not be null.
+   * @param pObject Object whose field should be read. The parameter must not be null.
+   * @param pFieldName Name of the field. The parameter must not be null.
+   * @return {@link Object} Current value of the field.
+   */
+  private Object readField( Class<?> pClass, Object pObject, String pFieldName ) throws ReflectiveOperationException {
+    Field lField = pClass.getDeclaredField(pFieldName);
+    lField.setAccessible(true);
+    return lField.get(pObject);
+  }
+
+  /**
+   * Method replaces the value of the passed field of the service channel.
+   *
+   * @param pFieldName Name of the field. The parameter must not be null.
+   * @param pValue New value of the field.
+   * @return {@link Object} Previous value of the field.
+   */
+  private Object replaceField( String pFieldName, Object pValue ) throws ReflectiveOperationException {
+    Field lField = AbstractServiceChannel.class.getDeclaredField(pFieldName);
+    lField.setAccessible(true);
+    Object lPreviousValue = lField.get(serviceChannel);
+    lField.set(serviceChannel, pValue);
+    return lPreviousValue;
+  }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.reflect.Field;
+
+import com.anaptecs.jeaf.core.api.JEAF;
+import com.anaptecs.jeaf.core.servicechannel.cache.ComponentResultCache;
+import com.anaptecs.jeaf.core.servicechannel.cache.ResultCacheTransactionListener;
+import com.anaptecs.jeaf.core.spi.TransactionListener;
+import com.anaptecs.jeaf.xfun.api.errorhandling.ApplicationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class tests that invalidations of the result cache are stored with their transaction and that results are not cached
+ * while the current transaction has pending invalidations.
+ *
+ * @author JEAF Development Team
+ */
+public class ResultCacheTest {
+  /**
+   * Service channel that is used by the tests.
+   */
+  private static AbstractServiceChannel serviceChannel;
+
+  /**
+   * Cache that is tested.
+   */
+  private static ComponentResultCache cache;
+
+  /**
+   * Configured completion listeners of the service channel.
+   */
+  private Object configuredCompletionListeners;
+
+  /**
+   * Method initializes JEAF before the tests are executed.
+   */
+  @BeforeAll
+  public static void initialize( ) {
+    serviceChannel = TestCommand.resolveServiceChannel();
+    cache = ComponentResultCache.getInstance();
+  }
+
+  /**
+   * Method installs the transaction listener of the result cache.
+   */
+  @BeforeEach
+  public void installListener( ) throws ReflectiveOperationException {
+    configuredCompletionListeners = this.replaceField("completionListeners",
+        new TransactionListener[] { new ResultCacheTransactionListener() });
+  }
+
+  /**
+   * Method restores the configuration of the service channel.
+   */
+  @AfterEach
+  public void restoreConfiguration( ) throws ReflectiveOperationException {
+    this.replaceField("completionListeners", configuredCompletionListeners);
+  }
+
+  /**
+   * Method tests that a result is not cached within the transaction that invalidated it and that it can be cached again
+   * once the transaction was committed.
+   */
+  @Test
+  public void testPutSkippedAfterInvalidation( ) throws ApplicationException {
+    final boolean[] lAttributeAware = new boolean[1];
+    final Object[] lResults = new Object[2];
+    serviceChannel.executeCommandTxRequired(TestCommand.executing(new Runnable() {
+      @Override
+      public void run( ) {
+        cache.put("key", "old");
+      }
+    }));
+    serviceChannel.executeCommandTxRequired(TestCommand.executing(new Runnable() {
+      @Override
+      public void run( ) {
+        lAttributeAware[0] = JEAF.getContext().getTransactionContext() instanceof AttributeAwareTxContext;
+        lResults[0] = cache.get("key");
+        cache.invalidate("key");
+        cache.put("key", "new");
+        lResults[1] = cache.get("key");
+      }
+    }));
+
+    // Test requires a transaction context that is able to store attributes.
+    assumeTrue(lAttributeAware[0]);
+    assertEquals("old", lResults[0]);
+    assertNull(lResults[1]);
+
+    serviceChannel.executeCommandTxRequired(TestCommand.executing(new Runnable() {
+      @Override
+      public void run( ) {
+        lResults[0] = cache.get("key");
+        cache.put("key", "new");
+        lResults[1] = cache.get("key");
+      }
+    }));
+    assertNull(lResults[0]);
+    assertEquals("new", lResults[1]);
+  }
+
+  /**
+   * Method replaces the value of the passed field of the service channel.
+   *
+   * @param pFieldName Name of the field. The parameter must not be null.
+   * @param pValue New value of the field. The parameter may be null.
+   * @return Object Previous value of the field. The method may return null.
+   */
+  private Object replaceField( String pFieldName, Object pValue ) throws ReflectiveOperationException {
+    Field lField = AbstractServiceChannel.class.getDeclaredField(pFieldName);
+    lField.setAccessible(true);
+    Object lPreviousValue = lField.get(serviceChannel);
+    lField.set(serviceChannel, pValue);
+    return lPreviousValue;
+  }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.anaptecs.jeaf.core.annotations.JEAFServiceProvider;
+import com.anaptecs.jeaf.core.api.ServiceProvider;
+import com.anaptecs.jeaf.core.spi.ServiceProviderImplementation;
+import com.anaptecs.jeaf.xfun.api.health.CheckLevel;
+import com.anaptecs.jeaf.xfun.api.health.HealthCheckResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+/**
+ * Class tests the order in which service providers are initialized.
+ *
+ * @author JEAF Development Team
+ */
+public class ServiceProviderStartupOrderTest {
+  /**
+   * Service provider without dependencies.
+   */
+  interface BaseProvider extends ServiceProvider {
+  }
+
+  /**
+   * Service provider that depends on {@link BaseProvider}.
+   */
+  interface DependentProvider extends ServiceProvider {
+  }
+
+  /**
+   * Service provider that depends on {@link CyclicProvider}.
+   */
+  interface OtherCyclicProvider extends ServiceProvider {
+  }
+
+  /**
+   * Service provider that depends on {@link OtherCyclicProvider}.
+   */
+  interface CyclicProvider extends ServiceProvider {
+  }
+
+  /**
+   * Base class of all test service provider implementations.
+   */
+  abstract static class TestProviderImpl implements ServiceProviderImplementation {
+    @Override
+    public void initialize( ) {
+      // Nothing to do.
+    }
+
+    @Override
+    public HealthCheckResult check( CheckLevel pCheckLevel ) {
+      return null;
+    }
+  }
+
+  /**
+   * Implementation of {@link BaseProvider}.
+   */
+  static class BaseProviderImpl extends TestProviderImpl implements BaseProvider {
+  }
+
+  /**
+   * Implementation of {@link DependentProvider}.
+   */
+  static class DependentProviderImpl extends TestProviderImpl implements DependentProvider {
+    /**
+     * Declared dependency.
+     */
+    @JEAFServiceProvider
+    private BaseProvider baseProvider;
+  }
+
+  /**
+   * Implementation of {@link CyclicProvider}.
+   */
+  static class CyclicProviderImpl extends TestProviderImpl implements CyclicProvider {
+    /**
+     * Declared dependency.
+     */
+    @JEAFServiceProvider
+    private OtherCyclicProvider otherProvider;
+  }
+
+  /**
+   * Implementation of {@link OtherCyclicProvider}.
+   */
+  static class OtherCyclicProviderImpl extends TestProviderImpl implements OtherCyclicProvider {
+    /**
+     * Declared dependency.
+     */
+    @JEAFServiceProvider
+    private CyclicProvider cyclicProvider;
+  }
+
+  /**
+   * Service providers have to be initialized after the ones they depend on even if they are configured before them.
+   */
+  @Test
+  public void testDependenciesAreInitializedFirst( ) {
+    Map<Class<? extends ServiceProvider>, ServiceProviderImplementation> lProviders = new LinkedHashMap<>();
+    lProviders.put(DependentProvider.class, new DependentProviderImpl());
+    lProviders.put(BaseProvider.class, new BaseProviderImpl());
+
+    List<List<Class<? extends ServiceProvider>>> lLevels = new ServiceProviderStartupOrder(lProviders).resolveLevels();
+    assertEquals(2, lLevels.size());
+    assertEquals(Arrays.asList(BaseProvider.class), lLevels.get(0));
+    assertEquals(Arrays.asList(DependentProvider.class), lLevels.get(1));
+  }
+
+  /**
+   * Cyclic dependencies between service providers have to be rejected.
+   */
+  @Test
+  public void testCyclicDependenciesAreRejected( ) {
+    Map<Class<? extends ServiceProvider>, ServiceProviderImplementation> lProviders = new LinkedHashMap<>();
+    lProviders.put(BaseProvider.class, new BaseProviderImpl());
+    lProviders.put(CyclicProvider.class, new CyclicProviderImpl());
+    lProviders.put(OtherCyclicProvider.class, new OtherCyclicProviderImpl());
+    final ServiceProviderStartupOrder lStartupOrder = new ServiceProviderStartupOrder(lProviders);
+
+    assertThrows(Throwable.class, new Executable() {
+      @Override
+      public void execute( ) {
+        lStartupOrder.resolveLevels();
+      }
+    });
+  }
+}
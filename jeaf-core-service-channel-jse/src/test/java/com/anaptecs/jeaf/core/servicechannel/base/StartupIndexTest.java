@@ -0,0 +1,177 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.anaptecs.jeaf.core.annotations.JEAFService;
+import com.anaptecs.jeaf.core.annotations.JEAFTrace;
+import com.anaptecs.jeaf.xfun.api.trace.Trace;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class tests the resolution of injection points from the startup index and the startup snapshot.
+ *
+ * @author JEAF Development Team
+ */
+public class StartupIndexTest {
+  /**
+   * Class with injection points that is used in the index entries of the tests.
+   */
+  static class IndexedClass {
+    /**
+     * First injection point.
+     */
+    @JEAFTrace
+    Trace trace;
+
+    /**
+     * Second injection point.
+     */
+    @JEAFService
+    Runnable service;
+
+    /**
+     * Field without annotation.
+     */
+    String name;
+  }
+
+  /**
+   * Method tests that the injection points of indexed classes are taken from the index. The index lists only one of
+   * the two annotated fields. If the fields of the class would be searched by reflection both would be returned.
+   */
+  @Test
+  public void testIndexedClassSkipsFieldSearch( ) {
+    StartupIndex lIndex = createIndex(IndexedClass.class.getName() + "=trace:JEAFTrace", null);
+
+    List<InjectionPoint> lInjectionPoints = lIndex.getInjectionPoints(IndexedClass.class);
+    assertNotNull(lInjectionPoints);
+    assertEquals(1, lInjectionPoints.size());
+    assertEquals("trace", lInjectionPoints.get(0).getField().getName());
+    assertEquals(JEAFTrace.class, lInjectionPoints.get(0).getAnnotation());
+  }
+
+  /**
+   * Method tests that classes without injection points can be indexed.
+   */
+  @Test
+  public void testEmptyEntry( ) {
+    StartupIndex lIndex = createIndex(IndexedClass.class.getName() + "=", null);
+    assertTrue(lIndex.getInjectionPoints(IndexedClass.class).isEmpty());
+  }
+
+  /**
+   * Method tests that classes that are not indexed have to be searched by reflection.
+   */
+  @Test
+  public void testClassNotIndexed( ) {
+    StartupIndex lIndex = createIndex(null, null);
+    assertNull(lIndex.getInjectionPoints(IndexedClass.class));
+  }
+
+  /**
+   * Method tests that entries of older index files that still contain a fingerprint are ignored.
+   */
+  @Test
+  public void testOldFormatEntry( ) {
+    StartupIndex lIndex = createIndex(IndexedClass.class.getName() + "=3.1a2b3c|trace:JEAFTrace", null);
+    assertNull(lIndex.getInjectionPoints(IndexedClass.class));
+  }
+
+  /**
+   * Method tests that index entries are ignored if the listed fields do not match the class.
+   */
+  @Test
+  public void testOutdatedEntry( ) {
+    // Field does not exist.
+    StartupIndex lIndex = createIndex(IndexedClass.class.getName() + "=logger:JEAFTrace", null);
+    assertNull(lIndex.getInjectionPoints(IndexedClass.class));
+
+    // Field is not annotated.
+    lIndex = createIndex(IndexedClass.class.getName() + "=name:JEAFService", null);
+    assertNull(lIndex.getInjectionPoints(IndexedClass.class));
+
+    // Unknown annotation.
+    lIndex = createIndex(IndexedClass.class.getName() + "=trace:JEAFLogger", null);
+    assertNull(lIndex.getInjectionPoints(IndexedClass.class));
+  }
+
+  /**
+   * Method tests that snapshot entries are only used as long as the class file of the class did not change.
+   */
+  @Test
+  public void testSnapshotEntry( ) {
+    String lStamp = StartupIndex.getClassFileStamp(IndexedClass.class);
+    assertNotNull(lStamp);
+
+    StartupIndex lIndex = createIndex(null, IndexedClass.class.getName() + "=" + lStamp + "|service:JEAFService");
+    List<InjectionPoint> lInjectionPoints = lIndex.getInjectionPoints(IndexedClass.class);
+    assertNotNull(lInjectionPoints);
+    assertEquals(1, lInjectionPoints.size());
+    assertEquals("service", lInjectionPoints.get(0).getField().getName());
+
+    // Stamp does not match the class file.
+    lIndex = createIndex(null, IndexedClass.class.getName() + "=1.1|service:JEAFService");
+    assertNull(lIndex.getInjectionPoints(IndexedClass.class));
+
+    // Entry without stamp.
+    lIndex = createIndex(null, IndexedClass.class.getName() + "=service:JEAFService");
+    assertNull(lIndex.getInjectionPoints(IndexedClass.class));
+  }
+
+  /**
+   * Method tests that index entries take precedence over snapshot entries.
+   */
+  @Test
+  public void testIndexPrecedence( ) {
+    String lStamp = StartupIndex.getClassFileStamp(IndexedClass.class);
+    StartupIndex lIndex = createIndex(IndexedClass.class.getName() + "=trace:JEAFTrace",
+        IndexedClass.class.getName() + "=" + lStamp + "|service:JEAFService");
+
+    List<InjectionPoint> lInjectionPoints = lIndex.getInjectionPoints(IndexedClass.class);
+    assertEquals(1, lInjectionPoints.size());
+    assertEquals("trace", lInjectionPoints.get(0).getField().getName());
+  }
+
+  /**
+   * Method creates a startup index with the passed entries.
+   *
+   * @param pIndexEntry Entry of the index files in properties format. The parameter may be null.
+   * @param pSnapshotEntry Entry of the startup snapshot in properties format. The parameter may be null.
+   * @return {@link StartupIndex} Created index. The method never returns null.
+   */
+  private static StartupIndex createIndex( String pIndexEntry, String pSnapshotEntry ) {
+    return new StartupIndex(toMap(pIndexEntry), toMap(pSnapshotEntry));
+  }
+
+  /**
+   * Method converts the passed entry into a map.
+   *
+   * @param pEntry Entry in properties format. The parameter may be null.
+   * @return {@link Map} Map with the entry. The method never returns null.
+   */
+  private static Map<String, String> toMap( String pEntry ) {
+    Map<String, String> lEntries;
+    if (pEntry != null) {
+      int lSeparator = pEntry.indexOf('=');
+      lEntries = new HashMap<String, String>();
+      lEntries.put(pEntry.substring(0, lSeparator), pEntry.substring(lSeparator + 1));
+    }
+    else {
+      lEntries = Collections.emptyMap();
+    }
+    return lEntries;
+  }
+}
@@ -0,0 +1,173 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+
+import com.anaptecs.jeaf.core.api.JEAF;
+import com.anaptecs.jeaf.core.api.MessageConstants;
+import com.anaptecs.jeaf.core.api.Service;
+import com.anaptecs.jeaf.core.servicechannel.JEAFCore;
+import com.anaptecs.jeaf.core.servicechannel.api.Command;
+import com.anaptecs.jeaf.junit.core.GeneratorTestService;
+import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFSystemException;
+
+/**
+ * Command that is used by the tests of the service channel. It calls service method
+ * <code>GeneratorTestService.doWhatIMean()</code> and then either returns a predefined result or throws a predefined
+ * runtime exception. Optionally an action is executed within the service call.
+ *
+ * @author JEAF Development Team
+ */
+final class TestCommand extends Command {
+  /**
+   * Default serial version uid.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Constant describes the service method that is called by this command.
+   */
+  private static final Method SERVICE_METHOD;
+
+  /**
+   * Empty parameter array as the called service method does not have any parameters.
+   */
+  private static final Object[] NO_PARAMETERS = new Object[] {};
+
+  static {
+    try {
+      SERVICE_METHOD = GeneratorTestService.class.getMethod("doWhatIMean");
+    }
+    catch (NoSuchMethodException e) {
+      throw new JEAFSystemException(MessageConstants.SERVICE_METHOD_DOES_NOT_EXIST, e,
+          GeneratorTestService.class.getName(), "doWhatIMean()");
+    }
+  }
+
+  /**
+   * Result that is returned by the command. The reference may be null.
+   */
+  private final Serializable result;
+
+  /**
+   * Exception that is thrown by the command. The reference may be null.
+   */
+  private final RuntimeException exception;
+
+  /**
+   * Action that is executed within the service call. The reference may be null.
+   */
+  private final transient Runnable action;
+
+  /**
+   * Initialize object.
+   *
+   * @param pResult Result that is returned by the command. The parameter may be null.
+   * @param pException Exception that is thrown by the command instead of returning a result. The parameter may be null.
+   * @param pAction Action that is executed within the service call. The parameter may be null.
+   */
+  private TestCommand( Serializable pResult, RuntimeException pException, Runnable pAction ) {
+    super(GeneratorTestService.class);
+    result = pResult;
+    exception = pException;
+    action = pAction;
+  }
+
+  /**
+   * Method creates a command that returns the passed result.
+   *
+   * @param pResult Result that is returned by the command. The parameter may be null.
+   * @return {@link TestCommand} Created command. The method never returns null.
+   */
+  static TestCommand returning( Serializable pResult ) {
+    return new TestCommand(pResult, null, null);
+  }
+
+  /**
+   * Method creates a command that executes the passed action within the service call and then returns the passed
+   * result.
+   *
+   * @param pResult Result that is returned by the command. The parameter may be null.
+   * @param pAction Action that is executed within the service call. The parameter must not be null.
+   * @return {@link TestCommand} Created command. The method never returns null.
+   */
+  static TestCommand returning( Serializable pResult, Runnable pAction ) {
+    return new TestCommand(pResult, null, pAction);
+  }
+
+  /**
+   * Method creates a command that throws the passed exception.
+   *
+   * @param pException Exception that is thrown by the command. The parameter must not be null.
+   * @return {@link TestCommand} Created command. The method never returns null.
+   */
+  static TestCommand throwing( RuntimeException pException ) {
+    return new TestCommand(null, pException, null);
+  }
+
+  /**
+   * Method creates a command that executes the passed action within the service call.
+   *
+   * @param pAction Action that is executed within the service call. The parameter must not be null.
+   * @return {@link TestCommand} Created command. The method never returns null.
+   */
+  static TestCommand executing( Runnable pAction ) {
+    return new TestCommand(null, null, pAction);
+  }
+
+  /**
+   * Method ensures that JEAF is initialized and returns its service channel.
+   *
+   * @return {@link AbstractServiceChannel} Service channel of JEAF. The method never returns null.
+   */
+  static AbstractServiceChannel resolveServiceChannel( ) {
+    // Accessing a service ensures that JEAF is completely initialized.
+    JEAF.getService(GeneratorTestService.class);
+    return (AbstractServiceChannel) JEAFCore.getInstance().getLifecycleManager().getServiceChannel();
+  }
+
+  /**
+   * Method executes the service call represented by this command object.
+   *
+   * @param pTargetService Reference to the service which should be called by this command. The parameter must not be
+   * null.
+   * @return Serializable Predefined result of the command. The method may return null.
+   */
+  @Override
+  public Serializable execute( Service pTargetService ) {
+    GeneratorTestService lService = (GeneratorTestService) pTargetService;
+    lService.doWhatIMean();
+    if (action != null) {
+      action.run();
+    }
+    if (exception != null) {
+      throw exception;
+    }
+    return result;
+  }
+
+  /**
+   * Method returns a method object describing the service method that will be called by this command object.
+   *
+   * @return {@link Method} Method object describing the called service method. The method never returns null.
+   */
+  @Override
+  public Method getServiceMethod( ) {
+    return SERVICE_METHOD;
+  }
+
+  /**
+   * Method returns all parameters that will be passed to the service.
+   *
+   * @return {@link Object} Empty array as the called service method does not have any parameters.
+   */
+  @Override
+  public Object[] getParameters( ) {
+    return NO_PARAMETERS;
+  }
+}
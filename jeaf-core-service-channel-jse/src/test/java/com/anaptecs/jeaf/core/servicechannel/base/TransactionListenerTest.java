@@ -0,0 +1,358 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.anaptecs.jeaf.core.api.JEAF;
+import com.anaptecs.jeaf.core.api.TxContext;
+import com.anaptecs.jeaf.core.servicechannel.unmanaged.LocalTxCoordinator;
+import com.anaptecs.jeaf.core.servicechannel.unmanaged.LocalTxResource;
+import com.anaptecs.jeaf.core.spi.TransactionListener;
+import com.anaptecs.jeaf.xfun.api.errorhandling.ApplicationException;
+import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFSystemException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+/**
+ * Class tests that transaction listeners are notified about all transactions that are started by the service channel
+ * independent of whether the transaction is started lazily or not. Listeners are told about commit or roll back before
+ * the transaction context is released. Completion listeners are also told about the final outcome.
+ *
+ * As transaction listeners are configured statically the test replaces the configured listeners of the service channel
+ * by a recording listener.
+ *
+ * @author JEAF Development Team
+ */
+public class TransactionListenerTest {
+  /**
+   * Listener records all events it is notified about.
+   */
+  private static class RecordingListener implements SynchronousTransactionListener, TransactionCompletionListener {
+    /**
+     * Events that were received by the listener.
+     */
+    final List<TransactionEvent> events = new ArrayList<TransactionEvent>();
+
+    @Override
+    public void startedTransaction( ) {
+      events.add(TransactionEvent.STARTED);
+    }
+
+    @Override
+    public void committingTransaction( ) {
+      events.add(TransactionEvent.COMMITTING);
+    }
+
+    @Override
+    public void rollbackingTransaction( ) {
+      events.add(TransactionEvent.ROLLBACKING);
+    }
+
+    @Override
+    public void completedTransaction( boolean pCommitted ) {
+      if (pCommitted == true) {
+        events.add(TransactionEvent.COMMITTED);
+      }
+      else {
+        events.add(TransactionEvent.ROLLED_BACK);
+      }
+    }
+  }
+
+  /**
+   * Listener fails when it is told that the transaction is committing.
+   */
+  private static final class FailingListener extends RecordingListener {
+    @Override
+    public void committingTransaction( ) {
+      super.committingTransaction();
+      throw new IllegalStateException("Listener failed.");
+    }
+  }
+
+  /**
+   * Resource records whether it was committed or rolled back.
+   */
+  private static final class RecordingTxResource implements LocalTxResource {
+    /**
+     * Attribute defines whether the resource was committed.
+     */
+    boolean committed;
+
+    /**
+     * Attribute defines whether the resource was rolled back.
+     */
+    boolean rolledBack;
+
+    @Override
+    public void begin( ) {
+      // Nothing to do.
+    }
+
+    @Override
+    public void prepare( ) {
+      // Nothing to do.
+    }
+
+    @Override
+    public void commit( ) {
+      committed = true;
+    }
+
+    @Override
+    public void rollback( ) {
+      rolledBack = true;
+    }
+  }
+
+  /**
+   * Resource whose commit always fails.
+   */
+  private static final class FailingTxResource implements LocalTxResource {
+    @Override
+    public void begin( ) {
+      // Nothing to do.
+    }
+
+    @Override
+    public void prepare( ) {
+      // Nothing to do.
+    }
+
+    @Override
+    public void commit( ) throws Exception {
+      throw new IllegalStateException("Commit failed.");
+    }
+
+    @Override
+    public void rollback( ) {
+      // Nothing to do.
+    }
+  }
+
+  /**
+   * Service channel that is used by the tests.
+   */
+  private static AbstractServiceChannel serviceChannel;
+
+  /**
+   * Listener that is notified during the tests.
+   */
+  private RecordingListener listener;
+
+  /**
+   * Configured transaction listeners of the service channel.
+   */
+  private Object configuredListeners;
+
+  /**
+   * Configured completion listeners of the service channel.
+   */
+  private Object configuredCompletionListeners;
+
+  /**
+   * Configured lazy transaction begin of the service channel.
+   */
+  private Object configuredLazyTxBegin;
+
+  /**
+   * Method initializes JEAF before the tests are executed.
+   */
+  @BeforeAll
+  public static void initialize( ) {
+    serviceChannel = TestCommand.resolveServiceChannel();
+  }
+
+  /**
+   * Method replaces the configured transaction listeners by a recording listener.
+   */
+  @BeforeEach
+  public void installListener( ) throws ReflectiveOperationException {
+    configuredListeners = this.readField("synchronousTransactionListeners");
+    configuredCompletionListeners = this.readField("completionListeners");
+    this.installListener(new RecordingListener());
+    configuredLazyTxBegin = this.readField("lazyTxBeginEnabled");
+  }
+
+  /**
+   * Method restores the configuration of the service channel.
+   */
+  @AfterEach
+  public void restoreConfiguration( ) throws ReflectiveOperationException {
+    this.replaceField("synchronousTransactionListeners", configuredListeners);
+    this.replaceField("completionListeners", configuredCompletionListeners);
+    this.replaceField("lazyTxBeginEnabled", configuredLazyTxBegin);
+  }
+
+  /**
+   * Method replaces the configured transaction listeners by the passed listener.
+   *
+   * @param pListener Listener that should be notified. The parameter must not be null.
+   */
+  private void installListener( RecordingListener pListener ) throws ReflectiveOperationException {
+    listener = pListener;
+    this.replaceField("synchronousTransactionListeners", new TransactionListener[] { pListener });
+    this.replaceField("completionListeners", new TransactionListener[] { pListener });
+  }
+
+  /**
+   * Method tests the notifications of a transaction that is committed.
+   */
+  @Test
+  public void testCommittedTransaction( ) throws ApplicationException {
+    serviceChannel.executeCommandTxRequired(TestCommand.returning("A"));
+    assertEquals(Arrays.asList(TransactionEvent.STARTED, TransactionEvent.COMMITTING, TransactionEvent.COMMITTED),
+        listener.events);
+  }
+
+  /**
+   * Method tests the notifications of a transaction that is rolled back.
+   */
+  @Test
+  public void testRolledBackTransaction( ) {
+    assertThrows(IllegalStateException.class, new Executable() {
+      @Override
+      public void execute( ) throws Throwable {
+        serviceChannel.executeCommandTxRequired(TestCommand.throwing(new IllegalStateException("Failed")));
+      }
+    });
+    assertEquals(Arrays.asList(TransactionEvent.STARTED, TransactionEvent.ROLLBACKING, TransactionEvent.ROLLED_BACK),
+        listener.events);
+  }
+
+  /**
+   * Method tests that listeners are told that the transaction is committing before the commit is performed. As the
+   * commit fails completion listeners are told about the roll back afterwards.
+   */
+  @Test
+  public void testFailedCommit( ) throws ApplicationException {
+    final boolean[] lCoordinated = new boolean[1];
+    Runnable lEnlistFailingResource = new Runnable() {
+      @Override
+      public void run( ) {
+        TxContext lTxContext = JEAF.getContext().getTransactionContext();
+        if (lTxContext instanceof LocalTxCoordinator) {
+          lCoordinated[0] = true;
+          ((LocalTxCoordinator) lTxContext).enlistResource(new FailingTxResource());
+        }
+      }
+    };
+    JEAFSystemException lException = null;
+    try {
+      serviceChannel.executeCommandTxRequired(TestCommand.executing(lEnlistFailingResource));
+    }
+    catch (JEAFSystemException e) {
+      lException = e;
+    }
+
+    // Test requires a service channel that coordinates local transactions.
+    assumeTrue(lCoordinated[0]);
+    assertNotNull(lException);
+    assertEquals(ServiceChannelMessages.RESOURCE_COMMIT_FAILED, lException.getErrorCode());
+    assertEquals(Arrays.asList(TransactionEvent.STARTED, TransactionEvent.COMMITTING, TransactionEvent.ROLLED_BACK),
+        listener.events);
+  }
+
+  /**
+   * Method tests that the transaction is rolled back if a synchronous listener fails while it is told that the
+   * transaction is committing.
+   */
+  @Test
+  public void testFailingListener( ) throws ReflectiveOperationException {
+    this.installListener(new FailingListener());
+    final RecordingTxResource lResource = new RecordingTxResource();
+    final boolean[] lCoordinated = new boolean[1];
+    final Runnable lEnlistResource = new Runnable() {
+      @Override
+      public void run( ) {
+        TxContext lTxContext = JEAF.getContext().getTransactionContext();
+        if (lTxContext instanceof LocalTxCoordinator) {
+          lCoordinated[0] = true;
+          ((LocalTxCoordinator) lTxContext).enlistResource(lResource);
+        }
+      }
+    };
+    assertThrows(IllegalStateException.class, new Executable() {
+      @Override
+      public void execute( ) throws Throwable {
+        serviceChannel.executeCommandTxRequired(TestCommand.executing(lEnlistResource));
+      }
+    });
+
+    // Test requires a service channel that coordinates local transactions.
+    assumeTrue(lCoordinated[0]);
+    assertFalse(lResource.committed);
+    assertTrue(lResource.rolledBack);
+    assertEquals(Arrays.asList(TransactionEvent.STARTED, TransactionEvent.COMMITTING, TransactionEvent.ROLLED_BACK),
+        listener.events);
+  }
+
+  /**
+   * Method tests that listeners are also notified about lazily started transactions that never used any resource.
+   */
+  @Test
+  public void testLazyTransactionWithoutResource( ) throws ApplicationException, ReflectiveOperationException {
+    this.replaceField("lazyTxBeginEnabled", Boolean.TRUE);
+    long lStartedTransactions = serviceChannel.getStatistics().getStartedTransactions();
+
+    serviceChannel.executeCommandTxRequired(TestCommand.returning("A"));
+    assertEquals(Arrays.asList(TransactionEvent.STARTED, TransactionEvent.COMMITTING, TransactionEvent.COMMITTED),
+        listener.events);
+
+    // Transaction was not started physically as no resource was used.
+    assertEquals(lStartedTransactions, serviceChannel.getStatistics().getStartedTransactions());
+  }
+
+  /**
+   * Method tests that listeners are not notified if no transaction is required.
+   */
+  @Test
+  public void testNoTransaction( ) throws ApplicationException {
+    serviceChannel.executeCommandTxNotSupported(TestCommand.returning("A"));
+    assertEquals(0, listener.events.size());
+  }
+
+  /**
+   * Method reads the value of the passed field of the service channel.
+   *
+   * @param pFieldName Name of the field. The parameter must not be null.
+   * @return {@link Object} Current value of the field.
+   */
+  private Object readField( String pFieldName ) throws ReflectiveOperationException {
+    Field lField = AbstractServiceChannel.class.getDeclaredField(pFieldName);
+    lField.setAccessible(true);
+    return lField.get(serviceChannel);
+  }
+
+  /**
+   * Method replaces the value of the passed field of the service channel.
+   *
+   * @param pFieldName Name of the field. The parameter must not be null.
+   * @param pValue New value of the field.
+   * @return {@link Object} Previous value of the field.
+   */
+  private Object replaceField( String pFieldName, Object pValue ) throws ReflectiveOperationException {
+    Field lField = AbstractServiceChannel.class.getDeclaredField(pFieldName);
+    lField.setAccessible(true);
+    Object lPreviousValue = lField.get(serviceChannel);
+    lField.set(serviceChannel, pValue);
+    return lPreviousValue;
+  }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.anaptecs.jeaf.core.spi.TransactionListener;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class tests the delivery of transaction notifications to asynchronous transaction listeners.
+ *
+ * @author JEAF Development Team
+ */
+public class TransactionNotificationTest {
+  /**
+   * Listener fails with an error for every event.
+   */
+  private static final class FailingListener implements TransactionListener {
+    @Override
+    public void startedTransaction( ) {
+      throw new Error("Listener failed.");
+    }
+
+    @Override
+    public void committingTransaction( ) {
+      throw new Error("Listener failed.");
+    }
+
+    @Override
+    public void rollbackingTransaction( ) {
+      throw new Error("Listener failed.");
+    }
+  }
+
+  /**
+   * Listener records the notification that was current when it was notified.
+   */
+  private static final class RecordingListener implements TransactionListener {
+    /**
+     * Events that were received by the listener.
+     */
+    private final List<TransactionEvent> events = new ArrayList<TransactionEvent>();
+
+    /**
+     * Attribute indicates whether a notification was current while the listener was notified.
+     */
+    private final List<Boolean> notificationAvailable = new ArrayList<Boolean>();
+
+    @Override
+    public void startedTransaction( ) {
+      this.record(TransactionEvent.STARTED);
+    }
+
+    @Override
+    public void committingTransaction( ) {
+      this.record(TransactionEvent.COMMITTING);
+    }
+
+    @Override
+    public void rollbackingTransaction( ) {
+      this.record(TransactionEvent.ROLLBACKING);
+    }
+
+    /**
+     * Method records the passed event.
+     *
+     * @param pEvent Received event.
+     */
+    private void record( TransactionEvent pEvent ) {
+      events.add(pEvent);
+      TransactionNotification lNotification = TransactionEventContext.setCurrentNotification(null);
+      TransactionEventContext.setCurrentNotification(lNotification);
+      notificationAvailable.add(lNotification != null);
+    }
+  }
+
+  /**
+   * Errors of one listener must neither prevent the notification of other listeners nor escape the delivery.
+   */
+  @Test
+  public void testErrorOfListenerDoesNotStopDelivery( ) {
+    RecordingListener lRecordingListener = new RecordingListener();
+    TransactionListener[] lListeners = new TransactionListener[] { new FailingListener(), lRecordingListener };
+    TransactionNotification lNotification =
+        new TransactionNotification(TransactionEvent.COMMITTING, lListeners, null, null);
+    lNotification.deliver();
+
+    assertEquals(1, lRecordingListener.events.size());
+    assertSame(TransactionEvent.COMMITTING, lRecordingListener.events.get(0));
+  }
+
+  /**
+   * The captured contexts have to be available to listeners only while they are notified.
+   */
+  @Test
+  public void testCapturedContextsAreAvailableDuringDelivery( ) {
+    RecordingListener lRecordingListener = new RecordingListener();
+    TransactionNotification lNotification = new TransactionNotification(TransactionEvent.STARTED,
+        new TransactionListener[] { lRecordingListener }, null, null);
+    lNotification.deliver();
+
+    assertEquals(Boolean.TRUE, lRecordingListener.notificationAvailable.get(0));
+    assertNull(TransactionEventContext.getTxContext());
+    assertNull(TransactionEventContext.getServiceInvocationContext());
+    assertNull(TransactionEventContext.setCurrentNotification(null));
+  }
+}
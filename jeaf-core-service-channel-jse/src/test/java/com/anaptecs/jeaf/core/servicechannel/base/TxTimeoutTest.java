@@ -0,0 +1,98 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.anaptecs.jeaf.core.api.TxContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class tests expiring and cancelling transaction timeouts.
+ *
+ * @author JEAF Development Team
+ */
+public class TxTimeoutTest {
+  /**
+   * Transaction context that only records whether it was marked for roll back.
+   */
+  private static final class TestTxContext extends TxContext {
+    /**
+     * Default serial version UID.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Attribute indicates whether the transaction was marked for roll back.
+     */
+    private boolean rollbackOnly;
+
+    @Override
+    public boolean getRollbackOnly( ) {
+      return rollbackOnly;
+    }
+
+    @Override
+    public void setRollbackOnly( ) {
+      rollbackOnly = true;
+    }
+  }
+
+  /**
+   * Method ensures that no test leaves the current thread interrupted.
+   */
+  @AfterEach
+  public void clearInterruptedState( ) {
+    Thread.interrupted();
+  }
+
+  /**
+   * If the timeout interrupted the thread then cancelling it has to clear the interrupted state again.
+   */
+  @Test
+  public void testCancelClearsInterruptOfTimeout( ) {
+    TestTxContext lTxContext = new TestTxContext();
+    TxTimeout lTimeout = new TxTimeout(lTxContext, 1000, true, new ServiceChannelStatistics());
+    lTimeout.expire();
+    assertTrue(lTxContext.getRollbackOnly());
+    assertTrue(Thread.currentThread().isInterrupted());
+
+    lTimeout.cancel();
+    assertFalse(Thread.currentThread().isInterrupted());
+  }
+
+  /**
+   * Interrupts that were not caused by the timeout must be kept when it is cancelled.
+   */
+  @Test
+  public void testCancelKeepsForeignInterrupt( ) {
+    TestTxContext lTxContext = new TestTxContext();
+    TxTimeout lTimeout = new TxTimeout(lTxContext, 1000, false, new ServiceChannelStatistics());
+    lTimeout.expire();
+    Thread.currentThread().interrupt();
+
+    lTimeout.cancel();
+    assertTrue(Thread.currentThread().isInterrupted());
+  }
+
+  /**
+   * Cancelled timeouts must not mark their transaction for roll back anymore.
+   */
+  @Test
+  public void testCancelledTimeoutDoesNotExpire( ) {
+    TestTxContext lTxContext = new TestTxContext();
+    TxTimeout lTimeout = new TxTimeout(lTxContext, 1000, true, new ServiceChannelStatistics());
+    lTimeout.cancel();
+    lTimeout.expire();
+
+    assertTrue(lTimeout.isCancelled());
+    assertFalse(lTimeout.isExpired());
+    assertFalse(lTxContext.getRollbackOnly());
+    assertFalse(Thread.currentThread().isInterrupted());
+  }
+}
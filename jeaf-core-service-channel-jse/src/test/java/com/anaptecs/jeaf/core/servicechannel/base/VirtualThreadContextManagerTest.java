@@ -0,0 +1,212 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.base;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.anaptecs.jeaf.core.api.JEAF;
+import com.anaptecs.jeaf.core.api.ServiceInvocationContext;
+import com.anaptecs.jeaf.core.api.TxContext;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class tests the context managers for virtual threads (see {@link VirtualThreadTransactionContextManagerImpl} and
+ * {@link VirtualThreadServiceInvocationContextManagerImpl}). The managers require valid contexts. Therefore the tests
+ * use the contexts of a running service call. The managers are called on worker threads so that they do not interfere
+ * with the context managers that are used by the service channel itself.
+ *
+ * @author JEAF Development Team
+ */
+public class VirtualThreadContextManagerTest {
+  /**
+   * Check is executed on a worker thread and sets and unsets the passed contexts through the context managers.
+   */
+  private static final class ContextCheck implements Callable<Void> {
+    /**
+     * Transaction context of the running service call.
+     */
+    private final TxContext txContext;
+
+    /**
+     * Service invocation context of the running service call.
+     */
+    private final ServiceInvocationContext serviceInvocationContext;
+
+    /**
+     * Initialize object.
+     *
+     * @param pTxContext Transaction context of the running service call. The parameter must not be null.
+     * @param pServiceInvocationContext Service invocation context of the running service call. The parameter must not
+     * be null.
+     */
+    ContextCheck( TxContext pTxContext, ServiceInvocationContext pServiceInvocationContext ) {
+      txContext = pTxContext;
+      serviceInvocationContext = pServiceInvocationContext;
+    }
+
+    @Override
+    public Void call( ) throws InterruptedException, ExecutionException {
+      // No contexts are available before they are set.
+      assertFalse(txContextManager.isTransactionContextAvailable());
+      assertFalse(serviceInvocationContextManager.isServiceInvocationContextAvailable());
+      assertNull(txContextManager.getCurrentTransactionContext());
+      assertNull(serviceInvocationContextManager.getCurrentServiceInvocationContext());
+      assertNull(readHolder());
+
+      // Both contexts share one holder.
+      txContextManager.setToCurrentTxContext(txContext);
+      serviceInvocationContextManager.setToCurrentServiceInvocationContext(serviceInvocationContext);
+      assertTrue(txContextManager.isTransactionContextAvailable());
+      assertTrue(serviceInvocationContextManager.isServiceInvocationContextAvailable());
+      assertSame(txContext, txContextManager.getCurrentTransactionContext());
+      assertSame(serviceInvocationContext, serviceInvocationContextManager.getCurrentServiceInvocationContext());
+      Object lHolder = readHolder();
+      assertNotNull(lHolder);
+
+      // Contexts are not visible to other threads.
+      assertNull(otherWorker.submit(new Callable<Object>() {
+        @Override
+        public Object call( ) {
+          assertFalse(txContextManager.isTransactionContextAvailable());
+          assertFalse(serviceInvocationContextManager.isServiceInvocationContextAvailable());
+          return readHolder();
+        }
+      }).get());
+
+      // Holder remains as long as one of the contexts is set.
+      txContextManager.unsetAsCurrentTxContext(txContext);
+      assertFalse(txContextManager.isTransactionContextAvailable());
+      assertTrue(serviceInvocationContextManager.isServiceInvocationContextAvailable());
+      assertSame(lHolder, readHolder());
+
+      // Holder is removed from the thread as soon as no context is set any longer.
+      serviceInvocationContextManager.unsetAsCurrentServiceInvocationContext(serviceInvocationContext);
+      assertFalse(serviceInvocationContextManager.isServiceInvocationContextAvailable());
+      assertNull(readHolder());
+
+      // The same works if the contexts are unset in the order in which they were set.
+      serviceInvocationContextManager.setToCurrentServiceInvocationContext(serviceInvocationContext);
+      txContextManager.setToCurrentTxContext(txContext);
+      serviceInvocationContextManager.unsetAsCurrentServiceInvocationContext(serviceInvocationContext);
+      assertSame(txContext, txContextManager.getCurrentTransactionContext());
+      assertNull(serviceInvocationContextManager.getCurrentServiceInvocationContext());
+      txContextManager.unsetAsCurrentTxContext(txContext);
+      assertNull(readHolder());
+      return null;
+    }
+  }
+
+  /**
+   * Service channel that is used by the tests.
+   */
+  private static AbstractServiceChannel serviceChannel;
+
+  /**
+   * Transaction context manager that is tested.
+   */
+  private static VirtualThreadTransactionContextManagerImpl txContextManager;
+
+  /**
+   * Service invocation context manager that is tested.
+   */
+  private static VirtualThreadServiceInvocationContextManagerImpl serviceInvocationContextManager;
+
+  /**
+   * Thread local of {@link ThreadContextHolder} that contains the holder of the current thread.
+   */
+  private static ThreadLocal<?> currentHolder;
+
+  /**
+   * Executor on which the context managers are called.
+   */
+  private static ExecutorService worker;
+
+  /**
+   * Executor that checks that contexts are not visible to other threads.
+   */
+  private static ExecutorService otherWorker;
+
+  /**
+   * Method initializes JEAF before the tests are executed.
+   */
+  @BeforeAll
+  public static void initialize( ) throws ReflectiveOperationException {
+    serviceChannel = TestCommand.resolveServiceChannel();
+    txContextManager = new VirtualThreadTransactionContextManagerImpl();
+    serviceInvocationContextManager = new VirtualThreadServiceInvocationContextManagerImpl();
+    Field lField = ThreadContextHolder.class.getDeclaredField("CURRENT");
+    lField.setAccessible(true);
+    currentHolder = (ThreadLocal<?>) lField.get(null);
+    worker = Executors.newSingleThreadExecutor();
+    otherWorker = Executors.newSingleThreadExecutor();
+  }
+
+  /**
+   * Method stops the worker threads after all tests were executed.
+   */
+  @AfterAll
+  public static void shutdown( ) {
+    worker.shutdownNow();
+    otherWorker.shutdownNow();
+  }
+
+  /**
+   * Method tests that contexts can be set and unset through the context managers, that they are only visible to the
+   * thread that set them and that the thread local entry is removed once no context is set any longer.
+   */
+  @Test
+  public void testContextLifecycle( ) throws Throwable {
+    final Throwable[] lFailure = new Throwable[1];
+    serviceChannel.executeCommandTxRequired(TestCommand.executing(new Runnable() {
+      @Override
+      public void run( ) {
+        TxContext lTxContext = JEAF.getContext().getTransactionContext();
+        ServiceInvocationContext lServiceInvocationContext = JEAF.getContext().getServiceInvocationContext();
+        try {
+          worker.submit(new ContextCheck(lTxContext, lServiceInvocationContext)).get();
+        }
+        catch (ExecutionException e) {
+          lFailure[0] = e.getCause();
+        }
+        catch (InterruptedException e) {
+          lFailure[0] = e;
+        }
+      }
+    }));
+    if (lFailure[0] != null) {
+      throw lFailure[0];
+    }
+
+    // Worker thread does not keep any context after the check.
+    assertNull(worker.submit(new Callable<Object>() {
+      @Override
+      public Object call( ) {
+        return readHolder();
+      }
+    }).get());
+  }
+
+  /**
+   * Method returns the holder of the current thread.
+   *
+   * @return {@link Object} Holder of the current thread or null if the thread does not have one.
+   */
+  private static Object readHolder( ) {
+    return currentHolder.get();
+  }
+}
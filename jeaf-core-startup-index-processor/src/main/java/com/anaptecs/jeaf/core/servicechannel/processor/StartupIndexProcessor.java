@@ -0,0 +1,165 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.processor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import com.anaptecs.jeaf.core.servicechannel.base.StartupIndex;
+
+/**
+ * Annotation processor generates the startup index of a module (see {@link StartupIndex}). The processor is only
+ * executed for modules that add this artifact to the annotation processors of their build. It indexes all classes that
+ * declare fields with one of the injection annotations of JEAF (see {@link StartupIndex#INJECTION_ANNOTATIONS}).
+ *
+ * The processor does not claim any annotations so that other processors are not affected. Incremental builds only
+ * process the changed classes. Therefore an existing index file of the module is merged with the new entries.
+ *
+ * @author JEAF Development Team
+ */
+public final class StartupIndexProcessor extends AbstractProcessor {
+  /**
+   * Injection points of all classes that were compiled. The binary name of the class is used as key.
+   */
+  private final Map<String, String> index = new TreeMap<String, String>();
+
+  /**
+   * Method returns the injection annotations of JEAF as only they are relevant for the startup index.
+   *
+   * @return {@link Set} Names of all injection annotations. The method never returns null.
+   */
+  @Override
+  public Set<String> getSupportedAnnotationTypes( ) {
+    Set<String> lAnnotationTypes = new LinkedHashSet<String>();
+    for (Class<? extends Annotation> lAnnotation : StartupIndex.INJECTION_ANNOTATIONS) {
+      lAnnotationTypes.add(lAnnotation.getName());
+    }
+    return lAnnotationTypes;
+  }
+
+  /**
+   * Method returns the latest supported source version as the processor does not depend on specific language features.
+   *
+   * @return {@link SourceVersion} Latest source version that is supported by the compiler.
+   */
+  @Override
+  public SourceVersion getSupportedSourceVersion( ) {
+    return SourceVersion.latestSupported();
+  }
+
+  /**
+   * Method indexes all classes of the current round that declare injection points. After the last round the index file
+   * is written.
+   *
+   * @param pAnnotations Annotations of the current round.
+   * @param pRoundEnvironment Environment of the current round.
+   * @return boolean Method always returns false as the processor does not claim any annotations.
+   */
+  @Override
+  public boolean process( Set<? extends TypeElement> pAnnotations, RoundEnvironment pRoundEnvironment ) {
+    if (pRoundEnvironment.processingOver() == false) {
+      for (TypeElement lAnnotation : pAnnotations) {
+        for (Element lElement : pRoundEnvironment.getElementsAnnotatedWith(lAnnotation)) {
+          Element lEnclosingElement = lElement.getEnclosingElement();
+          if (lElement.getKind() == ElementKind.FIELD && lEnclosingElement.getKind().isClass() == true) {
+            this.indexClass((TypeElement) lEnclosingElement);
+          }
+        }
+      }
+    }
+    else if (index.isEmpty() == false) {
+      this.writeIndex();
+    }
+    return false;
+  }
+
+  /**
+   * Method adds the injection points of the passed class to the index.
+   *
+   * @param pClass Class that should be indexed. The parameter must not be null.
+   */
+  private void indexClass( TypeElement pClass ) {
+    StringBuilder lInjectionPoints = new StringBuilder();
+    for (Element lElement : pClass.getEnclosedElements()) {
+      if (lElement.getKind() == ElementKind.FIELD) {
+        for (Class<? extends Annotation> lAnnotation : StartupIndex.INJECTION_ANNOTATIONS) {
+          if (lElement.getAnnotation(lAnnotation) != null) {
+            if (lInjectionPoints.length() > 0) {
+              lInjectionPoints.append(',');
+            }
+            lInjectionPoints.append(lElement.getSimpleName()).append(':').append(lAnnotation.getSimpleName());
+          }
+        }
+      }
+    }
+    index.put(processingEnv.getElementUtils().getBinaryName(pClass).toString(), lInjectionPoints.toString());
+  }
+
+  /**
+   * Method writes the index file of the module. Entries of an existing index file are kept unless their class was
+   * indexed again. If this fails a warning is reported, as the index is only an optimization.
+   */
+  private void writeIndex( ) {
+    try {
+      Map<String, String> lEntries = this.readExistingIndex();
+      lEntries.putAll(index);
+      FileObject lFile = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+          StartupIndex.STARTUP_INDEX_RESOURCE_NAME);
+      try (Writer lWriter = lFile.openWriter()) {
+        lWriter.write("# JEAF startup index generated by " + StartupIndexProcessor.class.getName() + "\n");
+        for (Map.Entry<String, String> lEntry : lEntries.entrySet()) {
+          lWriter.write(lEntry.getKey() + "=" + lEntry.getValue() + "\n");
+        }
+      }
+    }
+    catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+          "Unable to write JEAF startup index: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Method reads the index file that was written by a previous build of the module.
+   *
+   * @return {@link Map} Entries of the existing index file. The method returns an empty map if there is no such file.
+   */
+  private Map<String, String> readExistingIndex( ) {
+    Map<String, String> lEntries = new TreeMap<String, String>();
+    try {
+      FileObject lFile = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+          StartupIndex.STARTUP_INDEX_RESOURCE_NAME);
+      Properties lProperties = new Properties();
+      try (InputStream lInputStream = lFile.openInputStream()) {
+        lProperties.load(lInputStream);
+      }
+      for (String lClassName : lProperties.stringPropertyNames()) {
+        lEntries.put(lClassName, lProperties.getProperty(lClassName).trim());
+      }
+    }
+    // There is no index file from a previous build.
+    catch (IOException | IllegalArgumentException e) {
+      lEntries.clear();
+    }
+    return lEntries;
+  }
+}
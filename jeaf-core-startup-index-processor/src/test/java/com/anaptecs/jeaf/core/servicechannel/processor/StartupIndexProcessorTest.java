@@ -0,0 +1,165 @@
+/**
+ * Copyright 2004 - 2020 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.core.servicechannel.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import com.anaptecs.jeaf.core.annotations.JEAFService;
+import com.anaptecs.jeaf.core.servicechannel.base.StartupIndex;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class tests the generation of the startup index by compiling sources with {@link StartupIndexProcessor}.
+ *
+ * @author JEAF Development Team
+ */
+public class StartupIndexProcessorTest {
+  /**
+   * Class represents a source file that is kept in memory.
+   */
+  private static final class SourceFile extends SimpleJavaFileObject {
+    /**
+     * Content of the source file.
+     */
+    private final String content;
+
+    /**
+     * Initialize object.
+     *
+     * @param pClassName Fully qualified name of the class. The parameter must not be null.
+     * @param pContent Content of the source file. The parameter must not be null.
+     */
+    SourceFile( String pClassName, String pContent ) {
+      super(URI.create("string:///" + pClassName.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+      content = pContent;
+    }
+
+    @Override
+    public CharSequence getCharContent( boolean pIgnoreEncodingErrors ) {
+      return content;
+    }
+  }
+
+  /**
+   * Method tests that classes with injection points are indexed and all other classes are not.
+   */
+  @Test
+  public void testIndexGeneration( ) throws IOException {
+    Path lOutput = Files.createTempDirectory("StartupIndexProcessorTest");
+    compile(lOutput,
+        new SourceFile("test.Indexed",
+            "package test; import com.anaptecs.jeaf.core.annotations.*; public class Indexed {"
+                + " @JEAFService Runnable service; @JEAFTrace Object trace; String name;"
+                + " public static class Nested { @JEAFService Runnable service; } }"),
+        new SourceFile("test.NotIndexed", "package test; public class NotIndexed { Runnable service; }"));
+
+    Properties lIndex = readIndex(lOutput);
+    assertEquals(2, lIndex.size());
+    assertEquals("service:JEAFService,trace:JEAFTrace", lIndex.getProperty("test.Indexed"));
+    assertEquals("service:JEAFService", lIndex.getProperty("test.Indexed$Nested"));
+    assertFalse(lIndex.containsKey("test.NotIndexed"));
+  }
+
+  /**
+   * Method tests that an incremental build keeps the entries of classes that were not compiled again and replaces the
+   * entries of changed classes.
+   */
+  @Test
+  public void testIncrementalBuild( ) throws IOException {
+    Path lOutput = Files.createTempDirectory("StartupIndexProcessorTest");
+    compile(lOutput,
+        new SourceFile("test.First",
+            "package test; public class First { @com.anaptecs.jeaf.core.annotations.JEAFService Runnable a; }"),
+        new SourceFile("test.Second",
+            "package test; public class Second { @com.anaptecs.jeaf.core.annotations.JEAFService Runnable b; }"));
+    compile(lOutput, new SourceFile("test.Second",
+        "package test; public class Second { @com.anaptecs.jeaf.core.annotations.JEAFService Runnable c; }"));
+
+    Properties lIndex = readIndex(lOutput);
+    assertEquals(2, lIndex.size());
+    assertEquals("a:JEAFService", lIndex.getProperty("test.First"));
+    assertEquals("c:JEAFService", lIndex.getProperty("test.Second"));
+  }
+
+  /**
+   * Method tests that no index file is written if no class declares injection points.
+   */
+  @Test
+  public void testNoInjectionPoints( ) throws IOException {
+    Path lOutput = Files.createTempDirectory("StartupIndexProcessorTest");
+    compile(lOutput, new SourceFile("test.Plain", "package test; public class Plain { Runnable service; }"));
+    assertFalse(Files.exists(lOutput.resolve(StartupIndex.STARTUP_INDEX_RESOURCE_NAME)));
+  }
+
+  /**
+   * Method compiles the passed sources with the startup index processor.
+   *
+   * @param pOutput Directory to which the class files and the index are written. The parameter must not be null.
+   * @param pSources Sources that should be compiled. The parameter must not be null.
+   */
+  private static void compile( Path pOutput, SourceFile... pSources ) {
+    JavaCompiler lCompiler = ToolProvider.getSystemJavaCompiler();
+    assertNotNull(lCompiler, "Tests require a JDK.");
+
+    List<String> lOptions = new ArrayList<String>();
+    lOptions.addAll(Arrays.asList("-d", pOutput.toString(), "-classpath", getClasspath()));
+    List<JavaFileObject> lSources = new ArrayList<JavaFileObject>(Arrays.asList(pSources));
+    JavaCompiler.CompilationTask lTask = lCompiler.getTask(null, null, null, lOptions, null, lSources);
+    lTask.setProcessors(Collections.singletonList(new StartupIndexProcessor()));
+    assertTrue(lTask.call());
+  }
+
+  /**
+   * Method returns the classpath of the test extended by the location of the injection annotations, as the classpath
+   * of the test may only reference a manifest only jar.
+   *
+   * @return {@link String} Classpath for the compilation. The method never returns null.
+   */
+  private static String getClasspath( ) {
+    try {
+      File lAnnotations = new File(JEAFService.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+      return lAnnotations.getPath() + File.pathSeparator + System.getProperty("java.class.path");
+    }
+    catch (URISyntaxException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Method reads the index file from the passed output directory.
+   *
+   * @param pOutput Output directory of the compilation. The parameter must not be null.
+   * @return {@link Properties} Entries of the index file. The method never returns null.
+   */
+  private static Properties readIndex( Path pOutput ) throws IOException {
+    Properties lIndex = new Properties();
+    try (InputStream lInputStream = Files.newInputStream(pOutput.resolve(StartupIndex.STARTUP_INDEX_RESOURCE_NAME))) {
+      lIndex.load(lInputStream);
+    }
+    return lIndex;
+  }
+}